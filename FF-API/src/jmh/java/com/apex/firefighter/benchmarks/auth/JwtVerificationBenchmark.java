@@ -0,0 +1,76 @@
+package com.apex.firefighter.benchmarks.auth;
+
+import com.apex.firefighter.service.auth.JwtService;
+import com.apex.firefighter.service.auth.VerifiedToken;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.SecretKey;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of checking one custom JWT in JwtAuthenticationFilter. {@code perClaimParsing} repeats what
+ * the filter used to do: six separate checks, each building the signing key and parser and
+ * verifying the signature again. {@code verifyOnce} is the single JwtService.verifyCustomToken call
+ * the filter now makes with the cached key and parser.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-for-jwt-verification";
+    private static final String FIREBASE_UID = "firebase-uid-1042";
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = new JwtService(null);
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        token = jwtService.generateToken(FIREBASE_UID, "jdoe@example.com", true);
+    }
+
+    @Benchmark
+    public void perClaimParsing(Blackhole blackhole) {
+        // isCustomJwt, isTokenExpired, extractFirebaseUid, extractIsAdmin, then validateToken's two reads
+        blackhole.consume(parseWithNewKey().get("firebaseUid") != null);
+        blackhole.consume(parseWithNewKey().getExpiration().before(new Date()));
+        String firebaseUid = parseWithNewKey().get("firebaseUid", String.class);
+        blackhole.consume(parseWithNewKey().get("isAdmin", Boolean.class));
+        blackhole.consume(parseWithNewKey().get("firebaseUid", String.class).equals(firebaseUid)
+            && !parseWithNewKey().getExpiration().before(new Date()));
+    }
+
+    @Benchmark
+    public VerifiedToken verifyOnce() {
+        return jwtService.verifyCustomToken(token);
+    }
+
+    private Claims parseWithNewKey() {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes());
+        return Jwts.parser().verifyWith(key).build().parseSignedClaims(token).getPayload();
+    }
+}
@@ -0,0 +1,84 @@
+package com.apex.firefighter.benchmarks.email;
+
+import com.apex.firefighter.service.email.EmailTemplate;
+import com.apex.firefighter.service.email.EmailTemplates;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering throughput of the compiled email templates, using the same template and value
+ * combinations GmailEmailService sends: a ticket notification nested in the shared layout with
+ * optional rows, and a standalone registration request. Runs on several threads because each
+ * thread renders into its own reused buffer.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class EmailTemplateBenchmark {
+
+    private static final String GENERATED_ON = "March 04, 2025 at 10:15";
+
+    private EmailTemplates emailTemplates;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        emailTemplates = new EmailTemplates();
+    }
+
+    @Benchmark
+    public String ticketCreatedEmail() {
+        EmailTemplate.Fragment content = emailTemplates.fragment(EmailTemplates.Template.TICKET_CREATED,
+            "Hello, jdoe",
+            "TICKET-1042",
+            "Fire",
+            "March 04, 2025 at 09:58",
+            emailTemplates.infoItem("Duration", "60 minutes"),
+            emailTemplates.infoItem("Description", "Emergency access to the billing server"));
+        return emailTemplates.render(EmailTemplates.Template.NOTIFICATION_LAYOUT, "Ticket Created", content, GENERATED_ON);
+    }
+
+    @Benchmark
+    public String ticketExpiringEmail() {
+        EmailTemplate.Fragment content = emailTemplates.fragment(EmailTemplates.Template.TICKET_EXPIRING,
+            "Hello, jdoe",
+            "TICKET-1042",
+            "Fire",
+            "March 04, 2025 at 09:58",
+            "March 04, 2025 at 10:58",
+            60);
+        return emailTemplates.render(EmailTemplates.Template.NOTIFICATION_LAYOUT, "Ticket Expiring Soon", content, GENERATED_ON);
+    }
+
+    @Benchmark
+    public String registrationRequestEmail() {
+        return emailTemplates.render(EmailTemplates.Template.REGISTRATION_REQUEST,
+            "Admin User",
+            "newuser",
+            "newuser@example.com",
+            "Fire Department",
+            "+27123456789",
+            "GOOGLE",
+            "priority-high",
+            "HIGH",
+            emailTemplates.fragment(EmailTemplates.Template.REGISTRATION_INFO_ROW,
+                "Requested Access", String.join(", ", List.of("FIRE_DEPT", "EMERGENCY_RESPONSE"))),
+            EmailTemplate.EMPTY);
+    }
+}
@@ -0,0 +1,241 @@
+package com.apex.firefighter.benchmarks.nlp;
+
+import com.apex.firefighter.config.NLPConfig;
+import com.apex.firefighter.model.Ticket;
+import com.apex.firefighter.model.User;
+import com.apex.firefighter.repository.TicketRepository;
+import com.apex.firefighter.repository.UserRepository;
+import com.apex.firefighter.service.AnomalyNotificationService;
+import com.apex.firefighter.service.DolibarrSyncQueue;
+import com.apex.firefighter.service.GmailEmailService;
+import com.apex.firefighter.service.NotificationService;
+import com.apex.firefighter.service.UserService;
+import com.apex.firefighter.service.anomaly.AnomalyDetectionService;
+import com.apex.firefighter.service.nlp.EntityExtractionService;
+import com.apex.firefighter.service.nlp.IntentRecognitionService;
+import com.apex.firefighter.service.nlp.NLPResultCache;
+import com.apex.firefighter.service.nlp.NLPService;
+import com.apex.firefighter.service.nlp.QueryProcessingService;
+import com.apex.firefighter.service.nlp.ResponseGenerationService;
+import com.apex.firefighter.service.nlp.UsernameDictionary;
+import com.apex.firefighter.service.ticket.TicketExpiryScheduler;
+import com.apex.firefighter.service.ticket.TicketService;
+import com.apex.firefighter.service.ticket.TicketStatisticsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Microbenchmarks for each stage of the chatbot NLP pipeline and for the end-to-end
+ * NLPService.processQuery call, cycling through the JMeter NLP query corpus.
+ * processQueryCached runs the same call with the NLP result cache in front of the pipeline.
+ *
+ * Real NLP services are wired by hand around a real TicketService; only the repositories,
+ * notification collaborators and UserService are mocked, so no database or Spring context is needed.
+ * Throughput mode reports ops/s, SampleTime mode reports the latency percentiles (p0.99),
+ * and the exec:exec run in the "benchmarks" profile adds the allocation rate via -prof gc.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NlpPipelineBenchmark {
+
+    private static final int TICKET_COUNT = 500;
+    private static final String USER_ID = "bench-user";
+    private static final String ADMIN_ID = "bench-admin";
+
+    @State(Scope.Benchmark)
+    public static class Pipeline {
+
+        IntentRecognitionService intentRecognitionService;
+        EntityExtractionService entityExtractionService;
+        QueryProcessingService queryProcessingService;
+        ResponseGenerationService responseGenerationService;
+        NLPService nlpService;
+        NLPService cachedNlpService;
+
+        List<NlpQueryCorpus.CorpusQuery> queries;
+        // Per-query outputs of the earlier stages, so each stage can be measured on its own
+        List<QueryProcessingService.QueryResult> queryResults;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            queries = NlpQueryCorpus.load();
+
+            NLPConfig nlpConfig = new NLPConfig();
+            ReflectionTestUtils.setField(nlpConfig, "intentConfidenceThreshold", 0.7);
+            ReflectionTestUtils.setField(nlpConfig, "entityConfidenceThreshold", 0.6);
+            ReflectionTestUtils.setField(nlpConfig, "maxResponseLength", 1000);
+            ReflectionTestUtils.setField(nlpConfig, "maxQueryLength", 500);
+            ReflectionTestUtils.setField(nlpConfig, "maxQueryResults", 100);
+            ReflectionTestUtils.setField(nlpConfig, "debugEnabled", false);
+            ReflectionTestUtils.setField(nlpConfig, "cacheEnabled", true);
+            ReflectionTestUtils.setField(nlpConfig, "cacheTtlSeconds", 300);
+            ReflectionTestUtils.setField(nlpConfig, "queryCacheMaxEntries", 10000);
+            ReflectionTestUtils.setField(nlpConfig, "resultCacheMaxEntries", 5000);
+
+            TicketRepository ticketRepository = mockTicketRepository();
+            TicketStatisticsService ticketStatisticsService = new TicketStatisticsService(ticketRepository);
+            TicketService ticketService = new TicketService(ticketRepository, mock(NotificationService.class),
+                mock(DolibarrSyncQueue.class), mock(UserRepository.class), mock(AnomalyDetectionService.class),
+                mock(AnomalyNotificationService.class), mock(TicketExpiryScheduler.class), mock(NLPResultCache.class),
+                ticketStatisticsService);
+            UserService userService = mockUserService();
+
+            intentRecognitionService = new IntentRecognitionService();
+            ReflectionTestUtils.setField(intentRecognitionService, "nlpConfig", nlpConfig);
+
+            entityExtractionService = new EntityExtractionService();
+            ReflectionTestUtils.setField(entityExtractionService, "nlpConfig", nlpConfig);
+            ReflectionTestUtils.setField(entityExtractionService, "ticketService", ticketService);
+            UsernameDictionary usernameDictionary = new UsernameDictionary(userService);
+            usernameDictionary.load();
+            ReflectionTestUtils.setField(entityExtractionService, "usernameDictionary", usernameDictionary);
+            entityExtractionService.init();
+
+            queryProcessingService = new QueryProcessingService();
+            ReflectionTestUtils.setField(queryProcessingService, "ticketService", ticketService);
+            ReflectionTestUtils.setField(queryProcessingService, "ticketStatisticsService", ticketStatisticsService);
+            ReflectionTestUtils.setField(queryProcessingService, "nlpConfig", nlpConfig);
+            ReflectionTestUtils.setField(queryProcessingService, "intentRecognitionService", intentRecognitionService);
+            ReflectionTestUtils.setField(queryProcessingService, "gmailEmailService", mock(GmailEmailService.class));
+            ReflectionTestUtils.setField(queryProcessingService, "userService", userService);
+
+            responseGenerationService = new ResponseGenerationService();
+
+            nlpService = new NLPService();
+            nlpService.setIntentRecognitionService(intentRecognitionService);
+            nlpService.setEntityExtractionService(entityExtractionService);
+            nlpService.setQueryProcessingService(queryProcessingService);
+            nlpService.setResponseGenerationService(responseGenerationService);
+            nlpService.setUserService(userService);
+
+            cachedNlpService = new NLPService();
+            cachedNlpService.setIntentRecognitionService(intentRecognitionService);
+            cachedNlpService.setEntityExtractionService(entityExtractionService);
+            cachedNlpService.setQueryProcessingService(queryProcessingService);
+            cachedNlpService.setResponseGenerationService(responseGenerationService);
+            cachedNlpService.setUserService(userService);
+            cachedNlpService.setResultCache(new NLPResultCache(nlpConfig));
+
+            queryResults = new ArrayList<>(queries.size());
+            for (NlpQueryCorpus.CorpusQuery query : queries) {
+                IntentRecognitionService.Intent intent = intentRecognitionService.recognizeIntent(query.getQuery());
+                EntityExtractionService.ExtractedEntities entities = entityExtractionService.extractEntities(query.getQuery());
+                queryResults.add(queryProcessingService.processQuery(intent, entities, userIdFor(query), query.isAdmin()));
+            }
+        }
+
+        private static TicketRepository mockTicketRepository() {
+            List<Ticket> tickets = new ArrayList<>(TICKET_COUNT);
+            String[] statuses = {"Active", "Completed", "Closed", "Rejected"};
+            String[] types = {"hr-emergency", "financial-emergency", "management-emergency", "logistics-emergency"};
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < TICKET_COUNT; i++) {
+                Ticket ticket = new Ticket("FF-2024-" + String.format("%03d", i), "Benchmark ticket " + i,
+                    statuses[i % statuses.length], i % 2 == 0 ? USER_ID : ADMIN_ID, types[i % types.length], "0123456789");
+                ticket.setDateCreated(now.minusHours(i));
+                tickets.add(ticket);
+            }
+
+            TicketRepository ticketRepository = mock(TicketRepository.class);
+            when(ticketRepository.findAll()).thenReturn(tickets);
+            when(ticketRepository.findByUserId(anyString())).thenAnswer(invocation -> tickets.stream()
+                .filter(ticket -> invocation.getArgument(0).equals(ticket.getUserId())).toList());
+            when(ticketRepository.findByStatus(anyString())).thenAnswer(invocation -> tickets.stream()
+                .filter(ticket -> invocation.getArgument(0).equals(ticket.getStatus())).toList());
+            when(ticketRepository.findByTicketId(anyString())).thenAnswer(invocation -> tickets.stream()
+                .filter(ticket -> invocation.getArgument(0).equals(ticket.getTicketId())).findFirst());
+            // Specifications need a database to evaluate, so ticket listings see the whole corpus; TicketService still applies the limit
+            when(ticketRepository.findBy(any(Specification.class), any())).thenReturn(tickets);
+            return ticketRepository;
+        }
+
+        private static UserService mockUserService() {
+            User user = new User(USER_ID, "bench.user", "bench.user@example.com", "IT");
+            user.setRole("USER");
+            User admin = new User(ADMIN_ID, "bench.admin", "bench.admin@example.com", "IT");
+            admin.setRole("ADMIN");
+            admin.setIsAdmin(true);
+
+            UserService userService = mock(UserService.class);
+            when(userService.getAuthorizedUsers()).thenReturn(List.of(user, admin));
+            when(userService.getUserRole(USER_ID)).thenReturn("USER");
+            when(userService.getUserRole(ADMIN_ID)).thenReturn("ADMIN");
+            when(userService.getUserWithRoles(USER_ID)).thenReturn(Optional.of(user));
+            when(userService.getUserWithRoles(ADMIN_ID)).thenReturn(Optional.of(admin));
+            return userService;
+        }
+    }
+
+    /**
+     * Walks the corpus round-robin, one query per benchmark invocation
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+
+        int nextIndex(int size) {
+            int index = next;
+            next = index + 1 == size ? 0 : index + 1;
+            return index;
+        }
+    }
+
+    @Benchmark
+    public IntentRecognitionService.Intent recognizeIntent(Pipeline pipeline, Cursor cursor) {
+        NlpQueryCorpus.CorpusQuery query = pipeline.queries.get(cursor.nextIndex(pipeline.queries.size()));
+        return pipeline.intentRecognitionService.recognizeIntent(query.getQuery());
+    }
+
+    @Benchmark
+    public EntityExtractionService.ExtractedEntities extractEntities(Pipeline pipeline, Cursor cursor) {
+        NlpQueryCorpus.CorpusQuery query = pipeline.queries.get(cursor.nextIndex(pipeline.queries.size()));
+        return pipeline.entityExtractionService.extractEntities(query.getQuery());
+    }
+
+    @Benchmark
+    public String generateResponse(Pipeline pipeline, Cursor cursor) {
+        QueryProcessingService.QueryResult result = pipeline.queryResults.get(cursor.nextIndex(pipeline.queryResults.size()));
+        return pipeline.responseGenerationService.generateResponse(result);
+    }
+
+    @Benchmark
+    public NLPService.NLPResponse processQuery(Pipeline pipeline, Cursor cursor) {
+        NlpQueryCorpus.CorpusQuery query = pipeline.queries.get(cursor.nextIndex(pipeline.queries.size()));
+        return pipeline.nlpService.processQuery(query.getQuery(), userIdFor(query), query.isAdmin());
+    }
+
+    @Benchmark
+    public NLPService.NLPResponse processQueryCached(Pipeline pipeline, Cursor cursor) {
+        NlpQueryCorpus.CorpusQuery query = pipeline.queries.get(cursor.nextIndex(pipeline.queries.size()));
+        return pipeline.cachedNlpService.processQuery(query.getQuery(), userIdFor(query), query.isAdmin());
+    }
+
+    private static String userIdFor(NlpQueryCorpus.CorpusQuery query) {
+        return query.isAdmin() ? ADMIN_ID : USER_ID;
+    }
+}
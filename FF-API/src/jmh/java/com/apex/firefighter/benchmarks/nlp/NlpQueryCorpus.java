@@ -0,0 +1,92 @@
+package com.apex.firefighter.benchmarks.nlp;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Chatbot queries used to drive the NLP benchmarks, read from the JMeter test data
+ * (jmeter-testing/ff-api-tests/test-data/nlp-queries.csv) so both suites exercise the same traffic.
+ * The file location can be overridden with -Dnlp.corpus=...
+ */
+public final class NlpQueryCorpus {
+
+    private static final String CORPUS_PROPERTY = "nlp.corpus";
+    private static final String DEFAULT_CORPUS = "../jmeter-testing/ff-api-tests/test-data/nlp-queries.csv";
+
+    private NlpQueryCorpus() {
+    }
+
+    public static List<CorpusQuery> load() {
+        Path path = Paths.get(System.getProperty(CORPUS_PROPERTY, DEFAULT_CORPUS));
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read NLP query corpus from " + path.toAbsolutePath(), e);
+        }
+
+        List<CorpusQuery> queries = new ArrayList<>();
+        // First line is the "query,userType" header
+        for (int i = 1; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (!line.isEmpty()) {
+                queries.add(parseLine(line));
+            }
+        }
+        if (queries.isEmpty()) {
+            throw new IllegalStateException("NLP query corpus " + path.toAbsolutePath() + " contains no queries");
+        }
+        return Collections.unmodifiableList(queries);
+    }
+
+    private static CorpusQuery parseLine(String line) {
+        String query;
+        String rest;
+        if (line.startsWith("\"")) {
+            // Quoted field; a doubled quote is an escaped quote
+            StringBuilder value = new StringBuilder();
+            int i = 1;
+            while (i < line.length()) {
+                char c = line.charAt(i);
+                if (c == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i += 2;
+                        continue;
+                    }
+                    break;
+                }
+                value.append(c);
+                i++;
+            }
+            query = value.toString();
+            int comma = line.indexOf(',', i);
+            rest = comma >= 0 ? line.substring(comma + 1) : "";
+        } else {
+            int comma = line.indexOf(',');
+            query = comma >= 0 ? line.substring(0, comma) : line;
+            rest = comma >= 0 ? line.substring(comma + 1) : "";
+        }
+        return new CorpusQuery(query, "admin".equalsIgnoreCase(rest.trim()));
+    }
+
+    public static final class CorpusQuery {
+        private final String query;
+        private final boolean admin;
+
+        CorpusQuery(String query, boolean admin) {
+            this.query = query;
+            this.admin = admin;
+        }
+
+        public String getQuery() { return query; }
+        public boolean isAdmin() { return admin; }
+    }
+}
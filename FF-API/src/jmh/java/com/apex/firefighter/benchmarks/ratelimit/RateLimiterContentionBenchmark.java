@@ -0,0 +1,68 @@
+package com.apex.firefighter.benchmarks.ratelimit;
+
+import com.apex.firefighter.service.RequestRateLimiter;
+import com.apex.firefighter.service.RequestRateLimiter.Decision;
+import com.apex.firefighter.service.RequestRateLimiter.Endpoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * RequestRateLimiter.tryAcquire from 64 threads at once. {@code sharedClient} sends every call to
+ * one bucket with a limit too high to reach, so all threads race on the same compare-and-set.
+ * {@code clientPerThread} gives each thread its own bucket, the usual case of many users.
+ * {@code limitedClient} is one client far over its limit, which is answered without a write.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class RateLimiterContentionBenchmark {
+
+    private RequestRateLimiter unreachableLimits;
+    private RequestRateLimiter defaultLimits;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        unreachableLimits = new RequestRateLimiter(true, Integer.MAX_VALUE, Integer.MAX_VALUE,
+            Integer.MAX_VALUE, Integer.MAX_VALUE, 10_000, System::nanoTime);
+        defaultLimits = new RequestRateLimiter(true, 10, 30, 30, 120, 10_000, System::nanoTime);
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+        final String key = "user:firebase-uid-" + NEXT_ID.getAndIncrement();
+    }
+
+    @Benchmark
+    public Decision sharedClient() {
+        return unreachableLimits.tryAcquire(Endpoint.NLP_QUERY, "user:firebase-uid-shared", false);
+    }
+
+    @Benchmark
+    public Decision clientPerThread(Client client) {
+        return unreachableLimits.tryAcquire(Endpoint.NLP_QUERY, client.key, false);
+    }
+
+    @Benchmark
+    public Decision limitedClient() {
+        return defaultLimits.tryAcquire(Endpoint.TICKET_CREATION, "user:firebase-uid-shared", false);
+    }
+}
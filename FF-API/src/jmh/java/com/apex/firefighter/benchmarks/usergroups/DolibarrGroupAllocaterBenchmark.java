@@ -0,0 +1,76 @@
+package com.apex.firefighter.benchmarks.usergroups;
+
+import com.apex.firefighter.config.DoliGroupConfig;
+import com.apex.firefighter.config.DolibarrPermissionsConfig;
+import com.apex.firefighter.service.DolibarrGroupAllocater;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DolibarrGroupAllocater lookups over the full permission vocabulary, one operation being a pass
+ * over every permission. {@code allocateByDescription} resolves ticket descriptions that start with
+ * the permission, as submitted tickets do. {@code reverseLookup} maps each group ID back to its
+ * permission, as GroupChangeNotificationService does when naming a group.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DolibarrGroupAllocaterBenchmark {
+
+    private DolibarrGroupAllocater allocater;
+    private List<String> descriptions;
+    private List<Integer> groupIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IllegalAccessException {
+        DolibarrPermissionsConfig permissionsConfig = new DolibarrPermissionsConfig();
+        // Give every configured permission its own group ID, like the Dolibarr setup does (12..84)
+        int nextGroupId = 12;
+        for (Field field : DolibarrPermissionsConfig.class.getDeclaredFields()) {
+            if (field.getType() == Integer.class) {
+                field.setAccessible(true);
+                field.set(permissionsConfig, nextGroupId++);
+            }
+        }
+        allocater = new DolibarrGroupAllocater(new DoliGroupConfig(), permissionsConfig);
+
+        descriptions = new ArrayList<>();
+        groupIds = new ArrayList<>();
+        for (String permission : DolibarrGroupAllocater.getPermissionVocabulary()) {
+            descriptions.add(permission + " Need access to resolve an open incident");
+            groupIds.add(allocater.getPermissionGroupId(permission));
+        }
+    }
+
+    @Benchmark
+    public void allocateByDescription(Blackhole blackhole) {
+        for (String description : descriptions) {
+            blackhole.consume(allocater.allocateByDescription(description));
+        }
+    }
+
+    @Benchmark
+    public void reverseLookup(Blackhole blackhole) {
+        for (Integer groupId : groupIds) {
+            blackhole.consume(allocater.getPermissionForGroupId(groupId));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.apex.firefighter.service.nlp;
+
+import com.apex.firefighter.benchmarks.nlp.NlpQueryCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares intent scoring through the phrase automaton against the previous per-pattern loop
+ * (LegacyIntentScorer) on the normalized NLP query corpus. Lives in the service package because
+ * calculateIntentScores is package-private.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class IntentScoringBenchmark {
+
+    private IntentRecognitionService intentRecognitionService;
+    private LegacyIntentScorer legacyScorer;
+    private List<String> normalizedQueries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        intentRecognitionService = new IntentRecognitionService();
+        legacyScorer = new LegacyIntentScorer();
+        normalizedQueries = new ArrayList<>();
+        for (NlpQueryCorpus.CorpusQuery query : NlpQueryCorpus.load()) {
+            normalizedQueries.add(intentRecognitionService.normalizeQuery(query.getQuery()));
+        }
+    }
+
+    @Benchmark
+    public Map<IntentRecognitionService.IntentType, Double> automatonScores() {
+        return intentRecognitionService.calculateIntentScores(nextQuery());
+    }
+
+    @Benchmark
+    public Map<IntentRecognitionService.IntentType, Double> legacyScores() {
+        return legacyScorer.calculateIntentScores(nextQuery());
+    }
+
+    private String nextQuery() {
+        String query = normalizedQueries.get(next);
+        next = next + 1 == normalizedQueries.size() ? 0 : next + 1;
+        return query;
+    }
+}
@@ -4,6 +4,7 @@ import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.auth.FirebaseAuth;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.ClassPathResource;
@@ -18,6 +19,9 @@ import java.io.InputStream;
 @ConditionalOnProperty(name = "firebase.enabled", havingValue = "true", matchIfMissing = false)
 public class FirebaseConfig {
 
+    @Value("${firebase.project-id:bwm-it-hub-firefighter}")
+    private String projectId;
+
     @PostConstruct
     public void initialize() {
         try {
@@ -51,7 +55,7 @@ public class FirebaseConfig {
                 
                 FirebaseOptions options = FirebaseOptions.builder()
                     .setCredentials(credentials)
-                    .setProjectId("bwm-it-hub-firefighter") // Your Firebase project ID
+                    .setProjectId(projectId) // Also the audience FirebaseTokenVerifier expects
                     .build();
                 
                 FirebaseApp.initializeApp(options);
@@ -27,12 +27,21 @@ public class NLPConfig {
     @Value("${nlp.query.max.length:500}")
     private int maxQueryLength;
 
+    @Value("${nlp.query.max-results:100}")
+    private int maxQueryResults;
+
     @Value("${nlp.cache.enabled:true}")
     private boolean cacheEnabled;
 
     @Value("${nlp.cache.ttl:300}")
     private int cacheTtlSeconds;
 
+    @Value("${nlp.cache.query.max-entries:10000}")
+    private int queryCacheMaxEntries;
+
+    @Value("${nlp.cache.result.max-entries:5000}")
+    private int resultCacheMaxEntries;
+
     @Value("${nlp.debug.enabled:false}")
     private boolean debugEnabled;
 
@@ -43,7 +52,8 @@ public class NLPConfig {
         System.out.println("   Entity confidence threshold: " + entityConfidenceThreshold);
         System.out.println("   Max response length: " + maxResponseLength);
         System.out.println("   Max query length: " + maxQueryLength);
-        System.out.println("   Cache enabled: " + cacheEnabled);
+        System.out.println("   Max tickets per query: " + maxQueryResults);
+        System.out.println("   Cache enabled: " + cacheEnabled + " (TTL " + cacheTtlSeconds + "s)");
         System.out.println("   Debug mode: " + debugEnabled);
 
         // Validate thresholds
@@ -228,7 +238,10 @@ public class NLPConfig {
     public double getEntityConfidenceThreshold() { return entityConfidenceThreshold; }
     public int getMaxResponseLength() { return maxResponseLength; }
     public int getMaxQueryLength() { return maxQueryLength; }
+    public int getMaxQueryResults() { return maxQueryResults; }
     public boolean isCacheEnabled() { return cacheEnabled; }
     public int getCacheTtlSeconds() { return cacheTtlSeconds; }
+    public int getQueryCacheMaxEntries() { return queryCacheMaxEntries; }
+    public int getResultCacheMaxEntries() { return resultCacheMaxEntries; }
     public boolean isDebugEnabled() { return debugEnabled; }
 }
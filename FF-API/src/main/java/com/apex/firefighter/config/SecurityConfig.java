@@ -1,8 +1,10 @@
 package com.apex.firefighter.config;
 
-import com.apex.firefighter.repository.ApiKeyRepository;
 import com.apex.firefighter.security.ApiKeyAuthFilter;
 import com.apex.firefighter.security.JwtAuthenticationFilter;
+import com.apex.firefighter.security.RateLimitFilter;
+import com.apex.firefighter.service.RequestRateLimiter;
+import com.apex.firefighter.service.auth.ApiKeyAuthenticator;
 import com.apex.firefighter.service.auth.JwtService;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,11 +24,14 @@ import java.util.Arrays;
 public class SecurityConfig {
 
     @Autowired
-    private ApiKeyRepository apiKeyRepository;
+    private ApiKeyAuthenticator apiKeyAuthenticator;
 
     @Autowired
     private JwtService jwtService;
 
+    @Autowired
+    private RequestRateLimiter requestRateLimiter;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -55,7 +60,9 @@ public class SecurityConfig {
                 .anyRequest().permitAll()
             )
             .addFilterBefore(new JwtAuthenticationFilter(jwtService), UsernamePasswordAuthenticationFilter.class)
-            .addFilterBefore(new ApiKeyAuthFilter(apiKeyRepository), UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(new ApiKeyAuthFilter(apiKeyAuthenticator), UsernamePasswordAuthenticationFilter.class)
+            // Per-user limits on ticket creation and NLP queries, once the caller is known
+            .addFilterAfter(new RateLimitFilter(requestRateLimiter), UsernamePasswordAuthenticationFilter.class);
         
         return http.build();
     }
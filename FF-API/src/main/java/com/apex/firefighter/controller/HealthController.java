@@ -1,5 +1,11 @@
 package com.apex.firefighter.controller;
 
+import com.apex.firefighter.service.AdminAlertFanout;
+import com.apex.firefighter.service.DolibarrSyncQueue;
+import com.apex.firefighter.service.EmailDispatchQueue;
+import com.apex.firefighter.service.RequestRateLimiter;
+import com.apex.firefighter.service.auth.ApiKeyAuthenticator;
+import com.apex.firefighter.service.auth.FirebaseTokenVerifier;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -15,6 +21,24 @@ import java.util.Map;
 @CrossOrigin(origins = {"http://localhost:4200", "http://127.0.0.1:4200", "https://localhost:4200", "https://127.0.0.1:4200", "http://localhost:8100", "http://127.0.0.1:8100", "https://localhost:8100", "https://127.0.0.1:8100", "ionic://localhost", "capacitor://localhost"})
 public class HealthController {
 
+    private final DolibarrSyncQueue dolibarrSyncQueue;
+    private final EmailDispatchQueue emailDispatchQueue;
+    private final AdminAlertFanout adminAlertFanout;
+    private final FirebaseTokenVerifier firebaseTokenVerifier;
+    private final ApiKeyAuthenticator apiKeyAuthenticator;
+    private final RequestRateLimiter requestRateLimiter;
+
+    public HealthController(DolibarrSyncQueue dolibarrSyncQueue, EmailDispatchQueue emailDispatchQueue,
+                            AdminAlertFanout adminAlertFanout, FirebaseTokenVerifier firebaseTokenVerifier,
+                            ApiKeyAuthenticator apiKeyAuthenticator, RequestRateLimiter requestRateLimiter) {
+        this.dolibarrSyncQueue = dolibarrSyncQueue;
+        this.emailDispatchQueue = emailDispatchQueue;
+        this.adminAlertFanout = adminAlertFanout;
+        this.firebaseTokenVerifier = firebaseTokenVerifier;
+        this.apiKeyAuthenticator = apiKeyAuthenticator;
+        this.requestRateLimiter = requestRateLimiter;
+    }
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> healthCheck() {
         Map<String, Object> response = new HashMap<>();
@@ -41,6 +65,48 @@ public class HealthController {
         components.put("api", "UP");
         
         response.put("components", components);
+
+        // Dolibarr write-behind queue depth and lag
+        try {
+            response.put("dolibarrSync", dolibarrSyncQueue.getMetrics());
+        } catch (Exception e) {
+            components.put("dolibarrSync", "DOWN");
+        }
+
+        // Outbound email queue depth, failures and send latency
+        try {
+            response.put("emailDispatch", emailDispatchQueue.getMetrics());
+        } catch (Exception e) {
+            components.put("emailDispatch", "DOWN");
+        }
+
+        // Admin alert emails, digests and held-back alerts
+        try {
+            response.put("adminAlerts", adminAlertFanout.getMetrics());
+        } catch (Exception e) {
+            components.put("adminAlerts", "DOWN");
+        }
+
+        // Firebase ID token cache and signing certificate refreshes
+        try {
+            response.put("firebaseTokens", firebaseTokenVerifier.getMetrics());
+        } catch (Exception e) {
+            components.put("firebaseTokens", "DOWN");
+        }
+
+        // In-memory API key lookups and batched last-used writes
+        try {
+            response.put("apiKeys", apiKeyAuthenticator.getMetrics());
+        } catch (Exception e) {
+            components.put("apiKeys", "DOWN");
+        }
+
+        // Requests allowed and rejected by the per-user rate limits
+        try {
+            response.put("rateLimits", requestRateLimiter.getMetrics());
+        } catch (Exception e) {
+            components.put("rateLimits", "DOWN");
+        }
         
         // Add system info
         Map<String, Object> system = new HashMap<>();
@@ -274,7 +274,8 @@ public class NLPController {
                     "entityExtraction", "UP", 
                     "queryProcessing", "UP",
                     "responseGeneration", "UP"
-                )
+                ),
+                "cache", nlpService.getCacheStatistics()
             );
             
             if (!isHealthy) {
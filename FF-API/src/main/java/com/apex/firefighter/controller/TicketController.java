@@ -1,12 +1,23 @@
 package com.apex.firefighter.controller;
 
 import com.apex.firefighter.model.Ticket;
+import com.apex.firefighter.service.ticket.TicketExport;
+import com.apex.firefighter.service.ticket.TicketExportJob;
+import com.apex.firefighter.service.ticket.TicketExportJobService;
+import com.apex.firefighter.service.ticket.TicketExportService;
+import com.apex.firefighter.service.ticket.TicketPage;
+import com.apex.firefighter.service.ticket.TicketQuery;
 import com.apex.firefighter.service.ticket.TicketService;
-import com.apex.firefighter.service.GmailEmailService;
+import com.apex.firefighter.service.ticket.TicketStatisticsService;
 import com.apex.firefighter.service.UserService;
 import com.apex.firefighter.model.User;
 import com.apex.firefighter.dto.EmergencyStatisticsResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,6 +25,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.RequestBody;
 import java.time.LocalDateTime;
@@ -31,6 +43,9 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 @Tag(name = "Tickets", description = "Emergency ticket management operations")
 public class TicketController {
 
+    // Response header carrying the cursor of the next page of a ticket listing
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TicketService ticketService;
 
     @Autowired
@@ -38,10 +53,14 @@ public class TicketController {
         this.ticketService = ticketService;
     }
 
-    @Autowired
-    private GmailEmailService gmailEmailService;
     @Autowired
     private UserService userService;
+    @Autowired
+    private TicketStatisticsService ticketStatisticsService;
+    @Autowired
+    private TicketExportService ticketExportService;
+    @Autowired
+    private TicketExportJobService ticketExportJobService;
 
     @Operation(summary = "Create a new emergency ticket",
                description = "Creates a new emergency ticket with the provided details")
@@ -72,14 +91,29 @@ public class TicketController {
     }
 
     @Operation(summary = "Get all tickets",
-               description = "Retrieves a list of all emergency tickets in the system")
+               description = "Retrieves emergency tickets newest first, optionally filtered. With a limit, the " +
+                             NEXT_CURSOR_HEADER + " response header holds the cursor of the next page, if any.")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Successfully retrieved tickets"),
+        @ApiResponse(responseCode = "400", description = "Invalid date, limit or cursor"),
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @GetMapping
-    public ResponseEntity<List<Ticket>> getAllTickets() {
-        return ResponseEntity.ok(ticketService.getAllTickets());
+    public ResponseEntity<List<Ticket>> getAllTickets(
+            @Parameter(description = "Ticket status, e.g. Active") @RequestParam(required = false) String status,
+            @Parameter(description = "Only tickets of this user") @RequestParam(required = false) String userId,
+            @Parameter(description = "Emergency type, case-insensitive") @RequestParam(required = false) String emergencyType,
+            @Parameter(description = "Created at or after (yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) String from,
+            @Parameter(description = "Created before (yyyy-MM-ddTHH:mm:ss)") @RequestParam(required = false) String to,
+            @Parameter(description = "Page size, at most " + TicketQuery.MAX_LIMIT) @RequestParam(required = false) Integer limit,
+            @Parameter(description = "Cursor of the page to fetch") @RequestParam(required = false) String cursor) {
+        TicketQuery query = new TicketQuery();
+        if (status != null) {
+            query.setStatuses(status);
+        }
+        query.setUserId(userId);
+        query.setEmergencyType(emergencyType);
+        return listTickets(query, from, to, limit, cursor);
     }
 
     @Operation(summary = "Get ticket by database ID",
@@ -162,32 +196,55 @@ public class TicketController {
 
     // Get all active tickets (Admin only)
     @GetMapping("/admin/active")
-    public ResponseEntity<List<Ticket>> getActiveTickets() {
-        try {
-            List<Ticket> activeTickets = ticketService.getActiveTickets();
-            return ResponseEntity.ok(activeTickets);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).build();
-        }
+    public ResponseEntity<List<Ticket>> getActiveTickets(@RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) String cursor) {
+        TicketQuery query = new TicketQuery();
+        query.setStatuses("Active");
+        return listTickets(query, null, null, limit, cursor);
     }
 
     // Get ticket history sorted by creation date (Admin only)
     @GetMapping("/admin/history")
-    public ResponseEntity<List<Ticket>> getTicketHistory() {
-        try {
-            List<Ticket> ticketHistory = ticketService.getTicketHistory();
-            return ResponseEntity.ok(ticketHistory);
-        } catch (Exception e) {
-            return ResponseEntity.status(500).build();
-        }
+    public ResponseEntity<List<Ticket>> getTicketHistory(@RequestParam(required = false) String from,
+                                                         @RequestParam(required = false) String to,
+                                                         @RequestParam(required = false) Integer limit,
+                                                         @RequestParam(required = false) String cursor) {
+        return listTickets(new TicketQuery(), from, to, limit, cursor);
     }
 
     // Get tickets by status (Admin only)
     @GetMapping("/admin/status/{status}")
-    public ResponseEntity<List<Ticket>> getTicketsByStatus(@PathVariable String status) {
+    public ResponseEntity<List<Ticket>> getTicketsByStatus(@PathVariable String status,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) String cursor) {
+        TicketQuery query = new TicketQuery();
+        query.setStatuses(status);
+        return listTickets(query, null, null, limit, cursor);
+    }
+
+    // Run a listing in the database and pass the next page's cursor back in a header
+    private ResponseEntity<List<Ticket>> listTickets(TicketQuery query, String from, String to,
+                                                     Integer limit, String cursor) {
         try {
-            List<Ticket> tickets = ticketService.getTicketsByStatus(status);
-            return ResponseEntity.ok(tickets);
+            if (from != null && !from.trim().isEmpty()) {
+                query.setCreatedFrom(LocalDateTime.parse(from));
+            }
+            if (to != null && !to.trim().isEmpty()) {
+                query.setCreatedBefore(LocalDateTime.parse(to));
+            }
+            query.setLimit(limit);
+            query.setCursor(cursor);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            TicketPage page = ticketService.findTickets(query);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.hasMore()) {
+                response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getTickets());
         } catch (Exception e) {
             return ResponseEntity.status(500).build();
         }
@@ -274,13 +331,13 @@ public class TicketController {
         return ResponseEntity.ok(response);
     }
 
-    @Operation(summary = "Export tickets to CSV and email",
-               description = "Exports all tickets to CSV format and emails to admin. Supports optional date range filtering.",
+    @Operation(summary = "Start a ticket CSV export",
+               description = "Starts a background export of all tickets to CSV and returns its job ID. Supports optional date range filtering, gzip compression (\"compress\": true) and emailing the finished file to the admin (\"sendEmail\", default true). An identical export that is already running is joined instead of started again.",
                security = @SecurityRequirement(name = "bearerAuth"))
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Tickets exported and emailed successfully"),
+        @ApiResponse(responseCode = "202", description = "Export job accepted"),
         @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required"),
-        @ApiResponse(responseCode = "500", description = "Internal server error during export/email"),
+        @ApiResponse(responseCode = "503", description = "Too many exports are queued"),
         @ApiResponse(responseCode = "401", description = "Unauthorized")
     })
     @PostMapping("/admin/export")
@@ -344,53 +401,99 @@ public class TicketController {
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not authorized: Only admins can export tickets.");
         }
 
-        String targetEmail = user.getEmail();
+        boolean compress = payload.get("compress") instanceof Boolean requested
+            ? requested : ticketExportService.isCompressByDefault();
+        boolean sendEmail = !(payload.get("sendEmail") instanceof Boolean emailRequested) || emailRequested;
+        String targetEmail = sendEmail ? user.getEmail() : null;
         System.out.println("Target email for sending: " + targetEmail);
 
-        // Create final copies for lambda expressions
-        final LocalDateTime finalStartDate = startDate;
-        final LocalDateTime finalEndDate = endDate;
-
-        // Get tickets based on date range filtering
-        List<Ticket> tickets;
-        if (finalStartDate != null && finalEndDate != null) {
-            System.out.println("Filtering tickets by date range: " + finalStartDate + " to " + finalEndDate);
-            // For now, get all tickets and filter by date in controller
-            tickets = ticketService.getAllTickets().stream()
-                    .filter(ticket -> ticket.getDateCreated().isAfter(finalStartDate) && ticket.getDateCreated().isBefore(finalEndDate))
-                    .toList();
-        } else if (finalStartDate != null) {
-            System.out.println("Filtering tickets from start date: " + finalStartDate);
-            // If only start date is provided, get tickets from start date to now
-            tickets = ticketService.getAllTickets().stream()
-                    .filter(ticket -> ticket.getDateCreated().isAfter(finalStartDate))
-                    .toList();
-        } else if (finalEndDate != null) {
-            System.out.println("Filtering tickets up to end date: " + finalEndDate);
-            // If only end date is provided, get tickets from beginning of time to end date
-            tickets = ticketService.getAllTickets().stream()
-                    .filter(ticket -> ticket.getDateCreated().isBefore(finalEndDate))
-                    .toList();
-        } else {
-            System.out.println("No date filtering - getting all tickets");
-            tickets = ticketService.getAllTickets();
+        try {
+            TicketExportJob job = ticketExportJobService.submit(startDate, endDate, compress, user.getUserId(), targetEmail, user);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportJobStatus(job));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body("Too many exports are in progress. Please try again later.");
         }
+    }
 
-        System.out.println("Number of tickets retrieved: " + tickets.size());
+    @Operation(summary = "Get ticket export status",
+               description = "Reports the status, progress and file size of a ticket export job",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export job status"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required"),
+        @ApiResponse(responseCode = "404", description = "Export job not found or expired"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping("/admin/export/{jobId}")
+    public ResponseEntity<?> getExportStatus(@PathVariable String jobId, @RequestParam String userId) {
+        if (!ticketService.isUserAdmin(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not authorized: Only admins can export tickets.");
+        }
+        TicketExportJob job = ticketExportJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(exportJobStatus(job));
+    }
 
-        String csv = gmailEmailService.exportTicketsToCsv(tickets);
-        System.out.println("CSV generated, length: " + csv.length());
+    @Operation(summary = "Download a ticket export",
+               description = "Downloads the CSV file of a completed export job. Supports HTTP range requests for resuming interrupted downloads.",
+               security = @SecurityRequirement(name = "bearerAuth"))
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Export file"),
+        @ApiResponse(responseCode = "206", description = "Requested byte range of the export file"),
+        @ApiResponse(responseCode = "403", description = "Forbidden - Admin access required"),
+        @ApiResponse(responseCode = "404", description = "Export job not found or expired"),
+        @ApiResponse(responseCode = "409", description = "Export has not completed"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized")
+    })
+    @GetMapping("/admin/export/{jobId}/download")
+    public ResponseEntity<?> downloadExport(@PathVariable String jobId, @RequestParam String userId) {
+        if (!ticketService.isUserAdmin(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not authorized: Only admins can export tickets.");
+        }
+        TicketExportJob job = ticketExportJobService.getJob(jobId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        TicketExport export = job.getExport();
+        if (job.getStatus() != TicketExportJob.Status.COMPLETED || export == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Export is " + job.getStatus() + ", not ready for download.");
+        }
 
-        try {
-            gmailEmailService.sendTicketsCsv(targetEmail, csv, user);
-            String dateRangeInfo = (startDate != null || endDate != null) ?
-                " (filtered by date range)" : "";
-            return ResponseEntity.ok("Tickets exported and emailed successfully to " + targetEmail + dateRangeInfo);
-        } catch (Exception e) {
-            System.err.println("Controller caught exception: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                .body("Failed to send email: " + e.getMessage());
+        // Resource bodies get Range/If-Range handling (206 Partial Content) from Spring MVC
+        Resource file = new FileSystemResource(export.getFile());
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType(export.getContentType()))
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(export.getFilename()).build().toString())
+            .body(file);
+    }
+
+    private Map<String, Object> exportJobStatus(TicketExportJob job) {
+        Map<String, Object> status = new HashMap<>();
+        status.put("jobId", job.getJobId());
+        status.put("status", job.getStatus());
+        status.put("ticketsWritten", job.getTicketsWritten());
+        status.put("totalTickets", job.getTotalTickets() >= 0 ? job.getTotalTickets() : null);
+        status.put("progressPercent", job.getProgressPercent());
+        status.put("sizeBytes", job.getSizeBytes());
+        status.put("compressed", job.getKey().compress());
+        status.put("emailRecipients", job.getEmailRecipientCount());
+        status.put("submittedAt", job.getSubmittedAt());
+        status.put("finishedAt", job.getFinishedAt());
+        status.put("statusUrl", "/api/tickets/admin/export/" + job.getJobId());
+        if (job.getStatus() == TicketExportJob.Status.COMPLETED) {
+            status.put("downloadUrl", "/api/tickets/admin/export/" + job.getJobId() + "/download");
+        }
+        if (job.getError() != null) {
+            status.put("error", job.getError());
+        }
+        if (job.getEmailError() != null) {
+            status.put("emailError", job.getEmailError());
         }
+        return status;
     }
 
     @Operation(summary = "Get emergency response statistics",
@@ -404,7 +507,7 @@ public class TicketController {
     @GetMapping("/statistics")
     public ResponseEntity<EmergencyStatisticsResponse> getEmergencyStatistics() {
         try {
-            EmergencyStatisticsResponse statistics = ticketService.calculateEmergencyStatistics();
+            EmergencyStatisticsResponse statistics = ticketStatisticsService.calculateEmergencyStatistics();
             return ResponseEntity.ok(statistics);
         } catch (Exception e) {
             System.err.println("Error calculating emergency statistics: " + e.getMessage());
@@ -1,7 +1,12 @@
 package com.apex.firefighter.model;
 
 import jakarta.persistence.*;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.ZonedDateTime;
+import java.util.HexFormat;
 
 @Entity
 @Table(name = "api_keys", schema = "firefighter")
@@ -11,7 +16,12 @@ public class ApiKey {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // SHA-256 of the key, hex encoded; the key itself is never stored
     @Column(name = "api_key", nullable = false, unique = true, length = 64)
+    private String keyHash;
+
+    // The key as generated, kept in memory only so it can be handed to the user once
+    @Transient
     private String apiKey;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -24,6 +34,9 @@ public class ApiKey {
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true;
 
+    @Column(name = "last_used_at")
+    private ZonedDateTime lastUsedAt;
+
     public ApiKey() {
         this.createdAt = ZonedDateTime.now();
         this.isActive = true;
@@ -31,14 +44,39 @@ public class ApiKey {
 
     public ApiKey(String apiKey, User user) {
         this();
-        this.apiKey = apiKey;
+        setApiKey(apiKey);
         this.user = user;
     }
 
+    /**
+     * The digest an API key is stored and looked up by
+     *
+     * @param apiKey The key as sent by the client
+     * @return The lowercase hex SHA-256 of the key, or null for a null key
+     */
+    public static String hash(String apiKey) {
+        if (apiKey == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(apiKey.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
     public Long getId() { return id; }
+    public String getKeyHash() { return keyHash; }
+
+    public void setKeyHash(String keyHash) { this.keyHash = keyHash; }
+    // Null for keys loaded from the database
     public String getApiKey() { return apiKey; }
 
-    public void setApiKey(String apiKey) { this.apiKey = apiKey; }
+    public void setApiKey(String apiKey) {
+        this.apiKey = apiKey;
+        this.keyHash = hash(apiKey);
+    }
     public User getUser() { return user; }
 
     public void setUser(User user) { this.user = user; }
@@ -48,5 +86,8 @@ public class ApiKey {
     public Boolean getIsActive() { return isActive; }
 
     public void setIsActive(Boolean isActive) { this.isActive = isActive; }
-    
+    public ZonedDateTime getLastUsedAt() { return lastUsedAt; }
+
+    public void setLastUsedAt(ZonedDateTime lastUsedAt) { this.lastUsedAt = lastUsedAt; }
+
 }
@@ -0,0 +1,162 @@
+package com.apex.firefighter.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox row for a pending Dolibarr group membership change.
+ * Rows are written before the change is attempted and deleted once it succeeds,
+ * so group grants and removals survive application restarts.
+ */
+@Entity
+@Table(name = "dolibarr_sync_outbox", schema = "firefighter", indexes = {
+    @Index(name = "idx_dolibarr_sync_status_next_attempt", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_dolibarr_sync_user_status", columnList = "dolibarr_user_id, status")
+})
+public class DolibarrSyncTask {
+
+    public static final String OPERATION_ADD = "ADD";
+    public static final String OPERATION_REMOVE = "REMOVE";
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_IN_PROGRESS = "IN_PROGRESS";
+    public static final String STATUS_FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "operation", nullable = false, length = 16)
+    private String operation;
+
+    @Column(name = "dolibarr_user_id", nullable = false)
+    private String dolibarrUserId;
+
+    @Column(name = "description", length = 1000)
+    private String description;
+
+    @Column(name = "ticket_id")
+    private String ticketId;
+
+    @Column(name = "status", nullable = false, length = 16)
+    private String status;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    public DolibarrSyncTask() {
+        this.createdAt = LocalDateTime.now();
+        this.nextAttemptAt = this.createdAt;
+        this.status = STATUS_PENDING;
+    }
+
+    public DolibarrSyncTask(String operation, String dolibarrUserId, String description, String ticketId) {
+        this();
+        this.operation = operation;
+        this.dolibarrUserId = dolibarrUserId;
+        this.description = description;
+        this.ticketId = ticketId;
+    }
+
+    public boolean isAdd() {
+        return OPERATION_ADD.equals(operation);
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public void setOperation(String operation) {
+        this.operation = operation;
+    }
+
+    public String getDolibarrUserId() {
+        return dolibarrUserId;
+    }
+
+    public void setDolibarrUserId(String dolibarrUserId) {
+        this.dolibarrUserId = dolibarrUserId;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getTicketId() {
+        return ticketId;
+    }
+
+    public void setTicketId(String ticketId) {
+        this.ticketId = ticketId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(LocalDateTime nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public String toString() {
+        return "DolibarrSyncTask{" +
+                "id=" + id +
+                ", operation='" + operation + '\'' +
+                ", dolibarrUserId='" + dolibarrUserId + '\'' +
+                ", ticketId='" + ticketId + '\'' +
+                ", status='" + status + '\'' +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
@@ -0,0 +1,144 @@
+package com.apex.firefighter.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An outbound email that could not be delivered after every retry.
+ * The raw MIME message is kept when it is small enough, so it can be inspected or re-sent by hand.
+ */
+@Entity
+@Table(name = "email_dead_letter", schema = "firefighter", indexes = {
+    @Index(name = "idx_email_dead_letter_failed_at", columnList = "failed_at")
+})
+public class EmailDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "description", nullable = false)
+    private String description;
+
+    @Column(name = "recipients", length = 1000)
+    private String recipients;
+
+    @Column(name = "subject", length = 500)
+    private String subject;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "queued_at", nullable = false)
+    private LocalDateTime queuedAt;
+
+    @Column(name = "failed_at", nullable = false)
+    private LocalDateTime failedAt;
+
+    @Lob
+    @Column(name = "raw_message")
+    private byte[] rawMessage;
+
+    public EmailDeadLetter() {
+        this.failedAt = LocalDateTime.now();
+    }
+
+    public EmailDeadLetter(String description, String recipients, String subject, int attempts,
+                           String lastError, LocalDateTime queuedAt, byte[] rawMessage) {
+        this();
+        this.description = description;
+        this.recipients = recipients;
+        this.subject = subject;
+        this.attempts = attempts;
+        this.lastError = lastError;
+        this.queuedAt = queuedAt;
+        this.rawMessage = rawMessage;
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
+    public String getRecipients() {
+        return recipients;
+    }
+
+    public void setRecipients(String recipients) {
+        this.recipients = recipients;
+    }
+
+    public String getSubject() {
+        return subject;
+    }
+
+    public void setSubject(String subject) {
+        this.subject = subject;
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public LocalDateTime getQueuedAt() {
+        return queuedAt;
+    }
+
+    public void setQueuedAt(LocalDateTime queuedAt) {
+        this.queuedAt = queuedAt;
+    }
+
+    public LocalDateTime getFailedAt() {
+        return failedAt;
+    }
+
+    public void setFailedAt(LocalDateTime failedAt) {
+        this.failedAt = failedAt;
+    }
+
+    public byte[] getRawMessage() {
+        return rawMessage;
+    }
+
+    public void setRawMessage(byte[] rawMessage) {
+        this.rawMessage = rawMessage;
+    }
+
+    @Override
+    public String toString() {
+        return "EmailDeadLetter{" +
+                "id=" + id +
+                ", description='" + description + '\'' +
+                ", recipients='" + recipients + '\'' +
+                ", attempts=" + attempts +
+                ", failedAt=" + failedAt +
+                '}';
+    }
+}
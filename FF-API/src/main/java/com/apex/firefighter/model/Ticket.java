@@ -4,8 +4,17 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tickets", schema = "firefighter")
+@Table(name = "tickets", schema = "firefighter", indexes = {
+    @Index(name = "idx_tickets_status_expires_at", columnList = "status, expires_at"),
+    @Index(name = "idx_tickets_status_warn_at_warning_sent", columnList = "status, warn_at, five_minute_warning_sent"),
+    // Serve the newest-first ticket listings of TicketQuery
+    @Index(name = "idx_tickets_user_id_date_created", columnList = "user_id, date_created"),
+    @Index(name = "idx_tickets_status_date_created", columnList = "status, date_created")
+})
 public class Ticket {
+
+    public static final int DEFAULT_DURATION_MINUTES = 60;
+    public static final int WARNING_MINUTES_BEFORE_EXPIRY = 5;
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -47,6 +56,13 @@ public class Ticket {
     @Column(name = "five_minute_warning_sent")
     private Boolean fiveMinuteWarningSent = false;
 
+    // Materialized from date_created + duration so expiry sweeps can use index range scans
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "warn_at")
+    private LocalDateTime warnAt;
+
     // Constructors
     public Ticket() {}
 
@@ -59,6 +75,21 @@ public class Ticket {
         this.emergencyContact = emergencyContact;
         this.dateCreated = LocalDateTime.now();
         this.requestDate = LocalDateTime.now();
+        refreshExpiryTimes();
+    }
+
+    // Keep expiry columns in step with date_created and duration
+    @PrePersist
+    @PreUpdate
+    public void refreshExpiryTimes() {
+        if (dateCreated == null) {
+            this.expiresAt = null;
+            this.warnAt = null;
+            return;
+        }
+        int durationMinutes = duration != null ? duration : DEFAULT_DURATION_MINUTES;
+        this.expiresAt = dateCreated.plusMinutes(durationMinutes);
+        this.warnAt = expiresAt.minusMinutes(WARNING_MINUTES_BEFORE_EXPIRY);
     }
 
     // Getters and Setters
@@ -75,7 +106,10 @@ public class Ticket {
     public void setStatus(String status) { this.status = status; }
 
     public LocalDateTime getDateCreated() { return dateCreated; }
-    public void setDateCreated(LocalDateTime dateCreated) { this.dateCreated = dateCreated; }
+    public void setDateCreated(LocalDateTime dateCreated) {
+        this.dateCreated = dateCreated;
+        refreshExpiryTimes();
+    }
 
     public LocalDateTime getRequestDate() { return requestDate; }
     public void setRequestDate(LocalDateTime requestDate) { this.requestDate = requestDate; }
@@ -90,7 +124,10 @@ public class Ticket {
     public void setEmergencyContact(String emergencyContact) { this.emergencyContact = emergencyContact; }
 
     public Integer getDuration() { return duration; }
-    public void setDuration(Integer duration) { this.duration = duration; }
+    public void setDuration(Integer duration) {
+        this.duration = duration;
+        refreshExpiryTimes();
+    }
 
     public LocalDateTime getDateCompleted() { return dateCompleted; }
     public void setDateCompleted(LocalDateTime dateCompleted) { this.dateCompleted = dateCompleted; }
@@ -100,4 +137,8 @@ public class Ticket {
 
     public Boolean getFiveMinuteWarningSent() { return fiveMinuteWarningSent; }
     public void setFiveMinuteWarningSent(Boolean fiveMinuteWarningSent) { this.fiveMinuteWarningSent = fiveMinuteWarningSent; }
+
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+
+    public LocalDateTime getWarnAt() { return warnAt; }
 }
@@ -6,7 +6,9 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "users", schema = "firefighter")
+@Table(name = "users", schema = "firefighter", indexes = {
+    @Index(name = "idx_users_dolibarr_id", columnList = "dolibarr_id")
+})
 public class User {
 
     @Id
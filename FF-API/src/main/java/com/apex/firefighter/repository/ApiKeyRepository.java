@@ -4,13 +4,38 @@ import com.apex.firefighter.model.ApiKey;
 import com.apex.firefighter.model.User;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.ZonedDateTime;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
 public interface ApiKeyRepository extends JpaRepository<ApiKey, Long> {
-    Optional<ApiKey> findByApiKey(String apiKey);
+    Optional<ApiKey> findByKeyHash(String keyHash);
     List<ApiKey> findByUser(User user);
+
+    // Digest, owner and state of every key, without loading the users (seeds ApiKeyAuthenticator)
+    @Query("SELECT k.keyHash AS keyHash, k.user.userId AS userId, k.isActive AS isActive FROM ApiKey k")
+    List<ApiKeyCredential> findAllCredentials();
+
+    // Record when a key was last used, never moving the time backwards
+    @Modifying
+    @Transactional
+    @Query("UPDATE ApiKey k SET k.lastUsedAt = :usedAt WHERE k.keyHash = :keyHash " +
+           "AND (k.lastUsedAt IS NULL OR k.lastUsedAt < :usedAt)")
+    int updateLastUsedAt(@Param("keyHash") String keyHash, @Param("usedAt") ZonedDateTime usedAt);
+
+    /**
+     * What authenticating with a key needs to know about it
+     */
+    interface ApiKeyCredential {
+        String getKeyHash();
+        String getUserId();
+        Boolean getIsActive();
+    }
 }
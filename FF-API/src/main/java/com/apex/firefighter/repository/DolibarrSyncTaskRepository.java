@@ -0,0 +1,67 @@
+package com.apex.firefighter.repository;
+
+import com.apex.firefighter.model.DolibarrSyncTask;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DolibarrSyncTaskRepository extends JpaRepository<DolibarrSyncTask, Long> {
+
+    /**
+     * Find tasks in the given status that are due for an attempt, oldest first
+     */
+    List<DolibarrSyncTask> findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(String status, LocalDateTime now);
+
+    /**
+     * Find the oldest unfinished task for a user; only this task may run for the user
+     */
+    Optional<DolibarrSyncTask> findFirstByDolibarrUserIdAndStatusInOrderByIdAsc(String dolibarrUserId, Collection<String> statuses);
+
+    /**
+     * Find the newest task in the given status for a user and group description
+     */
+    Optional<DolibarrSyncTask> findFirstByDolibarrUserIdAndDescriptionAndStatusOrderByIdDesc(String dolibarrUserId, String description, String status);
+
+    /**
+     * Find the oldest task in the given status, used to report queue lag
+     */
+    Optional<DolibarrSyncTask> findFirstByStatusOrderByCreatedAtAsc(String status);
+
+    long countByStatus(String status);
+
+    long countByStatusIn(Collection<String> statuses);
+
+    /**
+     * Atomically moves a task between statuses. Returns 0 when the task is no longer in
+     * the expected status, e.g. because another worker claimed it or it was coalesced.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DolibarrSyncTask t SET t.status = :toStatus WHERE t.id = :id AND t.status = :fromStatus")
+    int transitionStatus(@Param("id") Long id, @Param("fromStatus") String fromStatus, @Param("toStatus") String toStatus);
+
+    /**
+     * Deletes a task only if it is still in the given status
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM DolibarrSyncTask t WHERE t.id = :id AND t.status = :status")
+    int deleteByIdAndStatus(@Param("id") Long id, @Param("status") String status);
+
+    /**
+     * Returns tasks left in progress by a previous run to the pending state
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE DolibarrSyncTask t SET t.status = 'PENDING' WHERE t.status = 'IN_PROGRESS'")
+    int resetInProgressTasks();
+}
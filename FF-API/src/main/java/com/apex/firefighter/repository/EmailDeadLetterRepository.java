@@ -0,0 +1,9 @@
+package com.apex.firefighter.repository;
+
+import com.apex.firefighter.model.EmailDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface EmailDeadLetterRepository extends JpaRepository<EmailDeadLetter, Long> {
+}
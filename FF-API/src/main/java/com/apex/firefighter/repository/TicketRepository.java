@@ -1,16 +1,25 @@
 package com.apex.firefighter.repository;
 
 import com.apex.firefighter.model.Ticket;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TicketRepository extends JpaRepository<Ticket, Long> {
+public interface TicketRepository extends JpaRepository<Ticket, Long>, JpaSpecificationExecutor<Ticket> {
     Optional<Ticket> findByTicketId(String ticketId);
     
     // Find all tickets with 'Active' status
@@ -33,6 +42,36 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     @Query("SELECT t FROM Ticket t WHERE t.status = 'Active' AND t.duration IS NOT NULL")
     List<Ticket> findActiveTicketsWithDuration();
 
+    // Find and lock active tickets inside their five-minute warning window that have not been warned yet,
+    // so overlapping sweeps and warning timers cannot warn twice (uses idx_tickets_status_warn_at_warning_sent)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Transactional
+    @Query("SELECT t FROM Ticket t WHERE t.status = 'Active' AND t.warnAt < :now AND t.expiresAt > :now " +
+           "AND (t.fiveMinuteWarningSent = false OR t.fiveMinuteWarningSent IS NULL)")
+    List<Ticket> findActiveTicketsDueForWarning(@Param("now") LocalDateTime now);
+
+    // Find and lock active tickets whose expiry time has passed, so no one else closes them before this transaction does (uses idx_tickets_status_expires_at)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Transactional
+    @Query("SELECT t FROM Ticket t WHERE t.status = 'Active' AND t.expiresAt < :now")
+    List<Ticket> findActiveTicketsExpiredBefore(@Param("now") LocalDateTime now);
+
+    // Find and lock a ticket before changing its status
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Transactional
+    @Query("SELECT t FROM Ticket t WHERE t.id = :id")
+    Optional<Ticket> findByIdForUpdate(@Param("id") Long id);
+
+    // Close the given tickets that are still active in a single statement
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Ticket t SET t.status = 'Closed', t.dateCompleted = :now WHERE t.id IN :ids AND t.status = 'Active'")
+    int closeActiveTicketsById(@Param("ids") List<Long> ids, @Param("now") LocalDateTime now);
+
+    // Find active tickets created before the expiry columns existed
+    @Query("SELECT t FROM Ticket t WHERE t.status = 'Active' AND t.expiresAt IS NULL")
+    List<Ticket> findActiveTicketsMissingExpiry();
+
     // Find tickets within a date range (inclusive)
     @Query("SELECT t FROM Ticket t WHERE t.dateCreated >= :startDate AND t.dateCreated <= :endDate ORDER BY t.dateCreated DESC")
     List<Ticket> findByDateCreatedBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate);
@@ -41,7 +80,102 @@ public interface TicketRepository extends JpaRepository<Ticket, Long> {
     @Query("SELECT t FROM Ticket t WHERE t.status = 'Active' AND t.dateCreated < :cutoffDate")
     List<Ticket> findActiveTicketsOlderThan(@Param("cutoffDate") LocalDateTime cutoffDate);
 
-    // Count tickets created by a user within a time period
-    @Query("SELECT COUNT(t) FROM Ticket t WHERE t.userId = :userId AND t.dateCreated >= :startTime")
-    long countTicketsByUserSince(@Param("userId") String userId, @Param("startTime") LocalDateTime startTime);
+    // Ticket count and total duration per status, emergency type and creation month (seeds TicketStatisticsCounters)
+    @Query("SELECT t.status AS status, t.emergencyType AS emergencyType, " +
+           "YEAR(t.dateCreated) AS createdYear, MONTH(t.dateCreated) AS createdMonth, " +
+           "COUNT(t) AS ticketCount, SUM(t.duration) AS totalDuration " +
+           "FROM Ticket t GROUP BY t.status, t.emergencyType, YEAR(t.dateCreated), MONTH(t.dateCreated)")
+    List<StatusTypeMonthTotals> aggregateByStatusEmergencyTypeAndMonth();
+
+    // Ticket count, total duration and tickets created in [monthStart, nextMonthStart)
+    // per status and emergency type for one user (uses idx_tickets_user_id_date_created)
+    @Query("SELECT t.status AS status, t.emergencyType AS emergencyType, COUNT(t) AS ticketCount, " +
+           "SUM(t.duration) AS totalDuration, " +
+           "SUM(CASE WHEN t.dateCreated >= :monthStart AND t.dateCreated < :nextMonthStart THEN 1 ELSE 0 END) AS currentMonthCount " +
+           "FROM Ticket t WHERE t.userId = :userId GROUP BY t.status, t.emergencyType")
+    List<StatusTypeTotals> aggregateByStatusAndEmergencyTypeForUser(@Param("userId") String userId,
+                                                                    @Param("monthStart") LocalDateTime monthStart,
+                                                                    @Param("nextMonthStart") LocalDateTime nextMonthStart);
+
+    // Export columns of the tickets created in [createdFrom, createdBefore), newest first; null bounds do not filter.
+    // Rows are read through a JDBC cursor in batches of the fetch size, so the caller must consume the stream
+    // inside a read-only transaction and close it.
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.ticketId AS ticketId, t.description AS description, t.status AS status, " +
+           "t.dateCreated AS dateCreated, t.userId AS userId, t.emergencyType AS emergencyType, " +
+           "t.emergencyContact AS emergencyContact, t.duration AS duration FROM Ticket t " +
+           "WHERE (:createdFrom IS NULL OR t.dateCreated >= :createdFrom) " +
+           "AND (:createdBefore IS NULL OR t.dateCreated < :createdBefore) " +
+           "ORDER BY t.dateCreated DESC, t.id DESC")
+    Stream<TicketExportRow> streamExportRows(@Param("createdFrom") LocalDateTime createdFrom,
+                                             @Param("createdBefore") LocalDateTime createdBefore);
+
+    // Number of rows streamExportRows returns for the same bounds, for export progress reporting
+    @Query("SELECT COUNT(t) FROM Ticket t " +
+           "WHERE (:createdFrom IS NULL OR t.dateCreated >= :createdFrom) " +
+           "AND (:createdBefore IS NULL OR t.dateCreated < :createdBefore)")
+    long countCreatedBetween(@Param("createdFrom") LocalDateTime createdFrom,
+                             @Param("createdBefore") LocalDateTime createdBefore);
+
+    // Tickets created per user and minute since a point in time (seeds TicketFrequencyCounters)
+    @Query("SELECT t.userId AS userId, YEAR(t.dateCreated) AS createdYear, MONTH(t.dateCreated) AS createdMonth, " +
+           "DAY(t.dateCreated) AS createdDay, HOUR(t.dateCreated) AS createdHour, " +
+           "MINUTE(t.dateCreated) AS createdMinute, COUNT(t) AS ticketCount " +
+           "FROM Ticket t WHERE t.dateCreated >= :since " +
+           "GROUP BY t.userId, YEAR(t.dateCreated), MONTH(t.dateCreated), DAY(t.dateCreated), " +
+           "HOUR(t.dateCreated), MINUTE(t.dateCreated)")
+    List<UserMinuteTotals> countTicketsByUserAndMinuteSince(@Param("since") LocalDateTime since);
+
+    /**
+     * One row of the grouped ticket aggregates
+     */
+    interface StatusTypeTotals {
+        String getStatus();
+        String getEmergencyType();
+        Long getTicketCount();
+        Long getTotalDuration();
+        Long getCurrentMonthCount();
+    }
+
+    /**
+     * One row of the per-month ticket aggregate
+     */
+    interface StatusTypeMonthTotals {
+        String getStatus();
+        String getEmergencyType();
+        Integer getCreatedYear();
+        Integer getCreatedMonth();
+        Long getTicketCount();
+        Long getTotalDuration();
+    }
+
+    /**
+     * Tickets one user created in one minute
+     */
+    interface UserMinuteTotals {
+        String getUserId();
+        Integer getCreatedYear();
+        Integer getCreatedMonth();
+        Integer getCreatedDay();
+        Integer getCreatedHour();
+        Integer getCreatedMinute();
+        Long getTicketCount();
+    }
+
+    /**
+     * The ticket columns written to CSV exports
+     */
+    interface TicketExportRow {
+        String getTicketId();
+        String getDescription();
+        String getStatus();
+        LocalDateTime getDateCreated();
+        String getUserId();
+        String getEmergencyType();
+        String getEmergencyContact();
+        Integer getDuration();
+    }
 }
@@ -21,6 +21,9 @@ public interface UserRepository extends JpaRepository<User, String> {
     // Find user by email
     Optional<User> findByEmail(String email);
     
+    // Find user by Dolibarr ID (indexed); Dolibarr IDs are not unique, so the first match wins
+    Optional<User> findFirstByDolibarrId(String dolibarrId);
+    
     // Find authorized users only
     List<User> findByIsAuthorizedTrue();
     
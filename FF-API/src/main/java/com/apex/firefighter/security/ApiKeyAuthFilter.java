@@ -1,7 +1,6 @@
 package com.apex.firefighter.security;
 
-import com.apex.firefighter.model.ApiKey;
-import com.apex.firefighter.repository.ApiKeyRepository;
+import com.apex.firefighter.service.auth.ApiKeyAuthenticator;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -17,10 +16,10 @@ import java.util.Collections;
 import java.util.Optional;
 
 public class ApiKeyAuthFilter extends OncePerRequestFilter {
-    private final ApiKeyRepository apiKeyRepository;
+    private final ApiKeyAuthenticator apiKeyAuthenticator;
 
-    public ApiKeyAuthFilter(ApiKeyRepository apiKeyRepository) {
-        this.apiKeyRepository = apiKeyRepository;
+    public ApiKeyAuthFilter(ApiKeyAuthenticator apiKeyAuthenticator) {
+        this.apiKeyAuthenticator = apiKeyAuthenticator;
     }
 
     @Override
@@ -29,10 +28,11 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
         String header = request.getHeader("Authorization");
         if (StringUtils.hasText(header) && header.startsWith("ApiKey ")) {
             String apiKeyValue = header.substring(7);
-            Optional<ApiKey> apiKeyOpt = apiKeyRepository.findByApiKey(apiKeyValue);
-            if (apiKeyOpt.isPresent() && Boolean.TRUE.equals(apiKeyOpt.get().getIsActive())) {
+            // Resolved from memory; unknown and revoked keys are both rejected
+            Optional<String> userIdOpt = apiKeyAuthenticator.authenticate(apiKeyValue);
+            if (userIdOpt.isPresent()) {
                 // Set authentication with the user's UID as principal
-                String userId = apiKeyOpt.get().getUser().getUserId();
+                String userId = userIdOpt.get();
                 UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                         userId, null, Collections.emptyList());
                 authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
@@ -1,7 +1,8 @@
 package com.apex.firefighter.security;
 
 import com.apex.firefighter.service.auth.JwtService;
-import com.google.firebase.auth.FirebaseToken;
+import com.apex.firefighter.service.auth.VerifiedFirebaseToken;
+import com.apex.firefighter.service.auth.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -53,71 +54,48 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             if (token.contains(".") && token.split("\\.").length == 3) {
                 System.out.println("🔒 JWT FILTER: Token has valid JWT format");
                 
-                // First check if it's our custom JWT token
-                if (jwtService.isCustomJwt(token)) {
-                    System.out.println("🔒 JWT FILTER: Processing as custom JWT token");
-                    // Handle custom JWT token
-                    try {
-                        // Check expiration first to provide specific error message
-                        if (jwtService.isTokenExpired(token)) {
-                            System.out.println("🔒 JWT FILTER: ❌ Token expired");
-                            sendTokenExpiredResponse(response);
-                            return;
-                        }
-
-                        String firebaseUid = jwtService.extractFirebaseUid(token);
-                        Boolean isAdmin = jwtService.extractIsAdmin(token);
-                        
-                        System.out.println("🔒 JWT FILTER: Extracted from custom JWT - UID: " + firebaseUid + ", Admin: " + isAdmin);
-                        
-                        if (firebaseUid != null && jwtService.validateToken(token, firebaseUid)) {
-                            System.out.println("🔒 JWT FILTER: ✅ Custom JWT token validated successfully for user: " + firebaseUid);
-                            List<SimpleGrantedAuthority> authorities = isAdmin ?
-                                List.of(new SimpleGrantedAuthority("ROLE_ADMIN")) :
-                                Collections.emptyList();
-
-                            UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                    firebaseUid, null, authorities);
-                            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                            SecurityContextHolder.getContext().setAuthentication(authToken);
+                // Verify once as our custom JWT; anything not signed with our key is tried as a Firebase token
+                VerifiedToken verified = jwtService.verifyCustomToken(token);
 
-                            // Set request attributes for controllers to access
-                            requestWrapper.setAttribute("firebaseUid", firebaseUid);
-                            requestWrapper.setAttribute("isAdmin", isAdmin != null ? isAdmin : false);
-                            
-                            // Add X-Firebase-UID header for backward compatibility with controllers
-                            requestWrapper.addHeader("X-Firebase-UID", firebaseUid);
-                            extractedFirebaseUid = firebaseUid;
+                if (verified.isExpired()) {
+                    System.out.println("🔒 JWT FILTER: ❌ Token expired");
+                    sendTokenExpiredResponse(response);
+                    return;
+                }
 
-                            System.out.println("🔒 JWT FILTER: ✅ Authentication set in SecurityContext");
-                            System.out.println("🔒 JWT FILTER: ✅ User: " + firebaseUid + ", Admin: " + isAdmin);
-                            System.out.println("🔒 JWT FILTER: ✅ X-Firebase-UID header injected: " + firebaseUid);
-                        } else {
-                            System.out.println("🔒 JWT FILTER: ❌ Custom JWT token validation failed");
-                            System.out.println("🔒 JWT FILTER: ❌ Token invalid for user: " + firebaseUid);
-                            sendInvalidTokenResponse(response);
-                            return;
-                        }
-                    } catch (Exception ex) {
-                        System.out.println("🔒 JWT FILTER: Custom JWT token validation error: " + ex.getMessage());
-                        logger.warn("Custom JWT token validation failed: " + ex.getMessage());
-
-                        // Check if it's an expired token exception
-                        if (ex.getMessage() != null && ex.getMessage().toLowerCase().contains("expired")) {
-                            sendTokenExpiredResponse(response);
-                            return;
-                        } else {
-                            sendInvalidTokenResponse(response);
-                            return;
-                        }
-                    }
+                if (verified.isValid()) {
+                    System.out.println("🔒 JWT FILTER: Processing as custom JWT token");
+                    String firebaseUid = verified.firebaseUid();
+                    boolean isAdmin = verified.admin();
+
+                    System.out.println("🔒 JWT FILTER: ✅ Custom JWT token validated successfully for user: " + firebaseUid);
+                    List<SimpleGrantedAuthority> authorities = isAdmin ?
+                        List.of(new SimpleGrantedAuthority("ROLE_ADMIN")) :
+                        Collections.emptyList();
+
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                            firebaseUid, null, authorities);
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+
+                    // Set request attributes for controllers to access
+                    requestWrapper.setAttribute("firebaseUid", firebaseUid);
+                    requestWrapper.setAttribute("isAdmin", isAdmin);
+
+                    // Add X-Firebase-UID header for backward compatibility with controllers
+                    requestWrapper.addHeader("X-Firebase-UID", firebaseUid);
+                    extractedFirebaseUid = firebaseUid;
+
+                    System.out.println("🔒 JWT FILTER: ✅ Authentication set in SecurityContext");
+                    System.out.println("🔒 JWT FILTER: ✅ User: " + firebaseUid + ", Admin: " + isAdmin);
+                    System.out.println("🔒 JWT FILTER: ✅ X-Firebase-UID header injected: " + firebaseUid);
                 } else {
                     System.out.println("🔒 JWT FILTER: Processing as Firebase ID token");
                     // Try to verify as Firebase ID token
                     try {
-                        FirebaseToken firebaseToken = jwtService.verifyFirebaseToken(token);
-                        String firebaseUid = firebaseToken.getUid();
-                        String email = firebaseToken.getEmail();
+                        VerifiedFirebaseToken firebaseToken = jwtService.verifyFirebaseToken(token);
+                        String firebaseUid = firebaseToken.uid();
+                        String email = firebaseToken.email();
                         
                         System.out.println("🔒 JWT FILTER: Firebase token verified - UID: " + firebaseUid + ", Email: " + email);
                         
@@ -179,23 +157,5 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         response.getWriter().flush();
     }
 
-    //Send standardized invalid token response
-    private void sendInvalidTokenResponse(HttpServletResponse response) throws IOException {
-
-        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        response.setContentType("application/json");
-        response.setCharacterEncoding("UTF-8");
-        
-        String jsonResponse = "{"
-            + "\"error\": \"INVALID_TOKEN\","
-            + "\"message\": \"Invalid authentication token. Please log in again.\","
-            + "\"timestamp\": \"" + java.time.Instant.now().toString() + "\","
-            + "\"requiresReauth\": true"
-            + "}";
-            
-        response.getWriter().write(jsonResponse);
-        response.getWriter().flush();
-    }
-
     
 }
\ No newline at end of file
@@ -0,0 +1,92 @@
+package com.apex.firefighter.security;
+
+import com.apex.firefighter.service.RequestRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects ticket creation and NLP queries with 429 Too Many Requests once the caller has used up its allowance.
+ * Runs after the JWT and API key filters, so the caller is identified by the principal they set. Requests made
+ * with an API key are counted separately from the same user's interactive requests.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+    private final RequestRateLimiter rateLimiter;
+
+    public RateLimitFilter(RequestRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestRateLimiter.Endpoint endpoint = limitedEndpoint(request);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (endpoint == null || authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            // Unauthenticated calls are turned away by the authorization rules
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String header = request.getHeader("Authorization");
+        String clientKey = (header != null && header.startsWith("ApiKey ") ? "api-key:" : "user:")
+            + authentication.getName();
+        boolean admin = authentication.getAuthorities().stream()
+            .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+
+        RequestRateLimiter.Decision decision = rateLimiter.tryAcquire(endpoint, clientKey, admin);
+        if (!decision.allowed()) {
+            sendTooManyRequestsResponse(response, decision.retryAfterSeconds());
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static RequestRateLimiter.Endpoint limitedEndpoint(HttpServletRequest request) {
+        if (!"POST".equalsIgnoreCase(request.getMethod())) {
+            return null;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        switch (path) {
+            case "/api/tickets":
+                return RequestRateLimiter.Endpoint.TICKET_CREATION;
+            case "/api/nlp/query":
+            case "/api/nlp/admin/query":
+                return RequestRateLimiter.Endpoint.NLP_QUERY;
+            default:
+                return null;
+        }
+    }
+
+    //Send standardized rate limit response
+    private void sendTooManyRequestsResponse(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.setCharacterEncoding("UTF-8");
+
+        String jsonResponse = "{"
+            + "\"error\": \"RATE_LIMITED\","
+            + "\"message\": \"Too many requests. Please try again in " + retryAfterSeconds + " seconds.\","
+            + "\"retryAfterSeconds\": " + retryAfterSeconds + ","
+            + "\"timestamp\": \"" + java.time.Instant.now().toString() + "\""
+            + "}";
+
+        response.getWriter().write(jsonResponse);
+        response.getWriter().flush();
+    }
+}
@@ -0,0 +1,33 @@
+package com.apex.firefighter.service;
+
+import com.apex.firefighter.model.Ticket;
+import com.apex.firefighter.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * A security alert for every admin, sent through AdminAlertFanout
+ */
+public sealed interface AdminAlert permits AdminAlert.Anomaly, AdminAlert.GroupChange {
+
+    /**
+     * HIGH, MEDIUM or LOW
+     */
+    String riskLevel();
+
+    LocalDateTime raisedAt();
+
+    /**
+     * Anomalous behaviour detected after a ticket was created
+     */
+    record Anomaly(User user, Ticket ticket, String anomalyType, String anomalyDetails, String riskLevel,
+                   LocalDateTime raisedAt) implements AdminAlert {
+    }
+
+    /**
+     * A suspicious Dolibarr group change following a ticket
+     */
+    record GroupChange(User user, String ticketId, String oldGroup, String newGroup, String reason, String riskLevel,
+                       LocalDateTime raisedAt) implements AdminAlert {
+    }
+}
@@ -0,0 +1,209 @@
+package com.apex.firefighter.service;
+
+import com.apex.firefighter.model.User;
+import com.apex.firefighter.repository.UserRepository;
+import com.apex.firefighter.service.user.UserAuthorizationChangedEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Delivers security alerts to every admin.
+ *
+ * Each delivery is a single email with the admins as BCC recipients, so the message is rendered and
+ * queued once however many admins there are. The admin addresses are cached; the cache is dropped
+ * whenever a user's authorization, profile or role changes, and reloaded after a TTL to pick up admin
+ * flags changed directly in the database.
+ *
+ * The first alert after a quiet period is sent at once. Alerts raised during the following digest window
+ * are held back and sent together as one digest email when the window ends, and the window restarts for
+ * as long as alerts keep arriving, so a burst produces one email per window rather than one per alert.
+ * A window of 0 sends every alert as it comes.
+ */
+@Service
+public class AdminAlertFanout {
+
+    private final GmailEmailService emailService;
+    private final UserRepository userRepository;
+    private final long digestWindowMillis;
+    private final long recipientCacheTtlMillis;
+    private final ScheduledThreadPoolExecutor digestScheduler;
+
+    // Alerts waiting for the current digest window to end; guarded by itself, as is windowOpen
+    private final List<AdminAlert> pending = new ArrayList<>();
+    private boolean windowOpen;
+    private boolean stopped;
+
+    private volatile CachedRecipients recipients;
+    private final AtomicLong recipientGeneration = new AtomicLong();
+
+    private final LongAdder alertsPublished = new LongAdder();
+    private final LongAdder emailsSent = new LongAdder();
+    private final LongAdder digestsSent = new LongAdder();
+    private final LongAdder sendFailures = new LongAdder();
+
+    public AdminAlertFanout(GmailEmailService emailService,
+                            UserRepository userRepository,
+                            @Value("${admin-alerts.digest-window-millis:60000}") long digestWindowMillis,
+                            @Value("${admin-alerts.recipient-cache-ttl-millis:300000}") long recipientCacheTtlMillis) {
+        this.emailService = emailService;
+        this.userRepository = userRepository;
+        this.digestWindowMillis = digestWindowMillis;
+        this.recipientCacheTtlMillis = recipientCacheTtlMillis;
+        this.digestScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "admin-alert-digest");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Sends the remaining held-back alerts before the application stops
+     */
+    @PreDestroy
+    public void stop() {
+        List<AdminAlert> batch;
+        synchronized (pending) {
+            stopped = true;
+            windowOpen = false;
+            batch = new ArrayList<>(pending);
+            pending.clear();
+        }
+        digestScheduler.shutdownNow();
+        if (!batch.isEmpty()) {
+            deliver(batch);
+        }
+    }
+
+    /**
+     * Sends an alert to all admins now, or adds it to the digest if one was sent within the window
+     */
+    public void publish(AdminAlert alert) {
+        alertsPublished.increment();
+        if (digestWindowMillis > 0) {
+            synchronized (pending) {
+                if (windowOpen) {
+                    pending.add(alert);
+                    System.out.println("🕒 ADMIN ALERTS: " + alert.getClass().getSimpleName() + " alert added to digest ("
+                        + pending.size() + " pending)");
+                    return;
+                }
+                if (!stopped) {
+                    windowOpen = true;
+                    scheduleDigest();
+                }
+            }
+        }
+        deliver(List.of(alert));
+    }
+
+    private void scheduleDigest() {
+        try {
+            digestScheduler.schedule(this::sendDigest, digestWindowMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: stop() sends whatever is pending
+            windowOpen = false;
+        }
+    }
+
+    /**
+     * Sends the alerts held back during the window that just ended.
+     * The window stays open while there was something to send, so a sustained burst keeps being batched.
+     */
+    private void sendDigest() {
+        List<AdminAlert> batch;
+        synchronized (pending) {
+            if (pending.isEmpty() || stopped) {
+                windowOpen = false;
+                return;
+            }
+            batch = new ArrayList<>(pending);
+            pending.clear();
+            scheduleDigest();
+        }
+        deliver(batch);
+    }
+
+    private void deliver(List<AdminAlert> alerts) {
+        try {
+            List<String> adminEmails = getAdminEmails();
+            if (adminEmails.isEmpty()) {
+                System.out.println("⚠️ ADMIN ALERTS: No admin users found to notify");
+                return;
+            }
+            emailService.sendAdminAlertEmail(adminEmails, alerts);
+            emailsSent.increment();
+            if (alerts.size() > 1) {
+                digestsSent.increment();
+            }
+            System.out.println("✅ ADMIN ALERTS: Sent " + (alerts.size() > 1 ? "digest of " + alerts.size() + " alerts" : "alert")
+                + " to " + adminEmails.size() + " admin(s)");
+        } catch (MessagingException | RuntimeException e) {
+            sendFailures.increment();
+            System.err.println("❌ ADMIN ALERTS: Failed to notify admins of " + alerts.size() + " alert(s): " + e.getMessage());
+        }
+    }
+
+    /**
+     * Email addresses of all admin users, from the cache while it is fresh
+     */
+    public List<String> getAdminEmails() {
+        long now = System.currentTimeMillis();
+        CachedRecipients cached = recipients;
+        if (cached != null && now - cached.loadedAtMillis() < recipientCacheTtlMillis) {
+            return cached.emails();
+        }
+
+        long generation = recipientGeneration.get();
+        List<String> emails = userRepository.findByIsAdminTrue().stream()
+            .map(User::getEmail)
+            .filter(Objects::nonNull)
+            .distinct()
+            .toList();
+        // Do not cache a list read before an invalidation that happened while it was loading
+        if (recipientGeneration.get() == generation) {
+            recipients = new CachedRecipients(emails, now);
+        }
+        return emails;
+    }
+
+    public void invalidateRecipients() {
+        recipientGeneration.incrementAndGet();
+        recipients = null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAuthorizationChanged(UserAuthorizationChangedEvent event) {
+        invalidateRecipients();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("digestWindowMillis", digestWindowMillis);
+        metrics.put("alertsPublished", alertsPublished.sum());
+        metrics.put("emailsSent", emailsSent.sum());
+        metrics.put("digestsSent", digestsSent.sum());
+        metrics.put("sendFailures", sendFailures.sum());
+        synchronized (pending) {
+            metrics.put("pendingAlerts", pending.size());
+        }
+        CachedRecipients cached = recipients;
+        metrics.put("cachedAdminRecipients", cached != null ? cached.emails().size() : null);
+        return metrics;
+    }
+
+    private record CachedRecipients(List<String> emails, long loadedAtMillis) {}
+}
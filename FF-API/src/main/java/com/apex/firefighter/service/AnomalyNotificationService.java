@@ -7,27 +7,27 @@ import com.apex.firefighter.service.anomaly.AnomalyDetectionService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import jakarta.mail.MessagingException;
-import java.util.List;
+import java.time.LocalDateTime;
 
 @Service
 public class AnomalyNotificationService {
 
-    private final GmailEmailService emailService;
+    private final AdminAlertFanout adminAlertFanout;
     private final UserRepository userRepository;
     private final AnomalyDetectionService anomalyDetectionService;
 
     @Autowired
-    public AnomalyNotificationService(GmailEmailService emailService, 
+    public AnomalyNotificationService(AdminAlertFanout adminAlertFanout,
                                     UserRepository userRepository,
                                     AnomalyDetectionService anomalyDetectionService) {
-        this.emailService = emailService;
+        this.adminAlertFanout = adminAlertFanout;
         this.userRepository = userRepository;
         this.anomalyDetectionService = anomalyDetectionService;
     }
 
     /**
-     * Notifies all admin users about detected anomalous behavior
+     * Notifies all admin users about detected anomalous behavior.
+     * Delivery, including coalescing bursts into a digest, is left to AdminAlertFanout.
      * 
      * @param user The user who exhibited anomalous behavior
      * @param ticket The ticket that triggered the anomaly detection
@@ -36,35 +36,11 @@ public class AnomalyNotificationService {
      */
     public void notifyAdminsOfAnomaly(User user, Ticket ticket, String anomalyType, String anomalyDetails) {
         try {
-            // Get all admin users
-            List<User> adminUsers = userRepository.findByIsAdminTrue();
-            
-            if (adminUsers.isEmpty()) {
-                System.out.println("⚠️ ANOMALY NOTIFICATION: No admin users found to notify");
-                return;
-            }
-
             String riskLevel = determineRiskLevel(anomalyType);
-            System.out.println("🚨 ANOMALY NOTIFICATION: " + anomalyType + " detected (" + riskLevel + " risk) - sending notifications to " + adminUsers.size() + " admin(s)");
-            
-            // Send notification to each admin
-            for (User admin : adminUsers) {
-                try {
-                    emailService.sendAnomalyDetectionNotificationEmail(
-                        admin.getEmail(),
-                        user,
-                        ticket,
-                        anomalyType,
-                        anomalyDetails,
-                        riskLevel
-                    );
-                    System.out.println("✅ ANOMALY NOTIFICATION: Sent " + anomalyType + " notification to admin " + admin.getUsername() + " (" + admin.getEmail() + ")");
-                } catch (MessagingException e) {
-                    System.err.println("❌ ANOMALY NOTIFICATION: Failed to send notification to admin " + admin.getUsername() + ": " + e.getMessage());
-                    // Continue with other admins even if one fails
-                }
-            }
-            
+            System.out.println("🚨 ANOMALY NOTIFICATION: " + anomalyType + " detected (" + riskLevel + " risk) - notifying admins");
+
+            adminAlertFanout.publish(new AdminAlert.Anomaly(user, ticket, anomalyType, anomalyDetails, riskLevel, LocalDateTime.now()));
+
         } catch (Exception e) {
             System.err.println("❌ ANOMALY NOTIFICATION: Failed to notify admins of anomaly: " + e.getMessage());
         }
@@ -9,6 +9,7 @@ import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.List;
 
 /**
  * Service for direct database operations on the Dolibarr database.
@@ -188,6 +189,88 @@ public class DolibarrDatabaseService {
         }
     }
 
+    /**
+     * Adds many user-group memberships at once. All rows are sent as a single JDBC batch
+     * on one connection and committed together. Memberships that already exist are skipped
+     * by the unique (entity, fk_user, fk_usergroup) key through ON CONFLICT DO NOTHING,
+     * so no per-row existence check is needed.
+     *
+     * @param memberships The memberships to add
+     * @return The number of memberships actually inserted
+     * @throws SQLException if database operation fails; no rows are inserted in that case
+     */
+    public int addUsersToGroups(List<Membership> memberships) throws SQLException {
+        String sql = "INSERT INTO llx_usergroup_user (entity, fk_user, fk_usergroup) VALUES (1, ?, ?) ON CONFLICT DO NOTHING";
+        int rowsAffected = executeMembershipBatch(sql, memberships, "add");
+        if (!memberships.isEmpty()) {
+            System.out.println("✅ DOLIBARR DB: Added " + rowsAffected + " of " + memberships.size() +
+                             " firefighter group membership(s) (" + (memberships.size() - rowsAffected) + " already present)");
+        }
+        return rowsAffected;
+    }
+
+    /**
+     * Removes many user-group memberships at once, as a single JDBC batch on one
+     * connection committed together.
+     *
+     * @param memberships The memberships to remove
+     * @return The number of memberships actually deleted
+     * @throws SQLException if database operation fails; no rows are deleted in that case
+     */
+    public int removeUsersFromGroups(List<Membership> memberships) throws SQLException {
+        String sql = "DELETE FROM llx_usergroup_user WHERE fk_user = ? AND fk_usergroup = ?";
+        int rowsAffected = executeMembershipBatch(sql, memberships, "remove");
+        if (!memberships.isEmpty()) {
+            System.out.println("✅ DOLIBARR DB: Removed " + rowsAffected + " of " + memberships.size() +
+                             " firefighter group membership(s)");
+        }
+        return rowsAffected;
+    }
+
+    private int executeMembershipBatch(String sql, List<Membership> memberships, String operation) throws SQLException {
+        if (memberships == null || memberships.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection connection = dolibarrDataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                for (Membership membership : memberships) {
+                    statement.setInt(1, Integer.parseInt(membership.dolibarrUserId()));
+                    statement.setInt(2, membership.firefighterGroupId());
+                    statement.addBatch();
+                }
+
+                int rowsAffected = 0;
+                for (int count : statement.executeBatch()) {
+                    if (count > 0) {
+                        rowsAffected += count;
+                    }
+                }
+                connection.commit();
+                return rowsAffected;
+
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+
+        } catch (NumberFormatException e) {
+            String errorMsg = "❌ DOLIBARR DB: Invalid ID format for batch " + operation + " operation - memberships: " + memberships;
+            System.err.println(errorMsg);
+            throw new IllegalArgumentException(errorMsg, e);
+        } catch (SQLException e) {
+            String errorMsg = "❌ DOLIBARR DB: Failed to " + operation + " " + memberships.size() +
+                            " firefighter group membership(s): " + e.getMessage();
+            System.err.println(errorMsg);
+            throw e;
+        }
+    }
+
     /**
      * Test method to verify database connectivity
      */
@@ -199,4 +282,9 @@ public class DolibarrDatabaseService {
             return false;
         }
     }
+
+    /**
+     * A single row of llx_usergroup_user: a Dolibarr user in a firefighter group
+     */
+    public record Membership(String dolibarrUserId, Integer firefighterGroupId) {}
 }
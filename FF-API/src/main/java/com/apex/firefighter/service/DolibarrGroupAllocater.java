@@ -3,19 +3,54 @@ package com.apex.firefighter.service;
 import com.apex.firefighter.config.DoliGroupConfig;
 import com.apex.firefighter.config.DolibarrPermissionsConfig;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.springframework.stereotype.Service;
 
 @Service
 public class DolibarrGroupAllocater {
+
+    /**
+     * Frontend permission values and the DolibarrPermissionsConfig property each one maps to.
+     * Add new fine-grained permissions here.
+     */
+    private static final Map<String, Function<DolibarrPermissionsConfig, Integer>> PERMISSION_VOCABULARY = buildVocabulary();
+
     private final DoliGroupConfig properties;
     private final DolibarrPermissionsConfig permissionsConfig;
 
+    // Resolved once at startup from the bound configuration; both maps are read-only afterwards
+    private final Map<String, Integer> groupIdsByPermission;
+    private final Map<Integer, String> permissionsByGroupId;
+
     public DolibarrGroupAllocater(DoliGroupConfig properties, DolibarrPermissionsConfig permissionsConfig) {
         this.properties = properties;
         this.permissionsConfig = permissionsConfig;
+
+        Map<String, Integer> byPermission = new HashMap<>();
+        Map<Integer, String> byGroupId = new HashMap<>();
+        for (Map.Entry<String, Function<DolibarrPermissionsConfig, Integer>> entry : PERMISSION_VOCABULARY.entrySet()) {
+            Integer groupId = entry.getValue().apply(permissionsConfig);
+            if (groupId == null) {
+                continue;
+            }
+            byPermission.put(entry.getKey(), groupId);
+            // If several permissions share a group, the first one in the vocabulary names it
+            byGroupId.putIfAbsent(groupId, entry.getKey());
+        }
+        this.groupIdsByPermission = Map.copyOf(byPermission);
+        this.permissionsByGroupId = Map.copyOf(byGroupId);
+
+        System.out.println("✅ PERMISSION MAPPER: Compiled " + groupIdsByPermission.size() + " of "
+            + PERMISSION_VOCABULARY.size() + " permission mappings");
     }
 
     /**
@@ -34,13 +69,9 @@ public class DolibarrGroupAllocater {
             throw new IllegalArgumentException("Description cannot be null or empty");
         }
 
-        System.out.println("🔍 GROUP ALLOCATOR: Processing description: '" + description + "'");
-
         // Extract the permission value from the description (first word before any space)
         // This handles cases where the description is like "user-read-users-groups Need to view team"
-        String permissionValue = description.trim().split("\\s+")[0];
-        
-        System.out.println("🔍 GROUP ALLOCATOR: Extracted permission value: '" + permissionValue + "'");
+        String permissionValue = firstToken(description);
 
         // Use the new fine-grained permission mapper
         return getPermissionGroupId(permissionValue);
@@ -74,125 +105,13 @@ public class DolibarrGroupAllocater {
             throw new IllegalArgumentException("Permission value cannot be null or empty");
         }
 
-        String permValue = permissionValue.trim().toLowerCase();
-        
-        System.out.println("🔍 PERMISSION MAPPER: Looking up group ID for permission: '" + permissionValue + "'");
-
-        // Map frontend permission values to their corresponding getter methods in DolibarrPermissionsConfig
-        Integer groupId = switch (permValue) {
-            // User Management (IDs 12-18)
-            case "user-read-users-groups" -> permissionsConfig.getReadUsersGroups();
-            case "user-modify-users-groups" -> permissionsConfig.getModifyUsersGroups();
-            case "user-modify-password" -> permissionsConfig.getModifyUserPassword();
-            case "user-delete-users" -> permissionsConfig.getDeleteUsers();
-            case "user-modify-own" -> permissionsConfig.getModifyOwnUser();
-            case "user-modify-own-password" -> permissionsConfig.getModifyOwnPassword();
-            case "user-export-users" -> permissionsConfig.getExportUsers();
-            
-            // Third Parties (IDs 19-23)
-            case "third-party-read" -> permissionsConfig.getReadThirdParties();
-            case "third-party-modify" -> permissionsConfig.getModifyThirdParties();
-            case "third-party-delete" -> permissionsConfig.getDeleteThirdParties();
-            case "third-party-export" -> permissionsConfig.getExportThirdParties();
-            case "third-party-extend-access" -> permissionsConfig.getExtendThirdPartiesAccess();
-            
-            // Contacts (IDs 24-27)
-            case "contacts-read" -> permissionsConfig.getReadContacts();
-            case "contacts-modify" -> permissionsConfig.getModifyContacts();
-            case "contacts-delete" -> permissionsConfig.getDeleteContacts();
-            case "contacts-export" -> permissionsConfig.getExportContacts();
-            
-            // Customer Orders (IDs 28-31)
-            case "orders-read" -> permissionsConfig.getReadCustomerOrders();
-            case "orders-modify" -> permissionsConfig.getModifyCustomerOrders();
-            case "orders-delete" -> permissionsConfig.getDeleteCustomerOrders();
-            case "orders-export" -> permissionsConfig.getExportSalesOrders();
-            
-            // Actions/Events - Own (IDs 32-34)
-            case "actions-own-read" -> permissionsConfig.getReadOwnActions();
-            case "actions-own-modify" -> permissionsConfig.getModifyOwnActions();
-            case "actions-own-delete" -> permissionsConfig.getDeleteOwnActions();
-            
-            // Actions/Events - Others (IDs 35-38)
-            case "actions-others-read" -> permissionsConfig.getReadOthersActions();
-            case "actions-others-modify" -> permissionsConfig.getModifyOthersActions();
-            case "actions-others-delete" -> permissionsConfig.getDeleteOthersActions();
-            case "actions-export" -> permissionsConfig.getExportActions();
-            
-            // API Keys (ID 39)
-            case "api-generate-key" -> permissionsConfig.getGenerateApiKey();
-            
-            // Products (IDs 40-43)
-            case "products-read" -> permissionsConfig.getReadProducts();
-            case "products-modify" -> permissionsConfig.getModifyProducts();
-            case "products-delete" -> permissionsConfig.getDeleteProducts();
-            case "products-export" -> permissionsConfig.getExportProducts();
-            
-            // Warehouses/Stock (IDs 44-48)
-            case "warehouse-read" -> permissionsConfig.getReadWarehousesStocks();
-            case "warehouse-modify" -> permissionsConfig.getModifyWarehouses();
-            case "warehouse-delete" -> permissionsConfig.getDeleteWarehouses();
-            case "stock-read" -> permissionsConfig.getReadStockMovements();
-            case "stock-modify" -> permissionsConfig.getModifyStockMovements();
-            
-            // Shipping/Delivery (IDs 49-55)
-            case "shipping-read" -> permissionsConfig.getReadSendings();
-            case "shipping-modify" -> permissionsConfig.getModifySendings();
-            case "shipping-export" -> permissionsConfig.getExportSendings();
-            case "shipping-delete" -> permissionsConfig.getDeleteSendings();
-            case "delivery-read" -> permissionsConfig.getReadDeliveryReceipts();
-            case "delivery-modify" -> permissionsConfig.getModifyDeliveryReceipts();
-            case "delivery-delete" -> permissionsConfig.getDeleteDeliveryReceipts();
-            
-            // HR - Skills/Jobs (IDs 56-58)
-            case "hr-skills-read" -> permissionsConfig.getReadSkillsJobs();
-            case "hr-skills-modify" -> permissionsConfig.getModifySkillsJobs();
-            case "hr-skills-delete" -> permissionsConfig.getDeleteSkillsJobs();
-            
-            // HR - Evaluations (IDs 59-62)
-            case "hr-eval-read" -> permissionsConfig.getReadEvaluations();
-            case "hr-eval-modify" -> permissionsConfig.getModifyEvaluations();
-            case "hr-eval-delete" -> permissionsConfig.getDeleteEvaluations();
-            case "hr-eval-read-all" -> permissionsConfig.getReadAllEvaluations();
-            
-            // HR - Personal Info (IDs 63-64)
-            case "hr-personal-read" -> permissionsConfig.getReadPersonalInfo();
-            case "hr-personal-write" -> permissionsConfig.getWritePersonalInfo();
-            
-            // HR - Salaries (IDs 65-69)
-            case "hr-salary-read" -> permissionsConfig.getReadSalaries();
-            case "hr-salary-modify" -> permissionsConfig.getModifySalaries();
-            case "hr-salary-delete" -> permissionsConfig.getDeleteSalaries();
-            case "hr-salary-read-all" -> permissionsConfig.getReadAllSalaries();
-            case "hr-salary-export" -> permissionsConfig.getExportSalaries();
-            
-            // Tickets (IDs 70-74)
-            case "tickets-see" -> permissionsConfig.getSeeTickets();
-            case "tickets-modify" -> permissionsConfig.getModifyTickets();
-            case "tickets-delete" -> permissionsConfig.getDeleteTickets();
-            case "tickets-manage" -> permissionsConfig.getManageTickets();
-            case "tickets-export" -> permissionsConfig.getExportTickets();
-            
-            // Manufacturing - BOM (IDs 75-77)
-            case "bom-read" -> permissionsConfig.getReadBom();
-            case "bom-modify" -> permissionsConfig.getModifyBom();
-            case "bom-delete" -> permissionsConfig.getDeleteBom();
-            
-            // Manufacturing - MO (IDs 78-80)
-            case "mo-read" -> permissionsConfig.getReadMo();
-            case "mo-modify" -> permissionsConfig.getModifyMo();
-            case "mo-delete" -> permissionsConfig.getDeleteMo();
-            
-            // Data Import/Export (IDs 81-83)
-            case "data-import" -> permissionsConfig.getRunMassImports();
-            case "data-export-get" -> permissionsConfig.getGetExportResult();
-            case "data-export-modify" -> permissionsConfig.getModifyExport();
-            
-            // Module Development (ID 84)
-            case "system-generate-modules" -> permissionsConfig.getGenerateModules();
-            
-            default -> null;
-        };
+        String permValue = permissionValue.trim();
+
+        // Frontend values are already lower case; only fold case when the exact lookup misses
+        Integer groupId = groupIdsByPermission.get(permValue);
+        if (groupId == null) {
+            groupId = groupIdsByPermission.get(permValue.toLowerCase(Locale.ROOT));
+        }
 
         if (groupId == null) {
             throw new IllegalArgumentException(
@@ -200,10 +119,29 @@ public class DolibarrGroupAllocater {
                 "Please ensure this permission is mapped in DolibarrGroupAllocater and configured in application.properties");
         }
 
-        System.out.println("✅ PERMISSION MAPPER: Mapped '" + permissionValue + "' -> Dolibarr group ID " + groupId);
         return groupId;
     }
 
+    /**
+     * Reverse lookup of getPermissionGroupId(): finds the permission value that maps to a Dolibarr group ID.
+     *
+     * @param groupId The Dolibarr group ID
+     * @return The permission value (e.g., "hr-salary-read"), or empty if no configured permission uses this group
+     */
+    public Optional<String> getPermissionForGroupId(Integer groupId) {
+        if (groupId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(permissionsByGroupId.get(groupId));
+    }
+
+    /**
+     * All permission values this allocater understands, in frontend dropdown order
+     */
+    public static Set<String> getPermissionVocabulary() {
+        return PERMISSION_VOCABULARY.keySet();
+    }
+
     /**
      * Get fine-grained permission group IDs for a specific category
      * This returns multiple permission groups instead of a single legacy group
@@ -224,4 +162,139 @@ public class DolibarrGroupAllocater {
         
         return permissions;
     }
+
+    /**
+     * Returns the first whitespace-delimited word of the text, without compiling a regex.
+     * Text with no word at all yields an empty string.
+     */
+    private static String firstToken(String text) {
+        int length = text.length();
+        int start = 0;
+        while (start < length && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        int end = start;
+        while (end < length && !Character.isWhitespace(text.charAt(end))) {
+            end++;
+        }
+        return text.substring(start, end);
+    }
+
+    private static Map<String, Function<DolibarrPermissionsConfig, Integer>> buildVocabulary() {
+        Map<String, Function<DolibarrPermissionsConfig, Integer>> vocabulary = new LinkedHashMap<>();
+
+        // User Management (IDs 12-18)
+        vocabulary.put("user-read-users-groups", DolibarrPermissionsConfig::getReadUsersGroups);
+        vocabulary.put("user-modify-users-groups", DolibarrPermissionsConfig::getModifyUsersGroups);
+        vocabulary.put("user-modify-password", DolibarrPermissionsConfig::getModifyUserPassword);
+        vocabulary.put("user-delete-users", DolibarrPermissionsConfig::getDeleteUsers);
+        vocabulary.put("user-modify-own", DolibarrPermissionsConfig::getModifyOwnUser);
+        vocabulary.put("user-modify-own-password", DolibarrPermissionsConfig::getModifyOwnPassword);
+        vocabulary.put("user-export-users", DolibarrPermissionsConfig::getExportUsers);
+
+        // Third Parties (IDs 19-23)
+        vocabulary.put("third-party-read", DolibarrPermissionsConfig::getReadThirdParties);
+        vocabulary.put("third-party-modify", DolibarrPermissionsConfig::getModifyThirdParties);
+        vocabulary.put("third-party-delete", DolibarrPermissionsConfig::getDeleteThirdParties);
+        vocabulary.put("third-party-export", DolibarrPermissionsConfig::getExportThirdParties);
+        vocabulary.put("third-party-extend-access", DolibarrPermissionsConfig::getExtendThirdPartiesAccess);
+
+        // Contacts (IDs 24-27)
+        vocabulary.put("contacts-read", DolibarrPermissionsConfig::getReadContacts);
+        vocabulary.put("contacts-modify", DolibarrPermissionsConfig::getModifyContacts);
+        vocabulary.put("contacts-delete", DolibarrPermissionsConfig::getDeleteContacts);
+        vocabulary.put("contacts-export", DolibarrPermissionsConfig::getExportContacts);
+
+        // Customer Orders (IDs 28-31)
+        vocabulary.put("orders-read", DolibarrPermissionsConfig::getReadCustomerOrders);
+        vocabulary.put("orders-modify", DolibarrPermissionsConfig::getModifyCustomerOrders);
+        vocabulary.put("orders-delete", DolibarrPermissionsConfig::getDeleteCustomerOrders);
+        vocabulary.put("orders-export", DolibarrPermissionsConfig::getExportSalesOrders);
+
+        // Actions/Events - Own (IDs 32-34)
+        vocabulary.put("actions-own-read", DolibarrPermissionsConfig::getReadOwnActions);
+        vocabulary.put("actions-own-modify", DolibarrPermissionsConfig::getModifyOwnActions);
+        vocabulary.put("actions-own-delete", DolibarrPermissionsConfig::getDeleteOwnActions);
+
+        // Actions/Events - Others (IDs 35-38)
+        vocabulary.put("actions-others-read", DolibarrPermissionsConfig::getReadOthersActions);
+        vocabulary.put("actions-others-modify", DolibarrPermissionsConfig::getModifyOthersActions);
+        vocabulary.put("actions-others-delete", DolibarrPermissionsConfig::getDeleteOthersActions);
+        vocabulary.put("actions-export", DolibarrPermissionsConfig::getExportActions);
+
+        // API Keys (ID 39)
+        vocabulary.put("api-generate-key", DolibarrPermissionsConfig::getGenerateApiKey);
+
+        // Products (IDs 40-43)
+        vocabulary.put("products-read", DolibarrPermissionsConfig::getReadProducts);
+        vocabulary.put("products-modify", DolibarrPermissionsConfig::getModifyProducts);
+        vocabulary.put("products-delete", DolibarrPermissionsConfig::getDeleteProducts);
+        vocabulary.put("products-export", DolibarrPermissionsConfig::getExportProducts);
+
+        // Warehouses/Stock (IDs 44-48)
+        vocabulary.put("warehouse-read", DolibarrPermissionsConfig::getReadWarehousesStocks);
+        vocabulary.put("warehouse-modify", DolibarrPermissionsConfig::getModifyWarehouses);
+        vocabulary.put("warehouse-delete", DolibarrPermissionsConfig::getDeleteWarehouses);
+        vocabulary.put("stock-read", DolibarrPermissionsConfig::getReadStockMovements);
+        vocabulary.put("stock-modify", DolibarrPermissionsConfig::getModifyStockMovements);
+
+        // Shipping/Delivery (IDs 49-55)
+        vocabulary.put("shipping-read", DolibarrPermissionsConfig::getReadSendings);
+        vocabulary.put("shipping-modify", DolibarrPermissionsConfig::getModifySendings);
+        vocabulary.put("shipping-export", DolibarrPermissionsConfig::getExportSendings);
+        vocabulary.put("shipping-delete", DolibarrPermissionsConfig::getDeleteSendings);
+        vocabulary.put("delivery-read", DolibarrPermissionsConfig::getReadDeliveryReceipts);
+        vocabulary.put("delivery-modify", DolibarrPermissionsConfig::getModifyDeliveryReceipts);
+        vocabulary.put("delivery-delete", DolibarrPermissionsConfig::getDeleteDeliveryReceipts);
+
+        // HR - Skills/Jobs (IDs 56-58)
+        vocabulary.put("hr-skills-read", DolibarrPermissionsConfig::getReadSkillsJobs);
+        vocabulary.put("hr-skills-modify", DolibarrPermissionsConfig::getModifySkillsJobs);
+        vocabulary.put("hr-skills-delete", DolibarrPermissionsConfig::getDeleteSkillsJobs);
+
+        // HR - Evaluations (IDs 59-62)
+        vocabulary.put("hr-eval-read", DolibarrPermissionsConfig::getReadEvaluations);
+        vocabulary.put("hr-eval-modify", DolibarrPermissionsConfig::getModifyEvaluations);
+        vocabulary.put("hr-eval-delete", DolibarrPermissionsConfig::getDeleteEvaluations);
+        vocabulary.put("hr-eval-read-all", DolibarrPermissionsConfig::getReadAllEvaluations);
+
+        // HR - Personal Info (IDs 63-64)
+        vocabulary.put("hr-personal-read", DolibarrPermissionsConfig::getReadPersonalInfo);
+        vocabulary.put("hr-personal-write", DolibarrPermissionsConfig::getWritePersonalInfo);
+
+        // HR - Salaries (IDs 65-69)
+        vocabulary.put("hr-salary-read", DolibarrPermissionsConfig::getReadSalaries);
+        vocabulary.put("hr-salary-modify", DolibarrPermissionsConfig::getModifySalaries);
+        vocabulary.put("hr-salary-delete", DolibarrPermissionsConfig::getDeleteSalaries);
+        vocabulary.put("hr-salary-read-all", DolibarrPermissionsConfig::getReadAllSalaries);
+        vocabulary.put("hr-salary-export", DolibarrPermissionsConfig::getExportSalaries);
+
+        // Tickets (IDs 70-74)
+        vocabulary.put("tickets-see", DolibarrPermissionsConfig::getSeeTickets);
+        vocabulary.put("tickets-modify", DolibarrPermissionsConfig::getModifyTickets);
+        vocabulary.put("tickets-delete", DolibarrPermissionsConfig::getDeleteTickets);
+        vocabulary.put("tickets-manage", DolibarrPermissionsConfig::getManageTickets);
+        vocabulary.put("tickets-export", DolibarrPermissionsConfig::getExportTickets);
+
+        // Manufacturing - BOM (IDs 75-77)
+        vocabulary.put("bom-read", DolibarrPermissionsConfig::getReadBom);
+        vocabulary.put("bom-modify", DolibarrPermissionsConfig::getModifyBom);
+        vocabulary.put("bom-delete", DolibarrPermissionsConfig::getDeleteBom);
+
+        // Manufacturing - MO (IDs 78-80)
+        vocabulary.put("mo-read", DolibarrPermissionsConfig::getReadMo);
+        vocabulary.put("mo-modify", DolibarrPermissionsConfig::getModifyMo);
+        vocabulary.put("mo-delete", DolibarrPermissionsConfig::getDeleteMo);
+
+        // Data Import/Export (IDs 81-83)
+        vocabulary.put("data-import", DolibarrPermissionsConfig::getRunMassImports);
+        vocabulary.put("data-export-get", DolibarrPermissionsConfig::getGetExportResult);
+        vocabulary.put("data-export-modify", DolibarrPermissionsConfig::getModifyExport);
+
+        // Module Development (ID 84)
+        vocabulary.put("system-generate-modules", DolibarrPermissionsConfig::getGenerateModules);
+
+
+        return Collections.unmodifiableMap(vocabulary);
+    }
 }
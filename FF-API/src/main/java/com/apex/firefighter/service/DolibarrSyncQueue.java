@@ -0,0 +1,298 @@
+package com.apex.firefighter.service;
+
+import com.apex.firefighter.model.DolibarrSyncTask;
+import com.apex.firefighter.repository.DolibarrSyncTaskRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind queue for Dolibarr group membership changes.
+ *
+ * Every change is first stored in the dolibarr_sync_outbox table and then handed to one of
+ * a fixed number of single-threaded lanes, chosen by Dolibarr user ID. Because a user always
+ * maps to the same lane, and a task only runs once every older task for that user has finished,
+ * an add and a later remove for the same user are never reordered. Lanes have bounded queues;
+ * a task that does not fit stays in the outbox and is picked up by the periodic poll.
+ *
+ * An add followed by a remove (or the reverse) for the same user and group that has not been
+ * attempted yet cancels out, and a repeated change is dropped. Failed tasks are retried with exponential
+ * backoff and parked as FAILED after the configured number of attempts.
+ */
+@Service
+public class DolibarrSyncQueue {
+
+    private static final List<String> UNFINISHED_STATUSES =
+        List.of(DolibarrSyncTask.STATUS_PENDING, DolibarrSyncTask.STATUS_IN_PROGRESS);
+
+    private final DolibarrSyncTaskRepository syncTaskRepository;
+    private final DolibarrUserGroupService dolibarrUserGroupService;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final ThreadPoolExecutor[] lanes;
+    private final Object[] laneLocks;
+
+    // IDs of tasks currently sitting in, or running on, a lane
+    private final Set<Long> dispatchedTaskIds = ConcurrentHashMap.newKeySet();
+
+    public DolibarrSyncQueue(DolibarrSyncTaskRepository syncTaskRepository,
+                             DolibarrUserGroupService dolibarrUserGroupService,
+                             @Value("${dolibarr.sync.lanes:4}") int laneCount,
+                             @Value("${dolibarr.sync.queue-capacity:1000}") int queueCapacity,
+                             @Value("${dolibarr.sync.max-attempts:8}") int maxAttempts,
+                             @Value("${dolibarr.sync.initial-backoff-millis:1000}") long initialBackoffMillis,
+                             @Value("${dolibarr.sync.max-backoff-millis:300000}") long maxBackoffMillis) {
+        this.syncTaskRepository = syncTaskRepository;
+        this.dolibarrUserGroupService = dolibarrUserGroupService;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        this.laneLocks = new Object[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            String threadName = "dolibarr-sync-" + i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                });
+            laneLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Recovers tasks left in progress by a previous run and dispatches everything due
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            int recovered = syncTaskRepository.resetInProgressTasks();
+            if (recovered > 0) {
+                System.out.println("🔄 DOLIBARR SYNC: Recovered " + recovered + " interrupted task(s) from the outbox");
+            }
+            pollDueTasks();
+        } catch (Exception e) {
+            System.err.println("❌ DOLIBARR SYNC: Failed to recover outbox on startup: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdownNow();
+        }
+    }
+
+    /**
+     * Queues adding a user to the firefighter group allocated for a description
+     *
+     * @param dolibarrUserId The Dolibarr user ID
+     * @param description The emergency description that determines the group
+     * @param ticketId The ticket ID that triggered the change (for admin notifications), may be null
+     */
+    public void enqueueAdd(String dolibarrUserId, String description, String ticketId) {
+        enqueue(DolibarrSyncTask.OPERATION_ADD, dolibarrUserId, description, ticketId);
+    }
+
+    /**
+     * Queues removing a user from the firefighter group allocated for a description
+     *
+     * @param dolibarrUserId The Dolibarr user ID
+     * @param description The emergency description that determines the group
+     * @param ticketId The ticket ID that triggered the change (for admin notifications), may be null
+     */
+    public void enqueueRemove(String dolibarrUserId, String description, String ticketId) {
+        enqueue(DolibarrSyncTask.OPERATION_REMOVE, dolibarrUserId, description, ticketId);
+    }
+
+    /**
+     * Re-dispatches pending tasks whose retry time has come, and tasks that did not fit
+     * into a lane when they were queued
+     */
+    @Scheduled(fixedDelayString = "${dolibarr.sync.poll-interval-millis:5000}")
+    public void pollDueTasks() {
+        try {
+            List<DolibarrSyncTask> dueTasks = syncTaskRepository
+                .findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(DolibarrSyncTask.STATUS_PENDING, LocalDateTime.now());
+            for (DolibarrSyncTask task : dueTasks) {
+                dispatch(task);
+            }
+        } catch (Exception e) {
+            System.err.println("❌ DOLIBARR SYNC: Failed to poll outbox: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs a single outbox task. Skips tasks that were already claimed or coalesced, and
+     * defers tasks that still have an older unfinished task for the same user.
+     *
+     * @param taskId The outbox row ID
+     */
+    public void processTask(Long taskId) {
+        if (syncTaskRepository.transitionStatus(taskId, DolibarrSyncTask.STATUS_PENDING, DolibarrSyncTask.STATUS_IN_PROGRESS) == 0) {
+            return;
+        }
+        Optional<DolibarrSyncTask> taskOpt = syncTaskRepository.findById(taskId);
+        if (taskOpt.isEmpty()) {
+            return;
+        }
+        DolibarrSyncTask task = taskOpt.get();
+
+        // Preserve per-user ordering: wait for any older task for this user (e.g. one in backoff)
+        Optional<DolibarrSyncTask> oldest = syncTaskRepository
+            .findFirstByDolibarrUserIdAndStatusInOrderByIdAsc(task.getDolibarrUserId(), UNFINISHED_STATUSES);
+        if (oldest.isPresent() && !oldest.get().getId().equals(taskId)) {
+            syncTaskRepository.transitionStatus(taskId, DolibarrSyncTask.STATUS_IN_PROGRESS, DolibarrSyncTask.STATUS_PENDING);
+            return;
+        }
+
+        try {
+            if (task.isAdd()) {
+                dolibarrUserGroupService.addUserToGroup(task.getDolibarrUserId(), task.getDescription(), task.getTicketId());
+            } else {
+                dolibarrUserGroupService.removeUserFromGroup(task.getDolibarrUserId(), task.getDescription(), task.getTicketId());
+            }
+            syncTaskRepository.deleteById(taskId);
+            System.out.println("✅ DOLIBARR SYNC: Completed " + task.getOperation() + " for user " + task.getDolibarrUserId() +
+                             " (ticket: " + task.getTicketId() + ")");
+        } catch (Exception e) {
+            scheduleRetry(task, e);
+        }
+    }
+
+    /**
+     * Number of unfinished tasks in the outbox (pending or in progress)
+     */
+    public long getQueueDepth() {
+        return syncTaskRepository.countByStatusIn(UNFINISHED_STATUSES);
+    }
+
+    /**
+     * Age of the oldest pending task in milliseconds, or 0 when nothing is pending
+     */
+    public long getLagMillis() {
+        return syncTaskRepository.findFirstByStatusOrderByCreatedAtAsc(DolibarrSyncTask.STATUS_PENDING)
+            .map(task -> Math.max(0, Duration.between(task.getCreatedAt(), LocalDateTime.now()).toMillis()))
+            .orElse(0L);
+    }
+
+    /**
+     * Queue metrics for health reporting
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("queueDepth", getQueueDepth());
+        metrics.put("dispatched", dispatchedTaskIds.size());
+        metrics.put("lagMillis", getLagMillis());
+        metrics.put("failed", syncTaskRepository.countByStatus(DolibarrSyncTask.STATUS_FAILED));
+        return metrics;
+    }
+
+    private void enqueue(String operation, String dolibarrUserId, String description, String ticketId) {
+        if (dolibarrUserId == null || dolibarrUserId.isEmpty()) {
+            System.err.println("⚠️ DOLIBARR SYNC: Ignoring " + operation + " without a Dolibarr user ID (ticket: " + ticketId + ")");
+            return;
+        }
+
+        DolibarrSyncTask task;
+        synchronized (laneLocks[laneIndex(dolibarrUserId)]) {
+            Optional<DolibarrSyncTask> latestPending = syncTaskRepository
+                .findFirstByDolibarrUserIdAndDescriptionAndStatusOrderByIdDesc(dolibarrUserId, description, DolibarrSyncTask.STATUS_PENDING);
+            if (latestPending.isPresent()) {
+                DolibarrSyncTask pending = latestPending.get();
+                if (operation.equals(pending.getOperation())) {
+                    System.out.println("ℹ️ DOLIBARR SYNC: " + operation + " for user " + dolibarrUserId + " already queued (duplicate ignored)");
+                    return;
+                }
+                // An add and a remove that have not been attempted yet cancel each other out; a task
+                // waiting to retry may already have reached Dolibarr, so the new one queues behind it
+                if (pending.getAttempts() == 0
+                        && syncTaskRepository.deleteByIdAndStatus(pending.getId(), DolibarrSyncTask.STATUS_PENDING) > 0) {
+                    System.out.println("ℹ️ DOLIBARR SYNC: Coalesced " + pending.getOperation() + " and " + operation +
+                                     " for user " + dolibarrUserId + " (ticket: " + ticketId + ")");
+                    return;
+                }
+            }
+            task = syncTaskRepository.save(new DolibarrSyncTask(operation, dolibarrUserId, description, ticketId));
+        }
+        dispatch(task);
+    }
+
+    private void dispatch(DolibarrSyncTask task) {
+        Long taskId = task.getId();
+        if (!dispatchedTaskIds.add(taskId)) {
+            return;
+        }
+        try {
+            lanes[laneIndex(task.getDolibarrUserId())].execute(() -> {
+                try {
+                    processTask(taskId);
+                } catch (Exception e) {
+                    System.err.println("❌ DOLIBARR SYNC: Unexpected error processing task " + taskId + ": " + e.getMessage());
+                } finally {
+                    dispatchedTaskIds.remove(taskId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Lane is full; the task stays in the outbox and the next poll retries it
+            dispatchedTaskIds.remove(taskId);
+            System.err.println("⚠️ DOLIBARR SYNC: Lane full, task " + taskId + " deferred to next poll");
+        }
+    }
+
+    private void scheduleRetry(DolibarrSyncTask task, Exception e) {
+        int attempts = task.getAttempts() + 1;
+        task.setAttempts(attempts);
+        task.setLastError(truncate(e.getMessage()));
+
+        if (attempts >= maxAttempts) {
+            task.setStatus(DolibarrSyncTask.STATUS_FAILED);
+            System.err.println("❌ DOLIBARR SYNC: Giving up on " + task.getOperation() + " for user " + task.getDolibarrUserId() +
+                             " after " + attempts + " attempts: " + e.getMessage());
+        } else {
+            long backoffMillis = getBackoffMillis(attempts);
+            task.setStatus(DolibarrSyncTask.STATUS_PENDING);
+            task.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(backoffMillis)));
+            System.err.println("⚠️ DOLIBARR SYNC: " + task.getOperation() + " for user " + task.getDolibarrUserId() +
+                             " failed (attempt " + attempts + "), retrying in " + backoffMillis + " ms: " + e.getMessage());
+        }
+        syncTaskRepository.save(task);
+    }
+
+    /**
+     * Exponential backoff: initial delay doubled for every failed attempt, capped at the maximum
+     */
+    long getBackoffMillis(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        return Math.min(maxBackoffMillis, initialBackoffMillis << shift);
+    }
+
+    private int laneIndex(String dolibarrUserId) {
+        return Math.floorMod(dolibarrUserId.hashCode(), lanes.length);
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() > 1000 ? message.substring(0, 1000) : message;
+    }
+}
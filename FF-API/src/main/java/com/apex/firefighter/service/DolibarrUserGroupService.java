@@ -1,9 +1,12 @@
 package com.apex.firefighter.service;
 
 import com.apex.firefighter.model.User;
-import com.apex.firefighter.repository.UserRepository;
+import com.apex.firefighter.service.DolibarrDatabaseService.Membership;
+import com.apex.firefighter.service.user.DolibarrUserDirectory;
 
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -14,16 +17,16 @@ public class DolibarrUserGroupService {
     private final DolibarrDatabaseService dolibarrDatabaseService;
     private final DolibarrGroupAllocater groupAllocater;
     private final GroupChangeNotificationService notificationService;
-    private final UserRepository userRepository;
+    private final DolibarrUserDirectory dolibarrUserDirectory;
 
     public DolibarrUserGroupService(DolibarrDatabaseService dolibarrDatabaseService, 
                                   DolibarrGroupAllocater groupAllocater,
                                   GroupChangeNotificationService notificationService,
-                                  UserRepository userRepository) {
+                                  DolibarrUserDirectory dolibarrUserDirectory) {
         this.dolibarrDatabaseService = dolibarrDatabaseService;
         this.groupAllocater = groupAllocater;
         this.notificationService = notificationService;
-        this.userRepository = userRepository;
+        this.dolibarrUserDirectory = dolibarrUserDirectory;
         System.out.println("✅ DolibarrUserGroupService initialized with notification support");
     }
 
@@ -110,6 +113,80 @@ public class DolibarrUserGroupService {
         }
     }
 
+    /**
+     * Adds many users to their firefighter groups at once. Each assignment's description
+     * is resolved to a group, then every membership is written in a single batch on one
+     * Dolibarr connection. Assignments with a missing or non-numeric Dolibarr ID, or whose
+     * group cannot be resolved, are logged and skipped.
+     *
+     * @param assignments The users to add, each with the description that determines its group
+     * @throws SQLException if database operation fails
+     */
+    public void addUsersToGroups(List<GroupAssignment> assignments) throws SQLException {
+        List<Membership> memberships = resolveMemberships(assignments);
+        try {
+            dolibarrDatabaseService.addUsersToGroups(memberships);
+        } catch (SQLException e) {
+            System.err.println("❌ DOLIBARR SERVICE: Failed to add " + memberships.size() + " user(s) to firefighter groups: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Removes many users from their firefighter groups at once, e.g. when a batch of
+     * tickets expires together. Each assignment's description is resolved to a group, then
+     * every membership is deleted in a single batch on one Dolibarr connection.
+     * Assignments with a missing or non-numeric Dolibarr ID, or whose group cannot be
+     * resolved, are logged and skipped so they cannot fail the rest of the batch.
+     *
+     * @param assignments The users to remove, each with the description that determines its group
+     * @throws SQLException if database operation fails
+     */
+    public void removeUsersFromGroups(List<GroupAssignment> assignments) throws SQLException {
+        List<Membership> memberships = resolveMemberships(assignments);
+        try {
+            dolibarrDatabaseService.removeUsersFromGroups(memberships);
+        } catch (SQLException e) {
+            System.err.println("❌ DOLIBARR SERVICE: Failed to remove " + memberships.size() + " user(s) from firefighter groups: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    private List<Membership> resolveMemberships(List<GroupAssignment> assignments) {
+        List<Membership> memberships = new ArrayList<>();
+        for (GroupAssignment assignment : assignments) {
+            if (!isValidDolibarrId(assignment.dolibarrUserId())) {
+                System.err.println("❌ DOLIBARR SERVICE: Skipping invalid Dolibarr user ID '" + assignment.dolibarrUserId() + "'");
+                continue;
+            }
+            try {
+                Integer firefighterGroupId = groupAllocater.allocateByDescription(assignment.description());
+                memberships.add(new Membership(assignment.dolibarrUserId(), firefighterGroupId));
+            } catch (Exception e) {
+                System.err.println("❌ DOLIBARR SERVICE: Could not resolve group for user " + assignment.dolibarrUserId() + ": " + e.getMessage());
+            }
+        }
+        return memberships;
+    }
+
+    // The batch parses every ID inside one transaction, so a single bad ID would roll back the others
+    private static boolean isValidDolibarrId(String dolibarrUserId) {
+        if (dolibarrUserId == null) {
+            return false;
+        }
+        try {
+            Integer.parseInt(dolibarrUserId);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    /**
+     * A Dolibarr user paired with the description that determines its firefighter group
+     */
+    public record GroupAssignment(String dolibarrUserId, String description) {}
+
     /**
      * Helper method to notify admins of group changes
      * 
@@ -121,10 +198,8 @@ public class DolibarrUserGroupService {
      */
     private void notifyAdminsOfGroupChange(String dolibarrUserId, String ticketId, Integer oldGroupId, Integer newGroupId, String reason) {
         try {
-            // Find the user by Dolibarr ID
-            Optional<User> userOpt = userRepository.findAll().stream()
-                .filter(user -> dolibarrUserId.equals(user.getDolibarrId()))
-                .findFirst();
+            // Find the user by Dolibarr ID (indexed lookup, cached)
+            Optional<User> userOpt = dolibarrUserDirectory.findByDolibarrId(dolibarrUserId);
 
             if (userOpt.isPresent()) {
                 User user = userOpt.get();
@@ -0,0 +1,489 @@
+package com.apex.firefighter.service;
+
+import com.apex.firefighter.model.EmailDeadLetter;
+import com.apex.firefighter.repository.EmailDeadLetterRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Outbound mail queue, so sending an email never waits for the SMTP server.
+ *
+ * Messages are put on a bounded in-memory queue and sent by a single dispatcher thread over one
+ * SMTP connection that stays open while there is mail to send and is closed after
+ * email.dispatch.idle-close-millis without any. When the queue is full, callers wait up to
+ * email.dispatch.enqueue-timeout-millis for space and then get a MessagingException.
+ *
+ * A failed send is retried with exponential backoff. After the configured number of attempts,
+ * or when the application shuts down first, the message is recorded in the email_dead_letter table.
+ *
+ * With email.dispatch.async=false every message is sent immediately on the caller's thread
+ * through the JavaMailSender, without retries.
+ */
+@Service
+public class EmailDispatchQueue {
+
+    private static final long[] LATENCY_BUCKETS_MILLIS = {50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000};
+
+    private final JavaMailSender mailSender;
+    private final EmailDeadLetterRepository deadLetterRepository;
+    private final boolean async;
+    private final long enqueueTimeoutMillis;
+    private final long idleCloseMillis;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int deadLetterMaxBytes;
+
+    private final BlockingQueue<OutboundEmail> queue;
+    private final Set<OutboundEmail> retrying = ConcurrentHashMap.newKeySet();
+    private final ScheduledThreadPoolExecutor retryScheduler;
+    private Thread dispatcher;
+    private volatile boolean running;
+
+    // Only used by the dispatcher thread; volatile so metrics can report whether it is open
+    private volatile Transport transport;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failedAttempts = new LongAdder();
+    private final LongAdder deadLettered = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LatencyHistogram sendLatency = new LatencyHistogram(LATENCY_BUCKETS_MILLIS);
+    private final LatencyHistogram deliveryLatency = new LatencyHistogram(LATENCY_BUCKETS_MILLIS);
+
+    public EmailDispatchQueue(JavaMailSender mailSender,
+                              EmailDeadLetterRepository deadLetterRepository,
+                              @Value("${email.dispatch.async:true}") boolean async,
+                              @Value("${email.dispatch.queue-capacity:500}") int queueCapacity,
+                              @Value("${email.dispatch.enqueue-timeout-millis:2000}") long enqueueTimeoutMillis,
+                              @Value("${email.dispatch.idle-close-millis:30000}") long idleCloseMillis,
+                              @Value("${email.dispatch.max-attempts:5}") int maxAttempts,
+                              @Value("${email.dispatch.initial-backoff-millis:2000}") long initialBackoffMillis,
+                              @Value("${email.dispatch.max-backoff-millis:120000}") long maxBackoffMillis,
+                              @Value("${email.dispatch.dead-letter-max-bytes:1048576}") int deadLetterMaxBytes) {
+        this.mailSender = mailSender;
+        this.deadLetterRepository = deadLetterRepository;
+        this.async = async;
+        this.enqueueTimeoutMillis = enqueueTimeoutMillis;
+        this.idleCloseMillis = idleCloseMillis;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.deadLetterMaxBytes = deadLetterMaxBytes;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.retryScheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "email-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts the dispatcher thread. Messages queued before this are sent once it runs.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!async || running) {
+            return;
+        }
+        running = true;
+        dispatcher = new Thread(this::dispatchLoop, "email-dispatch");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Stops sending and records every message that has not been delivered as a dead letter
+     */
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        retryScheduler.shutdownNow();
+        try {
+            retryScheduler.awaitTermination(5, TimeUnit.SECONDS);
+            if (dispatcher != null) {
+                dispatcher.interrupt();
+                dispatcher.join(5000);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<OutboundEmail> undelivered = new ArrayList<>(retrying);
+        retrying.clear();
+        queue.drainTo(undelivered);
+        if (!undelivered.isEmpty()) {
+            System.err.println("⚠️ EMAIL DISPATCH: Shutting down with " + undelivered.size() + " undelivered email(s)");
+            for (OutboundEmail email : undelivered) {
+                deadLetter(email, new MessagingException("Application shut down before delivery"));
+            }
+        }
+    }
+
+    /**
+     * Queues a message for delivery and returns without waiting for it to be sent
+     *
+     * @param message The message to send
+     * @param description Short description for logs and dead letters, e.g. "Ticket creation email to x@y.com"
+     * @throws MessagingException if the queue stays full for the enqueue timeout
+     */
+    public void enqueue(MimeMessage message, String description) throws MessagingException {
+        submit(message, description);
+    }
+
+    /**
+     * Queues a message and waits until it has been delivered or given up on. Used when the caller
+     * needs the outcome, or when the message reads its content from a file that must outlive the send.
+     *
+     * @param message The message to send
+     * @param description Short description for logs and dead letters
+     * @throws MessagingException if the queue is full or the message could not be delivered
+     */
+    public void sendAndWait(MimeMessage message, String description) throws MessagingException {
+        CompletableFuture<Void> delivery = submit(message, description);
+        try {
+            delivery.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MessagingException("Interrupted while waiting for " + description);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw new MessagingException(description + " could not be delivered: " + cause.getMessage(),
+                cause instanceof Exception exception ? exception : null);
+        }
+    }
+
+    /**
+     * Queue metrics for health reporting
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("async", async);
+        metrics.put("queueDepth", queue.size());
+        metrics.put("queueRemainingCapacity", queue.remainingCapacity());
+        metrics.put("retrying", retrying.size());
+        metrics.put("sent", sent.sum());
+        metrics.put("failedAttempts", failedAttempts.sum());
+        metrics.put("deadLettered", deadLettered.sum());
+        metrics.put("deadLetterTotal", deadLetterRepository.count());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("connectionOpen", transport != null);
+        metrics.put("sendLatencyMillis", sendLatency.snapshot());
+        metrics.put("deliveryLatencyMillis", deliveryLatency.snapshot());
+        return metrics;
+    }
+
+    private CompletableFuture<Void> submit(MimeMessage message, String description) throws MessagingException {
+        if (!async) {
+            mailSender.send(message);
+            sent.increment();
+            return CompletableFuture.completedFuture(null);
+        }
+
+        OutboundEmail email = new OutboundEmail(message, description);
+        boolean accepted;
+        try {
+            accepted = queue.offer(email, enqueueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            rejected.increment();
+            System.err.println("❌ EMAIL DISPATCH: Queue full, rejected " + description);
+            throw new MessagingException("Email queue is full, could not queue " + description);
+        }
+        return email.delivery;
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            OutboundEmail email;
+            try {
+                email = queue.poll(idleCloseMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (email == null) {
+                closeTransport();
+                continue;
+            }
+            deliver(email);
+        }
+        closeTransport();
+    }
+
+    private void deliver(OutboundEmail email) {
+        email.attempts++;
+        long startNanos = System.nanoTime();
+        try {
+            send(email.message);
+            long finishedNanos = System.nanoTime();
+            sendLatency.record(TimeUnit.NANOSECONDS.toMillis(finishedNanos - startNanos));
+            deliveryLatency.record(TimeUnit.NANOSECONDS.toMillis(finishedNanos - email.queuedNanos));
+            sent.increment();
+            email.delivery.complete(null);
+        } catch (Exception e) {
+            failedAttempts.increment();
+            // The connection may be broken; reconnect for the next message
+            closeTransport();
+            if (email.attempts >= maxAttempts || !running) {
+                deadLetter(email, e);
+            } else {
+                scheduleRetry(email, e);
+            }
+        }
+    }
+
+    private void send(MimeMessage message) throws MessagingException {
+        if (!(mailSender instanceof JavaMailSenderImpl sender)) {
+            mailSender.send(message);
+            return;
+        }
+
+        Transport connection = transport;
+        if (connection == null || !connection.isConnected()) {
+            connection = connect(sender);
+            transport = connection;
+        }
+        // Same preparation as JavaMailSenderImpl, keeping the Message-ID stable across retries
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        }
+        Address[] recipients = message.getAllRecipients();
+        connection.sendMessage(message, recipients != null ? recipients : new Address[0]);
+    }
+
+    private static Transport connect(JavaMailSenderImpl sender) throws MessagingException {
+        String protocol = sender.getProtocol() != null ? sender.getProtocol() : "smtp";
+        String username = sender.getUsername();
+        String password = sender.getPassword();
+        Transport connection = sender.getSession().getTransport(protocol);
+        connection.connect(sender.getHost(), sender.getPort(),
+            username != null && !username.isEmpty() ? username : null,
+            password != null && !password.isEmpty() ? password : null);
+        return connection;
+    }
+
+    private void closeTransport() {
+        Transport connection = transport;
+        transport = null;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (MessagingException e) {
+                // Already closed by the server
+            }
+        }
+    }
+
+    private void scheduleRetry(OutboundEmail email, Exception e) {
+        long backoffMillis = getBackoffMillis(email.attempts);
+        System.err.println("⚠️ EMAIL DISPATCH: " + email.description + " failed (attempt " + email.attempts +
+                         "), retrying in " + backoffMillis + " ms: " + e.getMessage());
+        retrying.add(email);
+        try {
+            retryScheduler.schedule(() -> requeue(email), backoffMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException shutdown) {
+            retrying.remove(email);
+            deadLetter(email, e);
+        }
+    }
+
+    private void requeue(OutboundEmail email) {
+        // Claim the message first: once queued it may fail again and be re-added before this returns
+        if (!retrying.remove(email)) {
+            return;
+        }
+        if (!queue.offer(email)) {
+            // Queue is full; retrying messages do not take priority over new ones, so try again shortly
+            retrying.add(email);
+            retryScheduler.schedule(() -> requeue(email), initialBackoffMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void deadLetter(OutboundEmail email, Exception e) {
+        deadLettered.increment();
+        System.err.println("❌ EMAIL DISPATCH: Giving up on " + email.description + " after " + email.attempts +
+                         " attempt(s): " + e.getMessage());
+        try {
+            deadLetterRepository.save(new EmailDeadLetter(truncate(email.description, 255), recipientsOf(email.message),
+                subjectOf(email.message), email.attempts, truncate(e.getMessage(), 1000), email.queuedAt,
+                rawMessage(email.message)));
+        } catch (Exception saveError) {
+            System.err.println("❌ EMAIL DISPATCH: Failed to record dead letter for " + email.description + ": " + saveError.getMessage());
+        }
+        email.delivery.completeExceptionally(e);
+    }
+
+    /**
+     * Exponential backoff: initial delay doubled for every failed attempt, capped at the maximum
+     */
+    long getBackoffMillis(int attempts) {
+        int shift = Math.min(attempts - 1, 30);
+        return Math.min(maxBackoffMillis, initialBackoffMillis << shift);
+    }
+
+    private static String recipientsOf(MimeMessage message) {
+        try {
+            Address[] recipients = message.getAllRecipients();
+            if (recipients == null) {
+                return null;
+            }
+            return truncate(Arrays.stream(recipients).map(Address::toString).collect(Collectors.joining(", ")), 1000);
+        } catch (MessagingException e) {
+            return null;
+        }
+    }
+
+    private static String subjectOf(MimeMessage message) {
+        try {
+            return truncate(message.getSubject(), 500);
+        } catch (MessagingException e) {
+            return null;
+        }
+    }
+
+    // The raw message, or null when it is larger than the dead letter limit (e.g. a large export attachment)
+    private byte[] rawMessage(MimeMessage message) {
+        BoundedOutputStream out = new BoundedOutputStream(deadLetterMaxBytes);
+        try {
+            message.writeTo(out);
+            return out.toByteArray();
+        } catch (IOException | MessagingException | SizeLimitExceededException e) {
+            return null;
+        }
+    }
+
+    private static String truncate(String value, int maxLength) {
+        if (value == null) {
+            return null;
+        }
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    private static final class OutboundEmail {
+        private final MimeMessage message;
+        private final String description;
+        private final long queuedNanos = System.nanoTime();
+        private final LocalDateTime queuedAt = LocalDateTime.now();
+        private final CompletableFuture<Void> delivery = new CompletableFuture<>();
+        // Only touched by the dispatcher thread
+        private int attempts;
+
+        private OutboundEmail(MimeMessage message, String description) {
+            this.message = message;
+            this.description = description;
+        }
+    }
+
+    private static final class BoundedOutputStream extends ByteArrayOutputStream {
+        private final int limit;
+
+        private BoundedOutputStream(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(1);
+            super.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(len);
+            super.write(b, off, len);
+        }
+
+        private void ensureCapacity(int len) {
+            if (count + len > limit) {
+                throw new SizeLimitExceededException();
+            }
+        }
+    }
+
+    /**
+     * Thrown by BoundedOutputStream; unchecked because ByteArrayOutputStream.write does not declare IOException
+     */
+    private static final class SizeLimitExceededException extends RuntimeException {
+    }
+
+    /**
+     * Fixed-bucket latency histogram; each bucket counts samples up to its bound, the last one everything above
+     */
+    static final class LatencyHistogram {
+        private final long[] boundsMillis;
+        private final LongAdder[] buckets;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+
+        LatencyHistogram(long[] boundsMillis) {
+            this.boundsMillis = boundsMillis;
+            this.buckets = new LongAdder[boundsMillis.length + 1];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        void record(long millis) {
+            int bucket = 0;
+            while (bucket < boundsMillis.length && millis > boundsMillis[bucket]) {
+                bucket++;
+            }
+            buckets[bucket].increment();
+            count.increment();
+            totalMillis.add(millis);
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            for (int i = 0; i < boundsMillis.length; i++) {
+                counts.put("le" + boundsMillis[i], buckets[i].sum());
+            }
+            counts.put("gt" + boundsMillis[boundsMillis.length - 1], buckets[boundsMillis.length].sum());
+
+            long samples = count.sum();
+            Map<String, Object> snapshot = new LinkedHashMap<>();
+            snapshot.put("count", samples);
+            snapshot.put("meanMillis", samples == 0 ? 0 : totalMillis.sum() / samples);
+            snapshot.put("buckets", counts);
+            return snapshot;
+        }
+    }
+}
@@ -2,15 +2,24 @@ package com.apex.firefighter.service;
 
 import com.apex.firefighter.model.Ticket;
 import com.apex.firefighter.model.User;
+import com.apex.firefighter.service.email.EmailTemplate;
+import com.apex.firefighter.service.email.EmailTemplates;
+import com.apex.firefighter.service.ticket.TicketCsvWriter;
+import com.apex.firefighter.service.ticket.TicketExport;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
@@ -22,27 +31,34 @@ public class GmailEmailService {
     @Autowired
     private JavaMailSender mailSender;
 
+    @Autowired
+    private EmailDispatchQueue emailDispatchQueue;
+
+    @Autowired
+    private EmailTemplates emailTemplates;
+
     @Value("${gmail.service.enabled:true}")
     private boolean gmailServiceEnabled;
 
-    public String exportTicketsToCsv(List<Ticket> tickets) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("TicketId,Description,Status,DateCreated,UserId,EmergencyType,EmergencyContact,Duration\n");
-        for (Ticket ticket : tickets) {
-            sb.append(safe(ticket.getTicketId())).append(",")
-              .append(safe(ticket.getDescription())).append(",")
-              .append(safe(ticket.getStatus())).append(",")
-              .append(safe(ticket.getDateCreated())).append(",")
-              .append(safe(ticket.getUserId())).append(",")
-              .append(safe(ticket.getEmergencyType())).append(",")
-              .append(safe(ticket.getEmergencyContact())).append(",")
-              .append(safe(ticket.getDuration())).append("\n");
-        }
-        return sb.toString();
-    }
+    private static final DateTimeFormatter EMAIL_DATE_FORMAT = DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm");
 
-    private String safe(Object value) {
-        return value == null ? "" : value.toString().replaceAll(",", " ");
+    /**
+     * Formats an in-memory ticket list as RFC 4180 CSV.
+     * Large exports should use TicketExportService and sendTicketsExport instead.
+     */
+    public String exportTicketsToCsv(List<Ticket> tickets) {
+        StringWriter out = new StringWriter();
+        TicketCsvWriter csv = new TicketCsvWriter(out);
+        try {
+            csv.writeHeader();
+            for (Ticket ticket : tickets) {
+                csv.writeRow(ticket);
+            }
+        } catch (IOException e) {
+            // A StringWriter never throws
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
     }
 
     /**
@@ -71,6 +87,22 @@ public class GmailEmailService {
     }
 
     public void sendTicketsCsv(String recipientEmail, String csvContent, User user) throws MessagingException {
+        byte[] csvBytes = csvContent.getBytes(StandardCharsets.UTF_8);
+        sendTicketsAttachment(recipientEmail, user, TicketCsvWriter.countRows(csvContent), csvBytes.length,
+            "firefighter_tickets_export.csv", new ByteArrayResource(csvBytes), "text/csv", false);
+    }
+
+    /**
+     * Sends a ticket export written by TicketExportService.
+     * The attachment is read from the export file while the message is sent, never loaded into memory.
+     */
+    public void sendTicketsExport(String recipientEmail, TicketExport export, User user) throws MessagingException {
+        sendTicketsAttachment(recipientEmail, user, export.getTicketCount(), export.getSizeBytes(),
+            export.getFilename(), new FileSystemResource(export.getFile()), export.getContentType(), export.isCompressed());
+    }
+
+    private void sendTicketsAttachment(String recipientEmail, User user, int ticketCount, long sizeBytes, String filename,
+                                       InputStreamSource attachment, String contentType, boolean compressed) throws MessagingException {
         if (!isEmailServiceEnabled()) {
             logEmailDisabled("CSV Export", recipientEmail);
             return;
@@ -84,15 +116,15 @@ public class GmailEmailService {
             helper.setSubject("FireFighter Platform - Tickets Export Report");
 
             // Create professional HTML email content
-            String htmlContent = createProfessionalEmailContent(csvContent, user);
+            String htmlContent = createProfessionalEmailContent(ticketCount, sizeBytes, compressed, user);
             helper.setText(htmlContent, true); // true indicates HTML content
 
-            // Add CSV attachment with proper content type and encoding
-            ByteArrayResource csvResource = new ByteArrayResource(csvContent.getBytes(StandardCharsets.UTF_8));
-            helper.addAttachment("firefighter_tickets_export.csv", csvResource, "text/csv");
+            // Add CSV attachment with proper content type
+            helper.addAttachment(filename, attachment, contentType);
 
-            mailSender.send(message);
-            System.out.println("Email sent successfully to " + recipientEmail + " (" + csvContent.length() + " bytes CSV)");
+            // Wait for delivery: the caller reports the outcome, and a file attachment is read while sending
+            emailDispatchQueue.sendAndWait(message, "Tickets export email to " + recipientEmail);
+            System.out.println("Email sent successfully to " + recipientEmail + " (" + sizeBytes + " bytes " + filename + ")");
 
         } catch (Exception e) {
             System.err.println("Email failed: " + e.getMessage());
@@ -103,161 +135,16 @@ public class GmailEmailService {
     /**
      * Creates professional HTML email content for ticket export
      */
-    private String createProfessionalEmailContent(String csvContent, User user) {
-        // Count tickets in CSV (subtract 1 for header row)
-        int ticketCount = csvContent.split("\n").length - 1;
-        String currentDateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"));
-        double fileSizeKB = csvContent.length() / 1024.0;
-
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>");
-        html.append("<html lang=\"en\">");
-        html.append("<head>");
-        html.append("<meta charset=\"UTF-8\">");
-        html.append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">");
-        html.append("<title>FireFighter Platform - Tickets Export</title>");
-        html.append("<style>");
-        html.append("body {");
-        html.append("    font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;");
-        html.append("    line-height: 1.6;");
-        html.append("    color: #333;");
-        html.append("    max-width: 600px;");
-        html.append("    margin: 0 auto;");
-        html.append("    padding: 20px;");
-        html.append("    background-color: #f8f9fa;");
-        html.append("}");
-        html.append(".email-container {");
-        html.append("    background-color: #ffffff;");
-        html.append("    border-radius: 12px;");
-        html.append("    box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);");
-        html.append("    overflow: hidden;");
-        html.append("}");
-        html.append(".header {");
-        html.append("    background: linear-gradient(135deg, #06437d 0%, #04365a 100%);");
-        html.append("    color: white;");
-        html.append("    padding: 30px;");
-        html.append("    text-align: center;");
-        html.append("    border-radius: 12px 12px 0 0;");
-        html.append("}");
-        html.append(".header h1 {");
-        html.append("    margin: 0;");
-        html.append("    font-size: 28px;");
-        html.append("    font-weight: 600;");
-        html.append("}");
-        html.append(".header .subtitle {");
-        html.append("    margin: 8px 0 0 0;");
-        html.append("    font-size: 16px;");
-        html.append("    opacity: 0.9;");
-        html.append("}");
-        html.append(".content {");
-        html.append("    padding: 25px 30px 40px 30px;");
-        html.append("}");
-        html.append(".greeting {");
-        html.append("    font-size: 18px;");
-        html.append("    margin-bottom: 20px;");
-        html.append("    color: #2c3e50;");
-        html.append("}");
-        html.append(".info-box {");
-        html.append("    background-color: #f8f9fa;");
-        html.append("    border-left: 4px solid #06437d;");
-        html.append("    padding: 20px;");
-        html.append("    margin: 25px 0;");
-        html.append("    border-radius: 0 8px 8px 0;");
-        html.append("}");
-        html.append(".info-item {");
-        html.append("    display: flex;");
-        html.append("    justify-content: space-between;");
-        html.append("    margin-bottom: 12px;");
-        html.append("    padding-bottom: 8px;");
-        html.append("    border-bottom: 1px solid #e9ecef;");
-        html.append("}");
-        html.append(".info-item:last-child {");
-        html.append("    margin-bottom: 0;");
-        html.append("    border-bottom: none;");
-        html.append("}");
-        html.append(".info-label {");
-        html.append("    font-weight: 600;");
-        html.append("    color: #495057;");
-        html.append("}");
-        html.append(".info-value {");
-        html.append("    color: #06437d;");
-        html.append("    font-weight: 500;");
-        html.append("}");
-
-        html.append(".footer {");
-        html.append("    background-color: #f8f9fa;");
-        html.append("    padding: 25px 30px;");
-        html.append("    text-align: center;");
-        html.append("    border-top: 1px solid #e9ecef;");
-        html.append("}");
-        html.append(".footer p {");
-        html.append("    margin: 5px 0;");
-        html.append("    color: #6c757d;");
-        html.append("    font-size: 14px;");
-        html.append("}");
-        html.append(".security-notice {");
-        html.append("    background-color: #fff3cd;");
-        html.append("    border: 1px solid #ffeaa7;");
-        html.append("    border-radius: 8px;");
-        html.append("    padding: 15px;");
-        html.append("    margin: 20px 0;");
-        html.append("    font-size: 14px;");
-        html.append("    color: #856404;");
-        html.append("}");
-        html.append("</style>");
-        html.append("</head>");
-        html.append("<body>");
-        html.append("<div class=\"email-container\">");
-        html.append("<div class=\"header\">");
-        html.append("<h1>FireFighter Platform</h1>");
-        html.append("<p class=\"subtitle\">Emergency Response Management System</p>");
-        html.append("</div>");
-        html.append("<div class=\"content\">");
-
-        // Create personalized greeting
-        String greeting = "Hello";
-        if (user != null && user.getUsername() != null && !user.getUsername().trim().isEmpty()) {
-            greeting = "Hello, " + user.getUsername();
-        }
-
-        html.append("<div class=\"greeting\">").append(greeting).append(",</div>");
-        html.append("<p>Your requested tickets export has been successfully generated and is ready for download.</p>");
-        html.append("<div class=\"info-box\">");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Export Generated: </span>");
-        html.append("<span class=\"info-value\">").append(currentDateTime).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Total Tickets: </span>");
-        html.append("<span class=\"info-value\">").append(ticketCount).append(" records</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">File Format: </span>");
-        html.append("<span class=\"info-value\">CSV (Comma Separated Values)</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">File Size: </span>");
-        html.append("<span class=\"info-value\">").append(String.format("%.2f KB", fileSizeKB)).append("</span>");
-        html.append("</div>");
-        html.append("</div>");
-        html.append("<div class=\"security-notice\">");
-        html.append("<strong>Security Notice:</strong> This export contains sensitive emergency response data. ");
-        html.append("Please handle this information according to your organization's data protection policies ");
-        html.append("and applicable privacy regulations.");
-        html.append("</div>");
-        html.append("</div>");
-        html.append("<div class=\"footer\">");
-        html.append("<p><strong>FireFighter Emergency Response Platform</strong></p>");
-        html.append("<p>Automated Export System | Generated on ").append(currentDateTime).append("</p>");
-        html.append("<p style=\"font-size: 12px; margin-top: 15px;\">");
-        html.append("This is an automated message. Please do not reply to this email.");
-        html.append("</p>");
-        html.append("</div>");
-        html.append("</div>");
-        html.append("</body>");
-        html.append("</html>");
-
-        return html.toString();
+    private String createProfessionalEmailContent(int ticketCount, long sizeBytes, boolean compressed, User user) {
+        String currentDateTime = LocalDateTime.now().format(EMAIL_DATE_FORMAT);
+        double fileSizeKB = sizeBytes / 1024.0;
+
+        return emailTemplates.render(EmailTemplates.Template.TICKETS_EXPORT,
+            greeting(user),
+            currentDateTime,
+            ticketCount,
+            compressed ? "CSV (Comma Separated Values), gzip-compressed" : "CSV (Comma Separated Values)",
+            String.format("%.2f KB", fileSizeKB));
     }
 
     /**
@@ -279,8 +166,8 @@ public class GmailEmailService {
             String htmlContent = createTicketCreationEmailContent(ticket, user);
             helper.setText(htmlContent, true);
 
-            mailSender.send(message);
-            System.out.println("Ticket creation email sent successfully to " + recipientEmail + " for ticket " + ticket.getTicketId());
+            emailDispatchQueue.enqueue(message, "Ticket creation email to " + recipientEmail + " for ticket " + ticket.getTicketId());
+            System.out.println("Ticket creation email queued for " + recipientEmail + " for ticket " + ticket.getTicketId());
 
         } catch (Exception e) {
             System.err.println("Ticket creation email failed: " + e.getMessage());
@@ -307,8 +194,8 @@ public class GmailEmailService {
             String htmlContent = createTicketCompletionEmailContent(ticket, user);
             helper.setText(htmlContent, true);
 
-            mailSender.send(message);
-            System.out.println("Ticket completion email sent successfully to " + recipientEmail + " for ticket " + ticket.getTicketId());
+            emailDispatchQueue.enqueue(message, "Ticket completion email to " + recipientEmail + " for ticket " + ticket.getTicketId());
+            System.out.println("Ticket completion email queued for " + recipientEmail + " for ticket " + ticket.getTicketId());
 
         } catch (Exception e) {
             System.err.println("Ticket completion email failed: " + e.getMessage());
@@ -335,8 +222,8 @@ public class GmailEmailService {
             String htmlContent = createTicketRevocationEmailContent(ticket, user, reason);
             helper.setText(htmlContent, true);
 
-            mailSender.send(message);
-            System.out.println("Ticket revocation email sent successfully to " + recipientEmail + " for ticket " + ticket.getTicketId());
+            emailDispatchQueue.enqueue(message, "Ticket revocation email to " + recipientEmail + " for ticket " + ticket.getTicketId());
+            System.out.println("Ticket revocation email queued for " + recipientEmail + " for ticket " + ticket.getTicketId());
 
         } catch (Exception e) {
             System.err.println("Ticket revocation email failed: " + e.getMessage());
@@ -363,8 +250,8 @@ public class GmailEmailService {
             String htmlContent = createFiveMinuteWarningEmailContent(ticket, user);
             helper.setText(htmlContent, true);
 
-            mailSender.send(message);
-            System.out.println("Five-minute warning email sent successfully to " + recipientEmail + " for ticket " + ticket.getTicketId());
+            emailDispatchQueue.enqueue(message, "Five-minute warning email to " + recipientEmail + " for ticket " + ticket.getTicketId());
+            System.out.println("Five-minute warning email queued for " + recipientEmail + " for ticket " + ticket.getTicketId());
 
         } catch (Exception e) {
             System.err.println("Five-minute warning email failed: " + e.getMessage());
@@ -376,370 +263,101 @@ public class GmailEmailService {
      * Creates professional HTML email content for ticket creation notification
      */
     private String createTicketCreationEmailContent(Ticket ticket, User user) {
-        String currentDateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"));
-        String ticketDateTime = ticket.getDateCreated().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"));
-
-        StringBuilder html = new StringBuilder();
-        html.append(getEmailHeader("Ticket Created"));
-        html.append("<div class=\"email-container\">");
-        html.append("<div class=\"header\">");
-        html.append("<h1>FireFighter Platform</h1>");
-        html.append("<p class=\"subtitle\">Emergency Response Management System</p>");
-        html.append("</div>");
-        html.append("<div class=\"content\">");
-
-        String greeting = "Hello";
-        if (user != null && user.getUsername() != null && !user.getUsername().trim().isEmpty()) {
-            greeting = "Hello, " + user.getUsername();
-        }
-
-        html.append("<div class=\"greeting\">").append(greeting).append(",</div>");
-        html.append("<p>A new emergency ticket has been created and is now active in the system.</p>");
-        html.append("<div class=\"info-box\">");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Ticket ID: </span>");
-        html.append("<span class=\"info-value\">").append(ticket.getTicketId()).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Emergency Type: </span>");
-        html.append("<span class=\"info-value\">").append(ticket.getEmergencyType()).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Created: </span>");
-        html.append("<span class=\"info-value\">").append(ticketDateTime).append("</span>");
-        html.append("</div>");
-        if (ticket.getDuration() != null) {
-            html.append("<div class=\"info-item\">");
-            html.append("<span class=\"info-label\">Duration: </span>");
-            html.append("<span class=\"info-value\">").append(ticket.getDuration()).append(" minutes</span>");
-            html.append("</div>");
-        }
-        if (ticket.getDescription() != null && !ticket.getDescription().trim().isEmpty()) {
-            html.append("<div class=\"info-item\">");
-            html.append("<span class=\"info-label\">Description: </span>");
-            html.append("<span class=\"info-value\">").append(ticket.getDescription()).append("</span>");
-            html.append("</div>");
-        }
-        html.append("</div>");
-        html.append("<div class=\"security-notice\">");
-        html.append("<strong>Important:</strong> This ticket is now active and emergency response procedures are in effect. ");
-        html.append("Please ensure you have the necessary access and follow all safety protocols.");
-        html.append("</div>");
-        html.append("</div>");
-        html.append(getEmailFooter(currentDateTime));
-        html.append("</div>");
-        html.append("</body>");
-        html.append("</html>");
-
-        return html.toString();
+        String currentDateTime = LocalDateTime.now().format(EMAIL_DATE_FORMAT);
+        String ticketDateTime = ticket.getDateCreated().format(EMAIL_DATE_FORMAT);
+
+        EmailTemplate.Fragment durationRow = ticket.getDuration() != null
+            ? emailTemplates.infoItem("Duration", ticket.getDuration() + " minutes")
+            : EmailTemplate.EMPTY;
+        EmailTemplate.Fragment descriptionRow = ticket.getDescription() != null && !ticket.getDescription().trim().isEmpty()
+            ? emailTemplates.infoItem("Description", ticket.getDescription())
+            : EmailTemplate.EMPTY;
+
+        return renderNotification("Ticket Created", emailTemplates.fragment(EmailTemplates.Template.TICKET_CREATED,
+            greeting(user),
+            ticket.getTicketId(),
+            ticket.getEmergencyType(),
+            ticketDateTime,
+            durationRow,
+            descriptionRow), currentDateTime);
     }
 
     /**
      * Creates professional HTML email content for ticket completion notification
      */
     private String createTicketCompletionEmailContent(Ticket ticket, User user) {
-        String currentDateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"));
-        String ticketDateTime = ticket.getDateCreated().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"));
+        String currentDateTime = LocalDateTime.now().format(EMAIL_DATE_FORMAT);
+        String ticketDateTime = ticket.getDateCreated().format(EMAIL_DATE_FORMAT);
         String completionDateTime = ticket.getDateCompleted() != null ?
-            ticket.getDateCompleted().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm")) : currentDateTime;
-
-        StringBuilder html = new StringBuilder();
-        html.append(getEmailHeader("Ticket Completed"));
-        html.append("<div class=\"email-container\">");
-        html.append("<div class=\"header\">");
-        html.append("<h1>FireFighter Platform</h1>");
-        html.append("<p class=\"subtitle\">Emergency Response Management System</p>");
-        html.append("</div>");
-        html.append("<div class=\"content\">");
-
-        String greeting = "Hello";
-        if (user != null && user.getUsername() != null && !user.getUsername().trim().isEmpty()) {
-            greeting = "Hello, " + user.getUsername();
-        }
-
-        html.append("<div class=\"greeting\">").append(greeting).append(",</div>");
-        html.append("<p>Your emergency ticket has been completed and is now closed.</p>");
-        html.append("<div class=\"info-box\">");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Ticket ID: </span>");
-        html.append("<span class=\"info-value\">").append(ticket.getTicketId()).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Emergency Type: </span>");
-        html.append("<span class=\"info-value\">").append(ticket.getEmergencyType()).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Created: </span>");
-        html.append("<span class=\"info-value\">").append(ticketDateTime).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Completed: </span>");
-        html.append("<span class=\"info-value\">").append(completionDateTime).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Status: </span>");
-        html.append("<span class=\"info-value\">").append(ticket.getStatus()).append("</span>");
-        html.append("</div>");
-        html.append("</div>");
-        html.append("<div class=\"security-notice\">");
-        html.append("<strong>Notice:</strong> This emergency response has been completed. ");
-        html.append("If you have any questions or concerns about this ticket, please contact your system administrator.");
-        html.append("</div>");
-        html.append("</div>");
-        html.append(getEmailFooter(currentDateTime));
-        html.append("</div>");
-        html.append("</body>");
-        html.append("</html>");
-
-        return html.toString();
+            ticket.getDateCompleted().format(EMAIL_DATE_FORMAT) : currentDateTime;
+
+        return renderNotification("Ticket Completed", emailTemplates.fragment(EmailTemplates.Template.TICKET_COMPLETED,
+            greeting(user),
+            ticket.getTicketId(),
+            ticket.getEmergencyType(),
+            ticketDateTime,
+            completionDateTime,
+            ticket.getStatus()), currentDateTime);
     }
 
     /**
      * Creates professional HTML email content for ticket revocation notification
      */
     private String createTicketRevocationEmailContent(Ticket ticket, User user, String reason) {
-        String currentDateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"));
-        String ticketDateTime = ticket.getDateCreated().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"));
+        String currentDateTime = LocalDateTime.now().format(EMAIL_DATE_FORMAT);
+        String ticketDateTime = ticket.getDateCreated().format(EMAIL_DATE_FORMAT);
         String revocationDateTime = ticket.getDateCompleted() != null ?
-            ticket.getDateCompleted().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm")) : currentDateTime;
-
-        StringBuilder html = new StringBuilder();
-        html.append(getEmailHeader("Ticket Revoked"));
-        html.append("<div class=\"email-container\">");
-        html.append("<div class=\"header\">");
-        html.append("<h1>FireFighter Platform</h1>");
-        html.append("<p class=\"subtitle\">Emergency Response Management System</p>");
-        html.append("</div>");
-        html.append("<div class=\"content\">");
-
-        String greeting = "Hello";
-        if (user != null && user.getUsername() != null && !user.getUsername().trim().isEmpty()) {
-            greeting = "Hello, " + user.getUsername();
-        }
-
-        html.append("<div class=\"greeting\">").append(greeting).append(",</div>");
-        html.append("<p>Your emergency ticket has been revoked by an administrator.</p>");
-        html.append("<div class=\"info-box\">");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Ticket ID: </span>");
-        html.append("<span class=\"info-value\">").append(ticket.getTicketId()).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Emergency Type: </span>");
-        html.append("<span class=\"info-value\">").append(ticket.getEmergencyType()).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Created: </span>");
-        html.append("<span class=\"info-value\">").append(ticketDateTime).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Revoked: </span>");
-        html.append("<span class=\"info-value\">").append(revocationDateTime).append("</span>");
-        html.append("</div>");
-        if (reason != null && !reason.trim().isEmpty()) {
-            html.append("<div class=\"info-item\">");
-            html.append("<span class=\"info-label\">Reason: </span>");
-            html.append("<span class=\"info-value\">").append(reason).append("</span>");
-            html.append("</div>");
-        }
-        html.append("</div>");
-        html.append("<div class=\"security-notice\">");
-        html.append("<strong>Important:</strong> This ticket has been revoked and is no longer active. ");
-        html.append("If you believe this was done in error or have questions, please contact your system administrator immediately.");
-        html.append("</div>");
-        html.append("</div>");
-        html.append(getEmailFooter(currentDateTime));
-        html.append("</div>");
-        html.append("</body>");
-        html.append("</html>");
-
-        return html.toString();
+            ticket.getDateCompleted().format(EMAIL_DATE_FORMAT) : currentDateTime;
+
+        EmailTemplate.Fragment reasonRow = reason != null && !reason.trim().isEmpty()
+            ? emailTemplates.infoItem("Reason", reason)
+            : EmailTemplate.EMPTY;
+
+        return renderNotification("Ticket Revoked", emailTemplates.fragment(EmailTemplates.Template.TICKET_REVOKED,
+            greeting(user),
+            ticket.getTicketId(),
+            ticket.getEmergencyType(),
+            ticketDateTime,
+            revocationDateTime,
+            reasonRow), currentDateTime);
     }
 
     /**
      * Creates professional HTML email content for five-minute warning notification
      */
     private String createFiveMinuteWarningEmailContent(Ticket ticket, User user) {
-        String currentDateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"));
-        String ticketDateTime = ticket.getDateCreated().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"));
+        String currentDateTime = LocalDateTime.now().format(EMAIL_DATE_FORMAT);
+        String ticketDateTime = ticket.getDateCreated().format(EMAIL_DATE_FORMAT);
 
         // Use default duration of 60 minutes if duration is null
         int durationMinutes = ticket.getDuration() != null ? ticket.getDuration() : 60;
         LocalDateTime expirationTime = ticket.getDateCreated().plusMinutes(durationMinutes);
-        String expirationDateTime = expirationTime.format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"));
-
-        StringBuilder html = new StringBuilder();
-        html.append(getEmailHeader("Ticket Expiring Soon"));
-        html.append("<div class=\"email-container\">");
-        html.append("<div class=\"header\">");
-        html.append("<h1>FireFighter Platform</h1>");
-        html.append("<p class=\"subtitle\">Emergency Response Management System</p>");
-        html.append("</div>");
-        html.append("<div class=\"content\">");
-
-        String greeting = "Hello";
-        if (user != null && user.getUsername() != null && !user.getUsername().trim().isEmpty()) {
-            greeting = "Hello, " + user.getUsername();
-        }
-
-        html.append("<div class=\"greeting\">").append(greeting).append(",</div>");
-        html.append("<p><strong>URGENT:</strong> Your emergency ticket will expire in approximately 5 minutes.</p>");
-        html.append("<div class=\"info-box\">");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Ticket ID: </span>");
-        html.append("<span class=\"info-value\">").append(ticket.getTicketId()).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Emergency Type: </span>");
-        html.append("<span class=\"info-value\">").append(ticket.getEmergencyType()).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Created: </span>");
-        html.append("<span class=\"info-value\">").append(ticketDateTime).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Expires: </span>");
-        html.append("<span class=\"info-value\">").append(expirationDateTime).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Duration: </span>");
-        html.append("<span class=\"info-value\">").append(durationMinutes).append(" minutes</span>");
-        html.append("</div>");
-        html.append("</div>");
-        html.append("<div class=\"security-notice\">");
-        html.append("<strong>Action Required:</strong> This ticket will automatically close when it expires. ");
-        html.append("Please ensure all emergency response activities are completed before expiration. ");
-        html.append("Contact your system administrator if you need assistance.");
-        html.append("</div>");
-        html.append("</div>");
-        html.append(getEmailFooter(currentDateTime));
-        html.append("</div>");
-        html.append("</body>");
-        html.append("</html>");
-
-        return html.toString();
+        String expirationDateTime = expirationTime.format(EMAIL_DATE_FORMAT);
+
+        return renderNotification("Ticket Expiring Soon", emailTemplates.fragment(EmailTemplates.Template.TICKET_EXPIRING,
+            greeting(user),
+            ticket.getTicketId(),
+            ticket.getEmergencyType(),
+            ticketDateTime,
+            expirationDateTime,
+            durationMinutes), currentDateTime);
     }
 
     /**
-     * Creates the common email header with CSS styles
+     * Wraps a notification body in the shared header, banner and footer
      */
-    private String getEmailHeader(String title) {
-        StringBuilder html = new StringBuilder();
-        html.append("<!DOCTYPE html>");
-        html.append("<html lang=\"en\">");
-        html.append("<head>");
-        html.append("<meta charset=\"UTF-8\">");
-        html.append("<meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">");
-        html.append("<title>FireFighter Platform - ").append(title).append("</title>");
-        html.append("<style>");
-        html.append("body {");
-        html.append("    font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif;");
-        html.append("    line-height: 1.6;");
-        html.append("    color: #333;");
-        html.append("    max-width: 600px;");
-        html.append("    margin: 0 auto;");
-        html.append("    padding: 20px;");
-        html.append("    background-color: #f8f9fa;");
-        html.append("}");
-        html.append(".email-container {");
-        html.append("    background-color: #ffffff;");
-        html.append("    border-radius: 12px;");
-        html.append("    box-shadow: 0 4px 6px rgba(0, 0, 0, 0.1);");
-        html.append("    overflow: hidden;");
-        html.append("    border: 1px solid #e9ecef;");
-        html.append("}");
-        html.append(".header {");
-        html.append("    background: linear-gradient(135deg, #dc3545 0%, #c82333 100%);");
-        html.append("    color: white;");
-        html.append("    padding: 30px 25px;");
-        html.append("    text-align: center;");
-        html.append("}");
-        html.append(".header h1 {");
-        html.append("    margin: 0 0 8px 0;");
-        html.append("    font-size: 28px;");
-        html.append("    font-weight: 700;");
-        html.append("    letter-spacing: -0.5px;");
-        html.append("}");
-        html.append(".subtitle {");
-        html.append("    margin: 0;");
-        html.append("    font-size: 14px;");
-        html.append("    opacity: 0.9;");
-        html.append("    font-weight: 400;");
-        html.append("}");
-        html.append(".content {");
-        html.append("    padding: 30px 25px;");
-        html.append("}");
-        html.append(".greeting {");
-        html.append("    font-size: 18px;");
-        html.append("    font-weight: 600;");
-        html.append("    color: #2c3e50;");
-        html.append("    margin-bottom: 20px;");
-        html.append("}");
-        html.append(".info-box {");
-        html.append("    background-color: #f8f9fa;");
-        html.append("    border: 1px solid #e9ecef;");
-        html.append("    border-radius: 8px;");
-        html.append("    padding: 20px;");
-        html.append("    margin: 20px 0;");
-        html.append("}");
-        html.append(".info-item {");
-        html.append("    display: flex;");
-        html.append("    justify-content: space-between;");
-        html.append("    align-items: center;");
-        html.append("    padding: 8px 0;");
-        html.append("    border-bottom: 1px solid #e9ecef;");
-        html.append("}");
-        html.append(".info-item:last-child {");
-        html.append("    border-bottom: none;");
-        html.append("}");
-        html.append(".info-label {");
-        html.append("    font-weight: 600;");
-        html.append("    color: #495057;");
-        html.append("    flex: 0 0 auto;");
-        html.append("}");
-        html.append(".info-value {");
-        html.append("    color: #212529;");
-        html.append("    font-weight: 500;");
-        html.append("    text-align: right;");
-        html.append("    flex: 1 1 auto;");
-        html.append("    margin-left: 15px;");
-        html.append("}");
-        html.append(".security-notice {");
-        html.append("    background-color: #fff3cd;");
-        html.append("    border: 1px solid #ffeaa7;");
-        html.append("    border-radius: 6px;");
-        html.append("    padding: 15px;");
-        html.append("    margin: 20px 0;");
-        html.append("    font-size: 14px;");
-        html.append("    color: #856404;");
-        html.append("}");
-        html.append(".footer {");
-        html.append("    background-color: #f8f9fa;");
-        html.append("    padding: 20px 25px;");
-        html.append("    text-align: center;");
-        html.append("    border-top: 1px solid #e9ecef;");
-        html.append("    font-size: 12px;");
-        html.append("    color: #6c757d;");
-        html.append("}");
-        html.append("</style>");
-        html.append("</head>");
-        html.append("<body>");
-        return html.toString();
+    private String renderNotification(String title, EmailTemplate.Fragment content, String currentDateTime) {
+        return emailTemplates.render(EmailTemplates.Template.NOTIFICATION_LAYOUT, title, content, currentDateTime);
     }
 
     /**
-     * Creates the common email footer
+     * Personalized greeting, or a plain "Hello" when the username is blank
      */
-    private String getEmailFooter(String currentDateTime) {
-        StringBuilder html = new StringBuilder();
-        html.append("<div class=\"footer\">");
-        html.append("<p><strong>FireFighter Emergency Response Platform</strong></p>");
-        html.append("<p>Automated Notification System | Generated on ").append(currentDateTime).append("</p>");
-        html.append("<p style=\"font-size: 12px; margin-top: 15px;\">");
-        html.append("This is an automated message. Please do not reply to this email.");
-        html.append("</p>");
-        html.append("</div>");
-        return html.toString();
+    private static String greeting(User user) {
+        if (user != null && user.getUsername() != null && !user.getUsername().trim().isEmpty()) {
+            return "Hello, " + user.getUsername();
+        }
+        return "Hello";
     }
 
     /**
@@ -756,13 +374,13 @@ public class GmailEmailService {
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
             helper.setTo(recipientEmail);
-            helper.setSubject("FireFighter Platform - Group Change Alert (" + suspicionLevel + " Risk Data): " + user.getUsername());
+            helper.setSubject(groupChangeSubject(user, suspicionLevel));
 
             String htmlContent = createSuspiciousGroupChangeEmailContent(user, ticketId, oldGroup, newGroup, reason, suspicionLevel);
             helper.setText(htmlContent, true);
 
-            mailSender.send(message);
-            System.out.println("Group change notification email sent successfully to " + recipientEmail + " for user " + user.getUsername());
+            emailDispatchQueue.enqueue(message, "Group change notification email to " + recipientEmail);
+            System.out.println("Group change notification email queued for " + recipientEmail + " for user " + user.getUsername());
 
         } catch (Exception e) {
             System.err.println("Group change notification email failed: " + e.getMessage());
@@ -774,75 +392,36 @@ public class GmailEmailService {
      * Creates professional HTML email content for suspicious group change notification
      */
     private String createSuspiciousGroupChangeEmailContent(User user, String ticketId, String oldGroup, String newGroup, String reason, String suspicionLevel) {
-        String currentDateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"));
-
-        StringBuilder html = new StringBuilder();
-        html.append(getEmailHeader("User Group Change Alert"));
-        html.append("<div class=\"email-container\">");
-        html.append("<div class=\"header\">");
-        html.append("<h1>FireFighter Platform</h1>");
-        html.append("<p class=\"subtitle\">Emergency Response Management System</p>");
-        html.append("</div>");
-        html.append("<div class=\"content\">");
-
-        html.append("<div class=\"greeting\">SECURITY ALERT - Administrator Notification,</div>");
-        html.append("<p><strong>ACTIVITY DETECTED:</strong> A user group change has been detected in the Dolibarr ERP system following ticket creation.</p>");
-        html.append("<p><strong>Risk Level: <span style=\"color: " + getRiskLevelColor(suspicionLevel) + "; font-weight: bold;\">" + suspicionLevel + "</span></strong></p>");
-        
-        html.append("<div class=\"info-box\">");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">User: </span>");
-        html.append("<span class=\"info-value\">").append(user.getUsername()).append(" (").append(user.getEmail()).append(")</span>");
-        html.append("</div>");
-        if (user.getDolibarrId() != null) {
-            html.append("<div class=\"info-item\">");
-            html.append("<span class=\"info-label\">Dolibarr ID: </span>");
-            html.append("<span class=\"info-value\">").append(user.getDolibarrId()).append("</span>");
-            html.append("</div>");
-        }
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Department: </span>");
-        html.append("<span class=\"info-value\">").append(user.getDepartment() != null ? user.getDepartment() : "N/A").append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Related Ticket: </span>");
-        html.append("<span class=\"info-value\">").append(ticketId).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Previous Group: </span>");
-        html.append("<span class=\"info-value\">").append(oldGroup != null ? oldGroup : "None").append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">New Group: </span>");
-        html.append("<span class=\"info-value\">").append(newGroup != null ? newGroup : "None").append("</span>");
-        html.append("</div>");
-        if (reason != null && !reason.trim().isEmpty()) {
-            html.append("<div class=\"info-item\">");
-            html.append("<span class=\"info-label\">Reason: </span>");
-            html.append("<span class=\"info-value\">").append(reason).append("</span>");
-            html.append("</div>");
-        }
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Change Time: </span>");
-        html.append("<span class=\"info-value\">").append(currentDateTime).append("</span>");
-        html.append("</div>");
-        html.append("</div>");
-        
-        html.append("<div class=\"security-notice\">");
-        html.append("<strong>⚠️ POTENTIAL ACTION REQUIRED:</strong> This group change has been flagged as suspicious due to security sensitivity. ");
-        html.append("Risk Level: <strong>" + suspicionLevel + "</strong>. ");
-        html.append("Please immediately verify that this change is legitimate and authorized. ");
-        html.append("Review the associated ticket, contact the user directly, and investigate any unauthorized access. ");
-        html.append("If this change appears suspicious or unauthorized, take immediate security measures.");
-        html.append("</div>");
-        
-        html.append("</div>");
-        html.append(getEmailFooter(currentDateTime));
-        html.append("</div>");
-        html.append("</body>");
-        html.append("</html>");
+        String currentDateTime = LocalDateTime.now().format(EMAIL_DATE_FORMAT);
+        return renderNotification("User Group Change Alert",
+            groupChangeAlertContent(user, ticketId, oldGroup, newGroup, reason, suspicionLevel, currentDateTime), currentDateTime);
+    }
+
+    private EmailTemplate.Fragment groupChangeAlertContent(User user, String ticketId, String oldGroup, String newGroup,
+                                                           String reason, String suspicionLevel, String changedAt) {
+        EmailTemplate.Fragment dolibarrIdRow = user.getDolibarrId() != null
+            ? emailTemplates.infoItem("Dolibarr ID", user.getDolibarrId())
+            : EmailTemplate.EMPTY;
+        EmailTemplate.Fragment reasonRow = reason != null && !reason.trim().isEmpty()
+            ? emailTemplates.infoItem("Reason", reason)
+            : EmailTemplate.EMPTY;
+
+        return emailTemplates.fragment(EmailTemplates.Template.GROUP_CHANGE_ALERT,
+            getRiskLevelColor(suspicionLevel),
+            suspicionLevel,
+            user.getUsername(),
+            user.getEmail(),
+            dolibarrIdRow,
+            user.getDepartment() != null ? user.getDepartment() : "N/A",
+            ticketId,
+            oldGroup != null ? oldGroup : "None",
+            newGroup != null ? newGroup : "None",
+            reasonRow,
+            changedAt);
+    }
 
-        return html.toString();
+    private static String groupChangeSubject(User user, String suspicionLevel) {
+        return "FireFighter Platform - Group Change Alert (" + suspicionLevel + " Risk Data): " + user.getUsername();
     }
 
     /**
@@ -859,13 +438,13 @@ public class GmailEmailService {
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
             helper.setTo(recipientEmail);
-            helper.setSubject("FireFighter Platform - ANOMALY DETECTED (" + riskLevel + " Risk): " + getAnomalyTypeDescription(anomalyType));
+            helper.setSubject(anomalySubject(anomalyType, riskLevel));
 
             String htmlContent = createAnomalyDetectionEmailContent(user, ticket, anomalyType, anomalyDetails, riskLevel);
             helper.setText(htmlContent, true);
 
-            mailSender.send(message);
-            System.out.println("Anomaly detection email sent successfully to " + recipientEmail + " for user " + user.getUsername());
+            emailDispatchQueue.enqueue(message, "Anomaly detection email to " + recipientEmail);
+            System.out.println("Anomaly detection email queued for " + recipientEmail + " for user " + user.getUsername());
 
         } catch (Exception e) {
             System.err.println("Anomaly detection email failed: " + e.getMessage());
@@ -877,67 +456,36 @@ public class GmailEmailService {
      * Creates professional HTML email content for anomaly detection notification
      */
     private String createAnomalyDetectionEmailContent(User user, Ticket ticket, String anomalyType, String anomalyDetails, String riskLevel) {
-        String currentDateTime = LocalDateTime.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"));
-        String ticketDateTime = ticket.getDateCreated().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy 'at' HH:mm"));
-
-        StringBuilder html = new StringBuilder();
-        html.append(getEmailHeader("Anomaly Detection Alert"));
-        html.append("<div class=\"email-container\">");
-        html.append("<div class=\"header\">");
-        html.append("<h1>FireFighter Platform</h1>");
-        html.append("<p class=\"subtitle\">Emergency Response Management System</p>");
-        html.append("</div>");
-        html.append("<div class=\"content\">");
-
-        html.append("<div class=\"greeting\"> SECURITY ALERT - Anomalous Behavior Detected,</div>");
-        html.append("<p><strong>ANOMALY DETECTED:</strong> Potentially suspicious user behavior has been identified in the emergency response system.</p>");
-        html.append("<p><strong>Anomaly Type: ").append(getAnomalyTypeDescription(anomalyType)).append("</strong></p>");
-        html.append("<p><strong>Risk Level: <span style=\"color: " + getRiskLevelColor(riskLevel) + "; font-weight: bold;\">" + riskLevel + "</span></strong></p>");
-        
-        html.append("<div class=\"info-box\">");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">User: </span>");
-        html.append("<span class=\"info-value\">").append(user.getUsername()).append(" (").append(user.getEmail()).append(")</span>");
-        html.append("</div>");
-        if (user.getDepartment() != null) {
-            html.append("<div class=\"info-item\">");
-            html.append("<span class=\"info-label\">Department: </span>");
-            html.append("<span class=\"info-value\">").append(user.getDepartment()).append("</span>");
-            html.append("</div>");
-        }
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Related Ticket: </span>");
-        html.append("<span class=\"info-value\">").append(ticket.getTicketId()).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Emergency Type: </span>");
-        html.append("<span class=\"info-value\">").append(ticket.getEmergencyType()).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Ticket Created: </span>");
-        html.append("<span class=\"info-value\">").append(ticketDateTime).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Anomaly Details: </span>");
-        html.append("<span class=\"info-value\">").append(anomalyDetails).append("</span>");
-        html.append("</div>");
-        html.append("<div class=\"info-item\">");
-        html.append("<span class=\"info-label\">Detection Time: </span>");
-        html.append("<span class=\"info-value\">").append(currentDateTime).append("</span>");
-        html.append("</div>");
-        html.append("</div>");
-        
-        html.append("<div class=\"security-notice\">");
-        html.append(getSecurityNoticeForAnomalyType(anomalyType, riskLevel));
-        html.append("</div>");
-        
-        html.append("</div>");
-        html.append(getEmailFooter(currentDateTime));
-        html.append("</div>");
-        html.append("</body>");
-        html.append("</html>");
+        String currentDateTime = LocalDateTime.now().format(EMAIL_DATE_FORMAT);
+        return renderNotification("Anomaly Detection Alert",
+            anomalyAlertContent(user, ticket, anomalyType, anomalyDetails, riskLevel, currentDateTime), currentDateTime);
+    }
 
-        return html.toString();
+    private EmailTemplate.Fragment anomalyAlertContent(User user, Ticket ticket, String anomalyType, String anomalyDetails,
+                                                       String riskLevel, String detectedAt) {
+        String ticketDateTime = ticket.getDateCreated().format(EMAIL_DATE_FORMAT);
+
+        EmailTemplate.Fragment departmentRow = user.getDepartment() != null
+            ? emailTemplates.infoItem("Department", user.getDepartment())
+            : EmailTemplate.EMPTY;
+
+        return emailTemplates.fragment(EmailTemplates.Template.ANOMALY_ALERT,
+            getAnomalyTypeDescription(anomalyType),
+            getRiskLevelColor(riskLevel),
+            riskLevel,
+            user.getUsername(),
+            user.getEmail(),
+            departmentRow,
+            ticket.getTicketId(),
+            ticket.getEmergencyType(),
+            ticketDateTime,
+            anomalyDetails,
+            detectedAt,
+            getSecurityNoticeForAnomalyType(anomalyType, riskLevel));
+    }
+
+    private String anomalySubject(String anomalyType, String riskLevel) {
+        return "FireFighter Platform - ANOMALY DETECTED (" + riskLevel + " Risk): " + getAnomalyTypeDescription(anomalyType);
     }
 
     /**
@@ -1000,6 +548,107 @@ public class GmailEmailService {
         };
     }
 
+    // ========================================
+    // ADMIN ALERT EMAILS
+    // ========================================
+
+    /**
+     * Send security alerts to all admins as one email, with the admins as BCC recipients.
+     * A single alert uses the same layout as the per-admin alert emails; several alerts are combined into a digest.
+     */
+    public void sendAdminAlertEmail(List<String> adminEmails, List<AdminAlert> alerts) throws MessagingException {
+        if (!isEmailServiceEnabled()) {
+            logEmailDisabled("Admin Alert", adminEmails.size() + " admin(s)");
+            return;
+        }
+        if (adminEmails.isEmpty() || alerts.isEmpty()) {
+            return;
+        }
+
+        try {
+            MimeMessage message = mailSender.createMimeMessage();
+            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+            // BCC so admins do not see each other's addresses
+            helper.setBcc(adminEmails.toArray(new String[0]));
+            if (alerts.size() == 1) {
+                AdminAlert alert = alerts.get(0);
+                helper.setSubject(adminAlertSubject(alert));
+                helper.setText(renderNotification(adminAlertTitle(alert), adminAlertContent(alert),
+                    LocalDateTime.now().format(EMAIL_DATE_FORMAT)), true);
+            } else {
+                helper.setSubject("FireFighter Platform - SECURITY DIGEST: " + alerts.size() + " alerts ("
+                    + highestRiskLevel(alerts) + " Risk)");
+                helper.setText(createAdminAlertDigestContent(alerts), true);
+            }
+
+            emailDispatchQueue.enqueue(message, "Admin alert email (" + alerts.size() + " alert(s)) to " + adminEmails.size() + " admin(s)");
+            System.out.println("Admin alert email with " + alerts.size() + " alert(s) queued for " + adminEmails.size() + " admin(s)");
+
+        } catch (Exception e) {
+            System.err.println("Admin alert email failed: " + e.getMessage());
+            throw e;
+        }
+    }
+
+    /**
+     * Creates the digest of several admin alerts, each shown with its own details and notice
+     */
+    private String createAdminAlertDigestContent(List<AdminAlert> alerts) {
+        String currentDateTime = LocalDateTime.now().format(EMAIL_DATE_FORMAT);
+        String riskLevel = highestRiskLevel(alerts);
+
+        EmailTemplate.Fragment alertList = out -> {
+            for (AdminAlert alert : alerts) {
+                emailTemplates.fragment(EmailTemplates.Template.ADMIN_ALERT_DIGEST_ITEM, adminAlertContent(alert)).renderTo(out);
+            }
+        };
+
+        return renderNotification("Security Alert Digest", emailTemplates.fragment(EmailTemplates.Template.ADMIN_ALERT_DIGEST,
+            alerts.size(),
+            alerts.get(0).raisedAt().format(EMAIL_DATE_FORMAT),
+            alerts.get(alerts.size() - 1).raisedAt().format(EMAIL_DATE_FORMAT),
+            getRiskLevelColor(riskLevel),
+            riskLevel,
+            alertList), currentDateTime);
+    }
+
+    private EmailTemplate.Fragment adminAlertContent(AdminAlert alert) {
+        String raisedAt = alert.raisedAt().format(EMAIL_DATE_FORMAT);
+        if (alert instanceof AdminAlert.Anomaly anomaly) {
+            return anomalyAlertContent(anomaly.user(), anomaly.ticket(), anomaly.anomalyType(), anomaly.anomalyDetails(),
+                anomaly.riskLevel(), raisedAt);
+        }
+        AdminAlert.GroupChange change = (AdminAlert.GroupChange) alert;
+        return groupChangeAlertContent(change.user(), change.ticketId(), change.oldGroup(), change.newGroup(),
+            change.reason(), change.riskLevel(), raisedAt);
+    }
+
+    private String adminAlertSubject(AdminAlert alert) {
+        if (alert instanceof AdminAlert.Anomaly anomaly) {
+            return anomalySubject(anomaly.anomalyType(), anomaly.riskLevel());
+        }
+        AdminAlert.GroupChange change = (AdminAlert.GroupChange) alert;
+        return groupChangeSubject(change.user(), change.riskLevel());
+    }
+
+    private static String adminAlertTitle(AdminAlert alert) {
+        return alert instanceof AdminAlert.Anomaly ? "Anomaly Detection Alert" : "User Group Change Alert";
+    }
+
+    private static String highestRiskLevel(List<AdminAlert> alerts) {
+        String highest = "LOW";
+        for (AdminAlert alert : alerts) {
+            if ("HIGH".equals(alert.riskLevel())) {
+                return "HIGH";
+            }
+            if ("MEDIUM".equals(alert.riskLevel())) {
+                highest = "MEDIUM";
+            }
+        }
+        return highest;
+    }
+
     // ========================================
     // REGISTRATION NOTIFICATION EMAILS
     // ========================================
@@ -1021,102 +670,26 @@ public class GmailEmailService {
         helper.setTo(adminEmail);
         helper.setSubject("🔔 New User Registration Request - Action Required");
 
-        String htmlContent = """
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <style>
-                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: linear-gradient(135deg, #667eea 0%%, #764ba2 100%%); 
-                             color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
-                    .content { background: #f8f9fa; padding: 30px; border-radius: 0 0 10px 10px; }
-                    .info-box { background: white; padding: 20px; margin: 20px 0; border-radius: 8px; 
-                               border-left: 4px solid #667eea; }
-                    .info-row { margin: 10px 0; }
-                    .label { font-weight: bold; color: #667eea; }
-                    .value { color: #333; }
-                    .button { display: inline-block; padding: 12px 30px; background: #667eea; 
-                             color: white; text-decoration: none; border-radius: 5px; margin: 10px 5px; }
-                    .footer { text-align: center; margin-top: 30px; color: #6c757d; font-size: 12px; }
-                    .priority-high { color: #dc3545; font-weight: bold; }
-                    .priority-medium { color: #fd7e14; font-weight: bold; }
-                    .priority-low { color: #28a745; font-weight: bold; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h1>🔔 New Registration Request</h1>
-                        <p>Action Required</p>
-                    </div>
-                    <div class="content">
-                        <p>Hello <strong>%s</strong>,</p>
-                        <p>A new user has requested access to the FireFighter Platform and requires your review.</p>
-                        
-                        <div class="info-box">
-                            <h3>📋 Registration Details</h3>
-                            <div class="info-row">
-                                <span class="label">Username:</span> 
-                                <span class="value">%s</span>
-                            </div>
-                            <div class="info-row">
-                                <span class="label">Email:</span> 
-                                <span class="value">%s</span>
-                            </div>
-                            <div class="info-row">
-                                <span class="label">Department:</span> 
-                                <span class="value">%s</span>
-                            </div>
-                            <div class="info-row">
-                                <span class="label">Contact:</span> 
-                                <span class="value">%s</span>
-                            </div>
-                            <div class="info-row">
-                                <span class="label">Registration Method:</span> 
-                                <span class="value">%s</span>
-                            </div>
-                            <div class="info-row">
-                                <span class="label">Priority:</span> 
-                                <span class="value %s">%s</span>
-                            </div>
-                            %s
-                            %s
-                        </div>
-                        
-                        <div style="text-align: center; margin: 30px 0;">
-                            <p><strong>Please review this request in the admin panel.</strong></p>
-                        </div>
-                        
-                        <div class="footer">
-                            <p>This is an automated notification from FireFighter Platform</p>
-                            <p>Please do not reply to this email</p>
-                        </div>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """.formatted(
-                adminName,
-                accessRequest.getUsername(),
-                accessRequest.getEmail(),
-                accessRequest.getRequestDepartment() != null ? accessRequest.getRequestDepartment() : "Not specified",
-                accessRequest.getPhoneNumber() != null ? accessRequest.getPhoneNumber() : "Not provided",
-                accessRequest.getRegistrationMethod(),
-                getPriorityClass(accessRequest.getRequestPriority()),
-                accessRequest.getRequestPriority() != null ? accessRequest.getRequestPriority() : "MEDIUM",
-                accessRequest.getRequestedAccessGroups() != null && !accessRequest.getRequestedAccessGroups().isEmpty() 
-                    ? "<div class=\"info-row\"><span class=\"label\">Requested Access:</span> <span class=\"value\">" 
-                      + String.join(", ", accessRequest.getRequestedAccessGroups()) + "</span></div>"
-                    : "",
-                accessRequest.getJustification() != null 
-                    ? "<div class=\"info-row\"><span class=\"label\">Justification:</span> <span class=\"value\">" 
-                      + accessRequest.getJustification() + "</span></div>"
-                    : ""
-            );
+        String htmlContent = emailTemplates.render(EmailTemplates.Template.REGISTRATION_REQUEST,
+            adminName,
+            accessRequest.getUsername(),
+            accessRequest.getEmail(),
+            accessRequest.getRequestDepartment() != null ? accessRequest.getRequestDepartment() : "Not specified",
+            accessRequest.getPhoneNumber() != null ? accessRequest.getPhoneNumber() : "Not provided",
+            accessRequest.getRegistrationMethod(),
+            getPriorityClass(accessRequest.getRequestPriority()),
+            accessRequest.getRequestPriority() != null ? accessRequest.getRequestPriority() : "MEDIUM",
+            accessRequest.getRequestedAccessGroups() != null && !accessRequest.getRequestedAccessGroups().isEmpty()
+                ? emailTemplates.fragment(EmailTemplates.Template.REGISTRATION_INFO_ROW,
+                    "Requested Access", String.join(", ", accessRequest.getRequestedAccessGroups()))
+                : EmailTemplate.EMPTY,
+            accessRequest.getJustification() != null
+                ? emailTemplates.fragment(EmailTemplates.Template.REGISTRATION_INFO_ROW,
+                    "Justification", accessRequest.getJustification())
+                : EmailTemplate.EMPTY);
 
         helper.setText(htmlContent, true);
-        mailSender.send(message);
+        emailDispatchQueue.enqueue(message, "New registration email to " + adminEmail);
     }
 
     /**
@@ -1135,53 +708,10 @@ public class GmailEmailService {
         helper.setTo(userEmail);
         helper.setSubject("✅ Registration Approved - Welcome to FireFighter Platform");
 
-        String htmlContent = """
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <style>
-                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: linear-gradient(135deg, #28a745 0%%, #20c997 100%%); 
-                             color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
-                    .content { background: #f8f9fa; padding: 30px; border-radius: 0 0 10px 10px; }
-                    .success-icon { font-size: 64px; margin: 20px 0; }
-                    .button { display: inline-block; padding: 12px 30px; background: #28a745; 
-                             color: white; text-decoration: none; border-radius: 5px; margin: 20px 0; }
-                    .footer { text-align: center; margin-top: 30px; color: #6c757d; font-size: 12px; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <div class="success-icon">✅</div>
-                        <h1>Registration Approved!</h1>
-                    </div>
-                    <div class="content">
-                        <p>Hello <strong>%s</strong>,</p>
-                        <p>Great news! Your registration request has been <strong>approved</strong> by the administrator.</p>
-                        
-                        <div style="background: white; padding: 20px; margin: 20px 0; border-radius: 8px; border-left: 4px solid #28a745;">
-                            <p><strong>You now have access to the FireFighter Platform!</strong></p>
-                            <p>You can log in using your registered credentials and start using the system.</p>
-                        </div>
-                        
-                        <div style="text-align: center;">
-                            <p>If you have any questions, please contact our support team.</p>
-                        </div>
-                        
-                        <div class="footer">
-                            <p>Approved by: %s</p>
-                            <p>This is an automated notification from FireFighter Platform</p>
-                        </div>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """.formatted(username, approvedBy);
+        String htmlContent = emailTemplates.render(EmailTemplates.Template.REGISTRATION_APPROVED, username, approvedBy);
 
         helper.setText(htmlContent, true);
-        mailSender.send(message);
+        emailDispatchQueue.enqueue(message, "Registration approved email to " + userEmail);
     }
 
     /**
@@ -1201,53 +731,15 @@ public class GmailEmailService {
         helper.setTo(userEmail);
         helper.setSubject("Registration Request - Update Required");
 
-        String htmlContent = """
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <style>
-                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: linear-gradient(135deg, #fd7e14 0%%, #dc3545 100%%); 
-                             color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
-                    .content { background: #f8f9fa; padding: 30px; border-radius: 0 0 10px 10px; }
-                    .footer { text-align: center; margin-top: 30px; color: #6c757d; font-size: 12px; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h1>Registration Request Update</h1>
-                    </div>
-                    <div class="content">
-                        <p>Hello <strong>%s</strong>,</p>
-                        <p>Thank you for your interest in the FireFighter Platform. Unfortunately, your registration request could not be approved at this time.</p>
-                        
-                        %s
-                        
-                        <div style="background: white; padding: 20px; margin: 20px 0; border-radius: 8px;">
-                            <p>If you believe this was a mistake or would like to discuss your application, please contact our support team.</p>
-                        </div>
-                        
-                        <div class="footer">
-                            <p>Reviewed by: %s</p>
-                            <p>This is an automated notification from FireFighter Platform</p>
-                        </div>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """.formatted(
-                username,
-                reason != null && !reason.trim().isEmpty() 
-                    ? "<div style=\"background: #fff3cd; padding: 15px; margin: 20px 0; border-radius: 8px; border-left: 4px solid #ffc107;\">" +
-                      "<strong>Reason:</strong> " + reason + "</div>"
-                    : "",
-                rejectedBy
-            );
+        String htmlContent = emailTemplates.render(EmailTemplates.Template.REGISTRATION_REJECTED,
+            username,
+            reason != null && !reason.trim().isEmpty()
+                ? emailTemplates.fragment(EmailTemplates.Template.REJECTION_REASON, reason)
+                : EmailTemplate.EMPTY,
+            rejectedBy);
 
         helper.setText(htmlContent, true);
-        mailSender.send(message);
+        emailDispatchQueue.enqueue(message, "Registration rejected email to " + userEmail);
     }
 
     /**
@@ -1267,56 +759,14 @@ public class GmailEmailService {
         helper.setTo(userEmail);
         helper.setSubject("📋 Department Assignment Updated");
 
-        String htmlContent = """
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <style>
-                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: linear-gradient(135deg, #667eea 0%%, #764ba2 100%%); 
-                             color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
-                    .content { background: #f8f9fa; padding: 30px; border-radius: 0 0 10px 10px; }
-                    .change-box { background: white; padding: 20px; margin: 20px 0; border-radius: 8px; text-align: center; }
-                    .old-value { color: #6c757d; text-decoration: line-through; }
-                    .new-value { color: #28a745; font-weight: bold; font-size: 18px; }
-                    .footer { text-align: center; margin-top: 30px; color: #6c757d; font-size: 12px; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h1>📋 Department Update</h1>
-                    </div>
-                    <div class="content">
-                        <p>Hello <strong>%s</strong>,</p>
-                        <p>Your department assignment has been updated by an administrator.</p>
-                        
-                        <div class="change-box">
-                            <p class="old-value">Previous: %s</p>
-                            <p>↓</p>
-                            <p class="new-value">New Department: %s</p>
-                        </div>
-                        
-                        <p style="text-align: center;">If you have any questions about this change, please contact your administrator.</p>
-                        
-                        <div class="footer">
-                            <p>Changed by: %s</p>
-                            <p>This is an automated notification from FireFighter Platform</p>
-                        </div>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """.formatted(
-                username,
-                oldDepartment != null ? oldDepartment : "Not assigned",
-                newDepartment,
-                changedBy
-            );
+        String htmlContent = emailTemplates.render(EmailTemplates.Template.DEPARTMENT_CHANGED,
+            username,
+            oldDepartment != null ? oldDepartment : "Not assigned",
+            newDepartment,
+            changedBy);
 
         helper.setText(htmlContent, true);
-        mailSender.send(message);
+        emailDispatchQueue.enqueue(message, "Department change email to " + userEmail);
     }
 
     /**
@@ -1340,60 +790,18 @@ public class GmailEmailService {
         String statusText = isAuthorized ? "ACTIVE" : "INACTIVE";
         String statusIcon = isAuthorized ? "✅" : "⚠️";
 
-        String htmlContent = """
-            <!DOCTYPE html>
-            <html>
-            <head>
-                <style>
-                    body { font-family: Arial, sans-serif; line-height: 1.6; color: #333; }
-                    .container { max-width: 600px; margin: 0 auto; padding: 20px; }
-                    .header { background: linear-gradient(135deg, %s 0%%, %s 100%%); 
-                             color: white; padding: 30px; text-align: center; border-radius: 10px 10px 0 0; }
-                    .content { background: #f8f9fa; padding: 30px; border-radius: 0 0 10px 10px; }
-                    .status-box { background: white; padding: 30px; margin: 20px 0; border-radius: 8px; 
-                                 border: 2px solid %s; text-align: center; }
-                    .status-text { font-size: 24px; font-weight: bold; color: %s; }
-                    .footer { text-align: center; margin-top: 30px; color: #6c757d; font-size: 12px; }
-                </style>
-            </head>
-            <body>
-                <div class="container">
-                    <div class="header">
-                        <h1>%s Account Status Update</h1>
-                    </div>
-                    <div class="content">
-                        <p>Hello <strong>%s</strong>,</p>
-                        <p>Your account status has been updated by an administrator.</p>
-                        
-                        <div class="status-box">
-                            <p class="status-text">Account Status: %s</p>
-                        </div>
-                        
-                        %s
-                        
-                        <div class="footer">
-                            <p>Changed by: %s</p>
-                            <p>This is an automated notification from FireFighter Platform</p>
-                        </div>
-                    </div>
-                </div>
-            </body>
-            </html>
-            """.formatted(
-                statusColor, statusColor,
-                statusColor,
-                statusColor,
-                statusIcon,
-                username,
-                statusText,
-                isAuthorized 
-                    ? "<p style=\"text-align: center;\">You can now access all authorized features of the platform.</p>"
-                    : "<p style=\"text-align: center; color: #dc3545;\"><strong>Your access has been temporarily suspended.</strong> Please contact your administrator for more information.</p>",
-                changedBy
-            );
+        String htmlContent = emailTemplates.render(EmailTemplates.Template.ACCOUNT_STATUS_CHANGED,
+            statusColor,
+            statusIcon,
+            username,
+            statusText,
+            isAuthorized
+                ? "<p style=\"text-align: center;\">You can now access all authorized features of the platform.</p>"
+                : "<p style=\"text-align: center; color: #dc3545;\"><strong>Your access has been temporarily suspended.</strong> Please contact your administrator for more information.</p>",
+            changedBy);
 
         helper.setText(htmlContent, true);
-        mailSender.send(message);
+        emailDispatchQueue.enqueue(message, "Account status change email to " + userEmail);
     }
 
     /**
@@ -6,27 +6,30 @@ import com.apex.firefighter.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import jakarta.mail.MessagingException;
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.Map;
 
 @Service
 public class GroupChangeNotificationService {
 
-    private final GmailEmailService emailService;
+    private final AdminAlertFanout adminAlertFanout;
     private final UserRepository userRepository;
     private final DoliGroupConfig doliGroupConfig;
+    private final DolibarrGroupAllocater groupAllocater;
 
     @Autowired
-    public GroupChangeNotificationService(GmailEmailService emailService, UserRepository userRepository, DoliGroupConfig doliGroupConfig) {
-        this.emailService = emailService;
+    public GroupChangeNotificationService(AdminAlertFanout adminAlertFanout, UserRepository userRepository, DoliGroupConfig doliGroupConfig,
+                                          DolibarrGroupAllocater groupAllocater) {
+        this.adminAlertFanout = adminAlertFanout;
         this.userRepository = userRepository;
         this.doliGroupConfig = doliGroupConfig;
+        this.groupAllocater = groupAllocater;
     }
 
     /**
      * Notifies all admin users about a group change in the Dolibarr system
-     * Only sends notifications if the group change is considered suspicious
+     * Only sends notifications if the group change is considered suspicious;
+     * delivery, including coalescing bursts into a digest, is left to AdminAlertFanout
      * 
      * @param user The user whose group was changed
      * @param ticketId The ticket that triggered the group change
@@ -43,37 +46,12 @@ public class GroupChangeNotificationService {
             }
 
             String suspicionLevel = getSuspicionLevel(oldGroup, newGroup);
-            System.out.println("🚨 GROUP CHANGE NOTIFICATION: Suspicious group change detected (" + suspicionLevel + " risk) - sending notifications");
-            
-            // Get all admin users (only checking isAdmin field)
-            List<User> adminUsers = userRepository.findByIsAdminTrue();
-            
-            if (adminUsers.isEmpty()) {
-                System.out.println("⚠️ GROUP CHANGE NOTIFICATION: No admin users found to notify");
-                return;
-            }
+            System.out.println("🚨 GROUP CHANGE NOTIFICATION: Suspicious group change detected (" + suspicionLevel + " risk) for user "
+                + user.getUsername() + " - notifying admins");
+
+            adminAlertFanout.publish(new AdminAlert.GroupChange(user, ticketId, oldGroup, newGroup, reason, suspicionLevel,
+                LocalDateTime.now()));
 
-            System.out.println("📧 GROUP CHANGE NOTIFICATION: Notifying " + adminUsers.size() + " admin(s) about suspicious group change for user " + user.getUsername());
-            
-            // Send notification to each admin
-            for (User admin : adminUsers) {
-                try {
-                    emailService.sendSuspiciousGroupChangeNotificationEmail(
-                        admin.getEmail(),
-                        user,
-                        ticketId,
-                        oldGroup,
-                        newGroup,
-                        reason,
-                        suspicionLevel
-                    );
-                    System.out.println("✅ GROUP CHANGE NOTIFICATION: Sent suspicious change notification to admin " + admin.getUsername() + " (" + admin.getEmail() + ")");
-                } catch (MessagingException e) {
-                    System.err.println("❌ GROUP CHANGE NOTIFICATION: Failed to send notification to admin " + admin.getUsername() + ": " + e.getMessage());
-                    // Continue with other admins even if one fails
-                }
-            }
-            
         } catch (Exception e) {
             System.err.println("❌ GROUP CHANGE NOTIFICATION: Failed to notify admins of group change: " + e.getMessage());
         }
@@ -99,7 +77,8 @@ public class GroupChangeNotificationService {
 
     /**
      * Resolves a group ID to a human-readable group name
-     * This method maps the group IDs used in the Dolibarr system to descriptive names
+     * This method maps the group IDs used in the Dolibarr system to descriptive names,
+     * falling back to the fine-grained permission that uses the group
      * 
      * @param groupId The group ID to resolve
      * @return A human-readable group name
@@ -121,9 +100,11 @@ public class GroupChangeNotificationService {
             return "Management Emergency Group";
         } else if (groupId.equals(groups.get("logistics"))) {
             return "Logistics Emergency Group";
-        } else {
-            return "Group ID: " + groupId;
         }
+
+        return groupAllocater.getPermissionForGroupId(groupId)
+            .map(permission -> "Permission " + permission + " (Group ID: " + groupId + ")")
+            .orElse("Group ID: " + groupId);
     }
 
     /**
@@ -0,0 +1,149 @@
+package com.apex.firefighter.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client rate limits for ticket creation and NLP queries, checked before the request reaches a controller.
+ *
+ * Each client has one token bucket per endpoint, kept as a single AtomicLong holding the time at which the bucket
+ * will be full again (the generic cell rate algorithm). A request that fits moves that time forward by one
+ * interval with a compare-and-set, so checking a limit takes no lock and no database query. A client may send its
+ * whole per-minute allowance at once and then one request per interval.
+ *
+ * Buckets live in a size-bounded Caffeine cache. A bucket left alone for a minute is full again, so dropping it
+ * after a minute without access loses nothing.
+ */
+@Service
+public class RequestRateLimiter {
+
+    public enum Endpoint { TICKET_CREATION, NLP_QUERY }
+
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final boolean enabled;
+    private final LongSupplier nanoClock;
+    private final Map<Endpoint, Limit> userLimits = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Limit> adminLimits = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Cache<String, AtomicLong>> buckets = new EnumMap<>(Endpoint.class);
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder limited = new LongAdder();
+
+    @Autowired
+    public RequestRateLimiter(@Value("${rate-limit.enabled:true}") boolean enabled,
+                              @Value("${rate-limit.tickets.user-per-minute:10}") int ticketsPerMinute,
+                              @Value("${rate-limit.tickets.admin-per-minute:30}") int adminTicketsPerMinute,
+                              @Value("${rate-limit.nlp.user-per-minute:30}") int nlpQueriesPerMinute,
+                              @Value("${rate-limit.nlp.admin-per-minute:120}") int adminNlpQueriesPerMinute,
+                              @Value("${rate-limit.max-clients:10000}") long maxClients) {
+        this(enabled, ticketsPerMinute, adminTicketsPerMinute, nlpQueriesPerMinute, adminNlpQueriesPerMinute,
+            maxClients, System::nanoTime);
+    }
+
+    public RequestRateLimiter(boolean enabled, int ticketsPerMinute, int adminTicketsPerMinute,
+                              int nlpQueriesPerMinute, int adminNlpQueriesPerMinute, long maxClients,
+                              LongSupplier nanoClock) {
+        this.enabled = enabled;
+        this.nanoClock = nanoClock;
+        putLimit(userLimits, Endpoint.TICKET_CREATION, ticketsPerMinute);
+        putLimit(adminLimits, Endpoint.TICKET_CREATION, adminTicketsPerMinute);
+        putLimit(userLimits, Endpoint.NLP_QUERY, nlpQueriesPerMinute);
+        putLimit(adminLimits, Endpoint.NLP_QUERY, adminNlpQueriesPerMinute);
+        for (Endpoint endpoint : Endpoint.values()) {
+            buckets.put(endpoint, Caffeine.newBuilder()
+                .maximumSize(Math.max(0, maxClients))
+                .expireAfterAccess(Duration.ofNanos(WINDOW_NANOS))
+                .ticker(nanoClock::getAsLong)
+                .build());
+        }
+    }
+
+    // A limit of zero or less leaves the endpoint unlimited for that role
+    private static void putLimit(Map<Endpoint, Limit> limits, Endpoint endpoint, int perMinute) {
+        if (perMinute > 0) {
+            long intervalNanos = WINDOW_NANOS / perMinute;
+            limits.put(endpoint, new Limit(intervalNanos, intervalNanos * (perMinute - 1)));
+        }
+    }
+
+    /**
+     * Take one request from a client's allowance
+     *
+     * @param endpoint The rate-limited endpoint being called
+     * @param clientKey The Firebase UID or API key owner the request is counted against
+     * @param admin Whether the admin limits apply
+     * @return Whether the request may proceed and, if not, how long until it would
+     */
+    public Decision tryAcquire(Endpoint endpoint, String clientKey, boolean admin) {
+        Limit limit = (admin ? adminLimits : userLimits).get(endpoint);
+        if (!enabled || limit == null || clientKey == null) {
+            allowed.increment();
+            return Decision.ALLOWED;
+        }
+
+        long now = nanoClock.getAsLong();
+        AtomicLong fullAt = buckets.get(endpoint).get(clientKey, ignored -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            // A time in the past means the bucket is already full; compare by difference to survive nanoTime wrap
+            long start = current - now > 0 ? current : now;
+            long waitNanos = start - now - limit.burstNanos();
+            if (waitNanos > 0) {
+                limited.increment();
+                return new Decision(false, waitNanos);
+            }
+            if (fullAt.compareAndSet(current, start + limit.intervalNanos())) {
+                allowed.increment();
+                return Decision.ALLOWED;
+            }
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        metrics.put("allowed", allowed.sum());
+        metrics.put("limited", limited.sum());
+        long trackedClients = 0;
+        for (Cache<String, AtomicLong> endpointBuckets : buckets.values()) {
+            trackedClients += endpointBuckets.estimatedSize();
+        }
+        metrics.put("trackedClients", trackedClients);
+        return metrics;
+    }
+
+    /**
+     * Outcome of a rate limit check
+     *
+     * @param allowed Whether the request may proceed
+     * @param retryAfterNanos How long the client should wait before retrying; zero when allowed
+     */
+    public record Decision(boolean allowed, long retryAfterNanos) {
+
+        static final Decision ALLOWED = new Decision(true, 0);
+
+        /**
+         * Wait in whole seconds, rounded up, as sent in the Retry-After header
+         */
+        public long retryAfterSeconds() {
+            long nanosPerSecond = TimeUnit.SECONDS.toNanos(1);
+            return allowed ? 0 : Math.max(1, (retryAfterNanos + nanosPerSecond - 1) / nanosPerSecond);
+        }
+    }
+
+    // One request per interval, with up to burstNanos of requests allowed ahead of schedule
+    private record Limit(long intervalNanos, long burstNanos) {}
+}
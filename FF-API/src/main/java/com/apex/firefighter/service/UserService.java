@@ -4,8 +4,10 @@ import com.apex.firefighter.model.User;
 import com.apex.firefighter.service.auth.AuthenticationService;
 import com.apex.firefighter.service.auth.AuthorizationService;
 import com.apex.firefighter.service.role.RoleService;
+import com.apex.firefighter.service.user.UserAuthorizationChangedEvent;
 import com.apex.firefighter.service.user.UserProfileService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -31,16 +33,19 @@ public class UserService {
     private final AuthorizationService authorizationService;
     private final RoleService roleService;
     private final UserProfileService userProfileService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public UserService(AuthenticationService authenticationService,
                       AuthorizationService authorizationService,
                       RoleService roleService,
-                      UserProfileService userProfileService) {
+                      UserProfileService userProfileService,
+                      ApplicationEventPublisher eventPublisher) {
         this.authenticationService = authenticationService;
         this.authorizationService = authorizationService;
         this.roleService = roleService;
         this.userProfileService = userProfileService;
+        this.eventPublisher = eventPublisher;
     }
 
     // DELEGATION METHODS FOR BACKWARD COMPATIBILITY
@@ -89,18 +94,18 @@ public class UserService {
      * ADMIN OPERATIONS - Delegates to AuthorizationService
      */
     public User authorizeUser(String firebaseUid, String authorizedBy) {
-        return authorizationService.authorizeUser(firebaseUid, authorizedBy);
+        return publishAuthorizationChange(authorizationService.authorizeUser(firebaseUid, authorizedBy));
     }
 
     public User revokeUserAuthorization(String firebaseUid, String revokedBy) {
-        return authorizationService.revokeUserAuthorization(firebaseUid, revokedBy);
+        return publishAuthorizationChange(authorizationService.revokeUserAuthorization(firebaseUid, revokedBy));
     }
 
     /**
      * ROLE MANAGEMENT - Delegates to RoleService
      */
     public User assignRole(String firebaseUid, String roleName, String assignedBy) {
-        return roleService.assignRole(firebaseUid, roleName, assignedBy);
+        return publishAuthorizationChange(roleService.assignRole(firebaseUid, roleName, assignedBy));
     }
 
     /**
@@ -143,7 +148,7 @@ public class UserService {
      * Update user profile - Delegates to UserProfileService
      */
     public User updateUserProfile(String firebaseUid, String username, String email, String department) {
-        return userProfileService.updateUserProfile(firebaseUid, username, email, department);
+        return publishAuthorizationChange(userProfileService.updateUserProfile(firebaseUid, username, email, department));
     }
 
     /**
@@ -157,7 +162,7 @@ public class UserService {
      * Remove role from user - Delegates to RoleService
      */
     public User removeRole(String firebaseUid, String roleName) {
-        return roleService.removeRole(firebaseUid, roleName);
+        return publishAuthorizationChange(roleService.removeRole(firebaseUid, roleName));
     }
 
     /**
@@ -232,6 +237,16 @@ public class UserService {
      * Update user account status as admin - Delegates to UserProfileService with admin check
      */
     public User updateUserAccountStatus(String adminFirebaseUid, String targetFirebaseUid, Boolean isAuthorized) {
-        return userProfileService.updateUserAccountStatus(adminFirebaseUid, targetFirebaseUid, isAuthorized);
+        return publishAuthorizationChange(userProfileService.updateUserAccountStatus(adminFirebaseUid, targetFirebaseUid, isAuthorized));
+    }
+
+    /**
+     * Tell listeners such as the NLP username dictionary and the admin alert recipients about the user's saved state
+     */
+    private User publishAuthorizationChange(User user) {
+        if (user != null) {
+            eventPublisher.publishEvent(UserAuthorizationChangedEvent.of(user));
+        }
+        return user;
     }
 } 
\ No newline at end of file
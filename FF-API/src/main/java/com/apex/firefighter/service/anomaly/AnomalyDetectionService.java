@@ -5,6 +5,10 @@ import com.apex.firefighter.repository.AccessLogRepository;
 import com.apex.firefighter.repository.AccessSessionRepository;
 import com.apex.firefighter.model.AccessLog;
 import com.apex.firefighter.model.AccessSession;
+import com.apex.firefighter.model.Ticket;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
@@ -19,6 +23,10 @@ public class AnomalyDetectionService {
     private final AccessLogRepository accessLogRepository;
     private final AccessSessionRepository accessSessionRepository;
 
+    // Tickets per user and minute over the last day, so the frequency checks never query the tickets table
+    private final TicketFrequencyCounters frequencyCounters = new TicketFrequencyCounters();
+    private volatile boolean frequencySeeded;
+
     //configuration for frequent request detection
     private static final int MAX_REQUESTS_PER_HOUR = 5;
     private static final int MAX_REQUESTS_PER_DAY = 20;
@@ -38,6 +46,78 @@ public class AnomalyDetectionService {
 
     }
 
+    /**
+     * Seeds the per-user ticket counters with the last 24 hours of tickets
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(){
+
+        try {
+            seedFrequencyCounters();
+            System.out.println("🚨 ANOMALY DETECTION: Seeded ticket frequency counters for " + frequencyCounters.size() + " users");
+        } catch (Exception e) {
+            System.err.println("❌ ANOMALY DETECTION: Failed to seed ticket frequency counters: " + e.getMessage());
+        }
+
+    }
+
+    private synchronized void seedFrequencyCounters(){
+
+        if (frequencySeeded) {
+            return;
+        }
+        frequencyCounters.seed(ticketRepository.countTicketsByUserAndMinuteSince(LocalDateTime.now().minusDays(1)));
+        frequencySeeded = true;
+
+    }
+
+    /**
+     * Counts a newly saved ticket towards its user's request frequency
+     *
+     * @param ticket The saved ticket
+     */
+    public void recordTicketCreated(Ticket ticket){
+
+        // Until the counters are seeded the ticket is counted by the seed query, which reads it from the database
+        if (ticket != null && frequencySeeded) {
+            frequencyCounters.record(ticket.getUserId(), ticket.getDateCreated());
+        }
+
+    }
+
+    /**
+     * Drops the counters of users without a ticket in the last 24 hours
+     */
+    @Scheduled(fixedDelayString = "${anomaly.frequency.prune-interval-millis:600000}",
+               initialDelayString = "${anomaly.frequency.prune-interval-millis:600000}")
+    public void pruneFrequencyCounters(){
+
+        int pruned = frequencyCounters.prune();
+        if (pruned > 0) {
+            System.out.println("🚨 ANOMALY DETECTION: Dropped ticket frequency counters of " + pruned + " inactive users");
+        }
+
+    }
+
+    // Read before the application is ready (or seeding failed): seed first
+    private long requestsLastHour(String userId){
+
+        if (!frequencySeeded) {
+            seedFrequencyCounters();
+        }
+        return frequencyCounters.countLastHour(userId);
+
+    }
+
+    private long requestsLastDay(String userId){
+
+        if (!frequencySeeded) {
+            seedFrequencyCounters();
+        }
+        return frequencyCounters.countLastDay(userId);
+
+    }
+
 
     //CHANGE DOCUMENTATION WHEN MAKE CHANGES (SINCE IT WILL CHANGE WHAT IS BEGIN RETURNED)
     /**
@@ -63,14 +143,11 @@ public class AnomalyDetectionService {
      */
     private boolean isFrequentRequestAnomaly(String userId){
 
-        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-        LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
-
         //count requests in the last hour
-        long requestsLastHour = ticketRepository.countTicketsByUserSince(userId, oneHourAgo);
+        long requestsLastHour = requestsLastHour(userId);
         
         //count requests in the last day
-        long requestsLastDay = ticketRepository.countTicketsByUserSince(userId, oneDayAgo);
+        long requestsLastDay = requestsLastDay(userId);
 
         //check if either threshold is exceeded
         boolean hourlyThresholdExceeded = requestsLastHour >= MAX_REQUESTS_PER_HOUR;
@@ -100,11 +177,8 @@ public class AnomalyDetectionService {
      */
     public String getRequestFrequencyDetails(String userID){
 
-        LocalDateTime oneHourAgo = LocalDateTime.now().minusHours(1);
-        LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
-
-        long requestsLastHour = ticketRepository.countTicketsByUserSince(userID, oneHourAgo);
-        long requestsLastDay = ticketRepository.countTicketsByUserSince(userID, oneDayAgo);
+        long requestsLastHour = requestsLastHour(userID);
+        long requestsLastDay = requestsLastDay(userID);
 
         if(requestsLastHour >= MAX_REQUESTS_PER_HOUR){
 
@@ -0,0 +1,202 @@
+package com.apex.firefighter.service.anomaly;
+
+import com.apex.firefighter.repository.TicketRepository;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tickets created per user in each of the last 1440 minutes, for the frequency anomaly checks.
+ *
+ * Every user with a ticket in the last 24 hours has a ring buffer of one counter per minute, plus running totals
+ * for the last hour and the last day. Moving the buffer up to the current minute subtracts the minutes leaving
+ * each window, so reading either total is a constant-time memory read. Users whose last ticket is more than a day
+ * old are dropped by {@link #prune()}, which bounds memory by the number of users active in the last day.
+ *
+ * This class is not a Spring bean; {@link AnomalyDetectionService} owns it, seeds it from the database and
+ * records each new ticket.
+ */
+public class TicketFrequencyCounters {
+
+    static final int MINUTES_PER_HOUR = 60;
+    static final int MINUTES_PER_DAY = 24 * MINUTES_PER_HOUR;
+
+    private final Clock clock;
+
+    // Replaced as a whole when seeded
+    private volatile ConcurrentHashMap<String, UserWindow> windows = new ConcurrentHashMap<>();
+
+    public TicketFrequencyCounters() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public TicketFrequencyCounters(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Counts one ticket created by a user
+     */
+    public void record(String userId, LocalDateTime createdAt) {
+        add(windows, userId, createdAt, 1);
+    }
+
+    /**
+     * Replaces every counter with the database's per-minute totals.
+     * A ticket recorded while the aggregate runs is counted at most once: it was saved before it was recorded, so
+     * the result includes it unless the query had already read past it.
+     *
+     * @param rows The result of TicketRepository.countTicketsByUserAndMinuteSince for the last 24 hours
+     */
+    public void seed(List<TicketRepository.UserMinuteTotals> rows) {
+        ConcurrentHashMap<String, UserWindow> seeded = new ConcurrentHashMap<>();
+        for (TicketRepository.UserMinuteTotals row : rows) {
+            if (row.getCreatedYear() == null || row.getCreatedMonth() == null || row.getCreatedDay() == null
+                    || row.getCreatedHour() == null || row.getCreatedMinute() == null || row.getTicketCount() == null) {
+                continue;
+            }
+            LocalDateTime minute = LocalDateTime.of(row.getCreatedYear(), row.getCreatedMonth(), row.getCreatedDay(),
+                row.getCreatedHour(), row.getCreatedMinute());
+            add(seeded, row.getUserId(), minute, row.getTicketCount().intValue());
+        }
+        windows = seeded;
+    }
+
+    /**
+     * Tickets the user created in the current minute and the 59 before it
+     */
+    public long countLastHour(String userId) {
+        UserWindow window = userId != null ? windows.get(userId) : null;
+        return window != null ? window.lastHour(currentMinute()) : 0;
+    }
+
+    /**
+     * Tickets the user created in the current minute and the 1439 before it
+     */
+    public long countLastDay(String userId) {
+        UserWindow window = userId != null ? windows.get(userId) : null;
+        return window != null ? window.lastDay(currentMinute()) : 0;
+    }
+
+    /**
+     * Drops users with no tickets in the last 24 hours
+     *
+     * @return The number of users dropped
+     */
+    public int prune() {
+        long now = currentMinute();
+        ConcurrentHashMap<String, UserWindow> current = windows;
+        int pruned = 0;
+        for (String userId : current.keySet()) {
+            // Removed under the map's lock for this user, so a concurrent record() cannot land in a dropped window
+            if (current.computeIfPresent(userId, (key, window) -> window.isEmpty(now) ? null : window) == null) {
+                pruned++;
+            }
+        }
+        return pruned;
+    }
+
+    /**
+     * Number of users being tracked
+     */
+    public int size() {
+        return windows.size();
+    }
+
+    private void add(ConcurrentHashMap<String, UserWindow> target, String userId, LocalDateTime createdAt, int count) {
+        if (userId == null || createdAt == null || count <= 0) {
+            return;
+        }
+        long now = currentMinute();
+        long minute = Math.min(minuteOf(createdAt), now);
+        if (minute <= now - MINUTES_PER_DAY) {
+            return;
+        }
+        target.compute(userId, (key, window) -> {
+            UserWindow updated = window != null ? window : new UserWindow(now);
+            updated.add(now, minute, count);
+            return updated;
+        });
+    }
+
+    // Creation times are local date-times, so minutes are numbered by local wall-clock time as if it were UTC
+    private long currentMinute() {
+        Instant now = clock.instant();
+        int offsetSeconds = clock.getZone().getRules().getOffset(now).getTotalSeconds();
+        return Math.floorDiv(now.getEpochSecond() + offsetSeconds, 60);
+    }
+
+    private static long minuteOf(LocalDateTime dateTime) {
+        return Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static final class UserWindow {
+        private final int[] perMinute = new int[MINUTES_PER_DAY];
+        private long head;
+        private long lastHour;
+        private long lastDay;
+
+        UserWindow(long minute) {
+            this.head = minute;
+        }
+
+        synchronized void add(long now, long minute, int count) {
+            advance(now);
+            minute = Math.min(minute, head);
+            if (minute <= head - MINUTES_PER_DAY) {
+                return;
+            }
+            perMinute[slot(minute)] += count;
+            lastDay += count;
+            if (minute > head - MINUTES_PER_HOUR) {
+                lastHour += count;
+            }
+        }
+
+        synchronized long lastHour(long now) {
+            advance(now);
+            return lastHour;
+        }
+
+        synchronized long lastDay(long now) {
+            advance(now);
+            return lastDay;
+        }
+
+        synchronized boolean isEmpty(long now) {
+            advance(now);
+            return lastDay == 0;
+        }
+
+        // If the clock moves back, keep counting into the latest minute seen
+        private void advance(long now) {
+            if (now <= head) {
+                return;
+            }
+            if (now - head >= MINUTES_PER_DAY) {
+                Arrays.fill(perMinute, 0);
+                lastHour = 0;
+                lastDay = 0;
+                head = now;
+                return;
+            }
+            for (long minute = head + 1; minute <= now; minute++) {
+                // minute - 60 leaves the hour; minute - 1440, which shares the slot being reused, leaves the day
+                lastHour -= perMinute[slot(minute - MINUTES_PER_HOUR)];
+                int slot = slot(minute);
+                lastDay -= perMinute[slot];
+                perMinute[slot] = 0;
+            }
+            head = now;
+        }
+
+        private static int slot(long minute) {
+            return (int) Math.floorMod(minute, (long) MINUTES_PER_DAY);
+        }
+    }
+}
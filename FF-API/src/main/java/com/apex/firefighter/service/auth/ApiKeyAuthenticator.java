@@ -0,0 +1,157 @@
+package com.apex.firefighter.service.auth;
+
+import com.apex.firefighter.model.ApiKey;
+import com.apex.firefighter.repository.ApiKeyRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves API keys to their users from memory.
+ *
+ * Keys are stored as SHA-256 digests, so a presented key is digested and looked up in a snapshot of every key's
+ * digest, user and active flag. The snapshot is loaded at startup, updated as soon as ApiKeyService generates or
+ * revokes a key, and reloaded in the background to pick up rows changed directly in the database. Authenticating
+ * a request does not touch the database.
+ *
+ * The time each key was last used is collected in memory and written in one pass per flush interval, so a busy
+ * key costs one UPDATE per interval rather than one per request.
+ */
+@Service
+public class ApiKeyAuthenticator {
+
+    private final ApiKeyRepository apiKeyRepository;
+
+    // Replaced as a whole on reload and copied on single-key changes; null until first loaded. Writers hold the
+    // monitor, so a reload that read the table before a change was committed cannot overwrite that change.
+    private volatile Map<String, CachedApiKey> keysByHash;
+
+    // Latest use of each key since the last flush
+    private final ConcurrentHashMap<String, ZonedDateTime> pendingLastUsed = new ConcurrentHashMap<>();
+
+    private final LongAdder authenticated = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private final LongAdder reloadFailures = new LongAdder();
+    private final LongAdder lastUsedWrites = new LongAdder();
+
+    public ApiKeyAuthenticator(ApiKeyRepository apiKeyRepository) {
+        this.apiKeyRepository = apiKeyRepository;
+    }
+
+    /**
+     * Find the user an API key belongs to
+     *
+     * @param apiKey The key from the Authorization header
+     * @return The user ID, or empty if the key is unknown or has been revoked
+     */
+    public Optional<String> authenticate(String apiKey) {
+        Map<String, CachedApiKey> keys = keysByHash;
+        if (keys == null) {
+            keys = loadIfMissing();
+        }
+        String keyHash = ApiKey.hash(apiKey);
+        CachedApiKey cached = keyHash != null ? keys.get(keyHash) : null;
+        if (cached == null || !cached.active()) {
+            rejected.increment();
+            return Optional.empty();
+        }
+        authenticated.increment();
+        pendingLastUsed.put(keyHash, ZonedDateTime.now());
+        return Optional.of(cached.userId());
+    }
+
+    private synchronized Map<String, CachedApiKey> loadIfMissing() {
+        if (keysByHash == null) {
+            reload();
+        }
+        return keysByHash != null ? keysByHash : Map.of();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void start() {
+        reload();
+    }
+
+    /**
+     * Replace the snapshot with the keys currently in the database
+     */
+    @Scheduled(fixedDelayString = "${api-keys.reload-interval-millis:300000}",
+               initialDelayString = "${api-keys.reload-interval-millis:300000}")
+    public synchronized void reload() {
+        try {
+            Map<String, CachedApiKey> loaded = new HashMap<>();
+            for (ApiKeyRepository.ApiKeyCredential credential : apiKeyRepository.findAllCredentials()) {
+                loaded.put(credential.getKeyHash(),
+                    new CachedApiKey(credential.getUserId(), Boolean.TRUE.equals(credential.getIsActive())));
+            }
+            keysByHash = loaded;
+            reloads.increment();
+        } catch (Exception e) {
+            reloadFailures.increment();
+            System.err.println("❌ API KEYS: Failed to load API keys: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Apply a generated, revoked or rehashed key once its transaction has committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onApiKeyChanged(ApiKeyChangedEvent event) {
+        if (keysByHash == null || event.getKeyHash() == null) {
+            // Not loaded yet: the first load reads the committed change
+            return;
+        }
+        Map<String, CachedApiKey> updated = new HashMap<>(keysByHash);
+        updated.put(event.getKeyHash(), new CachedApiKey(event.getUserId(), event.isActive()));
+        keysByHash = updated;
+    }
+
+    /**
+     * Write the last-used times collected since the previous flush
+     */
+    @Scheduled(fixedDelayString = "${api-keys.last-used-flush-millis:60000}")
+    @PreDestroy
+    public void flushLastUsed() {
+        for (Map.Entry<String, ZonedDateTime> entry : pendingLastUsed.entrySet()) {
+            // Leave the entry if the key was used again meanwhile; the newer time is written next flush
+            if (!pendingLastUsed.remove(entry.getKey(), entry.getValue())) {
+                continue;
+            }
+            try {
+                apiKeyRepository.updateLastUsedAt(entry.getKey(), entry.getValue());
+                lastUsedWrites.increment();
+            } catch (Exception e) {
+                System.err.println("❌ API KEYS: Failed to record API key use: " + e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, CachedApiKey> keys = keysByHash;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("cachedKeys", keys != null ? keys.size() : null);
+        metrics.put("authenticated", authenticated.sum());
+        metrics.put("rejected", rejected.sum());
+        metrics.put("reloads", reloads.sum());
+        metrics.put("reloadFailures", reloadFailures.sum());
+        metrics.put("pendingLastUsed", pendingLastUsed.size());
+        metrics.put("lastUsedWrites", lastUsedWrites.sum());
+        return metrics;
+    }
+
+    private record CachedApiKey(String userId, boolean active) {}
+}
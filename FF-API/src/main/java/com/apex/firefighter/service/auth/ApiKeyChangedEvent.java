@@ -0,0 +1,32 @@
+package com.apex.firefighter.service.auth;
+
+import com.apex.firefighter.model.ApiKey;
+
+/**
+ * Published when an API key is generated, revoked or rehashed, so ApiKeyAuthenticator can update its
+ * in-memory copy without waiting for the next reload.
+ */
+public class ApiKeyChangedEvent {
+
+    private final String keyHash;
+    private final String userId;
+    private final boolean active;
+
+    public ApiKeyChangedEvent(String keyHash, String userId, boolean active) {
+        this.keyHash = keyHash;
+        this.userId = userId;
+        this.active = active;
+    }
+
+    /**
+     * Event describing the key as saved
+     */
+    public static ApiKeyChangedEvent of(ApiKey apiKey) {
+        return new ApiKeyChangedEvent(apiKey.getKeyHash(), apiKey.getUser().getUserId(),
+            Boolean.TRUE.equals(apiKey.getIsActive()));
+    }
+
+    public String getKeyHash() { return keyHash; }
+    public String getUserId() { return userId; }
+    public boolean isActive() { return active; }
+}
@@ -6,24 +6,80 @@ import com.apex.firefighter.repository.UserRepository;
 import com.apex.firefighter.model.User;
 import com.apex.firefighter.service.auth.ApiKeyGenerator;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.regex.Pattern;
 
 @Service
 public class ApiKeyService {
+    private static final Pattern KEY_HASH = Pattern.compile("[0-9a-f]{64}");
+
     private final ApiKeyRepository apiKeyRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public ApiKeyService(ApiKeyRepository apiKeyRepository, UserRepository userRepository) {
+    public ApiKeyService(ApiKeyRepository apiKeyRepository, UserRepository userRepository,
+                         ApplicationEventPublisher eventPublisher) {
         this.apiKeyRepository = apiKeyRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Generate a new API key for a user.
+     * Only the digest is stored; the key itself is available from the returned entity's getApiKey() and cannot be
+     * recovered later.
+     */
     public ApiKey generateApiKeyForUser(String userId) {
         User user = userRepository.findByUserId(userId)
                 .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
         String apiKeyValue = ApiKeyGenerator.generateApiKey();
         ApiKey apiKey = new ApiKey(apiKeyValue, user);
-        return apiKeyRepository.save(apiKey);
+        ApiKey saved = apiKeyRepository.save(apiKey);
+        eventPublisher.publishEvent(ApiKeyChangedEvent.of(saved));
+        return saved;
+    }
+
+    /**
+     * Deactivate an API key; requests using it are rejected as soon as the change is committed
+     */
+    @Transactional
+    public ApiKey revokeApiKey(Long apiKeyId) {
+        ApiKey apiKey = apiKeyRepository.findById(apiKeyId)
+                .orElseThrow(() -> new IllegalArgumentException("API key not found: " + apiKeyId));
+        apiKey.setIsActive(false);
+        ApiKey saved = apiKeyRepository.save(apiKey);
+        eventPublisher.publishEvent(ApiKeyChangedEvent.of(saved));
+        System.out.println("🔑 API KEYS: Revoked API key " + apiKeyId + " of user " + saved.getUser().getUserId());
+        return saved;
+    }
+
+    /**
+     * Replace keys stored in plain text by earlier versions with their digest, so they keep working.
+     * Runs before ApiKeyAuthenticator loads its first snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    @Transactional
+    public void hashPlaintextKeys() {
+        int migrated = 0;
+        for (ApiKey apiKey : apiKeyRepository.findAll()) {
+            String stored = apiKey.getKeyHash();
+            if (stored != null && !KEY_HASH.matcher(stored).matches()) {
+                apiKey.setKeyHash(ApiKey.hash(stored));
+                apiKeyRepository.save(apiKey);
+                eventPublisher.publishEvent(ApiKeyChangedEvent.of(apiKey));
+                migrated++;
+            }
+        }
+        if (migrated > 0) {
+            System.out.println("🔑 API KEYS: Replaced " + migrated + " plain-text API keys with their SHA-256 digest");
+        }
     }
 }
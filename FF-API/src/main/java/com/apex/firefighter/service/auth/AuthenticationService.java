@@ -103,9 +103,9 @@ public class AuthenticationService {
         // Verify the Firebase token using JwtService
         var token = jwtService.verifyFirebaseToken(firebaseToken);
         
-        String firebaseUid = token.getUid();
-        String email = token.getEmail();
-        String username = token.getName();
+        String firebaseUid = token.uid();
+        String email = token.email();
+        String username = token.name();
         
         // If username is null (happens with email/password registration), extract from email
         if (username == null || username.trim().isEmpty()) {
@@ -0,0 +1,216 @@
+package com.apex.firefighter.service.auth;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.security.cert.CertificateFactory;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The public keys Google signs Firebase ID tokens with, by key id.
+ *
+ * The certificates are fetched when the application starts and again in the background halfway through
+ * the lifetime Google publishes for them in Cache-Control, so token verification never waits for a download.
+ * A token signed with a key that is not known yet is rejected and triggers an early background refresh,
+ * at most once per minimum refresh interval.
+ *
+ * Nothing is fetched while Firebase is disabled. The URL may point at a local file in Google's format,
+ * and {@link #of(Map)} gives a fixed key set, so verification can run without network access.
+ */
+@Component
+public class FirebaseSigningKeys {
+
+    public static final String GOOGLE_CERTIFICATES_URL =
+        "https://www.googleapis.com/robot/v1/metadata/x509/securetoken@system.gserviceaccount.com";
+
+    private static final Pattern MAX_AGE = Pattern.compile("max-age=(\\d+)");
+    private static final long DEFAULT_MAX_AGE_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final int TIMEOUT_MILLIS = 10000;
+
+    private final String certificatesUrl;
+    private final long minRefreshMillis;
+    private final ScheduledThreadPoolExecutor refresher;
+    private final AtomicBoolean earlyRefreshQueued = new AtomicBoolean();
+
+    private volatile Map<String, PublicKey> keys;
+    private volatile long lastRefreshAttemptMillis;
+    private volatile Instant lastRefreshedAt;
+
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder refreshFailures = new LongAdder();
+    private final LongAdder unknownKeyIds = new LongAdder();
+
+    @Autowired
+    public FirebaseSigningKeys(@Value("${firebase.enabled:false}") boolean firebaseEnabled,
+                               @Value("${firebase.signing-keys.url:" + GOOGLE_CERTIFICATES_URL + "}") String certificatesUrl,
+                               @Value("${firebase.signing-keys.min-refresh-millis:60000}") long minRefreshMillis) {
+        this.certificatesUrl = certificatesUrl;
+        this.minRefreshMillis = minRefreshMillis;
+        this.keys = Map.of();
+        this.refresher = firebaseEnabled ? new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "firebase-signing-keys");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    private FirebaseSigningKeys(Map<String, PublicKey> keys) {
+        this.certificatesUrl = null;
+        this.minRefreshMillis = 0;
+        this.refresher = null;
+        this.keys = Map.copyOf(keys);
+    }
+
+    /**
+     * A fixed key set that is never refreshed, for running without access to Google
+     */
+    public static FirebaseSigningKeys of(Map<String, PublicKey> keys) {
+        return new FirebaseSigningKeys(keys);
+    }
+
+    /**
+     * Loads the certificates before the first request and schedules the next refresh
+     */
+    @PostConstruct
+    public void start() {
+        if (refresher != null) {
+            refreshAndReschedule();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    /**
+     * Get the public key for a key id from a token header
+     *
+     * @param keyId The kid header of the token
+     * @return The key, or null if Google has not published it or it is not loaded yet
+     */
+    public PublicKey get(String keyId) {
+        PublicKey key = keyId != null ? keys.get(keyId) : null;
+        if (key == null) {
+            unknownKeyIds.increment();
+            requestEarlyRefresh();
+        }
+        return key;
+    }
+
+    private void requestEarlyRefresh() {
+        if (refresher == null || System.currentTimeMillis() - lastRefreshAttemptMillis < minRefreshMillis
+                || !earlyRefreshQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    refresh();
+                } catch (Exception e) {
+                    refreshFailures.increment();
+                    System.err.println("❌ FIREBASE KEYS: Early refresh failed: " + e.getMessage());
+                } finally {
+                    earlyRefreshQueued.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+            earlyRefreshQueued.set(false);
+        }
+    }
+
+    private void refreshAndReschedule() {
+        long delayMillis;
+        try {
+            // Refresh halfway through the published lifetime, so the keys in use never go stale
+            delayMillis = Math.max(minRefreshMillis, refresh() / 2);
+        } catch (Exception e) {
+            refreshFailures.increment();
+            System.err.println("❌ FIREBASE KEYS: Failed to load signing certificates from " + certificatesUrl + ": " + e.getMessage());
+            delayMillis = minRefreshMillis;
+        }
+        try {
+            refresher.schedule(this::refreshAndReschedule, delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down
+        }
+    }
+
+    /**
+     * Downloads the current certificates and replaces the key set
+     *
+     * @return How long Google says the certificates may be cached, in milliseconds
+     */
+    private long refresh() throws Exception {
+        lastRefreshAttemptMillis = System.currentTimeMillis();
+
+        URLConnection connection = URI.create(certificatesUrl).toURL().openConnection();
+        connection.setConnectTimeout(TIMEOUT_MILLIS);
+        connection.setReadTimeout(TIMEOUT_MILLIS);
+
+        Map<String, String> certificates;
+        try (InputStream in = connection.getInputStream()) {
+            certificates = new ObjectMapper().readValue(in, new TypeReference<Map<String, String>>() {});
+        }
+
+        CertificateFactory certificateFactory = CertificateFactory.getInstance("X.509");
+        Map<String, PublicKey> loaded = new HashMap<>();
+        for (Map.Entry<String, String> certificate : certificates.entrySet()) {
+            byte[] pem = certificate.getValue().getBytes(StandardCharsets.US_ASCII);
+            loaded.put(certificate.getKey(), certificateFactory.generateCertificate(new ByteArrayInputStream(pem)).getPublicKey());
+        }
+        if (loaded.isEmpty()) {
+            throw new IllegalStateException("No certificates in response");
+        }
+
+        keys = Map.copyOf(loaded);
+        lastRefreshedAt = Instant.now();
+        refreshes.increment();
+        System.out.println("🔑 FIREBASE KEYS: Loaded " + loaded.size() + " signing certificates");
+        return maxAgeMillis(connection.getHeaderField("Cache-Control"));
+    }
+
+    private static long maxAgeMillis(String cacheControl) {
+        if (cacheControl != null) {
+            Matcher matcher = MAX_AGE.matcher(cacheControl);
+            if (matcher.find()) {
+                return TimeUnit.SECONDS.toMillis(Long.parseLong(matcher.group(1)));
+            }
+        }
+        return DEFAULT_MAX_AGE_MILLIS;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("signingKeys", keys.size());
+        metrics.put("keyRefreshes", refreshes.sum());
+        metrics.put("keyRefreshFailures", refreshFailures.sum());
+        metrics.put("unknownKeyIds", unknownKeyIds.sum());
+        metrics.put("keysRefreshedAt", lastRefreshedAt != null ? lastRefreshedAt.toString() : null);
+        return metrics;
+    }
+}
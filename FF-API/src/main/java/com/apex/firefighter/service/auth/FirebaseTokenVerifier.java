@@ -0,0 +1,157 @@
+package com.apex.firefighter.service.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.LocatorAdapter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Verifies Firebase ID tokens locally, with the checks the Firebase Admin SDK makes: an RS256 signature by one
+ * of Google's current keys, this project as audience and issuer, a subject, an expiry in the future, and
+ * issue and sign-in times that are not in the future.
+ *
+ * Verified tokens are kept in a size-bounded cache keyed by the SHA-256 of the token, so a client that sends
+ * the same ID token with every call pays for the RSA verification once. Each entry expires with its token.
+ * Rejected tokens are not cached.
+ */
+@Component
+public class FirebaseTokenVerifier {
+
+    private static final String ISSUER_PREFIX = "https://securetoken.google.com/";
+    private static final Duration ALLOWED_CLOCK_SKEW = Duration.ofMinutes(5);
+    private static final int MAX_UID_LENGTH = 128;
+
+    private final FirebaseSigningKeys signingKeys;
+    private final JwtParser parser;
+    private final Cache<String, VerifiedFirebaseToken> verifiedTokens;
+
+    @Autowired
+    public FirebaseTokenVerifier(FirebaseSigningKeys signingKeys,
+                                 @Value("${firebase.project-id:bwm-it-hub-firefighter}") String projectId,
+                                 @Value("${firebase.token-cache.max-entries:10000}") long maxCachedTokens) {
+        this.signingKeys = signingKeys;
+        this.parser = Jwts.parser()
+            .keyLocator(new SigningKeyLocator())
+            .requireIssuer(ISSUER_PREFIX + projectId)
+            .requireAudience(projectId)
+            .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+            .maximumSize(Math.max(0, maxCachedTokens))
+            .expireAfter(new UntilTokenExpiry())
+            .recordStats()
+            .build();
+    }
+
+    /**
+     * Verify a Firebase ID token, or return the claims of an earlier verification of the same token
+     *
+     * @param idToken The ID token from the client
+     * @return The verified claims
+     * @throws JwtException If the token is malformed, expired or not issued by Firebase for this project
+     */
+    public VerifiedFirebaseToken verify(String idToken) {
+        if (idToken == null || idToken.isBlank()) {
+            throw new IllegalArgumentException("Firebase ID token must not be empty");
+        }
+        return verifiedTokens.get(sha256(idToken), ignored -> parse(idToken));
+    }
+
+    private VerifiedFirebaseToken parse(String idToken) {
+        Claims claims = parser.parseSignedClaims(idToken).getPayload();
+
+        String uid = claims.getSubject();
+        if (uid == null || uid.isEmpty() || uid.length() > MAX_UID_LENGTH) {
+            throw new JwtException("Firebase ID token has no valid subject");
+        }
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            throw new JwtException("Firebase ID token has no expiration time");
+        }
+        Instant latestAllowed = Instant.now().plus(ALLOWED_CLOCK_SKEW);
+        Date issuedAt = claims.getIssuedAt();
+        if (issuedAt == null || issuedAt.toInstant().isAfter(latestAllowed)) {
+            throw new JwtException("Firebase ID token has no valid issued-at time");
+        }
+        Number authTime = claims.get("auth_time", Number.class);
+        if (authTime == null || Instant.ofEpochSecond(authTime.longValue()).isAfter(latestAllowed)) {
+            throw new JwtException("Firebase ID token has no valid auth_time");
+        }
+
+        return new VerifiedFirebaseToken(uid, claims.get("email", String.class), claims.get("name", String.class),
+            expiration.toInstant());
+    }
+
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        CacheStats stats = verifiedTokens.stats();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("cachedTokens", verifiedTokens.estimatedSize());
+        metrics.put("cacheHits", stats.hitCount());
+        metrics.put("cacheMisses", stats.missCount());
+        metrics.put("cacheEvictions", stats.evictionCount());
+        metrics.put("verificationFailures", stats.loadFailureCount());
+        metrics.putAll(signingKeys.getMetrics());
+        return metrics;
+    }
+
+    // Only RS256 with a key Google currently publishes is accepted
+    private class SigningKeyLocator extends LocatorAdapter<Key> {
+        @Override
+        protected Key locate(JwsHeader header) {
+            if (!"RS256".equals(header.getAlgorithm())) {
+                throw new JwtException("Firebase ID token is not signed with RS256");
+            }
+            PublicKey key = signingKeys.get(header.getKeyId());
+            if (key == null) {
+                throw new JwtException("Firebase ID token is signed with an unknown key: " + header.getKeyId());
+            }
+            return key;
+        }
+    }
+
+    private static class UntilTokenExpiry implements Expiry<String, VerifiedFirebaseToken> {
+        @Override
+        public long expireAfterCreate(String key, VerifiedFirebaseToken token, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), token.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedFirebaseToken token, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, token, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedFirebaseToken token, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,13 +1,11 @@
 package com.apex.firefighter.service.auth;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -25,35 +23,51 @@ public class JwtService {
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
-    private final FirebaseAuth firebaseAuth;
+    private final FirebaseTokenVerifier firebaseTokenVerifier;
 
-    public JwtService(@Autowired(required = false) FirebaseAuth firebaseAuth) {
-        this.firebaseAuth = firebaseAuth;
+    // Signing key and parser, built once for the configured secret instead of for every claim read
+    private volatile SigningContext signingContext;
+
+    public JwtService(FirebaseTokenVerifier firebaseTokenVerifier) {
+        this.firebaseTokenVerifier = firebaseTokenVerifier;
+    }
+
+    private SigningContext getSigningContext() {
+        SigningContext context = signingContext;
+        if (context == null || !context.secret().equals(jwtSecret)) {
+            SecretKey key = createSigningKey(jwtSecret);
+            context = new SigningContext(jwtSecret, key, Jwts.parser().verifyWith(key).build());
+            signingContext = context;
+        }
+        return context;
     }
 
-    private SecretKey getSigningKey() {
+    private static SecretKey createSigningKey(String secret) {
         // Ensure the key is at least 256 bits (32 characters) for HS256
-        if (jwtSecret.length() < 32) {
+        if (secret.length() < 32) {
             // Pad the secret to meet minimum requirements
-            String paddedSecret = jwtSecret + "0".repeat(32 - jwtSecret.length());
+            String paddedSecret = secret + "0".repeat(32 - secret.length());
             return Keys.hmacShaKeyFor(paddedSecret.getBytes());
         }
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return Keys.hmacShaKeyFor(secret.getBytes());
     }
 
+    private record SigningContext(String secret, SecretKey key, JwtParser parser) {}
+
     /**
-     * Verify Firebase ID token and extract user info
+     * Verify Firebase ID token and extract user info.
+     * Tokens already verified are answered from FirebaseTokenVerifier's cache until they expire.
      */
-    public FirebaseToken verifyFirebaseToken(String idToken) throws Exception {
-        if (firebaseAuth == null) {
-            System.out.println("❌ FirebaseAuth is null - Firebase not properly initialized");
-            throw new RuntimeException("Firebase authentication not available - FirebaseAuth bean is null");
+    public VerifiedFirebaseToken verifyFirebaseToken(String idToken) throws Exception {
+        if (firebaseTokenVerifier == null) {
+            System.out.println("❌ FirebaseTokenVerifier is null - Firebase not properly initialized");
+            throw new RuntimeException("Firebase authentication not available - FirebaseTokenVerifier bean is null");
         }
         
         try {
             System.out.println("🔍 Verifying Firebase token...");
-            FirebaseToken token = firebaseAuth.verifyIdToken(idToken);
-            System.out.println("✅ Firebase token verified successfully for user: " + token.getEmail());
+            VerifiedFirebaseToken token = firebaseTokenVerifier.verify(idToken);
+            System.out.println("✅ Firebase token verified successfully for user: " + token.email());
             return token;
         } catch (Exception e) {
             System.out.println("❌ Firebase token verification failed: " + e.getMessage());
@@ -79,10 +93,41 @@ public class JwtService {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSigningKey())
+                .signWith(getSigningContext().key())
                 .compact();
     }
 
+    /**
+     * Verify a custom JWT once and read all of its claims.
+     * Tokens that are not ours, such as Firebase ID tokens, come back as INVALID rather than throwing.
+     */
+    public VerifiedToken verifyCustomToken(String token) {
+        try {
+            Claims claims;
+            boolean expired = false;
+            try {
+                claims = getSigningContext().parser().parseSignedClaims(token).getPayload();
+            } catch (ExpiredJwtException e) {
+                // Thrown only after the signature has been verified, so the claims can be trusted
+                claims = e.getClaims();
+                expired = true;
+            }
+
+            String firebaseUid = claims.get("firebaseUid", String.class);
+            Date expiration = claims.getExpiration();
+            if (firebaseUid == null || expiration == null) {
+                return VerifiedToken.invalid();
+            }
+            String email = claims.get("email", String.class);
+            boolean isAdmin = Boolean.TRUE.equals(claims.get("isAdmin", Boolean.class));
+            return expired
+                ? VerifiedToken.expired(firebaseUid, email, isAdmin, expiration)
+                : VerifiedToken.valid(firebaseUid, email, isAdmin, expiration);
+        } catch (JwtException | IllegalArgumentException e) {
+            return VerifiedToken.invalid();
+        }
+    }
+
     /**
      * Extract Firebase UID from custom JWT
      */
@@ -130,9 +175,7 @@ public class JwtService {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        return getSigningContext().parser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -0,0 +1,10 @@
+package com.apex.firefighter.service.auth;
+
+import java.time.Instant;
+
+/**
+ * The claims of a Firebase ID token whose signature, issuer, audience and expiry have been checked.
+ * The name and email are null when the Firebase account does not have them.
+ */
+public record VerifiedFirebaseToken(String uid, String email, String name, Instant expiresAt) {
+}
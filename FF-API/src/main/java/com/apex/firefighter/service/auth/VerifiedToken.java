@@ -0,0 +1,41 @@
+package com.apex.firefighter.service.auth;
+
+import java.util.Date;
+
+/**
+ * The outcome of verifying a custom JWT once, with its claims already read.
+ * Expired tokens keep their claims, since the signature is checked before the expiry.
+ */
+public record VerifiedToken(Status status, String firebaseUid, String email, boolean admin, Date expiration) {
+
+    public enum Status {
+        /** Signed with our key, carries a Firebase UID and has not expired */
+        VALID,
+        /** Signed with our key but past its expiry */
+        EXPIRED,
+        /** Not one of our tokens: malformed, signed with another key, or without a Firebase UID */
+        INVALID
+    }
+
+    private static final VerifiedToken INVALID_TOKEN = new VerifiedToken(Status.INVALID, null, null, false, null);
+
+    public static VerifiedToken valid(String firebaseUid, String email, boolean admin, Date expiration) {
+        return new VerifiedToken(Status.VALID, firebaseUid, email, admin, expiration);
+    }
+
+    public static VerifiedToken expired(String firebaseUid, String email, boolean admin, Date expiration) {
+        return new VerifiedToken(Status.EXPIRED, firebaseUid, email, admin, expiration);
+    }
+
+    public static VerifiedToken invalid() {
+        return INVALID_TOKEN;
+    }
+
+    public boolean isValid() {
+        return status == Status.VALID;
+    }
+
+    public boolean isExpired() {
+        return status == Status.EXPIRED;
+    }
+}
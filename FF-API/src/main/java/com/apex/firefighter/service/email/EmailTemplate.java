@@ -0,0 +1,139 @@
+package com.apex.firefighter.service.email;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An HTML email template compiled into static text segments and numbered slots.
+ *
+ * Slots are written {{name}} in the source. Compiling splits the source once, so rendering only
+ * appends the precomputed segments and the slot values to the caller's buffer: there is no parsing,
+ * formatting or intermediate string per email. A slot that appears more than once takes the same value
+ * each time. Values are written as they are (HTML is not escaped), matching the hand-built emails this
+ * replaces; a value that is itself a {@link Fragment} is rendered straight into the same buffer.
+ */
+public final class EmailTemplate {
+
+    /**
+     * Content rendered directly into the output buffer, such as a nested template or an optional row
+     */
+    @FunctionalInterface
+    public interface Fragment {
+        void renderTo(StringBuilder out);
+    }
+
+    /** Renders nothing, for optional rows that are left out */
+    public static final Fragment EMPTY = out -> { };
+
+    private static final String SLOT_START = "{{";
+    private static final String SLOT_END = "}}";
+
+    private final String name;
+    private final String[] segments;
+    private final int[] slotAt;
+    private final List<String> slotNames;
+    private final int staticLength;
+
+    private EmailTemplate(String name, String[] segments, int[] slotAt, List<String> slotNames) {
+        this.name = name;
+        this.segments = segments;
+        this.slotAt = slotAt;
+        this.slotNames = List.copyOf(slotNames);
+        int length = 0;
+        for (String segment : segments) {
+            length += segment.length();
+        }
+        this.staticLength = length;
+    }
+
+    /**
+     * Compiles template source. Slot names are letters and digits, starting with a letter.
+     * @throws IllegalArgumentException if a slot is unterminated or badly named
+     */
+    public static EmailTemplate compile(String name, String source) {
+        List<String> segments = new ArrayList<>();
+        List<Integer> slotAt = new ArrayList<>();
+        List<String> slotNames = new ArrayList<>();
+
+        int pos = 0;
+        while (true) {
+            int start = source.indexOf(SLOT_START, pos);
+            if (start < 0) {
+                segments.add(source.substring(pos));
+                break;
+            }
+            int end = source.indexOf(SLOT_END, start + SLOT_START.length());
+            if (end < 0) {
+                throw new IllegalArgumentException("Unterminated slot in email template " + name + " at offset " + start);
+            }
+            String slot = source.substring(start + SLOT_START.length(), end).trim();
+            if (!isSlotName(slot)) {
+                throw new IllegalArgumentException("Invalid slot name '" + slot + "' in email template " + name);
+            }
+            segments.add(source.substring(pos, start));
+            int index = slotNames.indexOf(slot);
+            if (index < 0) {
+                index = slotNames.size();
+                slotNames.add(slot);
+            }
+            slotAt.add(index);
+            pos = end + SLOT_END.length();
+        }
+
+        return new EmailTemplate(name, segments.toArray(new String[0]),
+            slotAt.stream().mapToInt(Integer::intValue).toArray(), slotNames);
+    }
+
+    private static boolean isSlotName(String slot) {
+        if (slot.isEmpty() || !Character.isLetter(slot.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < slot.length(); i++) {
+            if (!Character.isLetterOrDigit(slot.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Appends the rendered template to out.
+     * @param values one value per distinct slot, in the order the slots first appear (see {@link #getSlotNames()})
+     * @throws IllegalArgumentException if the number of values does not match the slots
+     */
+    public void renderTo(StringBuilder out, Object... values) {
+        if (values.length != slotNames.size()) {
+            throw new IllegalArgumentException("Email template " + name + " expects " + slotNames.size()
+                + " values " + slotNames + " but got " + values.length);
+        }
+        out.ensureCapacity(out.length() + staticLength);
+        for (int i = 0; i < slotAt.length; i++) {
+            out.append(segments[i]);
+            Object value = values[slotAt[i]];
+            if (value instanceof Fragment fragment) {
+                fragment.renderTo(out);
+            } else {
+                out.append(value);
+            }
+        }
+        out.append(segments[slotAt.length]);
+    }
+
+    /**
+     * Defers rendering with the given values until the fragment is written into another template
+     */
+    public Fragment with(Object... values) {
+        return out -> renderTo(out, values);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Distinct slot names in the order their values are passed to {@link #renderTo}
+     */
+    public List<String> getSlotNames() {
+        return slotNames;
+    }
+}
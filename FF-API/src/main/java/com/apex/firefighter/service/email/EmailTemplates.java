@@ -0,0 +1,141 @@
+package com.apex.firefighter.service.email;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The HTML email templates, compiled once when the application starts.
+ *
+ * Each template is read from src/main/resources/email-templates and checked against the slots declared
+ * here, so an edited template that no longer matches its caller fails at startup, not when an email is sent.
+ * Emails are rendered into a per-thread buffer that is reused between emails.
+ */
+@Component
+public class EmailTemplates {
+
+    private static final String TEMPLATE_DIRECTORY = "email-templates/";
+
+    // Buffers that grew past this are dropped after use rather than kept per thread
+    private static final int MAX_RETAINED_BUFFER_CHARS = 64 * 1024;
+
+    public enum Template {
+        NOTIFICATION_LAYOUT("notification-layout.html", "title", "content", "generatedOn"),
+        INFO_ITEM("info-item.html", "label", "value"),
+        TICKETS_EXPORT("tickets-export.html", "greeting", "generatedOn", "ticketCount", "fileFormat", "fileSize"),
+        TICKET_CREATED("ticket-created.html",
+            "greeting", "ticketId", "emergencyType", "createdAt", "durationRow", "descriptionRow"),
+        TICKET_COMPLETED("ticket-completed.html",
+            "greeting", "ticketId", "emergencyType", "createdAt", "completedAt", "status"),
+        TICKET_REVOKED("ticket-revoked.html",
+            "greeting", "ticketId", "emergencyType", "createdAt", "revokedAt", "reasonRow"),
+        TICKET_EXPIRING("ticket-expiring.html",
+            "greeting", "ticketId", "emergencyType", "createdAt", "expiresAt", "durationMinutes"),
+        GROUP_CHANGE_ALERT("group-change-alert.html",
+            "riskColor", "riskLevel", "username", "userEmail", "dolibarrIdRow", "department", "ticketId",
+            "oldGroup", "newGroup", "reasonRow", "changedAt"),
+        ANOMALY_ALERT("anomaly-alert.html",
+            "anomalyType", "riskColor", "riskLevel", "username", "userEmail", "departmentRow", "ticketId",
+            "emergencyType", "ticketCreatedAt", "anomalyDetails", "detectedAt", "securityNotice"),
+        ADMIN_ALERT_DIGEST("admin-alert-digest.html",
+            "alertCount", "firstRaisedAt", "lastRaisedAt", "riskColor", "riskLevel", "alerts"),
+        ADMIN_ALERT_DIGEST_ITEM("admin-alert-digest-item.html", "alert"),
+        REGISTRATION_INFO_ROW("registration-info-row.html", "label", "value"),
+        REGISTRATION_REQUEST("registration-request.html",
+            "adminName", "username", "email", "department", "contact", "registrationMethod",
+            "priorityClass", "priority", "requestedAccessRow", "justificationRow"),
+        REGISTRATION_APPROVED("registration-approved.html", "username", "approvedBy"),
+        REGISTRATION_REJECTED("registration-rejected.html", "username", "reasonNotice", "rejectedBy"),
+        REJECTION_REASON("rejection-reason.html", "reason"),
+        DEPARTMENT_CHANGED("department-changed.html", "username", "oldDepartment", "newDepartment", "changedBy"),
+        ACCOUNT_STATUS_CHANGED("account-status-changed.html",
+            "statusColor", "statusIcon", "username", "statusText", "statusMessage", "changedBy");
+
+        private final String fileName;
+        private final List<String> slots;
+
+        Template(String fileName, String... slots) {
+            this.fileName = fileName;
+            this.slots = List.of(slots);
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        /**
+         * Slot names in the order their values are passed to render
+         */
+        public List<String> getSlots() {
+            return slots;
+        }
+    }
+
+    private final Map<Template, EmailTemplate> compiled = new EnumMap<>(Template.class);
+
+    private final ThreadLocal<StringBuilder> buffers = ThreadLocal.withInitial(() -> new StringBuilder(16 * 1024));
+
+    public EmailTemplates() {
+        for (Template template : Template.values()) {
+            EmailTemplate emailTemplate = EmailTemplate.compile(template.name(), load(template.getFileName()));
+            if (!emailTemplate.getSlotNames().equals(template.getSlots())) {
+                throw new IllegalStateException("Email template " + template.getFileName() + " has slots "
+                    + emailTemplate.getSlotNames() + " but " + template.getSlots() + " are expected");
+            }
+            compiled.put(template, emailTemplate);
+        }
+        System.out.println("📧 EMAIL TEMPLATES: Compiled " + compiled.size() + " templates");
+    }
+
+    private static String load(String fileName) {
+        try (InputStream in = new ClassPathResource(TEMPLATE_DIRECTORY + fileName).getInputStream()) {
+            String source = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            // Drop the file's final line break so fragments embed cleanly
+            if (source.endsWith("\r\n")) {
+                return source.substring(0, source.length() - 2);
+            }
+            return source.endsWith("\n") ? source.substring(0, source.length() - 1) : source;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not load email template " + TEMPLATE_DIRECTORY + fileName, e);
+        }
+    }
+
+    /**
+     * Renders a complete email body
+     * @param values one value per slot, in the order of {@link Template#getSlots()}
+     */
+    public String render(Template template, Object... values) {
+        StringBuilder buffer = buffers.get();
+        buffer.setLength(0);
+        try {
+            compiled.get(template).renderTo(buffer, values);
+            return buffer.toString();
+        } finally {
+            if (buffer.capacity() > MAX_RETAINED_BUFFER_CHARS) {
+                buffers.remove();
+            } else {
+                buffer.setLength(0);
+            }
+        }
+    }
+
+    /**
+     * A template to be rendered inside another one, such as an email body inside the layout
+     */
+    public EmailTemplate.Fragment fragment(Template template, Object... values) {
+        return compiled.get(template).with(values);
+    }
+
+    /**
+     * A single info-item row for the notification layout
+     */
+    public EmailTemplate.Fragment infoItem(String label, Object value) {
+        return fragment(Template.INFO_ITEM, label, value);
+    }
+}
@@ -6,9 +6,7 @@ import jakarta.annotation.PostConstruct;
 
 import com.apex.firefighter.config.NLPConfig;
 import com.apex.firefighter.model.Ticket;
-import com.apex.firefighter.model.User;
 import com.apex.firefighter.service.ticket.TicketService;
-import com.apex.firefighter.service.UserService;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -16,12 +14,12 @@ import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -47,7 +45,7 @@ public class EntityExtractionService {
     private TicketService ticketService;
 
     @Autowired
-    private UserService userService;
+    private UsernameDictionary usernameDictionary;
 
     // Map of entity type to list of patterns
     private final Map<EntityType, List<EntityPattern>> ENTITY_PATTERNS = new HashMap<>();
@@ -58,8 +56,16 @@ public class EntityExtractionService {
         "it", "of", "on", "or", "that", "the", "this", "to", "was", "were", "which", "with"
     );
 
+    private static final double USER_NAME_WEIGHT = 0.8;
+
+    // Words after which a near-miss or partial username is still read as a user name
+    private static final Set<String> USER_NAME_CUES = Set.of("user", "to", "by", "for", "assign", "assigned");
+
     private boolean patternsInitialized = false;
 
+    // ENTITY_PATTERNS compiled into one scanner, so every regex and literal is matched in a single pass per query
+    private CompiledEntityPatterns compiledPatterns;
+
     @PostConstruct
     public void init() {
         initializeEntityPatterns();
@@ -107,19 +113,10 @@ public class EntityExtractionService {
                 ))
         ));
 
-        // USER_NAME: Matches names from database
-        List<User> users = userService.getAuthorizedUsers(); // Fetch authorized users
-        List<String> userNames = new ArrayList<>();
-        for (User user : users) {
-            if (user.getUsername() != null && !user.getUsername().isEmpty()) {
-                userNames.add(user.getUsername().toLowerCase());
-            }
-        }
-                
+        // USER_NAME: Names of authorized users come from the live UsernameDictionary (see extractUserNames)
         ENTITY_PATTERNS.put(EntityType.USER_NAME, Arrays.asList(
-            new EntityPattern(0.8, Collections.emptyList(),
-                //Arrays.asList("john", "jane", "admin"), // Populate with names from user database
-                userNames,
+            new EntityPattern(USER_NAME_WEIGHT, Collections.emptyList(),
+                Collections.emptyList(),
                 Arrays.asList(Pattern.compile("\\b[A-Z][a-z]+\\b")))
         ));
 
@@ -167,9 +164,61 @@ public class EntityExtractionService {
                 ))
         ));
 
+        compileEntityPatterns();
         patternsInitialized = true;
     }
 
+    /**
+     * Compile ENTITY_PATTERNS into an EntityScanner, resolving each pattern's regexes,
+     * phrases and keywords to scanner IDs. Phrases and keywords are lower-cased here once.
+     */
+    private void compileEntityPatterns() {
+        List<Pattern> regexes = new ArrayList<>();
+        List<String> terms = new ArrayList<>();
+        Map<String, Integer> termIds = new HashMap<>();
+        Map<EntityType, List<CompiledEntityPattern>> byType = new EnumMap<>(EntityType.class);
+
+        for (Map.Entry<EntityType, List<EntityPattern>> entry : ENTITY_PATTERNS.entrySet()) {
+            List<CompiledEntityPattern> compiled = new ArrayList<>();
+            for (EntityPattern pattern : entry.getValue()) {
+                int[] regexIds = new int[pattern.getRegexPatterns().size()];
+                for (int i = 0; i < regexIds.length; i++) {
+                    Pattern regex = pattern.getRegexPatterns().get(i);
+                    regexIds[i] = regex == null ? -1 : regexes.size();
+                    if (regex != null) {
+                        regexes.add(regex);
+                    }
+                }
+
+                int[] phraseTerms = new int[pattern.getExactPhrases().size()];
+                for (int i = 0; i < phraseTerms.length; i++) {
+                    String phrase = pattern.getExactPhrases().get(i).toLowerCase();
+                    phraseTerms[i] = phrase.isEmpty() ? -1 : termId(phrase, termIds, terms);
+                }
+
+                int[] keywordTerms = new int[pattern.getKeywords().size()];
+                for (int i = 0; i < keywordTerms.length; i++) {
+                    String keyword = pattern.getKeywords().get(i).toLowerCase();
+                    // Keywords are compared against single non-stop-word tokens, so these can never match
+                    boolean matchable = !keyword.isEmpty() && keyword.indexOf(' ') < 0 && !STOP_WORDS.contains(keyword);
+                    keywordTerms[i] = matchable ? termId(keyword, termIds, terms) : -1;
+                }
+
+                compiled.add(new CompiledEntityPattern(pattern, regexIds, phraseTerms, keywordTerms));
+            }
+            byType.put(entry.getKey(), compiled);
+        }
+
+        compiledPatterns = new CompiledEntityPatterns(new EntityScanner(regexes, terms), byType);
+    }
+
+    private static int termId(String term, Map<String, Integer> termIds, List<String> terms) {
+        return termIds.computeIfAbsent(term, key -> {
+            terms.add(key);
+            return terms.size() - 1;
+        });
+    }
+
     private String normalizeQuery(String query) {
         String normalized = query.toLowerCase()
                 .replaceAll("[^a-zA-Z0-9\\s-#]"," ") // Remove special chars except hyphens and #
@@ -206,71 +255,58 @@ public class EntityExtractionService {
         return value; // Default: return as-is
     }
 
-    private void extractPatternEntities(String query, EntityPattern pattern, EntityType type, List<Entity> entities) {
+    private void extractPatternEntities(String query, CompiledEntityPattern compiled, EntityType type,
+                                        EntityScanner scanner, EntityScanner.Scan scan, List<Entity> entities) {
         // Input validation
-        if (query == null || pattern == null || type == null || entities == null) {
+        if (query == null || compiled == null || type == null || entities == null) {
             return;
         }
 
-        double threshold = nlpConfig != null ? nlpConfig.getEntityConfidenceThreshold() : 0.7;
+        EntityPattern pattern = compiled.pattern;
+        double threshold = threshold();
         boolean matched = false;
 
-        // Check exact phrases with error handling
-        try {
-            if (pattern.getRegexPatterns() != null) {
-                for (Pattern regex : pattern.getRegexPatterns()) {
-                    if (regex != null) {
-                        try {
-                            Matcher matcher = regex.matcher(query);
-                            while (matcher.find()) {
-                                try {
-                                    // For DESCRIPTION patterns, use the captured group (group 1) instead of the full match
-                                    String value;
-                                    if (type == EntityType.DESCRIPTION && matcher.groupCount() > 0) {
-                                        value = matcher.group(1); // Get the captured group (the description part)
-                                        System.out.println("🔵 DESCRIPTION REGEX: Full match: '" + matcher.group() + "', Captured group: '" + value + "'");
-                                    } else {
-                                        value = matcher.group(); // Get the full match for other entity types
-                                    }
-
-                                    if (value != null && !value.trim().isEmpty()) {
-                                        Entity entity = new Entity(type, value, matcher.start(), matcher.end());
-                                        entity.setConfidence(pattern.getWeight() * 0.9); // Slightly lower confidence for regex matches
-                                        if (entity.getConfidence() >= threshold) {
-                                            entity.setNormalizedValue(normalizeEntityValue(type, value));
-                                            entities.add(entity);
-                                            matched = true;
-                                        }
-                                    }
-                                } catch (Exception e) {
-                                    // Log error but continue with next match
-                                    if (nlpConfig != null && nlpConfig.isDebugEnabled()) {
-                                        System.out.println("DEBUG: Error processing regex match: " + e.getMessage());
-                                    }
-                                }
-                            }
-                        } catch (Exception e) {
-                            // Log error but continue with next regex
-                            if (nlpConfig != null && nlpConfig.isDebugEnabled()) {
-                                System.out.println("DEBUG: Error with regex pattern: " + e.getMessage());
-                            }
-                        }
+        // Regex matches, regex by regex in declaration order
+        double regexConfidence = pattern.getWeight() * 0.9; // Slightly lower confidence for regex matches
+        if (regexConfidence >= threshold) {
+            for (int regexId : compiled.regexIds) {
+                if (regexId < 0) {
+                    continue;
+                }
+                for (int match = 0; match < scan.regexMatchCount(); match++) {
+                    if (scan.regexOf(match) != regexId) {
+                        continue;
+                    }
+
+                    // For DESCRIPTION patterns, use the captured group (group 1) instead of the full match
+                    String value;
+                    if (type == EntityType.DESCRIPTION && scanner.hasInnerGroup(regexId)) {
+                        value = scan.innerStart(match) >= 0 ? query.substring(scan.innerStart(match), scan.innerEnd(match)) : null;
+                        System.out.println("🔵 DESCRIPTION REGEX: Full match: '" + query.substring(scan.matchStart(match), scan.matchEnd(match))
+                            + "', Captured group: '" + value + "'");
+                    } else {
+                        value = query.substring(scan.matchStart(match), scan.matchEnd(match)); // Full match for other entity types
+                    }
+
+                    if (value != null && !value.trim().isEmpty()) {
+                        Entity entity = new Entity(type, value, scan.matchStart(match), scan.matchEnd(match));
+                        entity.setConfidence(regexConfidence);
+                        entity.setNormalizedValue(normalizeEntityValue(type, value));
+                        entities.add(entity);
+                        matched = true;
                     }
                 }
             }
-        } catch (Exception e) {
-            // Log error but continue with exact phrases
-            if (nlpConfig != null && nlpConfig.isDebugEnabled()) {
-                System.out.println("DEBUG: Error in regex pattern processing: " + e.getMessage());
-            }
         }
 
-        for (String phrase : pattern.getExactPhrases()) {
-            if (query.contains(phrase.toLowerCase())) {
-                int start = query.indexOf(phrase.toLowerCase());
-                Entity entity = new Entity(type, phrase, start, start + phrase.length());
-                entity.setConfidence(pattern.getWeight());
-                if (entity.getConfidence() >= threshold) {
+        // Exact phrases, at their first occurrence
+        if (pattern.getWeight() >= threshold) {
+            for (int i = 0; i < compiled.phraseTerms.length; i++) {
+                int start = compiled.phraseTerms[i] >= 0 ? scan.firstOccurrence(compiled.phraseTerms[i]) : -1;
+                if (start >= 0) {
+                    String phrase = pattern.getExactPhrases().get(i);
+                    Entity entity = new Entity(type, phrase, start, start + phrase.length());
+                    entity.setConfidence(pattern.getWeight());
                     entity.setNormalizedValue(normalizeEntityValue(type, phrase));
                     entities.add(entity);
                     matched = true;
@@ -278,17 +314,21 @@ public class EntityExtractionService {
             }
         }
 
-        if (!matched && !pattern.getKeywords().isEmpty()) {
-            String[] words = query.split("\\s+");
-            for (String word : pattern.getKeywords()) {
-                for (int i = 0; i < words.length; i++) {
-                    if (!STOP_WORDS.contains(words[i]) && words[i].equals(word.toLowerCase())){
-                        Entity entity = new Entity(type, word, query.indexOf(word), query.indexOf(word) + word.length());
-                        entity.setConfidence(pattern.getWeight() * 0.6);
-                        if (entity.getConfidence() >= threshold) {
-                            entity.setNormalizedValue(normalizeEntityValue(type, word));
-                            entities.add(entity);
-                        }
+        // Keywords, at every whole-word occurrence, only if nothing more specific matched
+        double keywordConfidence = pattern.getWeight() * 0.6;
+        if (!matched && compiled.keywordTerms.length > 0 && keywordConfidence >= threshold) {
+            for (int i = 0; i < compiled.keywordTerms.length; i++) {
+                if (compiled.keywordTerms[i] < 0) {
+                    continue;
+                }
+                for (int occurrence = 0; occurrence < scan.wholeWordCount(); occurrence++) {
+                    if (scan.wholeWordTerm(occurrence) == compiled.keywordTerms[i]) {
+                        String word = pattern.getKeywords().get(i);
+                        int start = scan.wholeWordStart(occurrence);
+                        Entity entity = new Entity(type, word, start, start + word.length());
+                        entity.setConfidence(keywordConfidence);
+                        entity.setNormalizedValue(normalizeEntityValue(type, word));
+                        entities.add(entity);
                     }
                 }
             }
@@ -320,10 +360,14 @@ public class EntityExtractionService {
             // Create entities container
             ExtractedEntities entities = createEmptyEntities();
 
+            // Match every pattern in one pass, then build entities type by type
+            CompiledEntityPatterns compiled = compiledPatterns;
+            EntityScanner.Scan scan = compiled.scanner.scan(normalizedQuery);
+
             // Extract entities for each type
             for (EntityType type : ENTITY_PATTERNS.keySet()) {
                 try {
-                    List<Entity> typeEntities = extractEntitiesForType(normalizedQuery, type);
+                    List<Entity> typeEntities = extractEntitiesForType(normalizedQuery, type, compiled, scan);
                     entities.getAllEntities().put(type, typeEntities);
                     setSpecificEntityList(entities, type, typeEntities);
 
@@ -371,25 +415,94 @@ public class EntityExtractionService {
     /**
      * Extract entities for a specific type
      */
-    private List<Entity> extractEntitiesForType(String normalizedQuery, EntityType type) {
-        List<EntityPattern> patterns = ENTITY_PATTERNS.get(type);
+    private List<Entity> extractEntitiesForType(String normalizedQuery, EntityType type,
+                                                CompiledEntityPatterns compiled, EntityScanner.Scan scan) {
+        List<CompiledEntityPattern> patterns = compiled.byType.get(type);
         if (patterns == null || patterns.isEmpty()) {
             return new ArrayList<>();
         }
 
         List<Entity> typeEntities = new ArrayList<>();
-        for (EntityPattern pattern : patterns) {
+        for (CompiledEntityPattern pattern : patterns) {
             try {
-                extractPatternEntities(normalizedQuery, pattern, type, typeEntities);
+                extractPatternEntities(normalizedQuery, pattern, type, compiled.scanner, scan, typeEntities);
             } catch (Exception e) {
                 System.err.println("❌ ENTITY EXTRACTION: Error with pattern for type " + type + ": " + e.getMessage());
                 // Continue with other patterns
             }
         }
 
+        if (type == EntityType.USER_NAME && USER_NAME_WEIGHT >= threshold()) {
+            extractUserNames(normalizedQuery, USER_NAME_WEIGHT, typeEntities);
+        }
+
         return typeEntities;
     }
 
+    /**
+     * Add the authorized users named in the query. Exact names are found anywhere as whole words;
+     * the word right after a cue such as "to" or "by" may also be one typo away from a username,
+     * or the start of exactly one username.
+     */
+    private void extractUserNames(String normalizedQuery, double weight, List<Entity> entities) {
+        if (usernameDictionary == null || usernameDictionary.size() == 0) {
+            return;
+        }
+
+        List<UsernameTrie.Match> matches = usernameDictionary.findAll(normalizedQuery);
+        for (UsernameTrie.Match match : matches) {
+            Entity entity = new Entity(EntityType.USER_NAME, normalizedQuery.substring(match.start, match.end), match.start, match.end);
+            entity.setConfidence(weight);
+            entity.setNormalizedValue(match.username);
+            entities.add(entity);
+        }
+
+        double approximateConfidence = weight * 0.8;
+        if (approximateConfidence < threshold()) {
+            return;
+        }
+        int wordStart = 0;
+        String previousWord = null;
+        while (wordStart < normalizedQuery.length()) {
+            int wordEnd = normalizedQuery.indexOf(' ', wordStart);
+            if (wordEnd < 0) {
+                wordEnd = normalizedQuery.length();
+            }
+            String word = normalizedQuery.substring(wordStart, wordEnd);
+
+            if (previousWord != null && USER_NAME_CUES.contains(previousWord) && word.length() >= 3
+                    && !STOP_WORDS.contains(word) && !isInsideMatch(matches, wordStart)) {
+                String username = usernameDictionary.findClosest(word);
+                if (username == null) {
+                    List<String> completions = usernameDictionary.findByPrefix(word, 2);
+                    username = completions.size() == 1 ? completions.get(0) : null;
+                }
+                if (username != null) {
+                    Entity entity = new Entity(EntityType.USER_NAME, word, wordStart, wordEnd);
+                    entity.setConfidence(approximateConfidence);
+                    entity.setNormalizedValue(username);
+                    entities.add(entity);
+                }
+            }
+
+            previousWord = word;
+            wordStart = wordEnd + 1;
+        }
+    }
+
+    private static boolean isInsideMatch(List<UsernameTrie.Match> matches, int position) {
+        for (UsernameTrie.Match match : matches) {
+            if (position >= match.start && position < match.end) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private double threshold() {
+        return nlpConfig != null ? nlpConfig.getEntityConfidenceThreshold() : 0.7;
+    }
+
     /**
      * Set specific entity list based on type
      */
@@ -824,6 +937,36 @@ public class EntityExtractionService {
         public void setEntityValidation(Map<EntityType, Boolean> entityValidation) { this.entityValidation = entityValidation; }
     }
 
+    /**
+     * An EntityPattern with its regexes, phrases and keywords resolved to EntityScanner IDs (-1 never matches)
+     */
+    private static class CompiledEntityPattern {
+        final EntityPattern pattern;
+        final int[] regexIds;
+        final int[] phraseTerms;
+        final int[] keywordTerms;
+
+        CompiledEntityPattern(EntityPattern pattern, int[] regexIds, int[] phraseTerms, int[] keywordTerms) {
+            this.pattern = pattern;
+            this.regexIds = regexIds;
+            this.phraseTerms = phraseTerms;
+            this.keywordTerms = keywordTerms;
+        }
+    }
+
+    /**
+     * The scanner together with the per-type pattern IDs it was built from
+     */
+    private static class CompiledEntityPatterns {
+        final EntityScanner scanner;
+        final Map<EntityType, List<CompiledEntityPattern>> byType;
+
+        CompiledEntityPatterns(EntityScanner scanner, Map<EntityType, List<CompiledEntityPattern>> byType) {
+            this.scanner = scanner;
+            this.byType = byType;
+        }
+    }
+
     /**
      * Pattern class for entity extraction (similar to IntentPattern)
      */
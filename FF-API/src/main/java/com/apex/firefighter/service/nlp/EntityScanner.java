@@ -0,0 +1,189 @@
+package com.apex.firefighter.service.nlp;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the matches of many entity regexes and literal terms in one pass over a query.
+ *
+ * All regexes are combined into a single pattern of optional lookaheads, one capturing lookahead
+ * per regex, so each query position is visited once and every regex that matches there is recorded.
+ * Per regex, a match is only kept if it starts at or after the end of that regex's previous match,
+ * which gives exactly the matches Matcher.find() would return for the regex on its own.
+ * Literal terms (exact phrases and keywords) go through a PhraseAutomaton.
+ *
+ * Matching state lives in a reusable per-thread Scan, so queries without any match allocate nothing here.
+ * Regexes must not use numbered back-references, since their groups are renumbered in the combined pattern.
+ */
+final class EntityScanner {
+
+    private final Pattern combined;
+    // Index in the combined pattern of the group that captures each regex's whole match
+    private final int[] regexGroups;
+    private final boolean[] regexHasInnerGroup;
+    private final PhraseAutomaton terms;
+    private final ThreadLocal<Scan> scans;
+
+    EntityScanner(List<Pattern> regexes, List<String> literalTerms) {
+        regexGroups = new int[regexes.size()];
+        regexHasInnerGroup = new boolean[regexes.size()];
+
+        StringBuilder source = new StringBuilder();
+        int group = 1;
+        for (int i = 0; i < regexes.size(); i++) {
+            Pattern regex = regexes.get(i);
+            source.append("(?:(?=(").append(inlineFlags(regex)).append(regex.pattern()).append(")))|)");
+
+            int innerGroups = regex.matcher("").groupCount();
+            regexGroups[i] = group;
+            regexHasInnerGroup[i] = innerGroups > 0;
+            group += 1 + innerGroups;
+        }
+        combined = regexes.isEmpty() ? null : Pattern.compile(source.toString());
+        terms = new PhraseAutomaton(literalTerms);
+
+        int regexCount = regexes.size();
+        int termCount = terms.termCount();
+        scans = ThreadLocal.withInitial(() -> new Scan(regexCount, termCount));
+    }
+
+    /**
+     * Scans the query and returns this thread's Scan holding the results.
+     * The Scan is reused by the next call on the same thread, so read it before scanning again.
+     */
+    Scan scan(String query) {
+        Scan scan = scans.get();
+        scan.reset(query);
+
+        terms.scan(query, scan);
+
+        if (combined != null) {
+            Matcher matcher = scan.matcher(combined, query);
+            // Every attempt matches the empty string, so find() stops at each position once
+            while (matcher.find()) {
+                for (int regex = 0; regex < regexGroups.length; regex++) {
+                    int start = matcher.start(regexGroups[regex]);
+                    if (start >= 0 && start >= scan.regexResumeAt[regex]) {
+                        int end = matcher.end(regexGroups[regex]);
+                        int innerStart = regexHasInnerGroup[regex] ? matcher.start(regexGroups[regex] + 1) : -1;
+                        int innerEnd = regexHasInnerGroup[regex] ? matcher.end(regexGroups[regex] + 1) : -1;
+                        scan.addRegexMatch(regex, start, end, innerStart, innerEnd);
+                        scan.regexResumeAt[regex] = end == start ? end + 1 : end;
+                    }
+                }
+            }
+        }
+        return scan;
+    }
+
+    /**
+     * Whether the regex has capturing groups of its own, reported through Scan.innerStart/innerEnd
+     */
+    boolean hasInnerGroup(int regex) {
+        return regexHasInnerGroup[regex];
+    }
+
+    private static String inlineFlags(Pattern regex) {
+        int flags = regex.flags();
+        if ((flags & (Pattern.LITERAL | Pattern.CANON_EQ)) != 0) {
+            throw new IllegalArgumentException("LITERAL and CANON_EQ patterns cannot be combined: " + regex.pattern());
+        }
+        StringBuilder inline = new StringBuilder();
+        if ((flags & Pattern.CASE_INSENSITIVE) != 0) inline.append('i');
+        if ((flags & Pattern.MULTILINE) != 0) inline.append('m');
+        if ((flags & Pattern.DOTALL) != 0) inline.append('s');
+        if ((flags & Pattern.UNICODE_CASE) != 0) inline.append('u');
+        if ((flags & Pattern.COMMENTS) != 0) inline.append('x');
+        if ((flags & Pattern.UNIX_LINES) != 0) inline.append('d');
+        if ((flags & Pattern.UNICODE_CHARACTER_CLASS) != 0) inline.append('U');
+        // Scoped so the flags do not leak into the regexes that follow
+        return inline.length() == 0 ? "(?:" : "(?" + inline + ":";
+    }
+
+    /**
+     * Matches found in one query. Regex matches are listed in query order;
+     * literal terms record their first occurrence and every whole-word occurrence.
+     */
+    static final class Scan implements PhraseAutomaton.MatchListener {
+        private String query;
+        private Matcher matcher;
+
+        private final int[] regexResumeAt;
+        private int regexMatchCount;
+        // Five ints per regex match: regex, start, end, inner group start, inner group end
+        private int[] regexMatches = new int[40];
+
+        private final int[] firstOccurrence;
+        private int wholeWordCount;
+        // Two ints per whole-word occurrence: term, start
+        private int[] wholeWords = new int[16];
+
+        Scan(int regexCount, int termCount) {
+            this.regexResumeAt = new int[regexCount];
+            this.firstOccurrence = new int[termCount];
+        }
+
+        void reset(String query) {
+            this.query = query;
+            Arrays.fill(regexResumeAt, 0);
+            regexMatchCount = 0;
+            Arrays.fill(firstOccurrence, -1);
+            wholeWordCount = 0;
+        }
+
+        Matcher matcher(Pattern pattern, String input) {
+            if (matcher == null) {
+                matcher = pattern.matcher(input);
+            } else {
+                matcher.reset(input);
+            }
+            return matcher;
+        }
+
+        @Override
+        public void onMatch(int termId, int start, int end) {
+            if (firstOccurrence[termId] < 0) {
+                firstOccurrence[termId] = start;
+            }
+            if ((start == 0 || query.charAt(start - 1) == ' ') && (end == query.length() || query.charAt(end) == ' ')) {
+                if ((wholeWordCount + 1) * 2 > wholeWords.length) {
+                    wholeWords = Arrays.copyOf(wholeWords, wholeWords.length * 2);
+                }
+                wholeWords[wholeWordCount * 2] = termId;
+                wholeWords[wholeWordCount * 2 + 1] = start;
+                wholeWordCount++;
+            }
+        }
+
+        private void addRegexMatch(int regex, int start, int end, int innerStart, int innerEnd) {
+            if ((regexMatchCount + 1) * 5 > regexMatches.length) {
+                regexMatches = Arrays.copyOf(regexMatches, regexMatches.length * 2);
+            }
+            int offset = regexMatchCount * 5;
+            regexMatches[offset] = regex;
+            regexMatches[offset + 1] = start;
+            regexMatches[offset + 2] = end;
+            regexMatches[offset + 3] = innerStart;
+            regexMatches[offset + 4] = innerEnd;
+            regexMatchCount++;
+        }
+
+        int regexMatchCount() { return regexMatchCount; }
+        int regexOf(int match) { return regexMatches[match * 5]; }
+        int matchStart(int match) { return regexMatches[match * 5 + 1]; }
+        int matchEnd(int match) { return regexMatches[match * 5 + 2]; }
+        int innerStart(int match) { return regexMatches[match * 5 + 3]; }
+        int innerEnd(int match) { return regexMatches[match * 5 + 4]; }
+
+        /**
+         * Start of the term's first occurrence anywhere in the query, or -1
+         */
+        int firstOccurrence(int termId) { return firstOccurrence[termId]; }
+
+        int wholeWordCount() { return wholeWordCount; }
+        int wholeWordTerm(int occurrence) { return wholeWords[occurrence * 2]; }
+        int wholeWordStart(int occurrence) { return wholeWords[occurrence * 2 + 1]; }
+    }
+}
@@ -27,8 +27,13 @@ public class IntentRecognitionService {
         "please", "can", "could", "would", "should", "will", "i", "me", "my", "mine"
     );
 
+    // Exact phrases and keywords of every pattern compiled into one automaton, so a query is scanned once
+    private static final PhraseAutomaton PHRASE_AUTOMATON;
+    private static final Map<IntentType, List<CompiledIntentPattern>> COMPILED_PATTERNS = new EnumMap<>(IntentType.class);
+
     static {
         initializeIntentPatterns();
+        PHRASE_AUTOMATON = compileIntentPatterns();
     }
 
     /**
@@ -232,6 +237,44 @@ public class IntentRecognitionService {
         ));
     }
 
+    /**
+     * Compile INTENT_PATTERNS into COMPILED_PATTERNS and the shared phrase automaton.
+     * Phrases and keywords are lower-cased here once instead of on every query.
+     */
+    private static PhraseAutomaton compileIntentPatterns() {
+        Map<String, Integer> termIds = new HashMap<>();
+        List<String> terms = new ArrayList<>();
+
+        for (Map.Entry<IntentType, List<IntentPattern>> entry : INTENT_PATTERNS.entrySet()) {
+            List<CompiledIntentPattern> compiled = new ArrayList<>();
+            for (IntentPattern pattern : entry.getValue()) {
+                int[] phraseTerms = new int[pattern.getExactPhrases().size()];
+                for (int i = 0; i < phraseTerms.length; i++) {
+                    phraseTerms[i] = termId(pattern.getExactPhrases().get(i).toLowerCase(), termIds, terms);
+                }
+
+                int[] keywordTerms = new int[pattern.getKeywords().size()];
+                for (int i = 0; i < keywordTerms.length; i++) {
+                    String keyword = pattern.getKeywords().get(i).toLowerCase();
+                    // Stop words are dropped from the query before keyword matching, so they can never match
+                    keywordTerms[i] = STOP_WORDS.contains(keyword) ? -1 : termId(keyword, termIds, terms);
+                }
+
+                compiled.add(new CompiledIntentPattern(pattern, phraseTerms, keywordTerms));
+            }
+            COMPILED_PATTERNS.put(entry.getKey(), compiled);
+        }
+
+        return new PhraseAutomaton(terms);
+    }
+
+    private static int termId(String term, Map<String, Integer> termIds, List<String> terms) {
+        return termIds.computeIfAbsent(term, key -> {
+            terms.add(key);
+            return terms.size() - 1;
+        });
+    }
+
     /**
      * Recognize the primary intent from a natural language query
      *
@@ -356,10 +399,41 @@ public class IntentRecognitionService {
         }
     }
 
+    /**
+     * An IntentPattern with its phrases and keywords resolved to automaton term IDs
+     */
+    private static class CompiledIntentPattern {
+        final IntentPattern pattern;
+        final int[] phraseTerms;
+        // -1 marks a keyword that can never match (a stop word)
+        final int[] keywordTerms;
+
+        CompiledIntentPattern(IntentPattern pattern, int[] phraseTerms, int[] keywordTerms) {
+            this.pattern = pattern;
+            this.phraseTerms = phraseTerms;
+            this.keywordTerms = keywordTerms;
+        }
+    }
+
+    /**
+     * Which automaton terms a single query contains, indexed by term ID
+     */
+    private static class TermMatches {
+        final boolean[] anywhere;
+        final boolean[] wholeWord;
+        final boolean[] wholeQuery;
+
+        TermMatches(int termCount) {
+            this.anywhere = new boolean[termCount];
+            this.wholeWord = new boolean[termCount];
+            this.wholeQuery = new boolean[termCount];
+        }
+    }
+
     /**
      * Normalize query text for better pattern matching
      */
-    private String normalizeQuery(String query) {
+    String normalizeQuery(String query) { // Package-private for testing
         String normalizedQuery = query.toLowerCase()
                    .replaceAll("[^a-zA-Z0-9\\s-]", " ") // Remove special chars except hyphens
                    .replaceAll("\\s+", " ") // Normalize whitespace
@@ -382,18 +456,19 @@ public class IntentRecognitionService {
     /**
      * Calculate confidence scores for each intent type
      */
-    private Map<IntentType, Double> calculateIntentScores(String normalizedQuery) {
+    Map<IntentType, Double> calculateIntentScores(String normalizedQuery) { // Package-private for testing
         Map<IntentType, Double> scores = new HashMap<>();
+        TermMatches matches = scanTerms(normalizedQuery);
 
         for (IntentType intentType : IntentType.values()) {
             if (intentType == IntentType.UNKNOWN) continue;
 
-            List<IntentPattern> patterns = INTENT_PATTERNS.get(intentType);
+            List<CompiledIntentPattern> patterns = COMPILED_PATTERNS.get(intentType);
             if (patterns == null) continue;
 
             double maxScore = 0.0;
-            for (IntentPattern pattern : patterns) {
-                double score = calculatePatternScore(normalizedQuery, pattern);
+            for (CompiledIntentPattern pattern : patterns) {
+                double score = calculatePatternScore(normalizedQuery, pattern, matches);
                 maxScore = Math.max(maxScore, score);
             }
 
@@ -403,19 +478,40 @@ public class IntentRecognitionService {
         return scores;
     }
 
+    /**
+     * Run the phrase automaton over the query once, recording which terms occur anywhere
+     * and which occur as whole words
+     */
+    private TermMatches scanTerms(String query) {
+        TermMatches matches = new TermMatches(PHRASE_AUTOMATON.termCount());
+        PHRASE_AUTOMATON.scan(query, (termId, start, end) -> {
+            matches.anywhere[termId] = true;
+            boolean atStart = start == 0;
+            boolean atEnd = end == query.length();
+            if ((atStart || query.charAt(start - 1) == ' ') && (atEnd || query.charAt(end) == ' ')) {
+                matches.wholeWord[termId] = true;
+            }
+            if (atStart && atEnd) {
+                matches.wholeQuery[termId] = true;
+            }
+        });
+        return matches;
+    }
+
     /**
      * Calculate how well a query matches a specific pattern
      */
-    private double calculatePatternScore(String query, IntentPattern pattern) {
+    private double calculatePatternScore(String query, CompiledIntentPattern compiled, TermMatches matches) {
+        IntentPattern pattern = compiled.pattern;
         double score = 0.0;
         boolean hasExactMatch = false;
 
         // Check for exact phrase matches (highest priority)
-        for (String phrase : pattern.getExactPhrases()) {
-            if (query.equals(phrase.toLowerCase())) {
+        for (int termId : compiled.phraseTerms) {
+            if (matches.wholeQuery[termId]) {
                 return pattern.getWeight(); // Perfect match, return immediately
             }
-            if (query.contains(phrase.toLowerCase())) {
+            if (matches.anywhere[termId]) {
                 score += pattern.getWeight() * 0.9; // High weight for exact phrase matches
                 hasExactMatch = true;
             }
@@ -430,28 +526,21 @@ public class IntentRecognitionService {
         }
 
         // Only check keywords if no exact matches found (to avoid over-scoring)
-        if (!hasExactMatch && !pattern.getKeywords().isEmpty()) {
-            String[] queryWords = query.split("\\s+");
-            Set<String> queryWordSet = Arrays.stream(queryWords)
-                .filter(word -> !STOP_WORDS.contains(word))
-                .collect(Collectors.toSet());
-
+        if (!hasExactMatch && compiled.keywordTerms.length > 0) {
             int keywordMatches = 0;
-            for (String keyword : pattern.getKeywords()) {
-                if (queryWordSet.contains(keyword.toLowerCase())) {
+            for (int termId : compiled.keywordTerms) {
+                if (termId >= 0 && matches.wholeWord[termId]) {
                     keywordMatches++;
                 }
             }
 
             if (keywordMatches > 0) {
                 // Score based on percentage of keywords matched
-                double keywordScore = (double) keywordMatches / pattern.getKeywords().size();
+                double keywordScore = (double) keywordMatches / compiled.keywordTerms.length;
                 score += pattern.getWeight() * keywordScore * 0.6; // Lower weight for keyword matches
             }
         }
 
-
-
         // Debug logging
         if (nlpConfig != null && nlpConfig.isDebugEnabled()) {
             System.out.println("Debug: Pattern score for intent " + pattern.getExactPhrases() +
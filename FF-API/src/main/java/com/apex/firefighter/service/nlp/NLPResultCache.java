@@ -0,0 +1,205 @@
+package com.apex.firefighter.service.nlp;
+
+import com.apex.firefighter.config.NLPConfig;
+import com.apex.firefighter.service.user.UserAuthorizationChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Two-tier cache for the chatbot pipeline, driven by the nlp.cache.* settings.
+ *
+ * The query tier maps normalized query text to its recognized intent and extracted entities.
+ * It is user-independent, so the same question asked by anyone is only parsed once a day
+ * (the day is part of the key because "today" and "yesterday" resolve to calendar dates).
+ * It is cleared when the set of authorized usernames changes, since user names are among the entities.
+ *
+ * The result tier holds successful QueryResults of read-only intents per user, role, intent and filters.
+ * Entries expire after nlp.cache.ttl seconds and are dropped as a whole whenever TicketService
+ * or TicketScheduledService writes a ticket, so nobody sees their own changes late.
+ *
+ * Both tiers are size-bounded Caffeine caches, which evict with W-TinyLFU, and record hit/miss/eviction
+ * statistics for the NLP health endpoint. Cached values are shared between requests and must not be modified.
+ */
+@Component
+public class NLPResultCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Intents whose results depend only on the ticket data, the user and the query filters
+    private static final Set<IntentRecognitionService.IntentType> CACHEABLE_INTENTS = Collections.unmodifiableSet(EnumSet.of(
+        IntentRecognitionService.IntentType.SHOW_TICKETS,
+        IntentRecognitionService.IntentType.SHOW_ACTIVE_TICKETS,
+        IntentRecognitionService.IntentType.SHOW_COMPLETED_TICKETS,
+        IntentRecognitionService.IntentType.SHOW_REJECTED_TICKETS,
+        IntentRecognitionService.IntentType.SHOW_ALL_TICKETS,
+        IntentRecognitionService.IntentType.SEARCH_TICKETS,
+        IntentRecognitionService.IntentType.GET_TICKET_DETAILS,
+        IntentRecognitionService.IntentType.GET_SYSTEM_STATS,
+        IntentRecognitionService.IntentType.SHOW_RECENT_ACTIVITY
+    ));
+
+    private final boolean enabled;
+    private final Cache<QueryKey, ParsedQuery> parsedQueries;
+    private final Cache<ResultKey, QueryProcessingService.QueryResult> results;
+    // Bumped on every invalidation, so a result loaded across a ticket write is not stored afterwards
+    private final AtomicLong resultGeneration = new AtomicLong();
+
+    public NLPResultCache(NLPConfig nlpConfig) {
+        this.enabled = nlpConfig.isCacheEnabled();
+        this.parsedQueries = Caffeine.newBuilder()
+            .maximumSize(Math.max(0, nlpConfig.getQueryCacheMaxEntries()))
+            .recordStats()
+            .build();
+        this.results = Caffeine.newBuilder()
+            .maximumSize(Math.max(0, nlpConfig.getResultCacheMaxEntries()))
+            .expireAfterWrite(Duration.ofSeconds(Math.max(0, nlpConfig.getCacheTtlSeconds())))
+            .recordStats()
+            .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Whether results of this intent may be served from the result tier
+     */
+    public static boolean isCacheable(IntentRecognitionService.IntentType intentType) {
+        return intentType != null && CACHEABLE_INTENTS.contains(intentType);
+    }
+
+    /**
+     * Get the parsed form of a query, parsing it on a miss
+     *
+     * @param query The raw query text
+     * @param parser Recognizes the intent and extracts the entities; a null result is not cached
+     * @return The cached or freshly parsed query, or null if the parser returned null
+     */
+    public ParsedQuery getParsedQuery(String query, Function<String, ParsedQuery> parser) {
+        if (!enabled || query == null) {
+            return parser.apply(query);
+        }
+        QueryKey key = new QueryKey(normalize(query), LocalDate.now());
+        return parsedQueries.get(key, ignored -> parser.apply(query));
+    }
+
+    /**
+     * Get the result of a read-only query, running it on a miss.
+     * Only successful results are cached, and only for intents accepted by isCacheable.
+     *
+     * @param userId The user making the query
+     * @param isAdmin Whether the user has admin privileges
+     * @param intentType The recognized intent
+     * @param filters The query filters built from the extracted entities
+     * @param loader Runs the query
+     * @return The cached or freshly loaded result
+     */
+    public QueryProcessingService.QueryResult getResult(String userId, boolean isAdmin,
+                                                        IntentRecognitionService.IntentType intentType,
+                                                        Map<String, Object> filters,
+                                                        Supplier<QueryProcessingService.QueryResult> loader) {
+        if (!enabled || userId == null || !isCacheable(intentType)) {
+            return loader.get();
+        }
+
+        ResultKey key = new ResultKey(userId, isAdmin, intentType,
+            filters == null ? Map.of() : Collections.unmodifiableMap(new HashMap<>(filters)));
+        QueryProcessingService.QueryResult cached = results.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = resultGeneration.get();
+        QueryProcessingService.QueryResult result = loader.get();
+        if (result != null && result.isSuccess() && generation == resultGeneration.get()) {
+            results.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Drop every cached query result. Called after any ticket write.
+     */
+    public void invalidateResults() {
+        resultGeneration.incrementAndGet();
+        results.invalidateAll();
+    }
+
+    /**
+     * Drop every parsed query. Called when the usernames known to entity extraction change.
+     */
+    public void invalidateParsedQueries() {
+        parsedQueries.invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAuthorizationChanged(UserAuthorizationChangedEvent event) {
+        invalidateParsedQueries();
+    }
+
+    /**
+     * Hit, miss and eviction counts of both tiers, for the health endpoint
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("enabled", enabled);
+        statistics.put("queryCache", describe(parsedQueries));
+        statistics.put("resultCache", describe(results));
+        return statistics;
+    }
+
+    private static Map<String, Object> describe(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> description = new LinkedHashMap<>();
+        description.put("size", cache.estimatedSize());
+        description.put("hits", stats.hitCount());
+        description.put("misses", stats.missCount());
+        description.put("hitRate", stats.hitRate());
+        description.put("evictions", stats.evictionCount());
+        return description;
+    }
+
+    // Both pipeline stages lowercase and collapse whitespace first, so this never merges queries they would tell apart
+    private static String normalize(String query) {
+        return WHITESPACE.matcher(query.toLowerCase()).replaceAll(" ").trim();
+    }
+
+    private record QueryKey(String text, LocalDate day) {
+    }
+
+    private record ResultKey(String userId, boolean admin, IntentRecognitionService.IntentType intentType,
+                             Map<String, Object> filters) {
+    }
+
+    /**
+     * Intent and entities recognized in one query
+     */
+    public static class ParsedQuery {
+        private final IntentRecognitionService.Intent intent;
+        private final EntityExtractionService.ExtractedEntities entities;
+
+        public ParsedQuery(IntentRecognitionService.Intent intent, EntityExtractionService.ExtractedEntities entities) {
+            this.intent = intent;
+            this.entities = entities;
+        }
+
+        public IntentRecognitionService.Intent getIntent() { return intent; }
+        public EntityExtractionService.ExtractedEntities getEntities() { return entities; }
+    }
+}
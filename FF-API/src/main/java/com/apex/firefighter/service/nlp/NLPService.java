@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Main Natural Language Processing service that orchestrates all NLP operations
@@ -38,6 +39,9 @@ public class NLPService {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private NLPResultCache resultCache;
+
     // Setter methods for testing
     public void setUserService(UserService userService) {
         this.userService = userService;
@@ -59,6 +63,10 @@ public class NLPService {
         this.responseGenerationService = responseGenerationService;
     }
 
+    public void setResultCache(NLPResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
 
 
     /**
@@ -88,8 +96,10 @@ public class NLPService {
                 return validationResult;
             }
 
-            // Step 2: Recognize intent
-            IntentRecognitionService.Intent intent = recognizeIntent(query);
+            // Step 2: Recognize intent (entities are parsed alongside it when the query cache is on)
+            NLPResultCache.ParsedQuery parsedQuery = resultCache != null
+                ? resultCache.getParsedQuery(query, this::parseQuery) : null;
+            IntentRecognitionService.Intent intent = parsedQuery != null ? parsedQuery.getIntent() : recognizeIntent(query);
             if (intent == null) {
                 return generateUnknownCommandResponse(userId, isAdminFromJWT);
             }
@@ -102,7 +112,8 @@ public class NLPService {
             }
 
             // Step 4: Extract and validate entities
-            EntityExtractionService.ExtractedEntities entities = extractAndValidateEntities(query, intent);
+            EntityExtractionService.ExtractedEntities entities = extractAndValidateEntities(query, intent,
+                parsedQuery != null ? parsedQuery.getEntities() : null);
             if (entities == null) {
                 return new NLPResponse("I couldn't understand all the details in your request. " +
                     "Could you please rephrase it or provide more specific information?", false);
@@ -158,6 +169,17 @@ public class NLPService {
         return intent;
     }
 
+    /**
+     * Recognize the intent and extract the entities of a query, for the query cache
+     */
+    private NLPResultCache.ParsedQuery parseQuery(String query) {
+        IntentRecognitionService.Intent intent = recognizeIntent(query);
+        if (intent == null || entityExtractionService == null) {
+            return null;
+        }
+        return new NLPResultCache.ParsedQuery(intent, entityExtractionService.extractEntities(query));
+    }
+
     /**
      * Determine user role with JWT admin flag priority
      */
@@ -207,15 +229,19 @@ public class NLPService {
 
     /**
      * Extract and validate entities from query
+     *
+     * @param cachedEntities Entities already extracted for this query, or null to extract them now
      */
     private EntityExtractionService.ExtractedEntities extractAndValidateEntities(
-            String query, IntentRecognitionService.Intent intent) {
+            String query, IntentRecognitionService.Intent intent,
+            EntityExtractionService.ExtractedEntities cachedEntities) {
 
         if (entityExtractionService == null) {
             return null;
         }
 
-        EntityExtractionService.ExtractedEntities entities = entityExtractionService.extractEntities(query);
+        EntityExtractionService.ExtractedEntities entities = cachedEntities != null
+            ? cachedEntities : entityExtractionService.extractEntities(query);
         if (entities == null) {
             return null;
         }
@@ -254,7 +280,13 @@ public class NLPService {
         boolean isAdmin = "ADMIN".equals(userRole);
         System.out.println("🔵 QUERY PROCESSING: Processing intent: " + intent.getType());
 
-        QueryProcessingService.QueryResult result = queryProcessingService.processQuery(intent, entities, userId, isAdmin);
+        QueryProcessingService.QueryResult result;
+        if (resultCache != null && NLPResultCache.isCacheable(intent.getType())) {
+            result = resultCache.getResult(userId, isAdmin, intent.getType(), queryProcessingService.buildQueryFilters(entities),
+                () -> queryProcessingService.processQuery(intent, entities, userId, isAdmin));
+        } else {
+            result = queryProcessingService.processQuery(intent, entities, userId, isAdmin);
+        }
         System.out.println("🔵 NLP SERVICE: Query processing result: " +
             (result != null ? "success=" + result.isSuccess() : "null"));
 
@@ -564,6 +596,16 @@ public class NLPService {
         }
     }
 
+    /**
+     * Hit, miss and eviction statistics of the NLP caches
+     */
+    public Map<String, Object> getCacheStatistics() {
+        if (resultCache == null) {
+            return Map.of("enabled", false);
+        }
+        return resultCache.getStatistics();
+    }
+
     /**
      * Check if the NLP service is properly configured and operational
      * 
@@ -0,0 +1,156 @@
+package com.apex.firefighter.service.nlp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Aho-Corasick automaton over a fixed set of terms.
+ * Built once, then finds every occurrence of every term in a single left-to-right pass over the text.
+ * Immutable after construction and safe to share between threads.
+ */
+final class PhraseAutomaton {
+
+    /**
+     * Receives each term occurrence as [start, end) offsets into the scanned text
+     */
+    @FunctionalInterface
+    interface MatchListener {
+        void onMatch(int termId, int start, int end);
+    }
+
+    private static final int[] NO_OUTPUTS = new int[0];
+
+    // Trie edges per node, kept as parallel arrays; fan-out is small so a linear scan beats hashing
+    private final char[][] edgeLabels;
+    private final int[][] edgeTargets;
+    private final int[] failure;
+    // Term IDs ending at each node, including those inherited through failure links
+    private final int[][] outputs;
+    private final int[] termLengths;
+
+    PhraseAutomaton(List<String> terms) {
+        List<char[]> labels = new ArrayList<>();
+        List<int[]> targets = new ArrayList<>();
+        List<int[]> ownOutputs = new ArrayList<>();
+        labels.add(new char[0]);
+        targets.add(new int[0]);
+        ownOutputs.add(NO_OUTPUTS);
+
+        termLengths = new int[terms.size()];
+        for (int termId = 0; termId < terms.size(); termId++) {
+            String term = terms.get(termId);
+            if (term.isEmpty()) {
+                throw new IllegalArgumentException("Automaton terms cannot be empty");
+            }
+            termLengths[termId] = term.length();
+
+            int node = 0;
+            for (int i = 0; i < term.length(); i++) {
+                char c = term.charAt(i);
+                int next = findEdge(labels.get(node), targets.get(node), c);
+                if (next < 0) {
+                    next = labels.size();
+                    labels.add(new char[0]);
+                    targets.add(new int[0]);
+                    ownOutputs.add(NO_OUTPUTS);
+                    labels.set(node, append(labels.get(node), c));
+                    targets.set(node, append(targets.get(node), next));
+                }
+                node = next;
+            }
+            ownOutputs.set(node, append(ownOutputs.get(node), termId));
+        }
+
+        int nodeCount = labels.size();
+        edgeLabels = labels.toArray(new char[0][]);
+        edgeTargets = targets.toArray(new int[0][]);
+        failure = new int[nodeCount];
+        outputs = new int[nodeCount][];
+        outputs[0] = NO_OUTPUTS;
+
+        // Breadth-first so every failure target is finished before the nodes that point at it
+        Deque<Integer> queue = new ArrayDeque<>();
+        for (int child : edgeTargets[0]) {
+            failure[child] = 0;
+            outputs[child] = ownOutputs.get(child);
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int e = 0; e < edgeLabels[node].length; e++) {
+                char c = edgeLabels[node][e];
+                int child = edgeTargets[node][e];
+
+                int fallback = failure[node];
+                while (fallback != 0 && findEdge(edgeLabels[fallback], edgeTargets[fallback], c) < 0) {
+                    fallback = failure[fallback];
+                }
+                int target = findEdge(edgeLabels[fallback], edgeTargets[fallback], c);
+                failure[child] = target >= 0 ? target : 0;
+
+                outputs[child] = concat(ownOutputs.get(child), outputs[failure[child]]);
+                queue.add(child);
+            }
+        }
+    }
+
+    int termCount() {
+        return termLengths.length;
+    }
+
+    /**
+     * Reports every occurrence of every term in the text, overlapping ones included
+     */
+    void scan(String text, MatchListener listener) {
+        int node = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            int next = findEdge(edgeLabels[node], edgeTargets[node], c);
+            while (next < 0 && node != 0) {
+                node = failure[node];
+                next = findEdge(edgeLabels[node], edgeTargets[node], c);
+            }
+            node = next >= 0 ? next : 0;
+
+            for (int termId : outputs[node]) {
+                listener.onMatch(termId, i + 1 - termLengths[termId], i + 1);
+            }
+        }
+    }
+
+    private static int findEdge(char[] labels, int[] targets, char c) {
+        for (int i = 0; i < labels.length; i++) {
+            if (labels[i] == c) {
+                return targets[i];
+            }
+        }
+        return -1;
+    }
+
+    private static char[] append(char[] array, char value) {
+        char[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = value;
+        return copy;
+    }
+
+    private static int[] append(int[] array, int value) {
+        int[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = value;
+        return copy;
+    }
+
+    private static int[] concat(int[] first, int[] second) {
+        if (second.length == 0) {
+            return first;
+        }
+        if (first.length == 0) {
+            return second;
+        }
+        int[] copy = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, copy, first.length, second.length);
+        return copy;
+    }
+}
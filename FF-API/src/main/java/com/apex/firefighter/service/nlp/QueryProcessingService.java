@@ -3,16 +3,23 @@ package com.apex.firefighter.service.nlp;
 import com.apex.firefighter.config.NLPConfig;
 import com.apex.firefighter.model.Ticket;
 import com.apex.firefighter.model.User;
+import com.apex.firefighter.service.ticket.TicketExportJob;
+import com.apex.firefighter.service.ticket.TicketExportJobService;
+import com.apex.firefighter.service.ticket.TicketExportService;
+import com.apex.firefighter.service.ticket.TicketPage;
+import com.apex.firefighter.service.ticket.TicketQuery;
 import com.apex.firefighter.service.ticket.TicketService;
-import com.apex.firefighter.service.GmailEmailService;
+import com.apex.firefighter.service.ticket.TicketStatistics;
+import com.apex.firefighter.service.ticket.TicketStatisticsService;
 import com.apex.firefighter.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Service responsible for processing natural language queries and converting them
@@ -24,6 +31,9 @@ public class QueryProcessingService {
     @Autowired
     private TicketService ticketService;
 
+    @Autowired
+    private TicketStatisticsService ticketStatisticsService;
+
     @Autowired
     private NLPConfig nlpConfig;
 
@@ -31,7 +41,10 @@ public class QueryProcessingService {
     private IntentRecognitionService intentRecognitionService;
 
     @Autowired
-    private GmailEmailService gmailEmailService;
+    private TicketExportService ticketExportService;
+
+    @Autowired
+    private TicketExportJobService ticketExportJobService;
 
     @Autowired
     private UserService userService;
@@ -41,6 +54,18 @@ public class QueryProcessingService {
         this.ticketService = ticketService;
     }
 
+    public void setTicketStatisticsService(TicketStatisticsService ticketStatisticsService) {
+        this.ticketStatisticsService = ticketStatisticsService;
+    }
+
+    public void setTicketExportService(TicketExportService ticketExportService) {
+        this.ticketExportService = ticketExportService;
+    }
+
+    public void setTicketExportJobService(TicketExportJobService ticketExportJobService) {
+        this.ticketExportJobService = ticketExportJobService;
+    }
+
     public void setNlpConfig(NLPConfig nlpConfig) {
         this.nlpConfig = nlpConfig;
     }
@@ -189,9 +214,7 @@ public class QueryProcessingService {
         try {
             if (filters == null) filters = new HashMap<>();
             final String filterTicketId   = (String) filters.get("ticketId");
-            final String filterStatusRaw  = (String) filters.get("status");
             final String filterUserId     = (String) filters.getOrDefault("userId", userId);
-            final String filterEmergency  = (String) filters.get("emergencyType");
 
             switch (queryType) {
                 case TICKET_DETAILS: {
@@ -210,90 +233,46 @@ public class QueryProcessingService {
                 }
 
                 case USER_TICKETS: {
-                    // If admin and a userId filter is present, show that user's tickets; otherwise:
-                    List<Ticket> tickets = ticketService.getTicketsByUserId(filterUserId);
-                    return new QueryResult(QueryResultType.TICKET_LIST, tickets, tickets.size());
+                    // If admin and a userId filter is present, show that user's tickets; otherwise the caller's own
+                    TicketQuery query = buildTicketQuery(filters, isAdmin ? filterUserId : userId);
+                    return ticketListResult(ticketService.findTickets(query));
                 }
 
                 case ACTIVE_TICKETS: {
-                    if (isAdmin) {
-                        List<Ticket> tickets = ticketService.getTicketsByStatus("Active");
-                        return new QueryResult(QueryResultType.TICKET_LIST, tickets, tickets.size());
-                    } else {
-                        List<Ticket> mine = ticketService.getTicketsByUserId(userId);
-                        List<Ticket> active = filterByStatuses(mine, "Active");
-                        return new QueryResult(QueryResultType.TICKET_LIST, active, active.size());
-                    }
+                    TicketQuery query = buildTicketQuery(filters, scopeUserId(filters, userId, isAdmin));
+                    query.setStatuses("Active");
+                    return ticketListResult(ticketService.findTickets(query));
                 }
 
                 case COMPLETED_TICKETS: {
-                    if (isAdmin) {
-                        List<Ticket> completed = ticketService.getTicketsByStatus("Completed");
-                        List<Ticket> closed    = ticketService.getTicketsByStatus("Closed");
-                        List<Ticket> all = new ArrayList<>(completed);
-                        all.addAll(closed);
-                        return new QueryResult(QueryResultType.TICKET_LIST, all, all.size());
-                    } else {
-                        List<Ticket> mine = ticketService.getTicketsByUserId(userId);
-                        List<Ticket> done = filterByStatuses(mine, "Completed", "Closed");
-                        return new QueryResult(QueryResultType.TICKET_LIST, done, done.size());
-                    }
+                    TicketQuery query = buildTicketQuery(filters, scopeUserId(filters, userId, isAdmin));
+                    query.setStatuses("Completed", "Closed");
+                    return ticketListResult(ticketService.findTickets(query));
                 }
 
                 case REJECTED_TICKETS: {
-                    if (isAdmin) {
-                        List<Ticket> rejected = ticketService.getTicketsByStatus("Rejected");
-                        return new QueryResult(QueryResultType.TICKET_LIST, rejected, rejected.size());
-                    } else {
-                        List<Ticket> mine = ticketService.getTicketsByUserId(userId);
-                        List<Ticket> rejected = filterByStatuses(mine, "Rejected");
-                        return new QueryResult(QueryResultType.TICKET_LIST, rejected, rejected.size());
-                    }
+                    TicketQuery query = buildTicketQuery(filters, scopeUserId(filters, userId, isAdmin));
+                    query.setStatuses("Rejected");
+                    return ticketListResult(ticketService.findTickets(query));
                 }
 
                 case SEARCH_TICKETS: {
-                    // Start from scope (admin = all, user = own)
-                    List<Ticket> base = isAdmin ? ticketService.getAllTickets()
-                                                : ticketService.getTicketsByUserId(userId);
-
-                    String normStatus = normalizeStatus(filterStatusRaw); // map "open"->Active, etc.
-
-                    List<Ticket> out = base.stream()
-                        .filter(t -> filterTicketId == null || filterTicketId.equals(t.getTicketId()))
-                        .filter(t -> normStatus == null || normStatus.equalsIgnoreCase(t.getStatus())
-                                || (normStatus.equals("CompletedOrClosed")
-                                    && ("Completed".equalsIgnoreCase(t.getStatus())
-                                        || "Closed".equalsIgnoreCase(t.getStatus()))))
-                        .filter(t -> filterEmergency == null || equalsIgnoreCaseSafe(t.getEmergencyType(), filterEmergency))
-                        .collect(java.util.stream.Collectors.toList());
-
-                    return new QueryResult(QueryResultType.TICKET_LIST, out, out.size());
+                    // Scope is admin = all, user = own; status, ticket ID, emergency type and dates all go to the database
+                    TicketQuery query = buildTicketQuery(filters, scopeUserId(filters, userId, isAdmin));
+                    return ticketListResult(ticketService.findTickets(query));
                 }
 
                 case SYSTEM_STATS: {
+                    // Grouped aggregates instead of loading tickets; the system-wide figures are shared and briefly cached
+                    TicketStatistics statistics = isAdmin ? ticketStatisticsService.getSystemStatistics()
+                                                          : ticketStatisticsService.getUserStatistics(userId);
                     Map<String, Object> stats = new HashMap<>();
-                    if (isAdmin) {
-                        int total      = ticketService.getAllTickets().size();
-                        int active     = ticketService.getTicketsByStatus("Active").size();
-                        int completed  = ticketService.getTicketsByStatus("Completed").size();
-                        int closed     = ticketService.getTicketsByStatus("Closed").size();
-                        int rejected   = ticketService.getTicketsByStatus("Rejected").size();
-
-                        stats.put("scope", "system");
-                        stats.put("totalTickets", total);
-                        stats.put("active", active);
-                        stats.put("completed", completed);
-                        stats.put("closed", closed);
-                        stats.put("rejected", rejected);
-                    } else {
-                        List<Ticket> mine = ticketService.getTicketsByUserId(userId);
-                        stats.put("scope", "user");
-                        stats.put("totalTickets", mine.size());
-                        stats.put("active", countByStatus(mine, "Active"));
-                        stats.put("completed", countByStatus(mine, "Completed"));
-                        stats.put("closed", countByStatus(mine, "Closed"));
-                        stats.put("rejected", countByStatus(mine, "Rejected"));
-                    }
+                    stats.put("scope", isAdmin ? "system" : "user");
+                    stats.put("totalTickets", statistics.getTotalTickets());
+                    stats.put("active", statistics.getTickets("Active"));
+                    stats.put("completed", statistics.getTickets("Completed"));
+                    stats.put("closed", statistics.getTickets("Closed"));
+                    stats.put("rejected", statistics.getTickets("Rejected"));
                     return new QueryResult(QueryResultType.STATISTICS, stats, 1);
                 }
 
@@ -330,47 +309,21 @@ public class QueryProcessingService {
                             System.out.println("🔵 EXPORT: End date filter: " + endDate);
                         }
 
-                        // Get tickets based on date range filtering (similar to TicketController)
-                        List<Ticket> tickets;
-                        if (startDate != null && endDate != null) {
-                            System.out.println("🔵 EXPORT: Filtering tickets by date range: " + startDate + " to " + endDate);
-                            tickets = ticketService.getAllTickets().stream()
-                                    .filter(ticket -> ticket.getDateCreated().isAfter(startDate) && ticket.getDateCreated().isBefore(endDate))
-                                    .collect(Collectors.toList());
-                            System.out.println("🔵 EXPORT: Retrieved " + tickets.size() + " tickets with date range filter");
-                        } else if (startDate != null) {
-                            System.out.println("🔵 EXPORT: Filtering tickets from start date: " + startDate);
-                            tickets = ticketService.getAllTickets().stream()
-                                    .filter(ticket -> ticket.getDateCreated().isAfter(startDate))
-                                    .collect(Collectors.toList());
-                            System.out.println("🔵 EXPORT: Retrieved " + tickets.size() + " tickets from start date");
-                        } else if (endDate != null) {
-                            System.out.println("🔵 EXPORT: Filtering tickets until end date: " + endDate);
-                            tickets = ticketService.getAllTickets().stream()
-                                    .filter(ticket -> ticket.getDateCreated().isBefore(endDate))
-                                    .collect(Collectors.toList());
-                            System.out.println("🔵 EXPORT: Retrieved " + tickets.size() + " tickets until end date");
-                        } else {
-                            tickets = ticketService.getAllTickets();
-                            System.out.println("🔵 EXPORT: Retrieved " + tickets.size() + " tickets (all tickets)");
-                        }
-
-                        // Generate CSV
-                        String csvContent = gmailEmailService.exportTicketsToCsv(tickets);
-                        System.out.println("🔵 EXPORT: Generated CSV content, length: " + csvContent.length() + " characters");
-
-                        // Send email with CSV attachment
-                        gmailEmailService.sendTicketsCsv(userEmail, csvContent, user);
-                        System.out.println("✅ EXPORT: Email sent successfully to: " + userEmail);
+                        // Run the export in the background; the CSV is emailed when it is ready
+                        TicketExportJob job = ticketExportJobService.submit(startDate, endDate,
+                            ticketExportService.isCompressByDefault(), userId, userEmail, user);
+                        System.out.println("🔵 EXPORT: Export job " + job.getJobId() + " accepted"
+                            + (startDate != null || endDate != null ? " with date range filter" : " (all tickets)"));
 
                         // Create success message
                         String dateRangeInfo = (startDate != null || endDate != null) ? " (filtered by date range)" : "";
-                        String successMessage = "Tickets exported and emailed successfully to " + userEmail + dateRangeInfo;
+                        String successMessage = "Ticket export started" + dateRangeInfo
+                            + ". The CSV will be emailed to " + userEmail + " when it is ready.";
 
                         // Return success result
                         Map<String, Object> exportData = new HashMap<>();
                         exportData.put("email", userEmail);
-                        exportData.put("ticketCount", tickets.size());
+                        exportData.put("jobId", job.getJobId());
                         exportData.put("hasDateFilter", startDate != null || endDate != null);
 
                         return new QueryResult(true, successMessage, exportData, QueryResultType.INFORMATION);
@@ -533,18 +486,66 @@ public class QueryProcessingService {
 
     /* ----------------------- helpers ----------------------- */
 
-    private List<Ticket> filterByStatuses(List<Ticket> tickets, String... statuses) {
-        if (tickets == null || tickets.isEmpty() || statuses == null || statuses.length == 0) return Collections.emptyList();
-        java.util.Set<String> set = new java.util.HashSet<>();
-        for (String s : statuses) set.add(s);
-        return tickets.stream().filter(t -> set.contains(t.getStatus())).collect(java.util.stream.Collectors.toList());
+    /**
+     * Turn the query filters into a ticket query: status, ticket ID, emergency type and a date
+     * (or startDate/endDate range), limited to nlp.query.max-results tickets.
+     *
+     * @param scopeUserId Only this user's tickets, or null for all tickets
+     */
+    private TicketQuery buildTicketQuery(Map<String, Object> filters, String scopeUserId) {
+        TicketQuery query = new TicketQuery();
+        query.setUserId(scopeUserId);
+        query.setTicketId((String) filters.get("ticketId"));
+        query.setEmergencyType((String) filters.get("emergencyType"));
+
+        String status = normalizeStatus((String) filters.get("status"));
+        if ("CompletedOrClosed".equals(status)) {
+            query.setStatuses("Completed", "Closed");
+        } else if (status != null) {
+            query.setStatuses(status);
+        }
+
+        LocalDate day = parseDateSafe((String) filters.get("date"));
+        if (day != null) {
+            query.setCreatedFrom(day.atStartOfDay());
+            query.setCreatedBefore(day.plusDays(1).atStartOfDay());
+        }
+        if (filters.get("startDate") instanceof LocalDateTime startDate) {
+            query.setCreatedFrom(startDate);
+        }
+        if (filters.get("endDate") instanceof LocalDateTime endDate) {
+            query.setCreatedBefore(endDate);
+        }
+
+        int maxResults = nlpConfig.getMaxQueryResults();
+        query.setLimit(maxResults > 0 ? maxResults : null);
+        return query;
     }
 
-    private int countByStatus(List<Ticket> tickets, String status) {
-        if (tickets == null) return 0;
-        int c = 0;
-        for (Ticket t : tickets) if (status.equalsIgnoreCase(t.getStatus())) c++;
-        return c;
+    // Users only ever see their own tickets; admins see everyone's unless a userId filter narrows it
+    private String scopeUserId(Map<String, Object> filters, String userId, boolean isAdmin) {
+        return isAdmin ? (String) filters.get("userId") : userId;
+    }
+
+    private QueryResult ticketListResult(TicketPage page) {
+        List<Ticket> tickets = page.getTickets();
+        QueryResult result = new QueryResult(QueryResultType.TICKET_LIST, tickets, tickets.size());
+        if (page.hasMore()) {
+            Map<String, Object> metadata = new HashMap<>();
+            metadata.put("hasMore", true);
+            metadata.put("nextCursor", page.getNextCursor());
+            result.setMetadata(metadata);
+        }
+        return result;
+    }
+
+    private LocalDate parseDateSafe(String date) {
+        if (date == null) return null;
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
     }
 
     private String normalizeStatus(String status) {
@@ -568,10 +569,6 @@ public class QueryProcessingService {
         return Character.toUpperCase(s.charAt(0)) + s.substring(1);
     }
 
-    private boolean equalsIgnoreCaseSafe(String a, String b) {
-        return a == null ? b == null : a.equalsIgnoreCase(b);
-    }
-
     private Integer parseIntegerSafe(String s) {
         if (s == null) return null;
         try {
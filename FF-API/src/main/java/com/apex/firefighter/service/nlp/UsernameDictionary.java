@@ -0,0 +1,127 @@
+package com.apex.firefighter.service.nlp;
+
+import com.apex.firefighter.model.User;
+import com.apex.firefighter.service.UserService;
+import com.apex.firefighter.service.user.UserAuthorizationChangedEvent;
+import jakarta.annotation.PostConstruct;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Usernames of the authorized users, for USER_NAME entity extraction.
+ *
+ * Loaded once at startup, then kept current from UserAuthorizationChangedEvents: each authorization,
+ * revocation, registration approval or rename updates one entry after its transaction commits.
+ * Readers use the current UsernameTrie without locking; writers build the next trie and swap it in.
+ */
+@Component
+public class UsernameDictionary {
+
+    private static final Pattern NON_QUERY_CHARACTERS = Pattern.compile("[^a-zA-Z0-9\\s-#]");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final UserService userService;
+
+    private volatile UsernameTrie trie = UsernameTrie.EMPTY;
+
+    // Writer-side bookkeeping, guarded by this: current key per user, and how many users share each key
+    private final Map<String, String> keysByUserId = new HashMap<>();
+    private final Map<String, Integer> usersPerKey = new HashMap<>();
+
+    public UsernameDictionary(UserService userService) {
+        this.userService = userService;
+    }
+
+    @PostConstruct
+    public void load() {
+        List<User> users = userService.getAuthorizedUsers();
+        synchronized (this) {
+            keysByUserId.clear();
+            usersPerKey.clear();
+            UsernameTrie next = UsernameTrie.EMPTY;
+            for (User user : users) {
+                next = put(next, user.getUserId(), user.getUsername());
+            }
+            trie = next;
+        }
+        System.out.println("🧠 USERNAME DICTIONARY: Loaded " + trie.size() + " usernames");
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserAuthorizationChanged(UserAuthorizationChangedEvent event) {
+        if (event.getUserId() == null) {
+            return;
+        }
+        synchronized (this) {
+            UsernameTrie next = remove(trie, event.getUserId());
+            if (event.isAuthorized()) {
+                next = put(next, event.getUserId(), event.getUsername());
+            }
+            trie = next;
+        }
+    }
+
+    /**
+     * Every username occurring as whole words in a normalized query, left to right
+     */
+    List<UsernameTrie.Match> findAll(String normalizedQuery) {
+        return trie.matchAll(normalizedQuery);
+    }
+
+    /**
+     * The username at most one typo away from the word, or null if there is none or more than one
+     */
+    public String findClosest(String word) {
+        String key = normalize(word);
+        return key.isEmpty() ? null : trie.closest(key);
+    }
+
+    /**
+     * Usernames starting with the prefix, in alphabetical order of their normalized form
+     */
+    public List<String> findByPrefix(String prefix, int limit) {
+        String key = normalize(prefix);
+        return key.isEmpty() ? List.of() : trie.withPrefix(key, limit);
+    }
+
+    public int size() {
+        return trie.size();
+    }
+
+    // Same normalization EntityExtractionService applies to queries, so keys line up with query text
+    static String normalize(String username) {
+        if (username == null) {
+            return "";
+        }
+        String lowerCase = NON_QUERY_CHARACTERS.matcher(username.toLowerCase()).replaceAll(" ");
+        return WHITESPACE.matcher(lowerCase).replaceAll(" ").trim();
+    }
+
+    private UsernameTrie put(UsernameTrie current, String userId, String username) {
+        String key = normalize(username);
+        if (userId == null || key.isEmpty()) {
+            return current;
+        }
+        keysByUserId.put(userId, key);
+        usersPerKey.merge(key, 1, Integer::sum);
+        return current.get(key) == null ? current.with(key, username) : current;
+    }
+
+    private UsernameTrie remove(UsernameTrie current, String userId) {
+        String key = keysByUserId.remove(userId);
+        if (key == null) {
+            return current;
+        }
+        Integer remaining = usersPerKey.merge(key, -1, Integer::sum);
+        if (remaining != null && remaining > 0) {
+            return current;
+        }
+        usersPerKey.remove(key);
+        return current.without(key);
+    }
+}
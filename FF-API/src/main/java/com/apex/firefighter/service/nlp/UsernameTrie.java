@@ -0,0 +1,245 @@
+package com.apex.firefighter.service.nlp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable trie from normalized usernames to the canonical username.
+ *
+ * Updates return a new trie that copies only the nodes on the changed key's path and shares
+ * everything else, so adding or removing one user costs O(name length) and a published trie
+ * can be read by any number of threads without locking.
+ * Keys use the query normalization (lower case, single spaces), so multi-word names match across spaces.
+ */
+final class UsernameTrie {
+
+    static final UsernameTrie EMPTY = new UsernameTrie(Node.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private UsernameTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Canonical username stored under the key, or null
+     */
+    String get(String key) {
+        Node node = find(key);
+        return node != null ? node.value : null;
+    }
+
+    UsernameTrie with(String key, String value) {
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("Username keys cannot be empty");
+        }
+        boolean added = get(key) == null;
+        return new UsernameTrie(put(root, key, 0, value), added ? size + 1 : size);
+    }
+
+    UsernameTrie without(String key) {
+        if (get(key) == null) {
+            return this;
+        }
+        Node updated = remove(root, key, 0);
+        return new UsernameTrie(updated != null ? updated : Node.EMPTY, size - 1);
+    }
+
+    /**
+     * Every username occurring as whole words in the text, left to right.
+     * At each word the longest username wins and matching resumes after it.
+     */
+    List<Match> matchAll(String text) {
+        List<Match> matches = new ArrayList<>();
+        int start = 0;
+        while (start < text.length()) {
+            int end = -1;
+            String value = null;
+            Node node = root;
+            for (int i = start; i < text.length() && node != null; i++) {
+                node = node.child(text.charAt(i));
+                if (node != null && node.value != null && (i + 1 == text.length() || text.charAt(i + 1) == ' ')) {
+                    end = i + 1;
+                    value = node.value;
+                }
+            }
+
+            if (end > 0) {
+                matches.add(new Match(start, end, value));
+                start = end;
+            }
+            int nextSpace = text.indexOf(' ', start);
+            if (nextSpace < 0) {
+                break;
+            }
+            start = nextSpace + 1;
+        }
+        return matches;
+    }
+
+    /**
+     * Canonical usernames whose keys start with the prefix, in key order
+     */
+    List<String> withPrefix(String prefix, int limit) {
+        List<String> values = new ArrayList<>();
+        Node node = find(prefix);
+        if (node != null && limit > 0) {
+            collect(node, values, limit);
+        }
+        return values;
+    }
+
+    /**
+     * The canonical username whose key is within one edit (insert, delete or substitute) of the word.
+     * An exact key wins; otherwise the match must be unique, so an ambiguous typo resolves to nothing.
+     */
+    String closest(String word) {
+        String exact = get(word);
+        if (exact != null) {
+            return exact;
+        }
+
+        int[] firstRow = new int[word.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        List<String> found = new ArrayList<>(2);
+        for (int e = 0; e < root.labels.length && found.size() < 2; e++) {
+            searchWithinOneEdit(root.children[e], root.labels[e], word, firstRow, found);
+        }
+        return found.size() == 1 ? found.get(0) : null;
+    }
+
+    // One Levenshtein row per trie level; a branch is abandoned as soon as its whole row exceeds one edit
+    private static void searchWithinOneEdit(Node node, char c, String word, int[] previousRow, List<String> found) {
+        int[] row = new int[previousRow.length];
+        row[0] = previousRow[0] + 1;
+        int rowMinimum = row[0];
+        for (int i = 1; i < row.length; i++) {
+            int substitute = previousRow[i - 1] + (word.charAt(i - 1) == c ? 0 : 1);
+            row[i] = Math.min(substitute, Math.min(row[i - 1] + 1, previousRow[i] + 1));
+            rowMinimum = Math.min(rowMinimum, row[i]);
+        }
+
+        if (node.value != null && row[row.length - 1] <= 1) {
+            found.add(node.value);
+        }
+        if (rowMinimum <= 1) {
+            for (int e = 0; e < node.labels.length && found.size() < 2; e++) {
+                searchWithinOneEdit(node.children[e], node.labels[e], word, row, found);
+            }
+        }
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        return node;
+    }
+
+    private static void collect(Node node, List<String> values, int limit) {
+        if (node.value != null) {
+            values.add(node.value);
+        }
+        for (int e = 0; e < node.children.length && values.size() < limit; e++) {
+            collect(node.children[e], values, limit);
+        }
+    }
+
+    private static Node put(Node node, String key, int depth, String value) {
+        if (depth == key.length()) {
+            return new Node(node.labels, node.children, value);
+        }
+        char c = key.charAt(depth);
+        int index = Arrays.binarySearch(node.labels, c);
+        Node child = index >= 0 ? node.children[index] : Node.EMPTY;
+        return node.withChild(c, index, put(child, key, depth + 1, value));
+    }
+
+    // Returns null when the node is left with neither a value nor children
+    private static Node remove(Node node, String key, int depth) {
+        if (depth == key.length()) {
+            return node.children.length == 0 ? null : new Node(node.labels, node.children, null);
+        }
+        int index = Arrays.binarySearch(node.labels, key.charAt(depth));
+        Node updated = remove(node.children[index], key, depth + 1);
+        if (updated != null) {
+            return node.withChild(key.charAt(depth), index, updated);
+        }
+        Node pruned = node.withoutChild(index);
+        return pruned.children.length == 0 && pruned.value == null ? null : pruned;
+    }
+
+    /**
+     * A username found in a text, as [start, end) offsets
+     */
+    static final class Match {
+        final int start;
+        final int end;
+        final String username;
+
+        Match(int start, int end, String username) {
+            this.start = start;
+            this.end = end;
+            this.username = username;
+        }
+    }
+
+    private static final class Node {
+        static final Node EMPTY = new Node(new char[0], new Node[0], null);
+
+        // Edge labels are kept sorted, so lookups can binary search and traversal is in key order
+        final char[] labels;
+        final Node[] children;
+        final String value;
+
+        Node(char[] labels, Node[] children, String value) {
+            this.labels = labels;
+            this.children = children;
+            this.value = value;
+        }
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        // index is the binarySearch result for c: the slot to replace, or the encoded insertion point
+        Node withChild(char c, int index, Node child) {
+            if (index >= 0) {
+                Node[] newChildren = children.clone();
+                newChildren[index] = child;
+                return new Node(labels, newChildren, value);
+            }
+            int insertAt = -index - 1;
+            char[] newLabels = new char[labels.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(labels, 0, newLabels, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newLabels[insertAt] = c;
+            newChildren[insertAt] = child;
+            System.arraycopy(labels, insertAt, newLabels, insertAt + 1, labels.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            return new Node(newLabels, newChildren, value);
+        }
+
+        Node withoutChild(int index) {
+            char[] newLabels = new char[labels.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(labels, 0, newLabels, 0, index);
+            System.arraycopy(children, 0, newChildren, 0, index);
+            System.arraycopy(labels, index + 1, newLabels, index, labels.length - index - 1);
+            System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+            return new Node(newLabels, newChildren, value);
+        }
+    }
+}
@@ -6,7 +6,9 @@ import com.apex.firefighter.model.registration.SystemAccessRequest;
 import com.apex.firefighter.repository.UserRepository;
 import com.apex.firefighter.repository.SystemAccessRequestRepository;
 import com.apex.firefighter.service.DolibarrUserGroupService;
+import com.apex.firefighter.service.user.UserAuthorizationChangedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,16 +32,19 @@ public class RegistrationService {
     private final UserRepository userRepository;
     private final RegistrationNotificationService notificationService;
     private final DolibarrUserGroupService dolibarrUserGroupService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public RegistrationService(SystemAccessRequestRepository systemAccessRequestRepository,
                              UserRepository userRepository,
                              RegistrationNotificationService notificationService,
-                             DolibarrUserGroupService dolibarrUserGroupService) {
+                             DolibarrUserGroupService dolibarrUserGroupService,
+                             ApplicationEventPublisher eventPublisher) {
         this.systemAccessRequestRepository = systemAccessRequestRepository;
         this.userRepository = userRepository;
         this.notificationService = notificationService;
         this.dolibarrUserGroupService = dolibarrUserGroupService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -149,6 +154,7 @@ public class RegistrationService {
         user.setIsAuthorized(true); // NOW authorized!
 
         userRepository.save(user);
+        eventPublisher.publishEvent(UserAuthorizationChangedEvent.of(user));
         System.out.println("✅ USER AUTHORIZED: " + user.getUsername());
 
         // Update request status
@@ -0,0 +1,129 @@
+package com.apex.firefighter.service.ticket;
+
+import com.apex.firefighter.model.Ticket;
+import com.apex.firefighter.repository.TicketRepository;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes tickets as RFC 4180 CSV straight to a {@link Writer}.
+ *
+ * Records end with CRLF. Fields containing a comma, double quote, CR or LF are enclosed in
+ * double quotes with embedded quotes doubled; all other fields are written as they are, so
+ * descriptions and contacts keep their original punctuation. Nothing is buffered here beyond
+ * what the underlying writer does, so an export of any size needs constant memory.
+ */
+public class TicketCsvWriter {
+
+    public static final String HEADER = "TicketId,Description,Status,DateCreated,UserId,EmergencyType,EmergencyContact,Duration";
+
+    private static final String LINE_END = "\r\n";
+
+    private final Writer out;
+    private int rowCount;
+
+    public TicketCsvWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void writeHeader() throws IOException {
+        out.write(HEADER);
+        out.write(LINE_END);
+    }
+
+    public void writeRow(Ticket ticket) throws IOException {
+        writeRow(ticket.getTicketId(), ticket.getDescription(), ticket.getStatus(), ticket.getDateCreated(),
+            ticket.getUserId(), ticket.getEmergencyType(), ticket.getEmergencyContact(), ticket.getDuration());
+    }
+
+    public void writeRow(TicketRepository.TicketExportRow row) throws IOException {
+        writeRow(row.getTicketId(), row.getDescription(), row.getStatus(), row.getDateCreated(),
+            row.getUserId(), row.getEmergencyType(), row.getEmergencyContact(), row.getDuration());
+    }
+
+    /**
+     * Number of ticket rows written so far, excluding the header
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Number of ticket rows in CSV text written by this class (header excluded).
+     * Line breaks inside quoted fields do not start a new row.
+     */
+    public static int countRows(String csv) {
+        if (csv == null || csv.isEmpty()) {
+            return 0;
+        }
+        int records = 0;
+        boolean quoted = false;
+        for (int i = 0; i < csv.length(); i++) {
+            char c = csv.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == '\n' && !quoted) {
+                records++;
+            }
+        }
+        if (csv.charAt(csv.length() - 1) != '\n') {
+            records++;
+        }
+        return Math.max(0, records - 1);
+    }
+
+    private void writeRow(String ticketId, String description, String status, Object dateCreated, String userId,
+                          String emergencyType, String emergencyContact, Integer duration) throws IOException {
+        writeField(ticketId);
+        out.write(',');
+        writeField(description);
+        out.write(',');
+        writeField(status);
+        out.write(',');
+        writeField(dateCreated != null ? dateCreated.toString() : null);
+        out.write(',');
+        writeField(userId);
+        out.write(',');
+        writeField(emergencyType);
+        out.write(',');
+        writeField(emergencyContact);
+        out.write(',');
+        writeField(duration != null ? duration.toString() : null);
+        out.write(LINE_END);
+        rowCount++;
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        if (!needsQuoting(value)) {
+            out.write(value);
+            return;
+        }
+
+        out.write('"');
+        int start = 0;
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '"') {
+                // Write up to and including the quote, then double it
+                out.write(value, start, i + 1 - start);
+                out.write('"');
+                start = i + 1;
+            }
+        }
+        out.write(value, start, value.length() - start);
+        out.write('"');
+    }
+
+    private static boolean needsQuoting(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
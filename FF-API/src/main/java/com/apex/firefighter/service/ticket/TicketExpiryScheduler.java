@@ -0,0 +1,153 @@
+package com.apex.firefighter.service.ticket;
+
+import com.apex.firefighter.model.Ticket;
+import com.apex.firefighter.repository.TicketRepository;
+import com.apex.firefighter.service.ticket.TicketExpiryWheel.FiredTimer;
+import com.apex.firefighter.service.ticket.TicketExpiryWheel.TimerKind;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires ticket five-minute warnings and expiry closures on time using an in-memory
+ * {@link TicketExpiryWheel}.
+ *
+ * The wheel is seeded from the database once the application is ready and kept up to
+ * date by {@link TicketService} whenever a ticket is created, changes status or is
+ * revoked. A dedicated ticker thread advances the wheel once per tick and hands fired
+ * timers to a single worker thread, so slow notification or Dolibarr calls never delay
+ * the ticker. The periodic sweep in {@link TicketScheduledService} remains as a safety net
+ * for tickets changed outside this service.
+ */
+@Service
+public class TicketExpiryScheduler {
+
+    private final TicketRepository ticketRepository;
+    private final TicketScheduledService ticketScheduledService;
+    private final TicketExpiryWheel wheel;
+    private final ScheduledExecutorService ticker;
+    private final ExecutorService worker;
+
+    public TicketExpiryScheduler(TicketRepository ticketRepository,
+                                 TicketScheduledService ticketScheduledService,
+                                 @Value("${ticket.expiry.wheel.tick-millis:1000}") long tickMillis) {
+        this.ticketRepository = ticketRepository;
+        this.ticketScheduledService = ticketScheduledService;
+        this.wheel = new TicketExpiryWheel(tickMillis, System.currentTimeMillis());
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> daemon(r, "ticket-expiry-ticker"));
+        this.worker = Executors.newSingleThreadExecutor(r -> daemon(r, "ticket-expiry-worker"));
+    }
+
+    /**
+     * Seeds the wheel with every active ticket and starts the ticker
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            List<Ticket> activeTickets = ticketRepository.findActiveTicketsWithDuration();
+            for (Ticket ticket : activeTickets) {
+                schedule(ticket);
+            }
+            System.out.println("⏱️ EXPIRY WHEEL: Seeded " + wheel.size() + " timers from " + activeTickets.size() + " active tickets");
+        } catch (Exception e) {
+            System.err.println("❌ EXPIRY WHEEL: Failed to seed timers from database: " + e.getMessage());
+        }
+
+        long tickMillis = wheel.getTickMillis();
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+        worker.shutdownNow();
+    }
+
+    /**
+     * Schedules (or re-schedules) the warning and expiry timers for a ticket.
+     * Tickets that are no longer active have their timers cancelled.
+     *
+     * @param ticket The ticket to track
+     */
+    public void schedule(Ticket ticket) {
+        if (ticket == null || ticket.getId() == null) {
+            return;
+        }
+        if (ticket.getExpiresAt() == null) {
+            ticket.refreshExpiryTimes();
+        }
+        if (!"Active".equals(ticket.getStatus()) || ticket.getExpiresAt() == null) {
+            wheel.cancelAll(ticket.getId());
+            return;
+        }
+
+        wheel.schedule(ticket.getId(), TimerKind.EXPIRY, toEpochMillis(ticket.getExpiresAt()));
+        if (Boolean.TRUE.equals(ticket.getFiveMinuteWarningSent())) {
+            wheel.cancel(ticket.getId(), TimerKind.FIVE_MINUTE_WARNING);
+        } else {
+            wheel.schedule(ticket.getId(), TimerKind.FIVE_MINUTE_WARNING, toEpochMillis(ticket.getWarnAt()));
+        }
+    }
+
+    /**
+     * Cancels all pending timers for a ticket
+     *
+     * @param ticket The ticket to stop tracking
+     */
+    public void cancel(Ticket ticket) {
+        if (ticket != null && ticket.getId() != null) {
+            wheel.cancelAll(ticket.getId());
+        }
+    }
+
+    /**
+     * Number of timers currently pending in the wheel
+     */
+    public int getPendingTimerCount() {
+        return wheel.size();
+    }
+
+    void tick() {
+        try {
+            List<FiredTimer> fired = wheel.advance(System.currentTimeMillis());
+            for (FiredTimer timer : fired) {
+                worker.execute(() -> dispatch(timer));
+            }
+        } catch (Exception e) {
+            // Never let an exception cancel the fixed-rate ticker
+            System.err.println("❌ EXPIRY WHEEL: Tick failed: " + e.getMessage());
+        }
+    }
+
+    private void dispatch(FiredTimer timer) {
+        try {
+            if (timer.kind() == TimerKind.FIVE_MINUTE_WARNING) {
+                ticketScheduledService.processFiveMinuteWarning(timer.ticketId());
+            } else {
+                ticketScheduledService.processExpiredTicket(timer.ticketId());
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ EXPIRY WHEEL: Failed to process " + timer.kind() + " for ticket " + timer.ticketId() + ": " + e.getMessage());
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
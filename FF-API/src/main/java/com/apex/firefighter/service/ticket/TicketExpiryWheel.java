@@ -0,0 +1,254 @@
+package com.apex.firefighter.service.ticket;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel holding the five-minute warning and expiry deadlines
+ * of active tickets.
+ *
+ * The wheel has four levels of 64 slots. Level 0 covers the next 64 ticks, level 1
+ * the next 64^2 ticks and so on, so with a one second tick it spans roughly 194 days.
+ * Scheduling and cancelling a timer are O(1); advancing the wheel costs O(1) per tick
+ * plus O(1) per timer that fires or cascades down a level.
+ *
+ * The wheel keeps no clock of its own: callers pass the current time to
+ * {@link #advance(long)}, which makes it straightforward to drive from a scheduler
+ * thread in production and from a virtual clock in tests. All methods are synchronized;
+ * critical sections only touch in-memory linked lists.
+ */
+public class TicketExpiryWheel {
+
+    public enum TimerKind { FIVE_MINUTE_WARNING, EXPIRY }
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_TICKS = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private final long tickMillis;
+    private final Slot[][] levels = new Slot[LEVELS][SLOTS];
+    private final Map<Long, Timer[]> timersByTicket = new HashMap<>();
+
+    // Next tick that has not been processed yet
+    private long currentTick;
+    private int size;
+
+    public TicketExpiryWheel(long tickMillis, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.currentTick = startMillis / tickMillis;
+        for (int level = 0; level < LEVELS; level++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                levels[level][slot] = new Slot();
+            }
+        }
+    }
+
+    /**
+     * Schedules (or re-schedules) a timer for a ticket. Any existing timer of the same
+     * kind for the ticket is replaced.
+     *
+     * @param ticketId The database ID of the ticket
+     * @param kind Which deadline this timer represents
+     * @param deadlineMillis Epoch millis at which the timer should fire
+     */
+    public synchronized void schedule(Long ticketId, TimerKind kind, long deadlineMillis) {
+        Timer[] timers = timersByTicket.computeIfAbsent(ticketId, id -> new Timer[TimerKind.values().length]);
+        Timer existing = timers[kind.ordinal()];
+        if (existing != null) {
+            existing.unlink();
+            size--;
+        }
+
+        Timer timer = new Timer(ticketId, kind, deadlineMillis, ceilTick(deadlineMillis));
+        timers[kind.ordinal()] = timer;
+        insert(timer);
+        size++;
+    }
+
+    /**
+     * Cancels a single timer for a ticket, if present
+     */
+    public synchronized void cancel(Long ticketId, TimerKind kind) {
+        Timer[] timers = timersByTicket.get(ticketId);
+        if (timers == null || timers[kind.ordinal()] == null) {
+            return;
+        }
+        timers[kind.ordinal()].unlink();
+        timers[kind.ordinal()] = null;
+        size--;
+        if (timers[0] == null && timers[1] == null) {
+            timersByTicket.remove(ticketId);
+        }
+    }
+
+    /**
+     * Cancels every timer for a ticket, if any
+     */
+    public synchronized void cancelAll(Long ticketId) {
+        Timer[] timers = timersByTicket.remove(ticketId);
+        if (timers == null) {
+            return;
+        }
+        for (Timer timer : timers) {
+            if (timer != null) {
+                timer.unlink();
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Advances the wheel up to the given time and returns every timer whose deadline
+     * has been reached, in deadline tick order. Fired timers are removed from the wheel.
+     *
+     * @param nowMillis The current epoch millis
+     * @return The timers that fired during this advance
+     */
+    public synchronized List<FiredTimer> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<FiredTimer> fired = null;
+
+        while (currentTick <= targetTick) {
+            int index = (int) (currentTick & SLOT_MASK);
+            if (index == 0) {
+                cascade(1);
+            }
+            long firingTick = currentTick;
+            currentTick++;
+
+            Slot slot = levels[0][index];
+            while (slot.head.next != slot.head) {
+                Timer timer = slot.head.next;
+                timer.unlink();
+                size--;
+                forget(timer);
+                if (fired == null) {
+                    fired = new ArrayList<>();
+                }
+                fired.add(new FiredTimer(timer.ticketId, timer.kind, timer.deadlineMillis, firingTick * tickMillis));
+            }
+        }
+        return fired != null ? fired : List.of();
+    }
+
+    /**
+     * Number of pending timers
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    private void cascade(int level) {
+        if (level >= LEVELS) {
+            return;
+        }
+        int index = (int) ((currentTick >> (SLOT_BITS * level)) & SLOT_MASK);
+        if (index == 0) {
+            cascade(level + 1);
+        }
+        Slot slot = levels[level][index];
+        Timer timer = slot.head.next;
+        while (timer != slot.head) {
+            Timer next = timer.next;
+            timer.unlink();
+            insert(timer);
+            timer = next;
+        }
+    }
+
+    private void insert(Timer timer) {
+        long expires = timer.deadlineTick;
+        long delta = expires - currentTick;
+        Slot slot;
+
+        if (delta < 0) {
+            // Already due: fire on the next processed tick
+            slot = levels[0][(int) (currentTick & SLOT_MASK)];
+        } else if (delta < SLOTS) {
+            slot = levels[0][(int) (expires & SLOT_MASK)];
+        } else {
+            if (delta > MAX_TICKS) {
+                // Beyond the wheel's range: park in the top level and re-insert on cascade
+                expires = currentTick + MAX_TICKS;
+                delta = MAX_TICKS;
+            }
+            int level = 1;
+            while (level < LEVELS - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+                level++;
+            }
+            slot = levels[level][(int) ((expires >> (SLOT_BITS * level)) & SLOT_MASK)];
+        }
+        slot.append(timer);
+    }
+
+    private void forget(Timer timer) {
+        Timer[] timers = timersByTicket.get(timer.ticketId);
+        if (timers != null && timers[timer.kind.ordinal()] == timer) {
+            timers[timer.kind.ordinal()] = null;
+            if (timers[0] == null && timers[1] == null) {
+                timersByTicket.remove(timer.ticketId);
+            }
+        }
+    }
+
+    private long ceilTick(long millis) {
+        return Math.floorDiv(millis + tickMillis - 1, tickMillis);
+    }
+
+    /**
+     * A timer that has fired, with both its requested deadline and the tick time it fired on
+     */
+    public record FiredTimer(Long ticketId, TimerKind kind, long deadlineMillis, long firedAtMillis) {}
+
+    private static final class Slot {
+        private final Timer head = new Timer(null, null, 0, 0);
+
+        Slot() {
+            head.next = head;
+            head.prev = head;
+        }
+
+        void append(Timer timer) {
+            timer.prev = head.prev;
+            timer.next = head;
+            head.prev.next = timer;
+            head.prev = timer;
+        }
+    }
+
+    private static final class Timer {
+        private final Long ticketId;
+        private final TimerKind kind;
+        private final long deadlineMillis;
+        private final long deadlineTick;
+        private Timer prev;
+        private Timer next;
+
+        Timer(Long ticketId, TimerKind kind, long deadlineMillis, long deadlineTick) {
+            this.ticketId = ticketId;
+            this.kind = kind;
+            this.deadlineMillis = deadlineMillis;
+            this.deadlineTick = deadlineTick;
+        }
+
+        void unlink() {
+            if (prev != null) {
+                prev.next = next;
+                next.prev = prev;
+                prev = null;
+                next = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.apex.firefighter.service.ticket;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * A finished ticket CSV export in a temporary file, optionally gzip-compressed.
+ * Closing the export deletes the file.
+ */
+public class TicketExport implements AutoCloseable {
+
+    private static final String FILENAME = "firefighter_tickets_export.csv";
+
+    private final Path file;
+    private final int ticketCount;
+    private final long sizeBytes;
+    private final boolean compressed;
+
+    public TicketExport(Path file, int ticketCount, long sizeBytes, boolean compressed) {
+        this.file = file;
+        this.ticketCount = ticketCount;
+        this.sizeBytes = sizeBytes;
+        this.compressed = compressed;
+    }
+
+    /**
+     * Attachment file name, with .gz appended when compressed
+     */
+    public String getFilename() {
+        return compressed ? FILENAME + ".gz" : FILENAME;
+    }
+
+    public String getContentType() {
+        return compressed ? "application/gzip" : "text/csv";
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            System.err.println("⚠️ TICKET EXPORT: Failed to delete export file " + file + ": " + e.getMessage());
+        }
+    }
+
+    public Path getFile() { return file; }
+    public int getTicketCount() { return ticketCount; }
+    public long getSizeBytes() { return sizeBytes; }
+    public boolean isCompressed() { return compressed; }
+}
@@ -0,0 +1,151 @@
+package com.apex.firefighter.service.ticket;
+
+import com.apex.firefighter.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A ticket CSV export running in the background for POST /api/tickets/admin/export.
+ *
+ * Progress fields are written by the worker thread and read by status requests, so they are
+ * volatile. Email recipients can be added while the export is queued or running (when an
+ * identical export is requested again); once the worker starts sending, the list is closed.
+ */
+public class TicketExportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    /**
+     * Identifies exports that produce the same file, for deduplication
+     */
+    public record Key(LocalDateTime createdFrom, LocalDateTime createdBefore, boolean compress) { }
+
+    /**
+     * A user to email the finished export to
+     */
+    public record EmailRecipient(String email, User user) { }
+
+    private final String jobId;
+    private final Key key;
+    private final String requestedBy;
+    private final LocalDateTime submittedAt;
+
+    private final List<EmailRecipient> emailRecipients = new ArrayList<>();
+    private boolean emailRecipientsClosed;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long totalTickets = -1;
+    private volatile int ticketsWritten;
+    private volatile TicketExport export;
+    private volatile String error;
+    private volatile String emailError;
+    private volatile LocalDateTime finishedAt;
+
+    public TicketExportJob(String jobId, Key key, String requestedBy, LocalDateTime submittedAt) {
+        this.jobId = jobId;
+        this.key = key;
+        this.requestedBy = requestedBy;
+        this.submittedAt = submittedAt;
+    }
+
+    /**
+     * Joins another request to this job if it has not finished yet
+     *
+     * @param recipient Who to email the export to, or null for download only
+     * @return false if the job has finished, or emails are already being sent and the recipient would be missed
+     */
+    public synchronized boolean join(EmailRecipient recipient) {
+        if (isFinished()) {
+            return false;
+        }
+        if (recipient == null) {
+            return true;
+        }
+        if (emailRecipientsClosed) {
+            return false;
+        }
+        emailRecipients.add(recipient);
+        return true;
+    }
+
+    /**
+     * Stops accepting email recipients and returns the ones collected so far
+     */
+    public synchronized List<EmailRecipient> closeEmailRecipients() {
+        emailRecipientsClosed = true;
+        return List.copyOf(emailRecipients);
+    }
+
+    public synchronized int getEmailRecipientCount() {
+        return emailRecipients.size();
+    }
+
+    void markRunning(long totalTickets) {
+        this.totalTickets = totalTickets;
+        this.status = Status.RUNNING;
+    }
+
+    void markCompleted(TicketExport export, LocalDateTime finishedAt) {
+        this.export = export;
+        this.ticketsWritten = export.getTicketCount();
+        this.finishedAt = finishedAt;
+        this.status = Status.COMPLETED;
+    }
+
+    void markFailed(String error, LocalDateTime finishedAt) {
+        this.error = error;
+        this.finishedAt = finishedAt;
+        this.status = Status.FAILED;
+    }
+
+    void setTicketsWritten(int ticketsWritten) {
+        this.ticketsWritten = ticketsWritten;
+    }
+
+    void setEmailError(String emailError) {
+        this.emailError = emailError;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    /**
+     * Percentage of tickets written, or null while the total is not known yet
+     */
+    public Integer getProgressPercent() {
+        if (status == Status.COMPLETED) {
+            return 100;
+        }
+        long total = totalTickets;
+        if (total < 0) {
+            return null;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        return (int) Math.min(99, ticketsWritten * 100L / total);
+    }
+
+    /**
+     * Size of the finished file in bytes, or null while the export is not complete
+     */
+    public Long getSizeBytes() {
+        TicketExport finished = export;
+        return finished != null ? finished.getSizeBytes() : null;
+    }
+
+    public String getJobId() { return jobId; }
+    public Key getKey() { return key; }
+    public String getRequestedBy() { return requestedBy; }
+    public LocalDateTime getSubmittedAt() { return submittedAt; }
+    public Status getStatus() { return status; }
+    public long getTotalTickets() { return totalTickets; }
+    public int getTicketsWritten() { return ticketsWritten; }
+    public TicketExport getExport() { return export; }
+    public String getError() { return error; }
+    public String getEmailError() { return emailError; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+}
@@ -0,0 +1,179 @@
+package com.apex.firefighter.service.ticket;
+
+import com.apex.firefighter.model.User;
+import com.apex.firefighter.repository.TicketRepository;
+import com.apex.firefighter.service.GmailEmailService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs ticket CSV exports in the background so POST /api/tickets/admin/export returns straight away.
+ *
+ * Exports are written by a small, bounded worker pool; when every worker is busy and the queue is
+ * full, new exports are rejected instead of piling up. An export that matches one already queued or
+ * running (same date range and compression) joins that job rather than reading the tickets twice.
+ * Finished files stay available for download for tickets.export.retention-millis and are then deleted.
+ */
+@Service
+public class TicketExportJobService {
+
+    private final TicketExportService ticketExportService;
+    private final TicketRepository ticketRepository;
+    private final GmailEmailService gmailEmailService;
+    private final long retentionMillis;
+    private final ThreadPoolExecutor workers;
+
+    private final Map<String, TicketExportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<TicketExportJob.Key, TicketExportJob> activeJobs = new ConcurrentHashMap<>();
+
+    public TicketExportJobService(TicketExportService ticketExportService,
+                                  TicketRepository ticketRepository,
+                                  GmailEmailService gmailEmailService,
+                                  @Value("${tickets.export.workers:2}") int workerCount,
+                                  @Value("${tickets.export.queue-capacity:20}") int queueCapacity,
+                                  @Value("${tickets.export.retention-millis:3600000}") long retentionMillis) {
+        this.ticketExportService = ticketExportService;
+        this.ticketRepository = ticketRepository;
+        this.gmailEmailService = gmailEmailService;
+        this.retentionMillis = retentionMillis;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                Thread thread = new Thread(runnable, "ticket-export-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+        for (TicketExportJob job : jobs.values()) {
+            closeExport(job);
+        }
+        jobs.clear();
+    }
+
+    /**
+     * Starts an export, or joins an identical export that is already queued or running
+     *
+     * @param createdFrom   Inclusive lower bound, or null for no lower bound
+     * @param createdBefore Exclusive upper bound, or null for no upper bound
+     * @param compress      Whether to gzip the CSV
+     * @param requestedBy   User ID of the admin requesting the export
+     * @param emailTo       Address to email the finished export to, or null for download only
+     * @param user          The requesting admin, used to personalise the email
+     * @return The job to poll for status and download
+     * @throws RejectedExecutionException if the export queue is full
+     */
+    public TicketExportJob submit(LocalDateTime createdFrom, LocalDateTime createdBefore, boolean compress,
+                                  String requestedBy, String emailTo, User user) {
+        TicketExportJob.Key key = new TicketExportJob.Key(createdFrom, createdBefore, compress);
+        TicketExportJob.EmailRecipient recipient = emailTo != null ? new TicketExportJob.EmailRecipient(emailTo, user) : null;
+
+        synchronized (activeJobs) {
+            TicketExportJob running = activeJobs.get(key);
+            if (running != null && running.join(recipient)) {
+                System.out.println("📦 TICKET EXPORT: Request by " + requestedBy + " joined running export " + running.getJobId());
+                return running;
+            }
+
+            TicketExportJob job = new TicketExportJob(UUID.randomUUID().toString(), key, requestedBy, LocalDateTime.now());
+            job.join(recipient);
+            // Register before executing so a fast worker cannot finish before the job is known
+            jobs.put(job.getJobId(), job);
+            activeJobs.put(key, job);
+            try {
+                workers.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.getJobId());
+                activeJobs.remove(key, job);
+                System.err.println("⚠️ TICKET EXPORT: Export queue is full, rejected export for " + requestedBy);
+                throw e;
+            }
+            System.out.println("📦 TICKET EXPORT: Queued export " + job.getJobId() + " for " + requestedBy);
+            return job;
+        }
+    }
+
+    /**
+     * Looks up an export job by ID
+     *
+     * @return The job, or null if it does not exist or has expired
+     */
+    public TicketExportJob getJob(String jobId) {
+        return jobs.get(jobId);
+    }
+
+    /**
+     * Deletes finished exports older than the retention period
+     */
+    @Scheduled(fixedDelayString = "${tickets.export.cleanup-interval-millis:300000}")
+    public void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(retentionMillis * 1_000_000L);
+        List<TicketExportJob> expired = new ArrayList<>();
+        for (TicketExportJob job : jobs.values()) {
+            if (job.isFinished() && !job.getFinishedAt().isAfter(cutoff)) {
+                expired.add(job);
+            }
+        }
+        for (TicketExportJob job : expired) {
+            jobs.remove(job.getJobId());
+            closeExport(job);
+        }
+        if (!expired.isEmpty()) {
+            System.out.println("🧹 TICKET EXPORT: Removed " + expired.size() + " expired export(s)");
+        }
+    }
+
+    private void run(TicketExportJob job) {
+        TicketExportJob.Key key = job.getKey();
+        try {
+            job.markRunning(ticketRepository.countCreatedBetween(key.createdFrom(), key.createdBefore()));
+            TicketExport export = ticketExportService.exportToFile(key.createdFrom(), key.createdBefore(),
+                key.compress(), job::setTicketsWritten);
+
+            for (TicketExportJob.EmailRecipient recipient : job.closeEmailRecipients()) {
+                try {
+                    gmailEmailService.sendTicketsExport(recipient.email(), export, recipient.user());
+                } catch (Exception e) {
+                    System.err.println("❌ TICKET EXPORT: Failed to email export " + job.getJobId()
+                        + " to " + recipient.email() + ": " + e.getMessage());
+                    job.setEmailError("Failed to send email to " + recipient.email() + ": " + e.getMessage());
+                }
+            }
+
+            job.markCompleted(export, LocalDateTime.now());
+            System.out.println("✅ TICKET EXPORT: Export " + job.getJobId() + " completed with "
+                + export.getTicketCount() + " ticket(s), " + export.getSizeBytes() + " bytes");
+        } catch (Exception e) {
+            System.err.println("❌ TICKET EXPORT: Export " + job.getJobId() + " failed: " + e.getMessage());
+            job.closeEmailRecipients();
+            job.markFailed(e.getMessage(), LocalDateTime.now());
+        } finally {
+            activeJobs.remove(key, job);
+        }
+    }
+
+    private static void closeExport(TicketExportJob job) {
+        TicketExport export = job.getExport();
+        if (export != null) {
+            export.close();
+        }
+    }
+}
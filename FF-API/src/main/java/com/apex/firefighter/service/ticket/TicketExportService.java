@@ -0,0 +1,112 @@
+package com.apex.firefighter.service.ticket;
+
+import com.apex.firefighter.repository.TicketRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes ticket CSV exports for POST /api/tickets/admin/export and the chatbot's EXPORT_DATA query.
+ *
+ * Tickets are streamed from the database through a cursor and written row by row to a temporary
+ * file, optionally gzip-compressed, so neither the ticket list nor the CSV text is ever held in
+ * memory. The resulting {@link TicketExport} is attached to the email from the file and deleted
+ * when closed.
+ */
+@Service
+public class TicketExportService {
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final TicketRepository ticketRepository;
+    private final boolean compressByDefault;
+
+    public TicketExportService(TicketRepository ticketRepository,
+                               @Value("${tickets.export.compress:false}") boolean compressByDefault) {
+        this.ticketRepository = ticketRepository;
+        this.compressByDefault = compressByDefault;
+    }
+
+    /**
+     * Exports the tickets created in [createdFrom, createdBefore), newest first
+     *
+     * @param createdFrom   Inclusive lower bound, or null for no lower bound
+     * @param createdBefore Exclusive upper bound, or null for no upper bound
+     * @param compress      Whether to gzip the CSV
+     * @return The export; the caller must close it to delete the temporary file
+     */
+    @Transactional(readOnly = true)
+    public TicketExport exportToFile(LocalDateTime createdFrom, LocalDateTime createdBefore, boolean compress) throws IOException {
+        return writeExport(createdFrom, createdBefore, compress, null);
+    }
+
+    /**
+     * Exports the tickets created in [createdFrom, createdBefore), newest first, reporting progress
+     * after every row
+     *
+     * @param createdFrom   Inclusive lower bound, or null for no lower bound
+     * @param createdBefore Exclusive upper bound, or null for no upper bound
+     * @param compress      Whether to gzip the CSV
+     * @param onRowWritten  Receives the number of rows written so far
+     * @return The export; the caller must close it to delete the temporary file
+     */
+    @Transactional(readOnly = true)
+    public TicketExport exportToFile(LocalDateTime createdFrom, LocalDateTime createdBefore, boolean compress,
+                                     IntConsumer onRowWritten) throws IOException {
+        return writeExport(createdFrom, createdBefore, compress, onRowWritten);
+    }
+
+    /**
+     * Whether exports are gzip-compressed unless the caller asks otherwise (tickets.export.compress)
+     */
+    public boolean isCompressByDefault() {
+        return compressByDefault;
+    }
+
+    private TicketExport writeExport(LocalDateTime createdFrom, LocalDateTime createdBefore, boolean compress,
+                                     IntConsumer onRowWritten) throws IOException {
+        Path file = Files.createTempFile("ticket-export-", compress ? ".csv.gz" : ".csv");
+        try {
+            int ticketCount;
+            try (Stream<TicketRepository.TicketExportRow> rows = ticketRepository.streamExportRows(createdFrom, createdBefore);
+                 Writer writer = openWriter(file, compress)) {
+                TicketCsvWriter csv = new TicketCsvWriter(writer);
+                csv.writeHeader();
+                Iterator<TicketRepository.TicketExportRow> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    csv.writeRow(iterator.next());
+                    if (onRowWritten != null) {
+                        onRowWritten.accept(csv.getRowCount());
+                    }
+                }
+                ticketCount = csv.getRowCount();
+            }
+            return new TicketExport(file, ticketCount, Files.size(file), compress);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    private static Writer openWriter(Path file, boolean compress) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        if (compress) {
+            out = new GZIPOutputStream(out, WRITE_BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+    }
+}
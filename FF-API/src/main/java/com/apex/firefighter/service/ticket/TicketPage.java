@@ -0,0 +1,23 @@
+package com.apex.firefighter.service.ticket;
+
+import com.apex.firefighter.model.Ticket;
+
+import java.util.List;
+
+/**
+ * One page of a TicketQuery, with the cursor of the next page if there is one
+ */
+public class TicketPage {
+
+    private final List<Ticket> tickets;
+    private final String nextCursor;
+
+    public TicketPage(List<Ticket> tickets, String nextCursor) {
+        this.tickets = tickets;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<Ticket> getTickets() { return tickets; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean hasMore() { return nextCursor != null; }
+}
@@ -0,0 +1,149 @@
+package com.apex.firefighter.service.ticket;
+
+import com.apex.firefighter.model.Ticket;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Filter, limit and keyset position of a ticket listing, turned into a single SQL query by TicketService.findTickets.
+ *
+ * Results are ordered newest first by (date_created, id). Instead of an offset, the next page starts after
+ * the last ticket of the previous one (the cursor), so deep pages cost the same as the first and
+ * tickets created meanwhile do not shift the pages. Unset fields do not filter.
+ */
+public class TicketQuery {
+
+    public static final int MAX_LIMIT = 500;
+
+    public static final Sort SORT = Sort.by(Sort.Order.desc("dateCreated"), Sort.Order.desc("id"));
+
+    private Set<String> statuses = new LinkedHashSet<>();
+    private String userId;
+    private String emergencyType;
+    private String ticketId;
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdBefore;
+    private Integer limit;
+    private LocalDateTime afterDateCreated;
+    private Long afterId;
+
+    public TicketQuery() {}
+
+    /**
+     * The WHERE clause: equality on status, user and ticket ID (indexed), case-insensitive emergency type,
+     * a half-open creation date range and the keyset condition
+     */
+    public Specification<Ticket> toSpecification() {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (!statuses.isEmpty()) {
+                predicates.add(statuses.size() == 1
+                    ? cb.equal(root.get("status"), statuses.iterator().next())
+                    : root.get("status").in(statuses));
+            }
+            if (userId != null) {
+                predicates.add(cb.equal(root.get("userId"), userId));
+            }
+            if (ticketId != null) {
+                predicates.add(cb.equal(root.get("ticketId"), ticketId));
+            }
+            if (emergencyType != null) {
+                predicates.add(cb.equal(cb.lower(root.get("emergencyType")), emergencyType.toLowerCase()));
+            }
+            if (createdFrom != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dateCreated"), createdFrom));
+            }
+            if (createdBefore != null) {
+                predicates.add(cb.lessThan(root.get("dateCreated"), createdBefore));
+            }
+            if (afterDateCreated != null && afterId != null) {
+                predicates.add(cb.or(
+                    cb.lessThan(root.get("dateCreated"), afterDateCreated),
+                    cb.and(cb.equal(root.get("dateCreated"), afterDateCreated), cb.lessThan(root.get("id"), afterId))));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Continue after the given ticket, which must be the last one of the previous page
+     */
+    public void setAfter(Ticket last) {
+        this.afterDateCreated = last.getDateCreated();
+        this.afterId = last.getId();
+    }
+
+    /**
+     * Continue after the position encoded by encodeCursor
+     *
+     * @throws IllegalArgumentException if the cursor is malformed
+     */
+    public void setCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            this.afterDateCreated = null;
+            this.afterId = null;
+            return;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            this.afterDateCreated = LocalDateTime.parse(decoded.substring(0, separator));
+            this.afterId = Long.parseLong(decoded.substring(separator + 1));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid ticket cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Opaque cursor for the page that follows the given ticket, or null if it cannot be positioned
+     */
+    public static String encodeCursor(Ticket last) {
+        if (last.getDateCreated() == null || last.getId() == null) {
+            return null;
+        }
+        String position = last.getDateCreated() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Getters and Setters
+    public Set<String> getStatuses() { return statuses; }
+    public void setStatuses(String... statuses) {
+        this.statuses = new LinkedHashSet<>(List.of(statuses));
+    }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getEmergencyType() { return emergencyType; }
+    public void setEmergencyType(String emergencyType) { this.emergencyType = emergencyType; }
+
+    public String getTicketId() { return ticketId; }
+    public void setTicketId(String ticketId) { this.ticketId = ticketId; }
+
+    public LocalDateTime getCreatedFrom() { return createdFrom; }
+    public void setCreatedFrom(LocalDateTime createdFrom) { this.createdFrom = createdFrom; }
+
+    public LocalDateTime getCreatedBefore() { return createdBefore; }
+    public void setCreatedBefore(LocalDateTime createdBefore) { this.createdBefore = createdBefore; }
+
+    /**
+     * Maximum number of tickets per page, capped at MAX_LIMIT; null for no limit
+     */
+    public Integer getLimit() { return limit; }
+    public void setLimit(Integer limit) {
+        this.limit = limit == null ? null : Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    public LocalDateTime getAfterDateCreated() { return afterDateCreated; }
+    public Long getAfterId() { return afterId; }
+}
@@ -5,7 +5,9 @@ import com.apex.firefighter.model.User;
 import com.apex.firefighter.repository.TicketRepository;
 import com.apex.firefighter.repository.UserRepository;
 import com.apex.firefighter.service.NotificationService;
-import com.apex.firefighter.service.DolibarrUserGroupService;
+import com.apex.firefighter.service.DolibarrSyncQueue;
+import com.apex.firefighter.service.nlp.NLPResultCache;
+import com.apex.firefighter.service.ticket.TicketStatisticsCounters.Contribution;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
@@ -13,33 +15,44 @@ import org.springframework.transaction.annotation.Transactional;
 import jakarta.annotation.PostConstruct;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class TicketScheduledService {
 
     private final TicketRepository ticketRepository;
     private final NotificationService notificationService;
-    private final DolibarrUserGroupService dolibarrUserGroupService;
+    private final DolibarrSyncQueue dolibarrSyncQueue;
     private final UserRepository userRepository;
+    private final NLPResultCache nlpResultCache;
+    private final TicketStatisticsService ticketStatisticsService;
 
     @Autowired
-    public TicketScheduledService(TicketRepository ticketRepository, NotificationService notificationService, DolibarrUserGroupService dolibarrUserGroupService, UserRepository userRepository) {
+    public TicketScheduledService(TicketRepository ticketRepository, NotificationService notificationService, DolibarrSyncQueue dolibarrSyncQueue, UserRepository userRepository, NLPResultCache nlpResultCache, TicketStatisticsService ticketStatisticsService) {
         this.ticketRepository = ticketRepository;
         this.notificationService = notificationService;
-        this.dolibarrUserGroupService = dolibarrUserGroupService;
+        this.dolibarrSyncQueue = dolibarrSyncQueue;
         this.userRepository = userRepository;
+        this.nlpResultCache = nlpResultCache;
+        this.ticketStatisticsService = ticketStatisticsService;
     }
 
     @PostConstruct
     public void runStartupCheck() {
         System.out.println("🚀 STARTUP CHECK: Running expired ticket check at application startup...");
+        backfillExpiryTimes();
         sendFiveMinuteWarnings();
         closeExpiredTickets();
     }
 
-    @Scheduled(cron = "0 */2 * * * *") // Run every 2 minutes
+    // Warnings and closures normally fire on time from TicketExpiryScheduler;
+    // this sweep is a safety net for tickets changed outside TicketService
+    @Scheduled(cron = "0 */10 * * * *") // Run every 10 minutes
     @Transactional
     public void scheduledTicketCheck() {
         try {
@@ -51,46 +64,37 @@ public class TicketScheduledService {
         }
     }
 
+    /**
+     * Populates expires_at and warn_at for active tickets created before those columns existed,
+     * so the indexed sweeps below can see them.
+     */
+    @Transactional
+    public void backfillExpiryTimes() {
+        try {
+            List<Ticket> ticketsMissingExpiry = ticketRepository.findActiveTicketsMissingExpiry();
+            if (ticketsMissingExpiry.isEmpty()) {
+                return;
+            }
+            ticketsMissingExpiry.forEach(Ticket::refreshExpiryTimes);
+            ticketRepository.saveAll(ticketsMissingExpiry);
+            System.out.println("Backfilled expiry times for " + ticketsMissingExpiry.size() + " active tickets");
+        } catch (Exception e) {
+            System.err.println("Error backfilling ticket expiry times: " + e.getMessage());
+        }
+    }
+
     @Transactional
     public void sendFiveMinuteWarnings() {
         System.out.println("Checking for tickets needing 5-minute warnings at " + LocalDateTime.now());
 
         try {
-            List<Ticket> activeTicketsWithDuration = ticketRepository.findActiveTicketsWithDuration();
+            // Only tickets inside their warning window that have not been warned are returned
+            List<Ticket> ticketsDueForWarning = ticketRepository.findActiveTicketsDueForWarning(LocalDateTime.now());
 
             int warningsSent = 0;
-            LocalDateTime currentTime = LocalDateTime.now();
-
-            for (Ticket ticket : activeTicketsWithDuration) {
-                // Skip if warning already sent
-                if (ticket.getFiveMinuteWarningSent() != null && ticket.getFiveMinuteWarningSent()) {
-                    continue;
-                }
-
-                // Use default duration of 60 minutes if duration is null
-                int durationMinutes = ticket.getDuration() != null ? ticket.getDuration() : 60;
-                LocalDateTime expirationTime = ticket.getDateCreated().plusMinutes(durationMinutes);
-                LocalDateTime warningTime = expirationTime.minusMinutes(5);
-
-                // Check if current time is at or past the warning time but before expiration
-                if (currentTime.isAfter(warningTime) && currentTime.isBefore(expirationTime)) {
-                    // Send 5-minute warning notification (with email support)
-                    try {
-                        notificationService.createFiveMinuteWarningNotification(
-                            ticket.getUserId(),
-                            ticket.getTicketId(),
-                            ticket
-                        );
-
-                        // Mark warning as sent
-                        ticket.setFiveMinuteWarningSent(true);
-                        ticketRepository.save(ticket);
-
-                        warningsSent++;
-                        System.out.println("🔔 5-MINUTE WARNING SENT: Notification sent to user " + ticket.getUserId() + " for ticket " + ticket.getTicketId());
-                    } catch (Exception e) {
-                        System.err.println("⚠️ WARNING NOTIFICATION FAILED: Could not send 5-minute warning for ticket " + ticket.getTicketId() + ": " + e.getMessage());
-                    }
+            for (Ticket ticket : ticketsDueForWarning) {
+                if (sendFiveMinuteWarning(ticket)) {
+                    warningsSent++;
                 }
             }
 
@@ -109,54 +113,27 @@ public class TicketScheduledService {
         System.out.println("Checking for expired tickets at " + LocalDateTime.now());
         
         try {
-            List<Ticket> activeTicketsWithDuration = ticketRepository.findActiveTicketsWithDuration();
-            
-            int closedCount = 0;
             LocalDateTime currentTime = LocalDateTime.now();
-            
-            for (Ticket ticket : activeTicketsWithDuration) {
-                // Use default duration of 60 minutes if duration is null
-                int durationMinutes = ticket.getDuration() != null ? ticket.getDuration() : 60;
-                LocalDateTime expirationTime = ticket.getDateCreated().plusMinutes(durationMinutes);
-                
-                if (currentTime.isAfter(expirationTime)) {
-                    ticket.setStatus("Closed");
-                    ticket.setDateCompleted(currentTime);
-                    ticketRepository.save(ticket);
-
-                    // Create notification for ticket completion (with email support)
-                    try {
-                        notificationService.createTicketCompletionNotification(
-                            ticket.getUserId(),
-                            ticket.getTicketId(),
-                            ticket
-                        );
-                        System.out.println("🔔 NOTIFICATION CREATED: Ticket completion notification sent to user " + ticket.getUserId());
-                    } catch (Exception e) {
-                        System.err.println("⚠️ NOTIFICATION FAILED: Could not create ticket completion notification: " + e.getMessage());
-                    }
-
-                    // Remove user from firefighter group when ticket is automatically closed
-                    try {
-                        Optional<User> user = userRepository.findById(ticket.getUserId());
-                        if (user.isPresent()) {
-                            // Use emergency type for group allocation if available, otherwise fall back to description
-                            String allocationText = (ticket.getEmergencyType() != null && !ticket.getEmergencyType().isEmpty())
-                                ? ticket.getEmergencyType() + " " + ticket.getDescription()
-                                : ticket.getDescription();
-                            dolibarrUserGroupService.removeUserFromGroup(user.get().getDolibarrId(), allocationText);
-                            System.out.println("✅ AUTO-CLOSE: Successfully removed user " + ticket.getUserId() + " from firefighter group for ticket: " + ticket.getTicketId());
-                        } else {
-                            System.err.println("⚠️ AUTO-CLOSE: User not found with ID: " + ticket.getUserId());
-                        }
-                    } catch (Exception e) {
-                        System.err.println("⚠️ AUTO-CLOSE: Failed to remove user from firefighter group for ticket: " + ticket.getTicketId() + " - " + e.getMessage());
-                    }
-
-                    closedCount++;
-                    System.out.println("Closed expired ticket: " + ticket.getTicketId());
-                }
+            List<Ticket> expiredTickets = ticketRepository.findActiveTicketsExpiredBefore(currentTime);
+            if (expiredTickets.isEmpty()) {
+                return;
             }
+
+            // The fetched rows stay locked until this transaction commits, so the expiry timer cannot close
+            // them in between: the statement closes exactly these tickets, and only they get the side effects
+            List<Long> ids = expiredTickets.stream().map(Ticket::getId).collect(Collectors.toList());
+            int closedCount = ticketRepository.closeActiveTicketsById(ids, currentTime);
+            nlpResultCache.invalidateResults();
+
+            for (Ticket ticket : expiredTickets) {
+                Contribution before = Contribution.of(ticket);
+                ticket.setStatus("Closed");
+                ticket.setDateCompleted(currentTime);
+                ticketStatisticsService.recordChanged(before, ticket);
+                notifyTicketClosed(ticket);
+            }
+
+            removeUsersFromFirefighterGroups(expiredTickets);
             
             if (closedCount > 0) {
                 System.out.println("Closed " + closedCount + " expired tickets");
@@ -167,4 +144,163 @@ public class TicketScheduledService {
             // Log error but don't re-throw to allow graceful handling
         }
     }
+
+    /**
+     * Sends the five-minute warning for a single ticket when its warning timer fires.
+     * The ticket is re-read and locked so that tickets closed, revoked or already warned
+     * (including by the sweep) since the timer was scheduled are skipped.
+     *
+     * @param ticketId The database ID of the ticket
+     */
+    @Transactional
+    public void processFiveMinuteWarning(Long ticketId) {
+        Optional<Ticket> ticketOpt = ticketRepository.findByIdForUpdate(ticketId);
+        if (ticketOpt.isEmpty()) {
+            return;
+        }
+
+        Ticket ticket = ticketOpt.get();
+        if (!"Active".equals(ticket.getStatus()) || Boolean.TRUE.equals(ticket.getFiveMinuteWarningSent())) {
+            return;
+        }
+
+        LocalDateTime currentTime = LocalDateTime.now();
+        LocalDateTime expirationTime = getExpirationTime(ticket);
+        if (currentTime.isBefore(ticket.getWarnAt()) || !currentTime.isBefore(expirationTime)) {
+            return;
+        }
+
+        sendFiveMinuteWarning(ticket);
+    }
+
+    /**
+     * Closes a single ticket when its expiry timer fires.
+     * The ticket is re-read and locked so that tickets already closed (including by the
+     * sweep) or extended are skipped.
+     *
+     * @param ticketId The database ID of the ticket
+     */
+    @Transactional
+    public void processExpiredTicket(Long ticketId) {
+        Optional<Ticket> ticketOpt = ticketRepository.findByIdForUpdate(ticketId);
+        if (ticketOpt.isEmpty()) {
+            return;
+        }
+
+        Ticket ticket = ticketOpt.get();
+        if (!"Active".equals(ticket.getStatus())) {
+            return;
+        }
+
+        LocalDateTime currentTime = LocalDateTime.now();
+        if (currentTime.isBefore(getExpirationTime(ticket))) {
+            return;
+        }
+
+        closeExpiredTicket(ticket, currentTime);
+    }
+
+    private LocalDateTime getExpirationTime(Ticket ticket) {
+        if (ticket.getExpiresAt() == null) {
+            ticket.refreshExpiryTimes();
+        }
+        return ticket.getExpiresAt();
+    }
+
+    private boolean sendFiveMinuteWarning(Ticket ticket) {
+        // Send 5-minute warning notification (with email support)
+        try {
+            notificationService.createFiveMinuteWarningNotification(
+                ticket.getUserId(),
+                ticket.getTicketId(),
+                ticket
+            );
+
+            // Mark warning as sent
+            ticket.setFiveMinuteWarningSent(true);
+            ticketRepository.save(ticket);
+
+            System.out.println("🔔 5-MINUTE WARNING SENT: Notification sent to user " + ticket.getUserId() + " for ticket " + ticket.getTicketId());
+            return true;
+        } catch (Exception e) {
+            System.err.println("⚠️ WARNING NOTIFICATION FAILED: Could not send 5-minute warning for ticket " + ticket.getTicketId() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    private void closeExpiredTicket(Ticket ticket, LocalDateTime currentTime) {
+        Contribution before = Contribution.of(ticket);
+        ticket.setStatus("Closed");
+        ticket.setDateCompleted(currentTime);
+        ticketRepository.save(ticket);
+        ticketStatisticsService.recordChanged(before, ticket);
+        nlpResultCache.invalidateResults();
+        notifyTicketClosed(ticket);
+
+        // Remove user from firefighter group when ticket is automatically closed; queued behind
+        // any add still retrying for this user so the removal cannot be overtaken
+        try {
+            Optional<User> user = userRepository.findById(ticket.getUserId());
+            if (user.isPresent()) {
+                dolibarrSyncQueue.enqueueRemove(user.get().getDolibarrId(), getAllocationText(ticket), ticket.getTicketId());
+                System.out.println("✅ AUTO-CLOSE: Queued removal of user " + ticket.getUserId() + " from firefighter group for ticket: " + ticket.getTicketId());
+            } else {
+                System.err.println("⚠️ AUTO-CLOSE: User not found with ID: " + ticket.getUserId());
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ AUTO-CLOSE: Failed to remove user from firefighter group for ticket: " + ticket.getTicketId() + " - " + e.getMessage());
+        }
+
+        System.out.println("Closed expired ticket: " + ticket.getTicketId());
+    }
+
+    // Load every affected user in one query and queue their removals through the sync outbox
+    private void removeUsersFromFirefighterGroups(List<Ticket> closedTickets) {
+        try {
+            Set<String> userIds = closedTickets.stream().map(Ticket::getUserId).collect(Collectors.toSet());
+            Map<String, User> usersById = new HashMap<>();
+            for (User user : userRepository.findAllById(userIds)) {
+                usersById.put(user.getUserId(), user);
+            }
+
+            int queued = 0;
+            for (Ticket ticket : closedTickets) {
+                User user = usersById.get(ticket.getUserId());
+                if (user == null) {
+                    System.err.println("⚠️ AUTO-CLOSE: User not found with ID: " + ticket.getUserId());
+                } else if (user.getDolibarrId() == null) {
+                    System.err.println("⚠️ AUTO-CLOSE: User " + ticket.getUserId() + " has no Dolibarr ID, skipping group removal for ticket: " + ticket.getTicketId());
+                } else {
+                    dolibarrSyncQueue.enqueueRemove(user.getDolibarrId(), getAllocationText(ticket), ticket.getTicketId());
+                    queued++;
+                }
+            }
+            if (queued > 0) {
+                System.out.println("✅ AUTO-CLOSE: Queued removal of " + queued + " user(s) from firefighter groups");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ AUTO-CLOSE: Failed to remove users from firefighter groups for " + closedTickets.size() + " closed ticket(s) - " + e.getMessage());
+        }
+    }
+
+    // Use emergency type for group allocation if available, otherwise fall back to description
+    private String getAllocationText(Ticket ticket) {
+        return (ticket.getEmergencyType() != null && !ticket.getEmergencyType().isEmpty())
+            ? ticket.getEmergencyType() + " " + ticket.getDescription()
+            : ticket.getDescription();
+    }
+
+    private void notifyTicketClosed(Ticket ticket) {
+        // Create notification for ticket completion (with email support)
+        try {
+            notificationService.createTicketCompletionNotification(
+                ticket.getUserId(),
+                ticket.getTicketId(),
+                ticket
+            );
+            System.out.println("🔔 NOTIFICATION CREATED: Ticket completion notification sent to user " + ticket.getUserId());
+        } catch (Exception e) {
+            System.err.println("⚠️ NOTIFICATION FAILED: Could not create ticket completion notification: " + e.getMessage());
+        }
+    }
 } 
@@ -5,17 +5,17 @@ import com.apex.firefighter.model.User;
 import com.apex.firefighter.repository.TicketRepository;
 import com.apex.firefighter.repository.UserRepository;
 import com.apex.firefighter.service.NotificationService;
-import com.apex.firefighter.service.DolibarrUserGroupService;
+import com.apex.firefighter.service.DolibarrSyncQueue;
 import com.apex.firefighter.service.AnomalyNotificationService;
 import com.apex.firefighter.service.anomaly.AnomalyDetectionService;
-import com.apex.firefighter.dto.EmergencyStatisticsResponse;
+import com.apex.firefighter.service.nlp.NLPResultCache;
+import com.apex.firefighter.service.ticket.TicketStatisticsCounters.Contribution;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
@@ -24,21 +24,29 @@ public class TicketService {
 
     private final TicketRepository ticketRepository;
     private final NotificationService notificationService;
-    private final DolibarrUserGroupService dolibarrUserGroupService;
+    private final DolibarrSyncQueue dolibarrSyncQueue;
     private final UserRepository userRepository;
     private final AnomalyDetectionService anomalyDetectionService;
     private final AnomalyNotificationService anomalyNotificationService;
+    private final TicketExpiryScheduler ticketExpiryScheduler;
+    private final NLPResultCache nlpResultCache;
+    private final TicketStatisticsService ticketStatisticsService;
 
     @Autowired
     public TicketService(TicketRepository ticketRepository, NotificationService notificationService, 
-                        DolibarrUserGroupService dolibarrUserGroupService, UserRepository userRepository,
-                        AnomalyDetectionService anomalyDetectionService, AnomalyNotificationService anomalyNotificationService) {
+                        DolibarrSyncQueue dolibarrSyncQueue, UserRepository userRepository,
+                        AnomalyDetectionService anomalyDetectionService, AnomalyNotificationService anomalyNotificationService,
+                        TicketExpiryScheduler ticketExpiryScheduler, NLPResultCache nlpResultCache,
+                        TicketStatisticsService ticketStatisticsService) {
         this.ticketRepository = ticketRepository;
         this.notificationService = notificationService;
-        this.dolibarrUserGroupService = dolibarrUserGroupService;
+        this.dolibarrSyncQueue = dolibarrSyncQueue;
         this.userRepository = userRepository;
         this.anomalyDetectionService = anomalyDetectionService;
         this.anomalyNotificationService = anomalyNotificationService;
+        this.ticketExpiryScheduler = ticketExpiryScheduler;
+        this.nlpResultCache = nlpResultCache;
+        this.ticketStatisticsService = ticketStatisticsService;
     }
 
     public Ticket createTicket(String description, String userId, String emergencyType, String emergencyContact, Integer duration) {
@@ -51,6 +59,12 @@ public class TicketService {
 
         Ticket savedTicket = ticketRepository.save(ticket);
 
+        // Register the warning and expiry deadlines with the expiry wheel
+        ticketExpiryScheduler.schedule(savedTicket);
+        ticketStatisticsService.recordCreated(savedTicket);
+        anomalyDetectionService.recordTicketCreated(savedTicket);
+        nlpResultCache.invalidateResults();
+
         // 🚀 PERFORMANCE FIX: Move heavy operations to async background processing
         // This reduces ticket creation time from 15s to ~100ms
 
@@ -82,15 +96,13 @@ public class TicketService {
                 }
             });
 
-            // Async Dolibarr group management
-            CompletableFuture.runAsync(() -> {
-                try {
-                    dolibarrUserGroupService.addUserToGroup(user.getDolibarrId(), allocationText, ticketId);
-                    System.out.println("✅ TICKET SERVICE: [ASYNC] Added user to firefighter group and notified admins for ticket: " + ticketId);
-                } catch (Exception e) {
-                    System.err.println("⚠️ TICKET SERVICE: [ASYNC] Failed to add user to firefighter group for ticket: " + ticketId + " - " + e.getMessage());
-                }
-            });
+            // Dolibarr group management runs on the sync queue's own lanes, with retries
+            try {
+                dolibarrSyncQueue.enqueueAdd(user.getDolibarrId(), allocationText, ticketId);
+                System.out.println("✅ TICKET SERVICE: Queued firefighter group grant for ticket: " + ticketId);
+            } catch (Exception e) {
+                System.err.println("⚠️ TICKET SERVICE: Failed to queue firefighter group grant for ticket: " + ticketId + " - " + e.getMessage());
+            }
         } else {
             System.err.println("⚠️ TICKET SERVICE: Could not find user " + userId + " for background processing");
         }
@@ -118,11 +130,29 @@ public class TicketService {
         return ticketRepository.findByStatus(status);
     }
 
+    /**
+     * Run a ticket listing as one database query, newest first.
+     * With a limit, one extra row is fetched to tell whether another page follows.
+     */
+    public TicketPage findTickets(TicketQuery query) {
+        Integer limit = query.getLimit();
+        List<Ticket> tickets = ticketRepository.findBy(query.toSpecification(), fluentQuery -> limit == null
+            ? fluentQuery.sortBy(TicketQuery.SORT).all()
+            : fluentQuery.sortBy(TicketQuery.SORT).limit(limit + 1).all());
+
+        if (limit == null || tickets.size() <= limit) {
+            return new TicketPage(tickets, null);
+        }
+        List<Ticket> page = new ArrayList<>(tickets.subList(0, limit));
+        return new TicketPage(page, TicketQuery.encodeCursor(page.get(limit - 1)));
+    }
+
     public Ticket updateTicketStatus(String ticketId, String newStatus) {
         Optional<Ticket> ticketOpt = ticketRepository.findByTicketId(ticketId);
         if (ticketOpt.isPresent()) {
             Ticket ticket = ticketOpt.get();
             String oldStatus = ticket.getStatus();
+            Contribution before = Contribution.of(ticket);
             ticket.setStatus(newStatus);
 
             // Set completion date if ticket is being completed
@@ -131,6 +161,9 @@ public class TicketService {
             }
 
             Ticket savedTicket = ticketRepository.save(ticket);
+            ticketExpiryScheduler.schedule(savedTicket);
+            ticketStatisticsService.recordChanged(before, savedTicket);
+            nlpResultCache.invalidateResults();
 
             // Create notification with email support for completion
             if ("Completed".equals(newStatus) && !"Completed".equals(oldStatus)) {
@@ -151,9 +184,9 @@ public class TicketService {
                         String allocationText = (ticket.getEmergencyType() != null && !ticket.getEmergencyType().isEmpty())
                             ? ticket.getEmergencyType() + " " + ticket.getDescription()
                             : ticket.getDescription();
-                        // Pass the ticket ID to enable admin notifications
-                        dolibarrUserGroupService.removeUserFromGroup(userOpt.get().getDolibarrId(), allocationText, ticketId);
-                        System.out.println("✅ TICKET SERVICE: Removed user from firefighter group and notified admins for ticket: " + ticketId);
+                        // Pass the ticket ID to enable admin notifications once the queue applies the change
+                        dolibarrSyncQueue.enqueueRemove(userOpt.get().getDolibarrId(), allocationText, ticketId);
+                        System.out.println("✅ TICKET SERVICE: Queued firefighter group removal for ticket: " + ticketId);
                     } else {
                         System.err.println("⚠️ TICKET SERVICE: User not found with ID: " + ticket.getUserId());
                     }
@@ -171,6 +204,9 @@ public class TicketService {
         Optional<Ticket> ticketOpt = ticketRepository.findByTicketId(ticketId);
         if (ticketOpt.isPresent()) {
             ticketRepository.delete(ticketOpt.get());
+            ticketExpiryScheduler.cancel(ticketOpt.get());
+            ticketStatisticsService.recordDeleted(ticketOpt.get());
+            nlpResultCache.invalidateResults();
         } else {
             throw new RuntimeException("Ticket not found with ID: " + ticketId);
         }
@@ -185,8 +221,12 @@ public class TicketService {
         List<Ticket> expiredTickets = getActiveTicketsOlderThan(cutoffDate);
 
         for (Ticket ticket : expiredTickets) {
+            Contribution before = Contribution.of(ticket);
             ticket.setStatus("Closed");
             ticketRepository.save(ticket);
+            ticketExpiryScheduler.cancel(ticket);
+            ticketStatisticsService.recordChanged(before, ticket);
+            nlpResultCache.invalidateResults();
 
             // Remove user from firefighter group when ticket is automatically closed and notify admins
             try {
@@ -196,9 +236,9 @@ public class TicketService {
                     String allocationText = (ticket.getEmergencyType() != null && !ticket.getEmergencyType().isEmpty())
                         ? ticket.getEmergencyType() + " " + ticket.getDescription()
                         : ticket.getDescription();
-                    // Pass the ticket ID to enable admin notifications
-                    dolibarrUserGroupService.removeUserFromGroup(user.get().getDolibarrId(), allocationText, ticket.getTicketId());
-                    System.out.println("✅ AUTO-CLOSE (24h): Successfully removed user " + ticket.getUserId() + " from firefighter group and notified admins for ticket: " + ticket.getTicketId());
+                    // Pass the ticket ID to enable admin notifications once the queue applies the change
+                    dolibarrSyncQueue.enqueueRemove(user.get().getDolibarrId(), allocationText, ticket.getTicketId());
+                    System.out.println("✅ AUTO-CLOSE (24h): Queued firefighter group removal for user " + ticket.getUserId() + " for ticket: " + ticket.getTicketId());
                 } else {
                     System.err.println("⚠️ AUTO-CLOSE (24h): User not found with ID: " + ticket.getUserId());
                 }
@@ -226,10 +266,14 @@ public class TicketService {
         Optional<Ticket> ticketOpt = ticketRepository.findById(id);
         if (ticketOpt.isPresent()) {
             Ticket ticket = ticketOpt.get();
+            Contribution before = Contribution.of(ticket);
             ticket.setStatus("Rejected");
             ticket.setRejectReason(rejectReason);
             ticket.setDateCompleted(LocalDateTime.now());
             Ticket savedTicket = ticketRepository.save(ticket);
+            ticketExpiryScheduler.cancel(savedTicket);
+            ticketStatisticsService.recordChanged(before, savedTicket);
+            nlpResultCache.invalidateResults();
 
             // Create notification with email support
             try {
@@ -247,7 +291,7 @@ public class TicketService {
                     String allocationText = (ticket.getEmergencyType() != null && !ticket.getEmergencyType().isEmpty())
                         ? ticket.getEmergencyType() + " " + ticket.getDescription()
                         : ticket.getDescription();
-                    dolibarrUserGroupService.removeUserFromGroup(user.get().getDolibarrId(), allocationText);
+                    dolibarrSyncQueue.enqueueRemove(user.get().getDolibarrId(), allocationText, null);
                 } else {
                     System.err.println("⚠️ TICKET SERVICE: User not found with ID: " + ticket.getUserId());
                 }
@@ -264,10 +308,14 @@ public class TicketService {
         Optional<Ticket> ticketOpt = ticketRepository.findByTicketId(ticketId);
         if (ticketOpt.isPresent()) {
             Ticket ticket = ticketOpt.get();
+            Contribution before = Contribution.of(ticket);
             ticket.setStatus("Rejected");
             ticket.setRejectReason(rejectReason);
             ticket.setDateCompleted(LocalDateTime.now());
             Ticket savedTicket = ticketRepository.save(ticket);
+            ticketExpiryScheduler.cancel(savedTicket);
+            ticketStatisticsService.recordChanged(before, savedTicket);
+            nlpResultCache.invalidateResults();
 
             // Create notification with email support
             try {
@@ -285,7 +333,7 @@ public class TicketService {
                     String allocationText = (ticket.getEmergencyType() != null && !ticket.getEmergencyType().isEmpty())
                         ? ticket.getEmergencyType() + " " + ticket.getDescription()
                         : ticket.getDescription();
-                    dolibarrUserGroupService.removeUserFromGroup(user.get().getDolibarrId(), allocationText);
+                    dolibarrSyncQueue.enqueueRemove(user.get().getDolibarrId(), allocationText, null);
                 } else {
                     System.err.println("⚠️ TICKET SERVICE: User not found with ID: " + ticket.getUserId());
                 }
@@ -307,6 +355,7 @@ public class TicketService {
         Optional<Ticket> ticketOpt = ticketRepository.findById(id);
         if (ticketOpt.isPresent()) {
             Ticket ticket = ticketOpt.get();
+            Contribution before = Contribution.of(ticket);
 
             if (description != null) {
                 ticket.setDescription(description);
@@ -324,176 +373,12 @@ public class TicketService {
                 ticket.setDuration(duration);
             }
 
-            return ticketRepository.save(ticket);
+            Ticket savedTicket = ticketRepository.save(ticket);
+            ticketExpiryScheduler.schedule(savedTicket);
+            ticketStatisticsService.recordChanged(before, savedTicket);
+            nlpResultCache.invalidateResults();
+            return savedTicket;
         }
         throw new RuntimeException("Ticket not found with ID: " + id);
     }
-
-    /**
-     * Normalize emergency type to a standard format
-     * Handles both legacy format (hr-emergency) and new format (hr, financial, management, logistics)
-     * 
-     * @param emergencyType The raw emergency type string
-     * @return Normalized emergency type key
-     */
-    private String normalizeEmergencyType(String emergencyType) {
-        if (emergencyType == null) {
-            return null;
-        }
-        
-        String normalized = emergencyType.toLowerCase().trim();
-        
-        // Map various formats to standardized keys
-        if (normalized.equals("hr") || normalized.equals("hr-emergency")) {
-            return "hr";
-        } else if (normalized.equals("financial") || normalized.equals("financials") || 
-                   normalized.equals("financial-emergency")) {
-            return "financial";
-        } else if (normalized.equals("management") || normalized.equals("fmanager") || 
-                   normalized.equals("manager") || normalized.equals("management-emergency")) {
-            return "management";
-        } else if (normalized.equals("logistics") || normalized.equals("logistics-emergency")) {
-            return "logistics";
-        }
-        
-        return null; // Unknown type
-    }
-    
-    /**
-     * Get display name for emergency type
-     * 
-     * @param normalizedType The normalized emergency type key
-     * @return Display-friendly name
-     */
-    private String getEmergencyTypeDisplayName(String normalizedType) {
-        if (normalizedType == null) {
-            return "N/A";
-        }
-        
-        return switch (normalizedType) {
-            case "hr" -> "HR";
-            case "financial" -> "Financial";
-            case "management" -> "Management";
-            case "logistics" -> "Logistics";
-            default -> "N/A";
-        };
-    }
-
-    /**
-     * Calculate emergency response statistics from all tickets in the system
-     * This provides accurate system-wide statistics regardless of user role
-     * Supports both legacy emergency type format (hr-emergency) and new format (hr, financial, etc.)
-     * 
-     * @return EmergencyStatisticsResponse containing all calculated statistics
-     */
-    public EmergencyStatisticsResponse calculateEmergencyStatistics() {
-        List<Ticket> allTickets = ticketRepository.findAll();
-        
-        // Initialize response object
-        EmergencyStatisticsResponse response = new EmergencyStatisticsResponse();
-        
-        // Total tickets count
-        int totalTickets = allTickets.size();
-        response.setTotalTickets(totalTickets);
-        
-        // If no tickets, return default values
-        if (totalTickets == 0) {
-            response.setEmergencyTypeBreakdown(new HashMap<>());
-            response.setMostCommonEmergencyType("N/A");
-            response.setSystemHealthScore(100);
-            response.setAverageResponseTime(0);
-            response.setCompletionRate(0.0);
-            response.setCurrentMonthTickets(0);
-            response.setActiveTickets(0);
-            return response;
-        }
-        
-        // Calculate emergency type breakdown with normalized keys
-        Map<String, Integer> emergencyTypeBreakdown = new HashMap<>();
-        emergencyTypeBreakdown.put("hr", 0);
-        emergencyTypeBreakdown.put("financial", 0);
-        emergencyTypeBreakdown.put("management", 0);
-        emergencyTypeBreakdown.put("logistics", 0);
-        
-        int activeTicketsCount = 0;
-        int rejectedTicketsCount = 0;
-        int closedTicketsCount = 0;
-        int totalDuration = 0;
-        int currentMonthTicketsCount = 0;
-        
-        LocalDateTime now = LocalDateTime.now();
-        int currentMonth = now.getMonthValue();
-        int currentYear = now.getYear();
-        
-        // Process all tickets
-        for (Ticket ticket : allTickets) {
-            // Emergency type breakdown - normalize the type first
-            String rawEmergencyType = ticket.getEmergencyType();
-            String normalizedType = normalizeEmergencyType(rawEmergencyType);
-            
-            if (normalizedType != null && emergencyTypeBreakdown.containsKey(normalizedType)) {
-                emergencyTypeBreakdown.put(normalizedType, emergencyTypeBreakdown.get(normalizedType) + 1);
-            }
-            
-            // Status counts
-            String status = ticket.getStatus();
-            if ("Active".equals(status)) {
-                activeTicketsCount++;
-            } else if ("Rejected".equals(status)) {
-                rejectedTicketsCount++;
-            } else if ("Closed".equals(status)) {
-                closedTicketsCount++;
-            }
-            
-            // Duration sum for average
-            Integer duration = ticket.getDuration();
-            if (duration != null) {
-                totalDuration += duration;
-            }
-            
-            // Current month tickets
-            LocalDateTime dateCreated = ticket.getDateCreated();
-            if (dateCreated != null && 
-                dateCreated.getMonthValue() == currentMonth && 
-                dateCreated.getYear() == currentYear) {
-                currentMonthTicketsCount++;
-            }
-        }
-        
-        response.setEmergencyTypeBreakdown(emergencyTypeBreakdown);
-        response.setActiveTickets(activeTicketsCount);
-        
-        // Calculate most common emergency type
-        String mostCommonType = null;
-        int maxCount = 0;
-        for (Map.Entry<String, Integer> entry : emergencyTypeBreakdown.entrySet()) {
-            if (entry.getValue() > maxCount) {
-                maxCount = entry.getValue();
-                mostCommonType = entry.getKey();
-            }
-        }
-        
-        // Convert to display format using the helper method
-        response.setMostCommonEmergencyType(getEmergencyTypeDisplayName(mostCommonType));
-        
-        // Calculate system health score
-        // Health score: 100% - (active tickets weight + rejected tickets weight)
-        double activeWeight = ((double) activeTicketsCount / totalTickets) * 30; // Active tickets reduce health by up to 30%
-        double rejectedWeight = ((double) rejectedTicketsCount / totalTickets) * 20; // Rejected tickets reduce health by up to 20%
-        int healthScore = Math.max(50, (int) Math.round(100 - activeWeight - rejectedWeight));
-        response.setSystemHealthScore(healthScore);
-        
-        // Calculate average response time (average duration)
-        int averageResponseTime = totalTickets > 0 ? Math.round((float) totalDuration / totalTickets) : 0;
-        response.setAverageResponseTime(averageResponseTime);
-        
-        // Calculate completion rate (percentage of closed tickets)
-        double completionRate = ((double) closedTicketsCount / totalTickets) * 100;
-        response.setCompletionRate(Math.round(completionRate * 10) / 10.0); // Round to 1 decimal place
-        
-        // Set current month tickets count
-        response.setCurrentMonthTickets(currentMonthTicketsCount);
-        
-        return response;
-    }
 }
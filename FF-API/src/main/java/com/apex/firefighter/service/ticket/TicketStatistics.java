@@ -0,0 +1,115 @@
+package com.apex.firefighter.service.ticket;
+
+import com.apex.firefighter.repository.TicketRepository;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable ticket counts folded from the grouped (status, emergency type) aggregate rows
+ * or from {@link TicketStatisticsCounters}.
+ * Emergency types are normalized to hr, financial, management and logistics; other types
+ * count towards the totals but not the breakdown.
+ */
+public class TicketStatistics {
+
+    private final Map<String, Integer> ticketsByStatus;
+    private final Map<String, Integer> emergencyTypeBreakdown;
+    private final int totalTickets;
+    private final long totalDuration;
+    private final int currentMonthTickets;
+
+    public TicketStatistics(Map<String, Integer> ticketsByStatus, Map<String, Integer> emergencyTypeBreakdown,
+                            int totalTickets, long totalDuration, int currentMonthTickets) {
+        this.ticketsByStatus = Collections.unmodifiableMap(ticketsByStatus);
+        this.emergencyTypeBreakdown = Collections.unmodifiableMap(emergencyTypeBreakdown);
+        this.totalTickets = totalTickets;
+        this.totalDuration = totalDuration;
+        this.currentMonthTickets = currentMonthTickets;
+    }
+
+    public static TicketStatistics from(List<TicketRepository.StatusTypeTotals> rows) {
+        Map<String, Integer> ticketsByStatus = new HashMap<>();
+        Map<String, Integer> emergencyTypeBreakdown = emptyEmergencyTypeBreakdown();
+
+        int totalTickets = 0;
+        long totalDuration = 0;
+        int currentMonthTickets = 0;
+        for (TicketRepository.StatusTypeTotals row : rows) {
+            int count = toInt(row.getTicketCount());
+            totalTickets += count;
+            totalDuration += row.getTotalDuration() != null ? row.getTotalDuration() : 0;
+            currentMonthTickets += toInt(row.getCurrentMonthCount());
+            if (row.getStatus() != null) {
+                ticketsByStatus.merge(row.getStatus(), count, Integer::sum);
+            }
+            String type = normalizeEmergencyType(row.getEmergencyType());
+            if (type != null) {
+                emergencyTypeBreakdown.merge(type, count, Integer::sum);
+            }
+        }
+        return new TicketStatistics(ticketsByStatus, emergencyTypeBreakdown, totalTickets, totalDuration, currentMonthTickets);
+    }
+
+    /**
+     * The four known emergency types, in display order, each with a count of zero
+     */
+    static Map<String, Integer> emptyEmergencyTypeBreakdown() {
+        Map<String, Integer> emergencyTypeBreakdown = new LinkedHashMap<>();
+        emergencyTypeBreakdown.put("hr", 0);
+        emergencyTypeBreakdown.put("financial", 0);
+        emergencyTypeBreakdown.put("management", 0);
+        emergencyTypeBreakdown.put("logistics", 0);
+        return emergencyTypeBreakdown;
+    }
+
+    /**
+     * Normalize emergency type to a standard format
+     * Handles both legacy format (hr-emergency) and new format (hr, financial, management, logistics)
+     *
+     * @param emergencyType The raw emergency type string
+     * @return Normalized emergency type key, or null for unknown types
+     */
+    static String normalizeEmergencyType(String emergencyType) {
+        if (emergencyType == null) {
+            return null;
+        }
+
+        String normalized = emergencyType.toLowerCase().trim();
+
+        // Map various formats to standardized keys
+        if (normalized.equals("hr") || normalized.equals("hr-emergency")) {
+            return "hr";
+        } else if (normalized.equals("financial") || normalized.equals("financials") ||
+                   normalized.equals("financial-emergency")) {
+            return "financial";
+        } else if (normalized.equals("management") || normalized.equals("fmanager") ||
+                   normalized.equals("manager") || normalized.equals("management-emergency")) {
+            return "management";
+        } else if (normalized.equals("logistics") || normalized.equals("logistics-emergency")) {
+            return "logistics";
+        }
+
+        return null; // Unknown type
+    }
+
+    private static int toInt(Long value) {
+        return value != null ? value.intValue() : 0;
+    }
+
+    /**
+     * Number of tickets with exactly this status
+     */
+    public int getTickets(String status) {
+        return ticketsByStatus.getOrDefault(status, 0);
+    }
+
+    public Map<String, Integer> getTicketsByStatus() { return ticketsByStatus; }
+    public Map<String, Integer> getEmergencyTypeBreakdown() { return emergencyTypeBreakdown; }
+    public int getTotalTickets() { return totalTickets; }
+    public long getTotalDuration() { return totalDuration; }
+    public int getCurrentMonthTickets() { return currentMonthTickets; }
+}
@@ -0,0 +1,229 @@
+package com.apex.firefighter.service.ticket;
+
+import com.apex.firefighter.model.Ticket;
+import com.apex.firefighter.repository.TicketRepository;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory ticket counts and total durations per (status, emergency type, creation month).
+ *
+ * Each cell is a pair of {@link LongAdder}s, so concurrent writers on the same cell (new
+ * active tickets this month) do not contend on a single counter. Reads fold the cells into
+ * an immutable {@link TicketStatistics}, which is rebuilt only after a write or when the
+ * month changes; every other read returns the same snapshot without allocating.
+ *
+ * Every write also stamps its cell from a shared sequence, so that reconciling against a
+ * database aggregate can leave alone the cells written after that aggregate was started.
+ *
+ * This class is not a Spring bean; {@link TicketStatisticsService} owns it, seeds it from the
+ * database and keeps it up to date.
+ */
+public class TicketStatisticsCounters {
+
+    /**
+     * What one ticket adds to the counters, captured before and after each change
+     */
+    public record Contribution(String status, String emergencyType, YearMonth month, long duration) {
+
+        public static Contribution of(Ticket ticket) {
+            if (ticket == null) {
+                return null;
+            }
+            LocalDateTime dateCreated = ticket.getDateCreated();
+            return new Contribution(ticket.getStatus(), ticket.getEmergencyType(),
+                dateCreated != null ? YearMonth.from(dateCreated) : null,
+                ticket.getDuration() != null ? ticket.getDuration() : 0);
+        }
+    }
+
+    private final Clock clock;
+    private final Map<CellKey, Cell> cells = new ConcurrentHashMap<>();
+    private final AtomicLong writeSequence = new AtomicLong();
+
+    // Writers update a cell and then set dirty; readers clear dirty and then fold the cells,
+    // so a write racing with a rebuild always triggers another one
+    private volatile boolean dirty = true;
+    private volatile Snapshot snapshot;
+
+    public TicketStatisticsCounters() {
+        this(Clock.systemDefaultZone());
+    }
+
+    public TicketStatisticsCounters(Clock clock) {
+        this.clock = clock;
+    }
+
+    public void add(Contribution contribution) {
+        apply(contribution, 1);
+    }
+
+    public void remove(Contribution contribution) {
+        apply(contribution, -1);
+    }
+
+    /**
+     * Moves a ticket's contribution after it changed status, emergency type or duration
+     */
+    public void move(Contribution before, Contribution after) {
+        if (Objects.equals(before, after)) {
+            return;
+        }
+        apply(before, -1);
+        apply(after, 1);
+    }
+
+    /**
+     * Stamp of the latest write; take it before running the aggregate passed to
+     * {@link #reconcile(List, long)}
+     */
+    public long writeStamp() {
+        return writeSequence.get();
+    }
+
+    /**
+     * Brings every cell in line with the grouped database totals, including cells written
+     * while the aggregate was running. Used to seed the counters.
+     *
+     * @param rows The result of TicketRepository.aggregateByStatusEmergencyTypeAndMonth
+     * @return The number of cells that had drifted from the database
+     */
+    public int reconcile(List<TicketRepository.StatusTypeMonthTotals> rows) {
+        return reconcile(rows, Long.MAX_VALUE);
+    }
+
+    /**
+     * Brings the cells in line with the grouped database totals. Cells written after
+     * {@code writeStamp} are skipped, because the aggregate may not include those writes;
+     * the next reconcile corrects them if they have really drifted.
+     *
+     * @param rows The result of TicketRepository.aggregateByStatusEmergencyTypeAndMonth
+     * @param writeStamp The {@link #writeStamp()} taken before running the aggregate
+     * @return The number of cells that had drifted from the database
+     */
+    public int reconcile(List<TicketRepository.StatusTypeMonthTotals> rows, long writeStamp) {
+        Map<CellKey, long[]> expected = new HashMap<>();
+        for (TicketRepository.StatusTypeMonthTotals row : rows) {
+            YearMonth month = row.getCreatedYear() != null && row.getCreatedMonth() != null
+                ? YearMonth.of(row.getCreatedYear(), row.getCreatedMonth())
+                : null;
+            long[] totals = expected.computeIfAbsent(new CellKey(row.getStatus(), row.getEmergencyType(), month),
+                key -> new long[2]);
+            totals[0] += row.getTicketCount() != null ? row.getTicketCount() : 0;
+            totals[1] += row.getTotalDuration() != null ? row.getTotalDuration() : 0;
+        }
+        for (CellKey key : cells.keySet()) {
+            expected.putIfAbsent(key, new long[2]);
+        }
+
+        int drifted = 0;
+        for (Map.Entry<CellKey, long[]> entry : expected.entrySet()) {
+            Cell cell = cells.computeIfAbsent(entry.getKey(), key -> new Cell());
+            long ticketDelta = entry.getValue()[0] - cell.tickets.sum();
+            long durationDelta = entry.getValue()[1] - cell.duration.sum();
+            // Checked after reading the sums: a writer stamps the cell before adding to it
+            if (cell.lastWrite > writeStamp) {
+                continue;
+            }
+            if (ticketDelta != 0 || durationDelta != 0) {
+                cell.tickets.add(ticketDelta);
+                cell.duration.add(durationDelta);
+                drifted++;
+            }
+        }
+        if (drifted > 0) {
+            dirty = true;
+        }
+        return drifted;
+    }
+
+    /**
+     * Current statistics; the same instance is returned until a counter changes or the month rolls over
+     */
+    public TicketStatistics snapshot() {
+        Snapshot current = snapshot;
+        if (!dirty && current != null && clock.millis() < current.validUntilMillis()) {
+            return current.statistics();
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (!dirty && current != null && clock.millis() < current.validUntilMillis()) {
+                return current.statistics();
+            }
+            dirty = false;
+            YearMonth month = YearMonth.now(clock);
+            long validUntilMillis = month.plusMonths(1).atDay(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+            current = new Snapshot(fold(month), validUntilMillis);
+            snapshot = current;
+            return current.statistics();
+        }
+    }
+
+    /**
+     * Number of (status, emergency type, month) cells
+     */
+    public int size() {
+        return cells.size();
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        if (contribution == null) {
+            return;
+        }
+        CellKey key = new CellKey(contribution.status(), contribution.emergencyType(), contribution.month());
+        Cell cell = cells.computeIfAbsent(key, k -> new Cell());
+        cell.lastWrite = writeSequence.incrementAndGet();
+        cell.tickets.add(sign);
+        cell.duration.add(sign * contribution.duration());
+        dirty = true;
+    }
+
+    private TicketStatistics fold(YearMonth currentMonth) {
+        Map<String, Integer> ticketsByStatus = new HashMap<>();
+        Map<String, Integer> emergencyTypeBreakdown = TicketStatistics.emptyEmergencyTypeBreakdown();
+        int totalTickets = 0;
+        long totalDuration = 0;
+        int currentMonthTickets = 0;
+        for (Map.Entry<CellKey, Cell> entry : cells.entrySet()) {
+            CellKey key = entry.getKey();
+            int count = (int) entry.getValue().tickets.sum();
+            if (count == 0) {
+                continue;
+            }
+            totalTickets += count;
+            totalDuration += entry.getValue().duration.sum();
+            if (currentMonth.equals(key.month())) {
+                currentMonthTickets += count;
+            }
+            if (key.status() != null) {
+                ticketsByStatus.merge(key.status(), count, Integer::sum);
+            }
+            String type = TicketStatistics.normalizeEmergencyType(key.emergencyType());
+            if (type != null) {
+                emergencyTypeBreakdown.merge(type, count, Integer::sum);
+            }
+        }
+        return new TicketStatistics(ticketsByStatus, emergencyTypeBreakdown, totalTickets, totalDuration, currentMonthTickets);
+    }
+
+    private record CellKey(String status, String emergencyType, YearMonth month) {
+    }
+
+    private static final class Cell {
+        final LongAdder tickets = new LongAdder();
+        final LongAdder duration = new LongAdder();
+        volatile long lastWrite;
+    }
+
+    private record Snapshot(TicketStatistics statistics, long validUntilMillis) {
+    }
+}
@@ -0,0 +1,214 @@
+package com.apex.firefighter.service.ticket;
+
+import com.apex.firefighter.dto.EmergencyStatisticsResponse;
+import com.apex.firefighter.model.Ticket;
+import com.apex.firefighter.repository.TicketRepository;
+import com.apex.firefighter.service.ticket.TicketStatisticsCounters.Contribution;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ticket statistics for GET /api/tickets/statistics and the chatbot's SYSTEM_STATS query.
+ *
+ * System-wide figures come from in-memory {@link TicketStatisticsCounters}, seeded from one
+ * grouped SQL aggregate once the application is ready and kept up to date by
+ * {@link TicketService} and {@link TicketScheduledService} whenever a ticket is created,
+ * changes status or is deleted, so reads never touch the database. A periodic
+ * reconciliation re-runs the aggregate and corrects any drift, e.g. from tickets changed
+ * outside these services or from a save that was rolled back. Per-user statistics run the
+ * aggregate restricted to the user's tickets.
+ */
+@Service
+public class TicketStatisticsService {
+
+    private final TicketRepository ticketRepository;
+    private final TicketStatisticsCounters counters = new TicketStatisticsCounters();
+
+    private volatile boolean seeded;
+
+    public TicketStatisticsService(TicketRepository ticketRepository) {
+        this.ticketRepository = ticketRepository;
+    }
+
+    /**
+     * Seeds the counters from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            seed();
+            System.out.println("📊 TICKET STATISTICS: Seeded " + counters.size() + " counters from database");
+        } catch (Exception e) {
+            System.err.println("❌ TICKET STATISTICS: Failed to seed counters from database: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Compares the counters with the database and corrects any that have drifted
+     */
+    @Scheduled(fixedDelayString = "${tickets.statistics.reconcile-interval-millis:300000}",
+               initialDelayString = "${tickets.statistics.reconcile-interval-millis:300000}")
+    public void reconcile() {
+        try {
+            if (!seeded) {
+                seed();
+                return;
+            }
+            long writeStamp = counters.writeStamp();
+            int drifted = counters.reconcile(ticketRepository.aggregateByStatusEmergencyTypeAndMonth(), writeStamp);
+            if (drifted > 0) {
+                System.out.println("⚠️ TICKET STATISTICS: Corrected " + drifted + " drifted counters");
+            }
+        } catch (Exception e) {
+            System.err.println("❌ TICKET STATISTICS: Reconciliation failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * System-wide ticket counts
+     */
+    public TicketStatistics getSystemStatistics() {
+        if (!seeded) {
+            // Read before the application is ready (or seeding failed)
+            seed();
+        }
+        return counters.snapshot();
+    }
+
+    /**
+     * Ticket counts for one user's tickets
+     */
+    public TicketStatistics getUserStatistics(String userId) {
+        YearMonth month = YearMonth.now();
+        return TicketStatistics.from(ticketRepository.aggregateByStatusAndEmergencyTypeForUser(userId,
+            month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay()));
+    }
+
+    /**
+     * Counts a newly saved ticket
+     */
+    public void recordCreated(Ticket ticket) {
+        counters.add(Contribution.of(ticket));
+    }
+
+    /**
+     * Moves a saved ticket's counts from what it contributed before the change
+     *
+     * @param before Contribution.of(ticket) taken before the ticket was modified
+     * @param ticket The saved ticket
+     */
+    public void recordChanged(Contribution before, Ticket ticket) {
+        counters.move(before, Contribution.of(ticket));
+    }
+
+    /**
+     * Stops counting a deleted ticket
+     */
+    public void recordDeleted(Ticket ticket) {
+        counters.remove(Contribution.of(ticket));
+    }
+
+    /**
+     * Calculate emergency response statistics from all tickets in the system
+     * This provides accurate system-wide statistics regardless of user role
+     * Supports both legacy emergency type format (hr-emergency) and new format (hr, financial, etc.)
+     *
+     * @return EmergencyStatisticsResponse containing all calculated statistics
+     */
+    public EmergencyStatisticsResponse calculateEmergencyStatistics() {
+        TicketStatistics statistics = getSystemStatistics();
+
+        // Initialize response object
+        EmergencyStatisticsResponse response = new EmergencyStatisticsResponse();
+
+        // Total tickets count
+        int totalTickets = statistics.getTotalTickets();
+        response.setTotalTickets(totalTickets);
+
+        // If no tickets, return default values
+        if (totalTickets == 0) {
+            response.setEmergencyTypeBreakdown(new HashMap<>());
+            response.setMostCommonEmergencyType("N/A");
+            response.setSystemHealthScore(100);
+            response.setAverageResponseTime(0);
+            response.setCompletionRate(0.0);
+            response.setCurrentMonthTickets(0);
+            response.setActiveTickets(0);
+            return response;
+        }
+
+        int activeTicketsCount = statistics.getTickets("Active");
+        int rejectedTicketsCount = statistics.getTickets("Rejected");
+        int closedTicketsCount = statistics.getTickets("Closed");
+
+        response.setEmergencyTypeBreakdown(new HashMap<>(statistics.getEmergencyTypeBreakdown()));
+        response.setActiveTickets(activeTicketsCount);
+
+        // Calculate most common emergency type
+        String mostCommonType = null;
+        int maxCount = 0;
+        for (Map.Entry<String, Integer> entry : statistics.getEmergencyTypeBreakdown().entrySet()) {
+            if (entry.getValue() > maxCount) {
+                maxCount = entry.getValue();
+                mostCommonType = entry.getKey();
+            }
+        }
+
+        // Convert to display format using the helper method
+        response.setMostCommonEmergencyType(getEmergencyTypeDisplayName(mostCommonType));
+
+        // Calculate system health score
+        // Health score: 100% - (active tickets weight + rejected tickets weight)
+        double activeWeight = ((double) activeTicketsCount / totalTickets) * 30; // Active tickets reduce health by up to 30%
+        double rejectedWeight = ((double) rejectedTicketsCount / totalTickets) * 20; // Rejected tickets reduce health by up to 20%
+        int healthScore = Math.max(50, (int) Math.round(100 - activeWeight - rejectedWeight));
+        response.setSystemHealthScore(healthScore);
+
+        // Calculate average response time (average duration)
+        int averageResponseTime = Math.round((float) statistics.getTotalDuration() / totalTickets);
+        response.setAverageResponseTime(averageResponseTime);
+
+        // Calculate completion rate (percentage of closed tickets)
+        double completionRate = ((double) closedTicketsCount / totalTickets) * 100;
+        response.setCompletionRate(Math.round(completionRate * 10) / 10.0); // Round to 1 decimal place
+
+        // Set current month tickets count
+        response.setCurrentMonthTickets(statistics.getCurrentMonthTickets());
+
+        return response;
+    }
+
+    /**
+     * Get display name for emergency type
+     *
+     * @param normalizedType The normalized emergency type key
+     * @return Display-friendly name
+     */
+    private String getEmergencyTypeDisplayName(String normalizedType) {
+        if (normalizedType == null) {
+            return "N/A";
+        }
+
+        return switch (normalizedType) {
+            case "hr" -> "HR";
+            case "financial" -> "Financial";
+            case "management" -> "Management";
+            case "logistics" -> "Logistics";
+            default -> "N/A";
+        };
+    }
+
+    private synchronized void seed() {
+        if (seeded) {
+            return;
+        }
+        counters.reconcile(ticketRepository.aggregateByStatusEmergencyTypeAndMonth());
+        seeded = true;
+    }
+}
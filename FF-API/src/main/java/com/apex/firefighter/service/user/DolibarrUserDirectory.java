@@ -0,0 +1,99 @@
+package com.apex.firefighter.service.user;
+
+import com.apex.firefighter.model.User;
+import com.apex.firefighter.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Resolves users by their Dolibarr ID.
+ *
+ * Lookups go through the indexed dolibarr_id column and the results are kept in a small
+ * LRU near-cache, so repeated group changes for the same user do not hit the database at all.
+ * Only found users are cached; a miss always falls through to the database, so newly
+ * approved users are visible immediately. Entries expire after a short TTL and are
+ * invalidated explicitly when an admin changes a user's Dolibarr ID.
+ */
+@Service
+public class DolibarrUserDirectory {
+
+    private final UserRepository userRepository;
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final Map<String, CachedUser> cache;
+
+    public DolibarrUserDirectory(UserRepository userRepository,
+                                 @Value("${dolibarr.user-cache.max-entries:1024}") int maxEntries,
+                                 @Value("${dolibarr.user-cache.ttl-millis:300000}") long ttlMillis) {
+        this.userRepository = userRepository;
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUser> eldest) {
+                return size() > DolibarrUserDirectory.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Find the user linked to a Dolibarr ID
+     *
+     * @param dolibarrId The Dolibarr user ID
+     * @return The user, or empty if no user has this Dolibarr ID
+     */
+    public Optional<User> findByDolibarrId(String dolibarrId) {
+        if (dolibarrId == null) {
+            return Optional.empty();
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CachedUser cached = cache.get(dolibarrId);
+            if (cached != null) {
+                if (cached.expiresAtMillis() > now) {
+                    return Optional.of(cached.user());
+                }
+                cache.remove(dolibarrId);
+            }
+        }
+
+        Optional<User> userOpt = userRepository.findFirstByDolibarrId(dolibarrId);
+        userOpt.ifPresent(user -> {
+            synchronized (cache) {
+                cache.put(dolibarrId, new CachedUser(user, now + ttlMillis));
+            }
+        });
+        return userOpt;
+    }
+
+    /**
+     * Drop any cached user for a Dolibarr ID
+     */
+    public void invalidate(String dolibarrId) {
+        if (dolibarrId == null) {
+            return;
+        }
+        synchronized (cache) {
+            cache.remove(dolibarrId);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+
+    private record CachedUser(User user, long expiresAtMillis) {}
+}
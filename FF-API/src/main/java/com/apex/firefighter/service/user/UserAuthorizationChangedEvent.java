@@ -0,0 +1,32 @@
+package com.apex.firefighter.service.user;
+
+import com.apex.firefighter.model.User;
+
+/**
+ * Published when a user is authorized, revoked, approved at registration, renamed or given or removed a role,
+ * so components that keep their own view of the authorized users can update it.
+ */
+public class UserAuthorizationChangedEvent {
+
+    private final String userId;
+    private final String username;
+    private final boolean authorized;
+
+    public UserAuthorizationChangedEvent(String userId, String username, boolean authorized) {
+        this.userId = userId;
+        this.username = username;
+        this.authorized = authorized;
+    }
+
+    /**
+     * Event describing the user's state as saved
+     */
+    public static UserAuthorizationChangedEvent of(User user) {
+        return new UserAuthorizationChangedEvent(user.getUserId(), user.getUsername(),
+            Boolean.TRUE.equals(user.getIsAuthorized()));
+    }
+
+    public String getUserId() { return userId; }
+    public String getUsername() { return username; }
+    public boolean isAuthorized() { return authorized; }
+}
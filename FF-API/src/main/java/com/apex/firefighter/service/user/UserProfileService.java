@@ -25,12 +25,15 @@ public class UserProfileService {
 
     private final UserRepository userRepository;
     private final RegistrationNotificationService notificationService;
+    private final DolibarrUserDirectory dolibarrUserDirectory;
 
     @Autowired
     public UserProfileService(UserRepository userRepository,
-                             RegistrationNotificationService notificationService) {
+                             RegistrationNotificationService notificationService,
+                             DolibarrUserDirectory dolibarrUserDirectory) {
         this.userRepository = userRepository;
         this.notificationService = notificationService;
+        this.dolibarrUserDirectory = dolibarrUserDirectory;
     }
 
     /**
@@ -197,6 +200,10 @@ public class UserProfileService {
 
         User updatedUser = userRepository.save(targetUser);
 
+        // Both the old and the new ID may be cached for Dolibarr group change lookups
+        dolibarrUserDirectory.invalidate(oldDolibarrId);
+        dolibarrUserDirectory.invalidate(dolibarrId);
+
         System.out.println("✅ ADMIN DOLIBARR ID UPDATED:");
         System.out.println("  Admin: " + adminUser.getUsername() + " (" + adminFirebaseUid + ")");
         System.out.println("  Target User: " + targetUser.getUsername() + " (" + targetFirebaseUid + ")");
@@ -1,8 +1,10 @@
 package com.apex.firefighter.integration.api;
 
+import com.apex.firefighter.controller.TicketController;
 import com.apex.firefighter.model.Ticket;
 import com.apex.firefighter.model.User;
 import com.apex.firefighter.service.UserService;
+import com.apex.firefighter.service.ticket.TicketExport;
 import com.apex.firefighter.service.ticket.TicketService;
 import com.apex.firefighter.repository.UserRepository;
 import org.junit.jupiter.api.*;
@@ -18,11 +20,10 @@ import jakarta.mail.MessagingException;
 import java.util.HashMap;
 import java.util.Map;
 
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
-import static org.mockito.Mockito.when;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 @ActiveProfiles("test")
@@ -62,8 +63,7 @@ public class TicketControllerIT {
 
     @BeforeEach
     void setupMocks() throws MessagingException {
-        doNothing().when(gmailEmailService).sendTicketsCsv(anyString(), anyString(), any(User.class));
-        when(gmailEmailService.exportTicketsToCsv(anyList())).thenReturn("csv,data");
+        doNothing().when(gmailEmailService).sendTicketsExport(anyString(), any(TicketExport.class), any(User.class));
     }
 
     @Test
@@ -94,6 +94,34 @@ public class TicketControllerIT {
             .jsonPath("$[0].ticketId").exists();
     }
 
+    @Test
+    void testListTicketsWithLimitReturnsNextPageCursor() {
+        ticketService.createTicket("First page ticket", "user1", "hr-emergency", "0123456789", 60);
+        ticketService.createTicket("Second page ticket", "user1", "hr-emergency", "0123456789", 60);
+
+        String cursor = webTestClient.get().uri("/api/tickets?userId=user1&limit=1")
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(1)
+            .returnResult()
+            .getResponseHeaders().getFirst(TicketController.NEXT_CURSOR_HEADER);
+
+        assertNotNull(cursor);
+        webTestClient.get().uri("/api/tickets?userId=user1&limit=1&cursor=" + cursor)
+            .exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.length()").isEqualTo(1);
+    }
+
+    @Test
+    void testListTicketsRejectsMalformedCursor() {
+        webTestClient.get().uri("/api/tickets?cursor=not-a-cursor")
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
     @Test
     void testGetTicketById() {
         Map<String, Object> payload = new HashMap<>();
@@ -1,8 +1,7 @@
 package com.apex.firefighter.security;
 
 import com.apex.firefighter.service.auth.JwtService;
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
+import com.apex.firefighter.service.auth.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -13,10 +12,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.Date;
 
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -55,8 +57,8 @@ class JwtAuthenticationFilterExpirationTest {
         when(request.getHeader("Authorization")).thenReturn("Bearer " + expiredToken);
         when(request.getRequestURI()).thenReturn("/api/test");
         
-        when(jwtService.isCustomJwt(expiredToken)).thenReturn(true);
-        when(jwtService.isTokenExpired(expiredToken)).thenReturn(true);
+        when(jwtService.verifyCustomToken(expiredToken))
+            .thenReturn(VerifiedToken.expired("user123", "user@example.com", false, new Date(0)));
 
         StringWriter stringWriter = new StringWriter();
         when(response.getWriter()).thenReturn(new PrintWriter(stringWriter));
@@ -73,69 +75,54 @@ class JwtAuthenticationFilterExpirationTest {
         assertTrue(responseBody.contains("Your session has expired"));
         assertTrue(responseBody.contains("requiresReauth"));
         
-        // Should not continue filter chain
-        verify(filterChain, never()).doFilter(request, response);
+        // Should not continue filter chain or fall back to Firebase
+        verify(filterChain, never()).doFilter(any(), any());
+        verify(jwtService, never()).verifyFirebaseToken(anyString());
     }
 
     @Test
-    @DisplayName("Should return INVALID_TOKEN error for invalid custom JWT")
-    void shouldReturnInvalidTokenErrorForInvalidCustomJwt() throws Exception {
-        // Given
-        String invalidToken = "invalid.jwt.token";
-        when(request.getHeader("Authorization")).thenReturn("Bearer " + invalidToken);
+    @DisplayName("Should return TOKEN_EXPIRED error for a real expired custom JWT")
+    void shouldReturnTokenExpiredErrorForRealExpiredCustomJwt() throws Exception {
+        // Given - a token signed with the configured key whose expiry has passed
+        JwtService realJwtService = new JwtService(null);
+        ReflectionTestUtils.setField(realJwtService, "jwtSecret", "test-secret-key-for-jwt-testing-must-be-long-enough");
+        ReflectionTestUtils.setField(realJwtService, "jwtExpiration", -1000L);
+        String expiredToken = realJwtService.generateToken("user123", "user@example.com", false);
+        JwtAuthenticationFilter realFilter = new JwtAuthenticationFilter(realJwtService);
+
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + expiredToken);
         when(request.getRequestURI()).thenReturn("/api/test");
-        
-        when(jwtService.isCustomJwt(invalidToken)).thenReturn(true);
-        when(jwtService.extractFirebaseUid(invalidToken)).thenReturn("user123");
-        when(jwtService.extractIsAdmin(invalidToken)).thenReturn(false);
-        when(jwtService.validateToken(invalidToken, "user123")).thenReturn(false);
-        when(jwtService.isTokenExpired(invalidToken)).thenReturn(false); // Not expired, just invalid
 
         StringWriter stringWriter = new StringWriter();
         when(response.getWriter()).thenReturn(new PrintWriter(stringWriter));
 
         // When
-        jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
+        realFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         verify(response).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        verify(response).setContentType("application/json");
-        
-        String responseBody = stringWriter.toString();
-        assertTrue(responseBody.contains("INVALID_TOKEN"));
-        assertTrue(responseBody.contains("Invalid authentication token"));
-        assertTrue(responseBody.contains("requiresReauth"));
-        
-        // Should not continue filter chain
-        verify(filterChain, never()).doFilter(request, response);
+        assertTrue(stringWriter.toString().contains("TOKEN_EXPIRED"));
+        verify(filterChain, never()).doFilter(any(), any());
     }
 
     @Test
-    @DisplayName("Should handle expired token exception and return TOKEN_EXPIRED error")
-    void shouldHandleExpiredTokenExceptionAndReturnTokenExpiredError() throws Exception {
+    @DisplayName("Should fall back to Firebase verification for a token that is not a valid custom JWT")
+    void shouldFallBackToFirebaseForInvalidCustomJwt() throws Exception {
         // Given
-        String expiredToken = "expired.jwt.token";
-        when(request.getHeader("Authorization")).thenReturn("Bearer " + expiredToken);
+        String invalidToken = "invalid.jwt.token";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + invalidToken);
         when(request.getRequestURI()).thenReturn("/api/test");
         
-        when(jwtService.isCustomJwt(expiredToken)).thenReturn(true);
-        when(jwtService.isTokenExpired(expiredToken)).thenReturn(true);
-
-        StringWriter stringWriter = new StringWriter();
-        when(response.getWriter()).thenReturn(new PrintWriter(stringWriter));
+        when(jwtService.verifyCustomToken(invalidToken)).thenReturn(VerifiedToken.invalid());
+        when(jwtService.verifyFirebaseToken(invalidToken)).thenThrow(new RuntimeException("Invalid token"));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
-        // Then
-        verify(response).setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-        verify(response).setContentType("application/json");
-        
-        String responseBody = stringWriter.toString();
-        assertTrue(responseBody.contains("TOKEN_EXPIRED"));
-        
-        // Should not continue filter chain
-        verify(filterChain, never()).doFilter(request, response);
+        // Then - continues unauthenticated, leaving the decision to the security configuration
+        verify(response, never()).setStatus(anyInt());
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+        verify(filterChain).doFilter(request, response);
     }
 
     @Test
@@ -146,16 +133,16 @@ class JwtAuthenticationFilterExpirationTest {
         when(request.getHeader("Authorization")).thenReturn("Bearer " + validToken);
         when(request.getRequestURI()).thenReturn("/api/test");
         
-        when(jwtService.isCustomJwt(validToken)).thenReturn(true);
-        when(jwtService.extractFirebaseUid(validToken)).thenReturn("user123");
-        when(jwtService.extractIsAdmin(validToken)).thenReturn(false);
-        when(jwtService.validateToken(validToken, "user123")).thenReturn(true);
+        when(jwtService.verifyCustomToken(validToken))
+            .thenReturn(VerifiedToken.valid("user123", "user@example.com", false, new Date(System.currentTimeMillis() + 60000)));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
 
         // Then
         verify(response, never()).setStatus(anyInt());
-        verify(filterChain).doFilter(request, response);
+        verify(filterChain).doFilter(any(HttpServletRequest.class), eq(response));
+        verify(jwtService, times(1)).verifyCustomToken(validToken);
+        verifyNoMoreInteractions(jwtService);
     }
-}
\ No newline at end of file
+}
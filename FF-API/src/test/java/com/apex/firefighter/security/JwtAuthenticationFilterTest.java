@@ -1,7 +1,8 @@
 package com.apex.firefighter.security;
 
 import com.apex.firefighter.service.auth.JwtService;
-import com.google.firebase.auth.FirebaseToken;
+import com.apex.firefighter.service.auth.VerifiedFirebaseToken;
+import com.apex.firefighter.service.auth.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -13,6 +14,9 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import java.time.Instant;
+import java.util.Date;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.lenient;
@@ -32,9 +36,6 @@ class JwtAuthenticationFilterTest {
     @Mock
     private FilterChain filterChain;
 
-    @Mock
-    private FirebaseToken firebaseToken;
-
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
     @BeforeEach
@@ -52,10 +53,9 @@ class JwtAuthenticationFilterTest {
         String email = "user@example.com";
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.isCustomJwt(token)).thenReturn(false); // This is a Firebase token, not custom JWT
-        when(jwtService.verifyFirebaseToken(token)).thenReturn(firebaseToken);
-        when(firebaseToken.getUid()).thenReturn(firebaseUid);
-        when(firebaseToken.getEmail()).thenReturn(email);
+        when(jwtService.verifyCustomToken(token)).thenReturn(VerifiedToken.invalid()); // This is a Firebase token, not custom JWT
+        when(jwtService.verifyFirebaseToken(token)).thenReturn(
+            new VerifiedFirebaseToken(firebaseUid, email, null, Instant.now().plusSeconds(3600)));
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -67,7 +67,7 @@ class JwtAuthenticationFilterTest {
 
         verify(request).setAttribute("firebaseUid", firebaseUid);
         verify(request).setAttribute("email", email);
-        verify(filterChain).doFilter(request, response);
+        verify(filterChain).doFilter(any(HeaderMapRequestWrapper.class), eq(response));
     }
 
     @Test
@@ -78,11 +78,8 @@ class JwtAuthenticationFilterTest {
         String firebaseUid = "firebase-uid-123";
 
         when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
-        when(jwtService.isCustomJwt(token)).thenReturn(true); // This is a custom JWT
-        // Remove verifyFirebaseToken mock since it won't be called for custom JWT
-        when(jwtService.extractFirebaseUid(token)).thenReturn(firebaseUid);
-        when(jwtService.extractIsAdmin(token)).thenReturn(true);
-        when(jwtService.validateToken(token, firebaseUid)).thenReturn(true);
+        when(jwtService.verifyCustomToken(token)).thenReturn(VerifiedToken.valid(
+            firebaseUid, "admin@example.com", true, new Date(System.currentTimeMillis() + 60000))); // This is a custom JWT
 
         // When
         jwtAuthenticationFilter.doFilterInternal(request, response, filterChain);
@@ -96,7 +93,10 @@ class JwtAuthenticationFilterTest {
 
         verify(request).setAttribute("firebaseUid", firebaseUid);
         verify(request).setAttribute("isAdmin", true);
-        verify(filterChain).doFilter(request, response);
+        verify(filterChain).doFilter(any(HeaderMapRequestWrapper.class), eq(response));
+        // The token is verified once and Firebase is never consulted
+        verify(jwtService, times(1)).verifyCustomToken(token);
+        verify(jwtService, never()).verifyFirebaseToken(anyString());
     }
 
     @Test
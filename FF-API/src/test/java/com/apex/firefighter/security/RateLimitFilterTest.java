@@ -0,0 +1,141 @@
+package com.apex.firefighter.security;
+
+import com.apex.firefighter.service.RequestRateLimiter;
+import com.apex.firefighter.service.RequestRateLimiter.Decision;
+import com.apex.firefighter.service.RequestRateLimiter.Endpoint;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitFilterTest {
+
+    private static final String FIREBASE_UID = "firebase-uid-123";
+
+    @Mock
+    private RequestRateLimiter rateLimiter;
+
+    @Mock
+    private FilterChain filterChain;
+
+    private RateLimitFilter rateLimitFilter;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        rateLimitFilter = new RateLimitFilter(rateLimiter);
+        response = new MockHttpServletResponse();
+        SecurityContextHolder.clearContext();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("Should count ticket creation against the signed-in user")
+    void shouldCountTicketCreationAgainstUser() throws Exception {
+        // Given
+        authenticate(Collections.emptyList());
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/tickets");
+        when(rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, "user:" + FIREBASE_UID, false))
+            .thenReturn(new Decision(true, 0));
+
+        // When
+        rateLimitFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+        assertThat(response.getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    @DisplayName("Should count admin NLP queries made with an API key separately")
+    void shouldCountApiKeyAdminQueriesSeparately() throws Exception {
+        // Given
+        authenticate(List.of(new SimpleGrantedAuthority("ROLE_ADMIN")));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/nlp/admin/query");
+        request.addHeader("Authorization", "ApiKey some-api-key");
+        when(rateLimiter.tryAcquire(Endpoint.NLP_QUERY, "api-key:" + FIREBASE_UID, true))
+            .thenReturn(new Decision(true, 0));
+
+        // When
+        rateLimitFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verify(filterChain).doFilter(request, response);
+    }
+
+    @Test
+    @DisplayName("Should return 429 with Retry-After when the limit is exceeded")
+    void shouldRejectWhenLimitExceeded() throws Exception {
+        // Given
+        authenticate(Collections.emptyList());
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/nlp/query");
+        when(rateLimiter.tryAcquire(Endpoint.NLP_QUERY, "user:" + FIREBASE_UID, false))
+            .thenReturn(new Decision(false, TimeUnit.MILLISECONDS.toNanos(2500)));
+
+        // When
+        rateLimitFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verifyNoInteractions(filterChain);
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isEqualTo("3");
+        assertThat(response.getContentAsString()).contains("\"error\": \"RATE_LIMITED\"", "\"retryAfterSeconds\": 3");
+    }
+
+    @Test
+    @DisplayName("Should not limit other endpoints or methods")
+    void shouldIgnoreOtherEndpoints() throws Exception {
+        // Given
+        authenticate(Collections.emptyList());
+
+        // When
+        rateLimitFilter.doFilterInternal(new MockHttpServletRequest("GET", "/api/tickets"), response, filterChain);
+        rateLimitFilter.doFilterInternal(new MockHttpServletRequest("PUT", "/api/tickets/1"), response, filterChain);
+        rateLimitFilter.doFilterInternal(new MockHttpServletRequest("POST", "/api/tickets/admin/export"), response, filterChain);
+
+        // Then
+        verifyNoInteractions(rateLimiter);
+        verify(filterChain, times(3)).doFilter(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should leave unauthenticated requests to the authorization rules")
+    void shouldIgnoreUnauthenticatedRequests() throws Exception {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/tickets");
+
+        // When
+        rateLimitFilter.doFilterInternal(request, response, filterChain);
+
+        // Then
+        verifyNoInteractions(rateLimiter);
+        verify(filterChain).doFilter(request, response);
+    }
+
+    private void authenticate(List<SimpleGrantedAuthority> authorities) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(FIREBASE_UID, null, authorities));
+    }
+}
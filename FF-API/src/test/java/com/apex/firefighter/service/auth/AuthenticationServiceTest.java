@@ -3,7 +3,6 @@ package com.apex.firefighter.service.auth;
 import com.apex.firefighter.dto.AuthResponse;
 import com.apex.firefighter.model.User;
 import com.apex.firefighter.repository.UserRepository;
-import com.google.firebase.auth.FirebaseToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -11,6 +10,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Instant;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -26,9 +26,6 @@ class AuthenticationServiceTest {
     @Mock
     private JwtService jwtService;
 
-    @Mock
-    private FirebaseToken firebaseToken;
-
     private AuthenticationService authenticationService;
 
     @BeforeEach
@@ -46,10 +43,8 @@ class AuthenticationServiceTest {
         String username = "newuser";
         String customJwt = "custom-jwt-token";
 
-        when(jwtService.verifyFirebaseToken(firebaseIdToken)).thenReturn(firebaseToken);
-        when(firebaseToken.getUid()).thenReturn(firebaseUid);
-        when(firebaseToken.getEmail()).thenReturn(email);
-        when(firebaseToken.getName()).thenReturn(username);
+        when(jwtService.verifyFirebaseToken(firebaseIdToken)).thenReturn(
+            new VerifiedFirebaseToken(firebaseUid, email, username, Instant.now().plusSeconds(3600)));
 
         when(userRepository.findByUserId(firebaseUid)).thenReturn(Optional.empty());
         
@@ -80,9 +75,8 @@ class AuthenticationServiceTest {
         String email = "existinguser@example.com";
         String customJwt = "custom-jwt-token";
 
-        when(jwtService.verifyFirebaseToken(firebaseIdToken)).thenReturn(firebaseToken);
-        when(firebaseToken.getUid()).thenReturn(firebaseUid);
-        when(firebaseToken.getEmail()).thenReturn(email);
+        when(jwtService.verifyFirebaseToken(firebaseIdToken)).thenReturn(
+            new VerifiedFirebaseToken(firebaseUid, email, null, Instant.now().plusSeconds(3600)));
 
         User existingUser = new User(firebaseUid, "existinguser", email, "IT");
         existingUser.setIsAdmin(true);
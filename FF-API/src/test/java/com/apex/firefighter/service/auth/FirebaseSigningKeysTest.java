@@ -0,0 +1,108 @@
+package com.apex.firefighter.service.auth;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.security.interfaces.RSAPublicKey;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FirebaseSigningKeysTest {
+
+    // A certificate set in the format Google publishes, served from the test classpath
+    private static final String LOCAL_CERTIFICATES = FirebaseSigningKeysTest.class.getResource("/firebase-signing-keys.json").toString();
+
+    private FirebaseSigningKeys signingKeys;
+
+    @AfterEach
+    void tearDown() {
+        if (signingKeys != null) {
+            signingKeys.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Should load the certificates on start")
+    void shouldLoadCertificatesOnStart() {
+        // Given
+        signingKeys = new FirebaseSigningKeys(true, LOCAL_CERTIFICATES, 60000);
+
+        // When
+        signingKeys.start();
+
+        // Then
+        assertThat(signingKeys.get("test-key-1")).isInstanceOf(RSAPublicKey.class);
+        assertThat(signingKeys.getMetrics())
+            .containsEntry("signingKeys", 1)
+            .containsEntry("keyRefreshes", 1L)
+            .containsEntry("keyRefreshFailures", 0L);
+    }
+
+    @Test
+    @DisplayName("Should not fetch anything while Firebase is disabled")
+    void shouldNotFetchWhenDisabled() {
+        // Given
+        signingKeys = new FirebaseSigningKeys(false, LOCAL_CERTIFICATES, 0);
+
+        // When
+        signingKeys.start();
+
+        // Then
+        assertThat(signingKeys.get("test-key-1")).isNull();
+        assertThat(signingKeys.getMetrics()).containsEntry("keyRefreshes", 0L);
+    }
+
+    @Test
+    @DisplayName("Should keep starting when the certificates cannot be loaded")
+    void shouldCountFailedRefresh() {
+        // Given
+        signingKeys = new FirebaseSigningKeys(true, "file:/nonexistent/firebase-signing-keys.json", 60000);
+
+        // When
+        signingKeys.start();
+
+        // Then
+        assertThat(signingKeys.get("test-key-1")).isNull();
+        assertThat(signingKeys.getMetrics())
+            .containsEntry("signingKeys", 0)
+            .containsEntry("keyRefreshFailures", 1L);
+    }
+
+    @Test
+    @DisplayName("Should refresh in the background when an unknown key id is seen")
+    void shouldRefreshEarlyForUnknownKeyId() throws Exception {
+        // Given
+        signingKeys = new FirebaseSigningKeys(true, LOCAL_CERTIFICATES, 0);
+        signingKeys.start();
+
+        // When
+        assertThat(signingKeys.get("rotated-key")).isNull();
+
+        // Then
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((long) signingKeys.getMetrics().get("keyRefreshes") < 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat((long) signingKeys.getMetrics().get("keyRefreshes")).isGreaterThanOrEqualTo(2);
+        assertThat(signingKeys.getMetrics()).containsEntry("unknownKeyIds", 1L);
+    }
+
+    @Test
+    @DisplayName("Should serve a fixed key set without fetching")
+    void shouldServeFixedKeySet() {
+        // Given
+        FirebaseSigningKeys loaded = new FirebaseSigningKeys(true, LOCAL_CERTIFICATES, 60000);
+        loaded.start();
+        loaded.stop();
+
+        // When
+        signingKeys = FirebaseSigningKeys.of(Map.of("local-key", loaded.get("test-key-1")));
+
+        // Then
+        assertThat(signingKeys.get("local-key")).isEqualTo(loaded.get("test-key-1"));
+        assertThat(signingKeys.get("test-key-1")).isNull();
+        assertThat(signingKeys.getMetrics()).containsEntry("keyRefreshes", 0L);
+    }
+}
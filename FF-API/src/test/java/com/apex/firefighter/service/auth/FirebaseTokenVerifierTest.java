@@ -0,0 +1,190 @@
+package com.apex.firefighter.service.auth;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FirebaseTokenVerifierTest {
+
+    private static final String PROJECT_ID = "test-project";
+    private static final String ISSUER = "https://securetoken.google.com/" + PROJECT_ID;
+    private static final String KEY_ID = "test-key-1";
+    private static final String FIREBASE_UID = "firebase-uid-123";
+
+    private static KeyPair googleKeys;
+    private static KeyPair otherKeys;
+
+    private FirebaseTokenVerifier verifier;
+
+    @BeforeAll
+    static void generateKeys() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        googleKeys = generator.generateKeyPair();
+        otherKeys = generator.generateKeyPair();
+    }
+
+    @BeforeEach
+    void setUp() {
+        // Stand-in for Google's published certificates, so nothing is fetched
+        verifier = new FirebaseTokenVerifier(FirebaseSigningKeys.of(Map.of(KEY_ID, googleKeys.getPublic())), PROJECT_ID, 100);
+    }
+
+    @Test
+    @DisplayName("Should verify a Firebase ID token and return its claims")
+    void shouldVerifyValidIdToken() {
+        // Given
+        Instant expiresAt = Instant.now().plus(Duration.ofHours(1)).truncatedTo(ChronoUnit.SECONDS);
+        String idToken = idToken(KEY_ID, googleKeys.getPrivate(), PROJECT_ID, ISSUER, expiresAt);
+
+        // When
+        VerifiedFirebaseToken token = verifier.verify(idToken);
+
+        // Then
+        assertThat(token.uid()).isEqualTo(FIREBASE_UID);
+        assertThat(token.email()).isEqualTo("user@example.com");
+        assertThat(token.name()).isEqualTo("Test User");
+        assertThat(token.expiresAt()).isEqualTo(expiresAt);
+    }
+
+    @Test
+    @DisplayName("Should answer a repeated token from the cache")
+    void shouldCacheVerifiedToken() {
+        // Given
+        String idToken = idToken(KEY_ID, googleKeys.getPrivate(), PROJECT_ID, ISSUER, Instant.now().plus(Duration.ofHours(1)));
+
+        // When
+        VerifiedFirebaseToken first = verifier.verify(idToken);
+        VerifiedFirebaseToken second = verifier.verify(idToken);
+
+        // Then
+        assertThat(second).isSameAs(first);
+        assertThat(verifier.getMetrics())
+            .containsEntry("cacheMisses", 1L)
+            .containsEntry("cacheHits", 1L)
+            .containsEntry("cachedTokens", 1L);
+    }
+
+    @Test
+    @DisplayName("Should stop answering from the cache once the token expires")
+    void shouldNotServeCachedTokenAfterExpiry() throws Exception {
+        // Given
+        Instant expiresAt = Instant.now().plusSeconds(2).truncatedTo(ChronoUnit.SECONDS);
+        String idToken = idToken(KEY_ID, googleKeys.getPrivate(), PROJECT_ID, ISSUER, expiresAt);
+        verifier.verify(idToken);
+
+        // When
+        Thread.sleep(Math.max(0, Duration.between(Instant.now(), expiresAt).toMillis()) + 200);
+
+        // Then
+        assertThatThrownBy(() -> verifier.verify(idToken)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject an expired token")
+    void shouldRejectExpiredToken() {
+        String idToken = idToken(KEY_ID, googleKeys.getPrivate(), PROJECT_ID, ISSUER, Instant.now().minusSeconds(60));
+
+        assertThatThrownBy(() -> verifier.verify(idToken)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a token signed with a key Google has not published")
+    void shouldRejectUnknownKeyId() {
+        String idToken = idToken("unknown-key", googleKeys.getPrivate(), PROJECT_ID, ISSUER, Instant.now().plusSeconds(3600));
+
+        assertThatThrownBy(() -> verifier.verify(idToken))
+            .isInstanceOf(JwtException.class)
+            .hasMessageContaining("unknown key");
+    }
+
+    @Test
+    @DisplayName("Should reject a token whose signature does not match the published key")
+    void shouldRejectForgedSignature() {
+        String idToken = idToken(KEY_ID, otherKeys.getPrivate(), PROJECT_ID, ISSUER, Instant.now().plusSeconds(3600));
+
+        assertThatThrownBy(() -> verifier.verify(idToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a token issued for another Firebase project")
+    void shouldRejectOtherProject() {
+        String wrongAudience = idToken(KEY_ID, googleKeys.getPrivate(), "other-project", ISSUER, Instant.now().plusSeconds(3600));
+        String wrongIssuer = idToken(KEY_ID, googleKeys.getPrivate(), PROJECT_ID,
+            "https://securetoken.google.com/other-project", Instant.now().plusSeconds(3600));
+
+        assertThatThrownBy(() -> verifier.verify(wrongAudience)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> verifier.verify(wrongIssuer)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Should reject a token that is not signed with RS256")
+    void shouldRejectHmacSignedToken() {
+        String idToken = Jwts.builder()
+            .header().keyId(KEY_ID).and()
+            .issuer(ISSUER)
+            .audience().single(PROJECT_ID)
+            .subject(FIREBASE_UID)
+            .issuedAt(new Date())
+            .expiration(Date.from(Instant.now().plusSeconds(3600)))
+            .claim("auth_time", Instant.now().getEpochSecond())
+            .signWith(Keys.hmacShaKeyFor("a-shared-secret-that-is-long-enough-for-hs256".getBytes()))
+            .compact();
+
+        assertThatThrownBy(() -> verifier.verify(idToken))
+            .isInstanceOf(JwtException.class)
+            .hasMessageContaining("RS256");
+    }
+
+    @Test
+    @DisplayName("Should not cache rejected tokens")
+    void shouldNotCacheRejectedTokens() {
+        String idToken = idToken(KEY_ID, otherKeys.getPrivate(), PROJECT_ID, ISSUER, Instant.now().plusSeconds(3600));
+
+        assertThatThrownBy(() -> verifier.verify(idToken)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> verifier.verify(idToken)).isInstanceOf(JwtException.class);
+
+        assertThat(verifier.getMetrics())
+            .containsEntry("cachedTokens", 0L)
+            .containsEntry("verificationFailures", 2L);
+    }
+
+    @Test
+    @DisplayName("Should reject an empty token")
+    void shouldRejectEmptyToken() {
+        assertThatThrownBy(() -> verifier.verify(" ")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> verifier.verify(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String idToken(String keyId, PrivateKey signingKey, String audience, String issuer, Instant expiresAt) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+            .header().keyId(keyId).and()
+            .issuer(issuer)
+            .audience().single(audience)
+            .subject(FIREBASE_UID)
+            .issuedAt(Date.from(now))
+            .expiration(Date.from(expiresAt))
+            .claim("auth_time", now.getEpochSecond())
+            .claim("email", "user@example.com")
+            .claim("name", "Test User")
+            .signWith(signingKey, Jwts.SIG.RS256)
+            .compact();
+    }
+}
@@ -1,7 +1,5 @@
 package com.apex.firefighter.service.auth;
 
-import com.google.firebase.auth.FirebaseAuth;
-import com.google.firebase.auth.FirebaseToken;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,6 +8,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.time.Instant;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -17,10 +17,7 @@ import static org.mockito.Mockito.*;
 class JwtServiceTest {
 
     @Mock
-    private FirebaseAuth firebaseAuth;
-
-    @Mock
-    private FirebaseToken firebaseToken;
+    private FirebaseTokenVerifier firebaseTokenVerifier;
 
     private JwtService jwtService;
 
@@ -29,7 +26,7 @@ class JwtServiceTest {
 
     @BeforeEach
     void setUp() {
-        jwtService = new JwtService(firebaseAuth);
+        jwtService = new JwtService(firebaseTokenVerifier);
         ReflectionTestUtils.setField(jwtService, "jwtSecret", TEST_JWT_SECRET);
         ReflectionTestUtils.setField(jwtService, "jwtExpiration", TEST_JWT_EXPIRATION);
     }
@@ -72,7 +69,7 @@ class JwtServiceTest {
     @DisplayName("Should detect expired token")
     void shouldDetectExpiredToken() throws InterruptedException {
         // Given - Create a token with very short expiration
-        JwtService shortExpirationService = new JwtService(firebaseAuth);
+        JwtService shortExpirationService = new JwtService(firebaseTokenVerifier);
         ReflectionTestUtils.setField(shortExpirationService, "jwtSecret", TEST_JWT_SECRET);
         ReflectionTestUtils.setField(shortExpirationService, "jwtExpiration", 100L); // 100ms
 
@@ -90,14 +87,16 @@ class JwtServiceTest {
     void shouldVerifyFirebaseTokenSuccessfully() throws Exception {
         // Given
         String idToken = "valid-firebase-token";
-        when(firebaseAuth.verifyIdToken(idToken)).thenReturn(firebaseToken);
+        VerifiedFirebaseToken firebaseToken = new VerifiedFirebaseToken("firebase-uid", "test@example.com", "Test User",
+            Instant.now().plusSeconds(3600));
+        when(firebaseTokenVerifier.verify(idToken)).thenReturn(firebaseToken);
 
         // When
-        FirebaseToken result = jwtService.verifyFirebaseToken(idToken);
+        VerifiedFirebaseToken result = jwtService.verifyFirebaseToken(idToken);
 
         // Then
         assertThat(result).isEqualTo(firebaseToken);
-        verify(firebaseAuth).verifyIdToken(idToken);
+        verify(firebaseTokenVerifier).verify(idToken);
     }
 
     @Test
@@ -105,7 +104,7 @@ class JwtServiceTest {
     void shouldThrowExceptionForInvalidFirebaseToken() throws Exception {
         // Given
         String invalidToken = "invalid-firebase-token";
-        when(firebaseAuth.verifyIdToken(invalidToken))
+        when(firebaseTokenVerifier.verify(invalidToken))
             .thenThrow(new RuntimeException("Invalid token"));
 
         // When & Then
@@ -129,4 +128,74 @@ class JwtServiceTest {
         assertThat(jwtService.extractIsAdmin(token)).isEqualTo(isAdmin);
         assertThat(jwtService.extractExpiration(token)).isAfter(new java.util.Date());
     }
+
+    @Test
+    @DisplayName("Should verify a valid custom JWT once and return its claims")
+    void shouldVerifyValidCustomJwt() {
+        // Given
+        String token = jwtService.generateToken("test-uid", "admin@example.com", true);
+
+        // When
+        VerifiedToken verified = jwtService.verifyCustomToken(token);
+
+        // Then
+        assertThat(verified.status()).isEqualTo(VerifiedToken.Status.VALID);
+        assertThat(verified.firebaseUid()).isEqualTo("test-uid");
+        assertThat(verified.email()).isEqualTo("admin@example.com");
+        assertThat(verified.admin()).isTrue();
+        assertThat(verified.expiration()).isAfter(new java.util.Date());
+    }
+
+    @Test
+    @DisplayName("Should report an expired custom JWT as expired with its claims")
+    void shouldReportExpiredCustomJwt() {
+        // Given
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", -1000L);
+        String token = jwtService.generateToken("test-uid", "test@example.com", false);
+
+        // When
+        VerifiedToken verified = jwtService.verifyCustomToken(token);
+
+        // Then
+        assertThat(verified.status()).isEqualTo(VerifiedToken.Status.EXPIRED);
+        assertThat(verified.firebaseUid()).isEqualTo("test-uid");
+        assertThat(verified.admin()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should report tokens that are not ours as invalid")
+    void shouldReportForeignAndTamperedTokensAsInvalid() {
+        // Given
+        String token = jwtService.generateToken("test-uid", "test@example.com", false);
+        int signatureChar = token.lastIndexOf('.') + 5;
+        char replacement = token.charAt(signatureChar) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, signatureChar) + replacement + token.substring(signatureChar + 1);
+
+        JwtService otherService = new JwtService(firebaseTokenVerifier);
+        ReflectionTestUtils.setField(otherService, "jwtSecret", "another-secret-key-that-is-also-long-enough");
+        ReflectionTestUtils.setField(otherService, "jwtExpiration", TEST_JWT_EXPIRATION);
+        String foreign = otherService.generateToken("test-uid", "test@example.com", false);
+
+        // When & Then
+        assertThat(jwtService.verifyCustomToken(tampered).status()).isEqualTo(VerifiedToken.Status.INVALID);
+        assertThat(jwtService.verifyCustomToken(foreign).status()).isEqualTo(VerifiedToken.Status.INVALID);
+        assertThat(jwtService.verifyCustomToken("not.a.jwt").status()).isEqualTo(VerifiedToken.Status.INVALID);
+        assertThat(jwtService.verifyCustomToken("").status()).isEqualTo(VerifiedToken.Status.INVALID);
+    }
+
+    @Test
+    @DisplayName("Should pick up a changed secret")
+    void shouldRebuildSigningKeyWhenSecretChanges() {
+        // Given
+        String token = jwtService.generateToken("test-uid", "test@example.com", false);
+        assertThat(jwtService.verifyCustomToken(token).isValid()).isTrue();
+
+        // When
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", "a-rotated-secret-key-that-is-long-enough");
+
+        // Then
+        assertThat(jwtService.verifyCustomToken(token).isValid()).isFalse();
+        assertThat(jwtService.verifyCustomToken(jwtService.generateToken("test-uid", "test@example.com", false)).isValid())
+            .isTrue();
+    }
 }
@@ -5,6 +5,7 @@ import com.apex.firefighter.model.Ticket;
 import com.apex.firefighter.model.User;
 import com.apex.firefighter.service.ticket.TicketService;
 import com.apex.firefighter.service.UserService;
+import com.apex.firefighter.service.user.UserAuthorizationChangedEvent;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -43,14 +44,21 @@ public class EntityExtractionServiceTest {
     @InjectMocks
     private EntityExtractionService entityExtractionService;
 
+    private UsernameDictionary usernameDictionary;
+
     @BeforeEach
     void setUp() {
         // Mock NLPConfig with lenient stubbing to avoid unnecessary stubbing errors
         lenient().when(nlpConfig.getEntityConfidenceThreshold()).thenReturn(0.6);
         lenient().when(nlpConfig.isDebugEnabled()).thenReturn(false); // Disable debug to avoid console spam
 
-        // Mock UserService to return empty list of users to avoid NullPointerException
-        lenient().when(userService.getAuthorizedUsers()).thenReturn(new ArrayList<>());
+        // Authorized users behind the username dictionary
+        lenient().when(userService.getAuthorizedUsers()).thenReturn(new ArrayList<>(List.of(
+            new User("uid-john", "John", "john@example.com", "IT"),
+            new User("uid-mary", "mary.jane", "mary@example.com", "HR"))));
+        usernameDictionary = new UsernameDictionary(userService);
+        usernameDictionary.load();
+        ReflectionTestUtils.setField(entityExtractionService, "usernameDictionary", usernameDictionary);
 
         // Reset ENTITY_PATTERNS
         ReflectionTestUtils.invokeMethod(entityExtractionService, "initializeEntityPatterns");
@@ -94,6 +102,50 @@ public class EntityExtractionServiceTest {
         assertThat(matchingEntity.getConfidence()).isGreaterThanOrEqualTo(0.6);
     }
 
+    @Test
+    void testExtractEntities_keywordPositionsPointAtEachOccurrence() {
+        // "hr" also appears inside "three"; keyword spans must point at the words themselves
+        EntityExtractionService.ExtractedEntities entities = entityExtractionService.extractEntities("three hr staff need hr");
+
+        assertThat(entities.getEmergencyTypes())
+            .extracting(EntityExtractionService.Entity::getValue, EntityExtractionService.Entity::getStartPosition,
+                EntityExtractionService.Entity::getEndPosition)
+            .containsExactly(
+                org.assertj.core.groups.Tuple.tuple("hr", 6, 8),
+                org.assertj.core.groups.Tuple.tuple("hr", 20, 22));
+    }
+
+    @Test
+    void testExtractEntities_everyRegexReportsAllOfItsMatches() {
+        String query = "create hr-emergency ticket for payroll access, duration 30 minutes, contact 0821234567";
+        EntityExtractionService.ExtractedEntities entities = entityExtractionService.extractEntities(query);
+
+        String normalized = "create hr-emergency ticket for payroll access duration 30 minutes contact 0821234567";
+        for (List<EntityExtractionService.Entity> typeEntities : entities.getAllEntities().values()) {
+            for (EntityExtractionService.Entity entity : typeEntities) {
+                if (entity.getType() != EntityExtractionService.EntityType.DESCRIPTION) {
+                    assertThat(normalized.substring(entity.getStartPosition(), entity.getEndPosition()))
+                        .isEqualToIgnoringCase(entity.getValue());
+                }
+            }
+        }
+        assertThat(entities.getEmergencyTypes()).extracting(EntityExtractionService.Entity::getValue)
+            .contains("hr-emergency");
+        assertThat(entities.getDurations()).extracting(EntityExtractionService.Entity::getValue)
+            .contains("30 minutes", "duration 30 minutes");
+        assertThat(entities.getPhones()).extracting(EntityExtractionService.Entity::getValue)
+            .contains("contact 0821234567", "0821234567");
+        assertThat(entities.getDescriptions()).extracting(EntityExtractionService.Entity::getValue)
+            .contains("payroll access");
+    }
+
+    @Test
+    void testExtractEntities_queryWithoutEntities() {
+        EntityExtractionService.ExtractedEntities entities = entityExtractionService.extractEntities("what is going on");
+
+        assertThat(entities.getAllEntities().values()).allMatch(List::isEmpty);
+    }
+
     @Test
     void testExtractEntities_emptyQuery() {
         EntityExtractionService.ExtractedEntities entities = entityExtractionService.extractEntities("");
@@ -181,6 +233,44 @@ public class EntityExtractionServiceTest {
         assertThat(result.getWarnings()).contains("Unknown user name: unknown");
     }
 
+    @Test
+    void testExtractEntities_userNamesFromDictionary() {
+        EntityExtractionService.ExtractedEntities entities =
+            entityExtractionService.extractEntities("show tickets of mary.jane and john");
+
+        assertThat(entities.getUserNames())
+            .extracting(EntityExtractionService.Entity::getValue, EntityExtractionService.Entity::getNormalizedValue,
+                EntityExtractionService.Entity::getStartPosition)
+            .containsExactly(
+                org.assertj.core.groups.Tuple.tuple("mary jane", "mary.jane", 16),
+                org.assertj.core.groups.Tuple.tuple("john", "John", 30));
+    }
+
+    @Test
+    void testExtractEntities_userNameTypoAfterCueWord() {
+        EntityExtractionService.ExtractedEntities entities = entityExtractionService.extractEntities("tickets assigned to johnn");
+
+        assertThat(entities.getUserNames()).hasSize(1);
+        assertThat(entities.getUserNames().get(0).getValue()).isEqualTo("johnn");
+        assertThat(entities.getUserNames().get(0).getNormalizedValue()).isEqualTo("John");
+        assertThat(entities.getUserNames().get(0).getConfidence()).isGreaterThanOrEqualTo(0.6);
+
+        // Without a cue word a near-miss is not taken for a name
+        assertThat(entityExtractionService.extractEntities("johnn tickets").getUserNames()).isEmpty();
+    }
+
+    @Test
+    void testExtractEntities_dictionaryFollowsAuthorizationChanges() {
+        assertThat(entityExtractionService.extractEntities("tickets for thandi").getUserNames()).isEmpty();
+
+        usernameDictionary.onUserAuthorizationChanged(new UserAuthorizationChangedEvent("uid-thandi", "Thandi", true));
+        assertThat(entityExtractionService.extractEntities("tickets for thandi").getUserNames())
+            .extracting(EntityExtractionService.Entity::getNormalizedValue).containsExactly("Thandi");
+
+        usernameDictionary.onUserAuthorizationChanged(new UserAuthorizationChangedEvent("uid-john", "John", false));
+        assertThat(entityExtractionService.extractEntities("tickets for john").getUserNames()).isEmpty();
+    }
+
     @Test
     void testGetSupportedEntityTypes() {
         List<EntityExtractionService.EntityType> types = entityExtractionService.getSupportedEntityTypes();
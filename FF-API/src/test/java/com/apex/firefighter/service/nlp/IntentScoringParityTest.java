@@ -0,0 +1,103 @@
+package com.apex.firefighter.service.nlp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the single-pass phrase automaton produces exactly the intent scores
+ * of the previous per-pattern scoring loop (LegacyIntentScorer)
+ */
+class IntentScoringParityTest {
+
+    private static final Path NLP_QUERY_CORPUS = Paths.get("../jmeter-testing/ff-api-tests/test-data/nlp-queries.csv");
+
+    private IntentRecognitionService intentRecognitionService;
+    private LegacyIntentScorer legacyScorer;
+
+    @BeforeEach
+    void setUp() {
+        intentRecognitionService = new IntentRecognitionService();
+        legacyScorer = new LegacyIntentScorer();
+    }
+
+    @Test
+    void calculateIntentScores_ShouldMatchLegacyScoresOverQueryCorpus() throws IOException {
+        List<String> queries = new ArrayList<>(loadCorpus());
+        queries.addAll(List.of(
+            "show my tickets", "show active tickets", "show completed tickets", "search for tickets",
+            "create new ticket", "update ticket status", "close ticket", "show all tickets", "system statistics",
+            "export tickets", "help", "what can you do", "random gibberish text", "tickets",
+            "new hr emergency ticket needed", "create financial emergency ticket", "management emergency request",
+            "logistics emergency ticket", "display my closed tickets please", "end ticket FF-2024-001",
+            "how do I request emergency access?", "what elevated access do I currently have",
+            "my my my tickets tickets", "exported tickets", "helpful features", "  export  ", "follow-up on stats"
+        ));
+
+        assertParity(queries);
+    }
+
+    @Test
+    void calculateIntentScores_ShouldMatchLegacyScoresForEveryPhraseAndKeyword() {
+        Set<String> queries = new LinkedHashSet<>();
+        List<String> vocabulary = new ArrayList<>();
+        for (List<IntentRecognitionService.IntentPattern> patterns : intentPatterns().values()) {
+            for (IntentRecognitionService.IntentPattern pattern : patterns) {
+                vocabulary.addAll(pattern.getExactPhrases());
+                vocabulary.addAll(pattern.getKeywords());
+            }
+        }
+        queries.addAll(vocabulary);
+        // Pairs exercise overlapping phrases and keywords next to each other
+        for (int i = 0; i < vocabulary.size(); i++) {
+            String next = vocabulary.get((i * 7 + 3) % vocabulary.size());
+            queries.add(vocabulary.get(i) + " " + next);
+            queries.add("please " + vocabulary.get(i) + " now");
+            queries.add(vocabulary.get(i) + next);
+        }
+
+        assertParity(new ArrayList<>(queries));
+    }
+
+    private void assertParity(List<String> queries) {
+        for (String query : queries) {
+            String normalizedQuery = intentRecognitionService.normalizeQuery(query);
+            Map<IntentRecognitionService.IntentType, Double> expected = legacyScorer.calculateIntentScores(normalizedQuery);
+            Map<IntentRecognitionService.IntentType, Double> actual = intentRecognitionService.calculateIntentScores(normalizedQuery);
+
+            assertThat(actual).as("intent scores for '%s'", query).isEqualTo(expected);
+        }
+    }
+
+    private static List<String> loadCorpus() throws IOException {
+        List<String> queries = new ArrayList<>();
+        List<String> lines = Files.readAllLines(NLP_QUERY_CORPUS, StandardCharsets.UTF_8);
+        // Skip the "query,userType" header; queries are quoted and contain no escaped quotes
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.startsWith("\"")) {
+                queries.add(line.substring(1, line.indexOf('"', 1)));
+            }
+        }
+        assertThat(queries).isNotEmpty();
+        return queries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<IntentRecognitionService.IntentType, List<IntentRecognitionService.IntentPattern>> intentPatterns() {
+        return (Map<IntentRecognitionService.IntentType, List<IntentRecognitionService.IntentPattern>>)
+            ReflectionTestUtils.getField(IntentRecognitionService.class, "INTENT_PATTERNS");
+    }
+}
@@ -0,0 +1,91 @@
+package com.apex.firefighter.service.nlp;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The per-pattern scoring loop IntentRecognitionService used before the phrase automaton.
+ * Kept as the reference for IntentScoringParityTest and the intent scoring benchmark.
+ */
+final class LegacyIntentScorer {
+
+    private final Map<IntentRecognitionService.IntentType, List<IntentRecognitionService.IntentPattern>> intentPatterns;
+    private final Set<String> stopWords;
+
+    @SuppressWarnings("unchecked")
+    LegacyIntentScorer() {
+        this.intentPatterns = (Map<IntentRecognitionService.IntentType, List<IntentRecognitionService.IntentPattern>>)
+            ReflectionTestUtils.getField(IntentRecognitionService.class, "INTENT_PATTERNS");
+        this.stopWords = (Set<String>) ReflectionTestUtils.getField(IntentRecognitionService.class, "STOP_WORDS");
+    }
+
+    Map<IntentRecognitionService.IntentType, Double> calculateIntentScores(String normalizedQuery) {
+        Map<IntentRecognitionService.IntentType, Double> scores = new HashMap<>();
+
+        for (IntentRecognitionService.IntentType intentType : IntentRecognitionService.IntentType.values()) {
+            if (intentType == IntentRecognitionService.IntentType.UNKNOWN) continue;
+
+            List<IntentRecognitionService.IntentPattern> patterns = intentPatterns.get(intentType);
+            if (patterns == null) continue;
+
+            double maxScore = 0.0;
+            for (IntentRecognitionService.IntentPattern pattern : patterns) {
+                maxScore = Math.max(maxScore, calculatePatternScore(normalizedQuery, pattern));
+            }
+
+            scores.put(intentType, maxScore);
+        }
+
+        return scores;
+    }
+
+    private double calculatePatternScore(String query, IntentRecognitionService.IntentPattern pattern) {
+        double score = 0.0;
+        boolean hasExactMatch = false;
+
+        for (String phrase : pattern.getExactPhrases()) {
+            if (query.equals(phrase.toLowerCase())) {
+                return pattern.getWeight();
+            }
+            if (query.contains(phrase.toLowerCase())) {
+                score += pattern.getWeight() * 0.9;
+                hasExactMatch = true;
+            }
+        }
+
+        for (Pattern regex : pattern.getRegexPatterns()) {
+            if (regex.matcher(query).find()) {
+                score += pattern.getWeight() * 0.8;
+                hasExactMatch = true;
+            }
+        }
+
+        if (!hasExactMatch && !pattern.getKeywords().isEmpty()) {
+            String[] queryWords = query.split("\\s+");
+            Set<String> queryWordSet = Arrays.stream(queryWords)
+                .filter(word -> !stopWords.contains(word))
+                .collect(Collectors.toSet());
+
+            int keywordMatches = 0;
+            for (String keyword : pattern.getKeywords()) {
+                if (queryWordSet.contains(keyword.toLowerCase())) {
+                    keywordMatches++;
+                }
+            }
+
+            if (keywordMatches > 0) {
+                double keywordScore = (double) keywordMatches / pattern.getKeywords().size();
+                score += pattern.getWeight() * keywordScore * 0.6;
+            }
+        }
+
+        return Math.min(score, 1.0);
+    }
+}
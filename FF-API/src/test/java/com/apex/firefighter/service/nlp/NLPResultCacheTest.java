@@ -0,0 +1,133 @@
+package com.apex.firefighter.service.nlp;
+
+import com.apex.firefighter.config.NLPConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NLPResultCacheTest {
+
+    private NLPConfig nlpConfig;
+    private NLPResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        nlpConfig = new NLPConfig();
+        ReflectionTestUtils.setField(nlpConfig, "cacheEnabled", true);
+        ReflectionTestUtils.setField(nlpConfig, "cacheTtlSeconds", 300);
+        ReflectionTestUtils.setField(nlpConfig, "queryCacheMaxEntries", 100);
+        ReflectionTestUtils.setField(nlpConfig, "resultCacheMaxEntries", 100);
+        cache = new NLPResultCache(nlpConfig);
+    }
+
+    @Test
+    void getParsedQuery_ShouldParseEquivalentQueriesOnce() {
+        AtomicInteger parses = new AtomicInteger();
+
+        NLPResultCache.ParsedQuery first = cache.getParsedQuery("Show my  active tickets", query -> parse(parses));
+        NLPResultCache.ParsedQuery second = cache.getParsedQuery("  show MY active tickets ", query -> parse(parses));
+
+        assertSame(first, second);
+        assertEquals(1, parses.get());
+    }
+
+    @Test
+    void getParsedQuery_WhenCacheDisabled_ShouldAlwaysParse() {
+        ReflectionTestUtils.setField(nlpConfig, "cacheEnabled", false);
+        cache = new NLPResultCache(nlpConfig);
+        AtomicInteger parses = new AtomicInteger();
+
+        cache.getParsedQuery("show my tickets", query -> parse(parses));
+        cache.getParsedQuery("show my tickets", query -> parse(parses));
+
+        assertEquals(2, parses.get());
+    }
+
+    @Test
+    void getResult_ShouldCachePerUserRoleAndFilters() {
+        AtomicInteger loads = new AtomicInteger();
+        Map<String, Object> filters = Map.of("status", "active");
+
+        QueryProcessingService.QueryResult first = cache.getResult("user1", false,
+            IntentRecognitionService.IntentType.SHOW_TICKETS, filters, () -> load(loads, true));
+        QueryProcessingService.QueryResult second = cache.getResult("user1", false,
+            IntentRecognitionService.IntentType.SHOW_TICKETS, Map.of("status", "active"), () -> load(loads, true));
+        cache.getResult("user2", false, IntentRecognitionService.IntentType.SHOW_TICKETS, filters, () -> load(loads, true));
+        cache.getResult("user1", true, IntentRecognitionService.IntentType.SHOW_TICKETS, filters, () -> load(loads, true));
+        cache.getResult("user1", false, IntentRecognitionService.IntentType.SHOW_TICKETS, Map.of(), () -> load(loads, true));
+
+        assertSame(first, second);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void getResult_ShouldNotCacheFailuresOrWriteIntents() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getResult("user1", false, IntentRecognitionService.IntentType.SHOW_TICKETS, Map.of(), () -> load(loads, false));
+        cache.getResult("user1", false, IntentRecognitionService.IntentType.SHOW_TICKETS, Map.of(), () -> load(loads, false));
+        cache.getResult("user1", false, IntentRecognitionService.IntentType.CLOSE_TICKET, Map.of(), () -> load(loads, true));
+        cache.getResult("user1", false, IntentRecognitionService.IntentType.CLOSE_TICKET, Map.of(), () -> load(loads, true));
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void invalidateResults_ShouldDropCachedResults() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getResult("user1", false, IntentRecognitionService.IntentType.GET_SYSTEM_STATS, Map.of(), () -> load(loads, true));
+        cache.invalidateResults();
+        cache.getResult("user1", false, IntentRecognitionService.IntentType.GET_SYSTEM_STATS, Map.of(), () -> load(loads, true));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateResults_DuringLoad_ShouldNotStoreStaleResult() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getResult("user1", false, IntentRecognitionService.IntentType.SHOW_TICKETS, Map.of(), () -> {
+            cache.invalidateResults();
+            return load(loads, true);
+        });
+        cache.getResult("user1", false, IntentRecognitionService.IntentType.SHOW_TICKETS, Map.of(), () -> load(loads, true));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getStatistics_ShouldReportHitsAndMissesPerTier() {
+        AtomicInteger parses = new AtomicInteger();
+        cache.getParsedQuery("help", query -> parse(parses));
+        cache.getParsedQuery("help", query -> parse(parses));
+
+        Map<String, Object> statistics = cache.getStatistics();
+        Map<String, Object> queryCache = (Map<String, Object>) statistics.get("queryCache");
+        Map<String, Object> resultCache = (Map<String, Object>) statistics.get("resultCache");
+
+        assertEquals(true, statistics.get("enabled"));
+        assertEquals(1L, queryCache.get("hits"));
+        assertEquals(1L, queryCache.get("misses"));
+        assertEquals(0L, queryCache.get("evictions"));
+        assertEquals(0L, resultCache.get("hits"));
+    }
+
+    private static NLPResultCache.ParsedQuery parse(AtomicInteger parses) {
+        parses.incrementAndGet();
+        return new NLPResultCache.ParsedQuery(
+            new IntentRecognitionService.Intent(IntentRecognitionService.IntentType.SHOW_ACTIVE_TICKETS, 0.9),
+            new EntityExtractionService.ExtractedEntities());
+    }
+
+    private static QueryProcessingService.QueryResult load(AtomicInteger loads, boolean success) {
+        loads.incrementAndGet();
+        return new QueryProcessingService.QueryResult(success, "result " + loads.get());
+    }
+}
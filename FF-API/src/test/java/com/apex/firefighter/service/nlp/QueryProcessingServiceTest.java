@@ -2,12 +2,17 @@ package com.apex.firefighter.service.nlp;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import com.apex.firefighter.model.Ticket;
 import com.apex.firefighter.service.nlp.EntityExtractionService;
 import com.apex.firefighter.service.nlp.IntentRecognitionService;
 import com.apex.firefighter.service.nlp.QueryProcessingService;
+import com.apex.firefighter.service.ticket.TicketPage;
+import com.apex.firefighter.service.ticket.TicketQuery;
 import com.apex.firefighter.service.ticket.TicketService;
+import com.apex.firefighter.service.ticket.TicketStatistics;
+import com.apex.firefighter.service.ticket.TicketStatisticsService;
 import com.apex.firefighter.config.NLPConfig;
 
 import java.util.*;
@@ -19,17 +24,20 @@ class QueryProcessingServiceTest {
 
     private QueryProcessingService queryProcessingService;
     private TicketService ticketService;
+    private TicketStatisticsService ticketStatisticsService;
     private IntentRecognitionService intentRecognitionService;
     private NLPConfig nlpConfig;
 
     @BeforeEach
     void setUp() {
         ticketService = Mockito.mock(TicketService.class);
+        ticketStatisticsService = Mockito.mock(TicketStatisticsService.class);
         intentRecognitionService = Mockito.mock(IntentRecognitionService.class);
         nlpConfig = Mockito.mock(NLPConfig.class);
 
         queryProcessingService = new QueryProcessingService();
         queryProcessingService.setTicketService(ticketService);
+        queryProcessingService.setTicketStatisticsService(ticketStatisticsService);
         queryProcessingService.setIntentRecognitionService(intentRecognitionService);
         queryProcessingService.setNlpConfig(nlpConfig);
 
@@ -38,6 +46,12 @@ class QueryProcessingServiceTest {
         when(intentRecognitionService.isIntentAllowed(any(), any())).thenReturn(true);
     }
 
+    private TicketQuery captureTicketQuery() {
+        ArgumentCaptor<TicketQuery> captor = ArgumentCaptor.forClass(TicketQuery.class);
+        verify(ticketService).findTickets(captor.capture());
+        return captor.getValue();
+    }
+
     private EntityExtractionService.Entity makeEntity(EntityExtractionService.EntityType type, String value) {
         return new EntityExtractionService.Entity(type, value, 0, 1);
     }
@@ -45,7 +59,7 @@ class QueryProcessingServiceTest {
     @Test   // ----- Process Query Tests -----
     void testProcessQuery_ShowActiveTickets() {
         List<Ticket> mockTickets = Arrays.asList(new Ticket("1", "Show Active Tickets test", "Active", "user1", "high", "0123456789"));
-        when(ticketService.getTicketsByUserId("user1")).thenReturn(mockTickets);
+        when(ticketService.findTickets(any(TicketQuery.class))).thenReturn(new TicketPage(mockTickets, null));
 
         IntentRecognitionService.Intent intent =
                 new IntentRecognitionService.Intent(IntentRecognitionService.IntentType.SHOW_ACTIVE_TICKETS, 0.95);
@@ -56,6 +70,9 @@ class QueryProcessingServiceTest {
         assertEquals(QueryProcessingService.QueryResultType.TICKET_LIST, result.getResultType());
         assertEquals(1, result.getRecordCount());
         assertEquals(mockTickets, result.getData());
+        TicketQuery query = captureTicketQuery();
+        assertEquals("user1", query.getUserId());
+        assertEquals(Set.of("Active"), query.getStatuses());
     }
 
     @Test   // ----- Build Query Filters Tests -----
@@ -128,20 +145,13 @@ class QueryProcessingServiceTest {
 
     @Test   // ----- Execute Ticket Query Tests -----
     void testExecuteTicketQuery_SystemStats() {
-        // Mock tickets
-        List<Ticket> allTickets = Arrays.asList(
-                new Ticket("1", "Issue A", "Active", "user1", "high", "0123456789"),
-                new Ticket("2", "Issue B", "Active", "user2", "low", "0123456789"),
-                new Ticket("3", "Issue C", "Closed", "user3", "medium", "0123456789"),
-                new Ticket("4", "Issue D", "Completed", "user4", "high", "0123456789"),
-                new Ticket("5", "Issue E", "Active", "user5", "low", "0123456789")
-        );
-
-        when(ticketService.getAllTickets()).thenReturn(allTickets);
-        when(ticketService.getTicketsByStatus("Active")).thenReturn(Arrays.asList(allTickets.get(0), allTickets.get(1), allTickets.get(4)));
-        when(ticketService.getTicketsByStatus("Closed")).thenReturn(Arrays.asList(allTickets.get(2)));
-        when(ticketService.getTicketsByStatus("Completed")).thenReturn(Arrays.asList(allTickets.get(3)));
-        when(ticketService.getTicketsByStatus("Rejected")).thenReturn(Arrays.asList());
+        // Aggregated counts for 3 active, 1 closed and 1 completed ticket
+        Map<String, Integer> byStatus = new HashMap<>();
+        byStatus.put("Active", 3);
+        byStatus.put("Closed", 1);
+        byStatus.put("Completed", 1);
+        when(ticketStatisticsService.getSystemStatistics())
+            .thenReturn(new TicketStatistics(byStatus, new HashMap<>(), 5, 300, 2));
 
         QueryProcessingService.QueryResult result =
                 queryProcessingService.executeTicketQuery(
@@ -153,6 +163,27 @@ class QueryProcessingServiceTest {
         Map<String, Object> stats = (Map<String, Object>) result.getData();
         assertEquals(5, stats.get("totalTickets"));
         assertEquals(3, stats.get("active")); // matches tickets with "Active" status
+        assertEquals(0, stats.get("rejected"));
+        verify(ticketService, never()).getAllTickets();
+    }
+
+    @Test
+    void testExecuteTicketQuery_SystemStats_UserScope() {
+        Map<String, Integer> byStatus = new HashMap<>();
+        byStatus.put("Rejected", 1);
+        when(ticketStatisticsService.getUserStatistics("user1"))
+            .thenReturn(new TicketStatistics(byStatus, new HashMap<>(), 1, 60, 1));
+
+        QueryProcessingService.QueryResult result =
+                queryProcessingService.executeTicketQuery(
+                        QueryProcessingService.TicketQueryType.SYSTEM_STATS,
+                        Collections.emptyMap(), "user1", false);
+
+        Map<String, Object> stats = (Map<String, Object>) result.getData();
+        assertEquals("user", stats.get("scope"));
+        assertEquals(1, stats.get("totalTickets"));
+        assertEquals(1, stats.get("rejected"));
+        verify(ticketStatisticsService, never()).getSystemStatistics();
     }
 
     @Test
@@ -199,7 +230,7 @@ class QueryProcessingServiceTest {
             new Ticket("1", "Active ticket 1", "Active", "user1", "high", "0123456789"),
             new Ticket("2", "Active ticket 2", "Active", "user2", "medium", "0123456789")
         );
-        when(ticketService.getTicketsByStatus("Active")).thenReturn(activeTickets);
+        when(ticketService.findTickets(any(TicketQuery.class))).thenReturn(new TicketPage(activeTickets, null));
 
         QueryProcessingService.QueryResult result = 
             queryProcessingService.executeTicketQuery(
@@ -210,16 +241,18 @@ class QueryProcessingServiceTest {
         assertEquals(QueryProcessingService.QueryResultType.TICKET_LIST, result.getResultType());
         assertEquals(activeTickets, result.getData());
         assertEquals(2, result.getRecordCount());
+        TicketQuery query = captureTicketQuery();
+        assertNull(query.getUserId());
+        assertEquals(Set.of("Active"), query.getStatuses());
     }
 
     @Test
     void testExecuteTicketQuery_CompletedTickets_User() {
         List<Ticket> userTickets = Arrays.asList(
             new Ticket("1", "Completed ticket", "Completed", "user1", "high", "0123456789"),
-            new Ticket("2", "Active ticket", "Active", "user1", "medium", "0123456789"),
             new Ticket("3", "Closed ticket", "Closed", "user1", "low", "0123456789")
         );
-        when(ticketService.getTicketsByUserId("user1")).thenReturn(userTickets);
+        when(ticketService.findTickets(any(TicketQuery.class))).thenReturn(new TicketPage(userTickets, null));
 
         QueryProcessingService.QueryResult result = 
             queryProcessingService.executeTicketQuery(
@@ -230,8 +263,9 @@ class QueryProcessingServiceTest {
         assertEquals(QueryProcessingService.QueryResultType.TICKET_LIST, result.getResultType());
         List<Ticket> resultTickets = (List<Ticket>) result.getData();
         assertEquals(2, resultTickets.size());
-        assertTrue(resultTickets.stream().allMatch(t -> 
-            t.getStatus().equals("Completed") || t.getStatus().equals("Closed")));
+        TicketQuery query = captureTicketQuery();
+        assertEquals("user1", query.getUserId());
+        assertEquals(Set.of("Completed", "Closed"), query.getStatuses());
     }
 
     @Test
@@ -273,7 +307,7 @@ class QueryProcessingServiceTest {
             new Ticket("1", "User ticket 1", "Active", "user1", "high", "0123456789"),
             new Ticket("2", "User ticket 2", "Completed", "user1", "medium", "0123456789")
         );
-        when(ticketService.getTicketsByUserId("user1")).thenReturn(userTickets);
+        when(ticketService.findTickets(any(TicketQuery.class))).thenReturn(new TicketPage(userTickets, null));
 
         IntentRecognitionService.Intent intent =
             new IntentRecognitionService.Intent(IntentRecognitionService.IntentType.SHOW_TICKETS, 0.95);
@@ -285,16 +319,16 @@ class QueryProcessingServiceTest {
         assertEquals(QueryProcessingService.QueryResultType.TICKET_LIST, result.getResultType());
         assertEquals(userTickets, result.getData());
         assertEquals(2, result.getRecordCount());
+        assertEquals("user1", captureTicketQuery().getUserId());
     }
 
     @Test
     void testProcessQuery_ShowRejectedTickets_User() {
         List<Ticket> userTickets = Arrays.asList(
             new Ticket("1", "Rejected ticket 1", "Rejected", "user1", "high", "0123456789"),
-            new Ticket("2", "Active ticket", "Active", "user1", "medium", "0123456789"),
             new Ticket("3", "Rejected ticket 2", "Rejected", "user1", "low", "0123456789")
         );
-        when(ticketService.getTicketsByUserId("user1")).thenReturn(userTickets);
+        when(ticketService.findTickets(any(TicketQuery.class))).thenReturn(new TicketPage(userTickets, null));
 
         IntentRecognitionService.Intent intent =
             new IntentRecognitionService.Intent(IntentRecognitionService.IntentType.SHOW_REJECTED_TICKETS, 0.95);
@@ -307,7 +341,9 @@ class QueryProcessingServiceTest {
         @SuppressWarnings("unchecked")
         List<Ticket> resultTickets = (List<Ticket>) result.getData();
         assertEquals(2, resultTickets.size());
-        assertTrue(resultTickets.stream().allMatch(t -> "Rejected".equals(t.getStatus())));
+        TicketQuery query = captureTicketQuery();
+        assertEquals("user1", query.getUserId());
+        assertEquals(Set.of("Rejected"), query.getStatuses());
     }
 
     @Test
@@ -321,7 +357,7 @@ class QueryProcessingServiceTest {
         userTickets.get(1).setEmergencyType("financial-emergency");
         userTickets.get(2).setEmergencyType("logistics-emergency");
 
-        when(ticketService.getTicketsByUserId("user1")).thenReturn(userTickets);
+        when(ticketService.findTickets(any(TicketQuery.class))).thenReturn(new TicketPage(userTickets, null));
 
         IntentRecognitionService.Intent intent =
             new IntentRecognitionService.Intent(IntentRecognitionService.IntentType.SEARCH_TICKETS, 0.95);
@@ -332,6 +368,41 @@ class QueryProcessingServiceTest {
         assertTrue(result.isSuccess());
         assertEquals(QueryProcessingService.QueryResultType.TICKET_LIST, result.getResultType());
         assertEquals(3, result.getRecordCount());
+        TicketQuery query = captureTicketQuery();
+        assertEquals("user1", query.getUserId());
+        assertTrue(query.getStatuses().isEmpty());
+    }
+
+    @Test
+    void testExecuteTicketQuery_SearchTickets_PushesFiltersAndLimitToQuery() {
+        when(nlpConfig.getMaxQueryResults()).thenReturn(2);
+        List<Ticket> page = Arrays.asList(
+            new Ticket("1", "HR emergency ticket", "Completed", "user2", "hr-emergency", "0123456789"),
+            new Ticket("2", "Another HR emergency", "Closed", "user2", "hr-emergency", "0123456789")
+        );
+        when(ticketService.findTickets(any(TicketQuery.class))).thenReturn(new TicketPage(page, "next-page"));
+
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("status", "done");
+        filters.put("emergencyType", "hr-emergency");
+        filters.put("date", "2025-03-14");
+
+        QueryProcessingService.QueryResult result =
+            queryProcessingService.executeTicketQuery(
+                QueryProcessingService.TicketQueryType.SEARCH_TICKETS, filters, "admin", true);
+
+        assertTrue(result.isSuccess());
+        assertEquals(2, result.getRecordCount());
+        assertEquals(true, result.getMetadata().get("hasMore"));
+        assertEquals("next-page", result.getMetadata().get("nextCursor"));
+
+        TicketQuery query = captureTicketQuery();
+        assertNull(query.getUserId());
+        assertEquals(Set.of("Completed", "Closed"), query.getStatuses());
+        assertEquals("hr-emergency", query.getEmergencyType());
+        assertEquals(java.time.LocalDateTime.of(2025, 3, 14, 0, 0), query.getCreatedFrom());
+        assertEquals(java.time.LocalDateTime.of(2025, 3, 15, 0, 0), query.getCreatedBefore());
+        assertEquals(2, query.getLimit());
     }
 
     @Test
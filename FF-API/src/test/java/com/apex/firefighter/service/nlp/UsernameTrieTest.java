@@ -0,0 +1,55 @@
+package com.apex.firefighter.service.nlp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UsernameTrieTest {
+
+    private final UsernameTrie trie = UsernameTrie.EMPTY
+        .with("john", "John")
+        .with("johan", "Johan")
+        .with("mary jane", "mary.jane")
+        .with("sipho", "Sipho");
+
+    @Test
+    void with_ShouldLeaveEarlierVersionsUnchanged() {
+        UsernameTrie withThandi = trie.with("thandi", "Thandi");
+        UsernameTrie withoutJohn = withThandi.without("john");
+
+        assertThat(trie.get("thandi")).isNull();
+        assertThat(withThandi.get("thandi")).isEqualTo("Thandi");
+        assertThat(withThandi.get("john")).isEqualTo("John");
+        assertThat(withoutJohn.get("john")).isNull();
+        assertThat(withoutJohn.get("johan")).isEqualTo("Johan");
+        assertThat(withoutJohn.size()).isEqualTo(4);
+    }
+
+    @Test
+    void matchAll_ShouldFindWholeWordNamesIncludingMultiWordOnes() {
+        List<UsernameTrie.Match> matches = trie.matchAll("tickets for mary jane and johnny and john");
+
+        assertThat(matches).extracting(match -> match.username).containsExactly("mary.jane", "John");
+        assertThat(matches).extracting(match -> match.start).containsExactly(12, 37);
+    }
+
+    @Test
+    void withPrefix_ShouldListCompletionsInKeyOrder() {
+        assertThat(trie.withPrefix("jo", 10)).containsExactly("Johan", "John");
+        assertThat(trie.withPrefix("jo", 1)).containsExactly("Johan");
+        assertThat(trie.withPrefix("x", 10)).isEmpty();
+    }
+
+    @Test
+    void closest_ShouldAcceptOneEditAndRejectAmbiguousMatches() {
+        assertThat(trie.closest("sipho")).isEqualTo("Sipho");
+        assertThat(trie.closest("siphoo")).isEqualTo("Sipho");
+        assertThat(trie.closest("sipo")).isEqualTo("Sipho");
+        assertThat(trie.closest("simho")).isEqualTo("Sipho");
+        assertThat(trie.closest("spo")).isNull();
+        // One edit from both "john" and "johan"
+        assertThat(trie.closest("johhn")).isNull();
+    }
+}
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.sql.SQLException;
 import java.time.ZonedDateTime;
@@ -41,6 +42,9 @@ class RegistrationServiceTest {
     @Mock
     private DolibarrUserGroupService dolibarrUserGroupService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private RegistrationService registrationService;
 
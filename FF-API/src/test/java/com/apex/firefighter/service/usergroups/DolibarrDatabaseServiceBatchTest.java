@@ -0,0 +1,118 @@
+package com.apex.firefighter.service.usergroups;
+
+import com.apex.firefighter.service.DolibarrDatabaseService;
+import com.apex.firefighter.service.DolibarrDatabaseService.Membership;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the batched membership writes of DolibarrDatabaseService against an in-memory H2
+ * database in PostgreSQL mode, standing in for the Dolibarr llx_usergroup_user table
+ */
+@ActiveProfiles("test")
+class DolibarrDatabaseServiceBatchTest {
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private DolibarrDatabaseService dolibarrDatabaseService;
+
+    @BeforeEach
+    void setUp() {
+        String url = "jdbc:h2:mem:dolibarr-" + UUID.randomUUID() + ";MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+        dataSource = spy(new DriverManagerDataSource(url, "sa", ""));
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE llx_usergroup_user (" +
+            "rowid SERIAL PRIMARY KEY, " +
+            "entity INTEGER DEFAULT 1 NOT NULL, " +
+            "fk_user INTEGER NOT NULL, " +
+            "fk_usergroup INTEGER NOT NULL, " +
+            "CONSTRAINT uk_usergroup_user UNIQUE (entity, fk_user, fk_usergroup))");
+
+        dolibarrDatabaseService = new DolibarrDatabaseService("localhost", "5432", "dolibarr", "sa", "password", "disable") {
+            @Override
+            protected DataSource createDolibarrDataSource(String dbHost, String dbPort, String dolibarrDbName,
+                                                          String dbUsername, String dbPassword, String dbSslMode) {
+                return dataSource;
+            }
+        };
+        clearInvocations(dataSource);
+    }
+
+    @Test
+    void addUsersToGroups_ShouldInsertAllMembershipsOnOneConnection() throws SQLException {
+        int added = dolibarrDatabaseService.addUsersToGroups(memberships(500, 5));
+
+        verify(dataSource, times(1)).getConnection();
+        assertThat(added).isEqualTo(500);
+        assertThat(countMemberships(5)).isEqualTo(500);
+    }
+
+    @Test
+    void addUsersToGroups_ShouldSkipExistingMemberships() throws SQLException {
+        jdbcTemplate.update("INSERT INTO llx_usergroup_user (entity, fk_user, fk_usergroup) VALUES (1, 1, 5)");
+
+        int added = dolibarrDatabaseService.addUsersToGroups(List.of(
+            new Membership("1", 5),
+            new Membership("2", 5),
+            new Membership("2", 5)
+        ));
+
+        assertThat(added).isEqualTo(1);
+        assertThat(countMemberships(5)).isEqualTo(2);
+    }
+
+    @Test
+    void removeUsersFromGroups_ShouldOnlyRemoveRequestedMemberships() throws SQLException {
+        dolibarrDatabaseService.addUsersToGroups(memberships(10, 5));
+        dolibarrDatabaseService.addUsersToGroups(memberships(10, 6));
+        clearInvocations(dataSource);
+
+        int removed = dolibarrDatabaseService.removeUsersFromGroups(List.of(
+            new Membership("1", 5),
+            new Membership("2", 5),
+            new Membership("1", 6),
+            new Membership("99", 6)
+        ));
+
+        verify(dataSource, times(1)).getConnection();
+        assertThat(removed).isEqualTo(3);
+        assertThat(countMemberships(5)).isEqualTo(8);
+        assertThat(countMemberships(6)).isEqualTo(9);
+    }
+
+    @Test
+    void addUsersToGroups_WithInvalidUserId_ShouldInsertNothing() {
+        List<Membership> memberships = new ArrayList<>(memberships(3, 5));
+        memberships.add(new Membership("invalid_user_id", 5));
+
+        assertThatThrownBy(() -> dolibarrDatabaseService.addUsersToGroups(memberships))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(countMemberships(5)).isZero();
+    }
+
+    private List<Membership> memberships(int count, int groupId) {
+        List<Membership> memberships = new ArrayList<>();
+        for (int userId = 1; userId <= count; userId++) {
+            memberships.add(new Membership(String.valueOf(userId), groupId));
+        }
+        return memberships;
+    }
+
+    private int countMemberships(int groupId) {
+        return jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM llx_usergroup_user WHERE fk_usergroup = ?", Integer.class, groupId);
+    }
+}
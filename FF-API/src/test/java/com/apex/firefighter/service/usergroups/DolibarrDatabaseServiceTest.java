@@ -1,6 +1,7 @@
 package com.apex.firefighter.service.usergroups;
 
 import com.apex.firefighter.service.DolibarrDatabaseService;
+import com.apex.firefighter.service.DolibarrDatabaseService.Membership;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,6 +15,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -145,6 +147,85 @@ class DolibarrDatabaseServiceTest {
         }).isInstanceOf(NullPointerException.class);
     }
 
+    @Test
+    void addUsersToGroups_WithSeveralMemberships_ShouldSendSingleBatch() throws SQLException {
+        // Setup mocks for this test
+        when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.getAutoCommit()).thenReturn(true);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeBatch()).thenReturn(new int[] {1, 0, 1});
+
+        DolibarrDatabaseService service = createServiceWithMockedDataSource();
+
+        int added = service.addUsersToGroups(List.of(
+            new Membership("11", TEST_FIREFIGHTER_GROUP_ID),
+            new Membership("12", TEST_FIREFIGHTER_GROUP_ID),
+            new Membership("13", 6)
+        ));
+
+        // One connection, one statement, one round trip; existing rows are skipped by the database
+        assertThat(added).isEqualTo(2);
+        verify(mockDataSource, times(1)).getConnection();
+        verify(mockConnection, times(1)).prepareStatement(contains("ON CONFLICT DO NOTHING"));
+        verify(mockStatement, times(3)).addBatch();
+        verify(mockStatement, times(1)).executeBatch();
+        verify(mockStatement, never()).executeQuery();
+        verify(mockConnection).commit();
+        verify(mockConnection).setAutoCommit(true);
+    }
+
+    @Test
+    void removeUsersFromGroups_WithSeveralMemberships_ShouldSendSingleBatch() throws SQLException {
+        // Setup mocks for this test
+        when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.getAutoCommit()).thenReturn(true);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+        when(mockStatement.executeBatch()).thenReturn(new int[] {1, 1});
+
+        DolibarrDatabaseService service = createServiceWithMockedDataSource();
+
+        int removed = service.removeUsersFromGroups(List.of(
+            new Membership("11", TEST_FIREFIGHTER_GROUP_ID),
+            new Membership("12", 6)
+        ));
+
+        assertThat(removed).isEqualTo(2);
+        verify(mockStatement).setInt(1, 11);
+        verify(mockStatement).setInt(2, TEST_FIREFIGHTER_GROUP_ID);
+        verify(mockStatement).setInt(1, 12);
+        verify(mockStatement).setInt(2, 6);
+        verify(mockStatement, times(2)).addBatch();
+        verify(mockStatement, times(1)).executeBatch();
+        verify(mockConnection).commit();
+    }
+
+    @Test
+    void removeUsersFromGroups_WithNoMemberships_ShouldNotTouchDatabase() throws SQLException {
+        DolibarrDatabaseService service = createServiceWithMockedDataSource();
+
+        assertThat(service.removeUsersFromGroups(List.of())).isZero();
+        verify(mockDataSource, never()).getConnection();
+    }
+
+    @Test
+    void addUsersToGroups_WithInvalidUserId_ShouldRollBackAndThrowException() throws SQLException {
+        when(mockDataSource.getConnection()).thenReturn(mockConnection);
+        when(mockConnection.prepareStatement(anyString())).thenReturn(mockStatement);
+
+        DolibarrDatabaseService service = createServiceWithMockedDataSource();
+
+        assertThatThrownBy(() -> {
+            service.addUsersToGroups(List.of(
+                new Membership("11", TEST_FIREFIGHTER_GROUP_ID),
+                new Membership("invalid_user_id", TEST_FIREFIGHTER_GROUP_ID)
+            ));
+        }).isInstanceOf(IllegalArgumentException.class)
+          .hasMessageContaining("Invalid ID format");
+        verify(mockStatement, never()).executeBatch();
+        verify(mockConnection).rollback();
+        verify(mockConnection, never()).commit();
+    }
+
     @Test
     void addUserToFirefighterGroup_WithValidIds_ShouldExecuteSuccessfully() throws SQLException {
         // Setup mocks for this test
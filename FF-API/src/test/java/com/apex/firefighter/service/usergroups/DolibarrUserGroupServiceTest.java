@@ -1,10 +1,13 @@
 package com.apex.firefighter.service.usergroups;
 
+import com.apex.firefighter.model.User;
 import com.apex.firefighter.service.DolibarrDatabaseService;
 import com.apex.firefighter.service.DolibarrUserGroupService;
+import com.apex.firefighter.service.DolibarrUserGroupService.GroupAssignment;
+import com.apex.firefighter.service.DolibarrDatabaseService.Membership;
 import com.apex.firefighter.service.DolibarrGroupAllocater;
 import com.apex.firefighter.service.GroupChangeNotificationService;
-import com.apex.firefighter.repository.UserRepository;
+import com.apex.firefighter.service.user.DolibarrUserDirectory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,9 +16,14 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 /**
@@ -36,7 +44,7 @@ class DolibarrUserGroupServiceTest {
     private GroupChangeNotificationService mockNotificationService;
 
     @Mock
-    private UserRepository mockUserRepository;
+    private DolibarrUserDirectory mockDolibarrUserDirectory;
 
     private DolibarrUserGroupService dolibarrUserGroupService;
 
@@ -50,7 +58,7 @@ class DolibarrUserGroupServiceTest {
             mockDolibarrDatabaseService,
             mockGroupAllocater,
             mockNotificationService,
-            mockUserRepository
+            mockDolibarrUserDirectory
         );
     }
 
@@ -87,6 +95,22 @@ class DolibarrUserGroupServiceTest {
         verify(mockDolibarrDatabaseService).addUserToFirefighterGroup(TEST_USER_ID, TEST_FIREFIGHTER_GROUP_ID);
     }
 
+    @Test
+    void addUserToGroup_WithTicketId_ShouldLookUpUserByDolibarrIdAndNotifyAdmins() throws SQLException {
+        // Arrange
+        User user = new User("firebase-uid", "testuser", "test@example.com", "IT");
+        user.setDolibarrId(TEST_USER_ID);
+        when(mockGroupAllocater.allocateByDescription(TEST_DESCRIPTION)).thenReturn(TEST_FIREFIGHTER_GROUP_ID);
+        when(mockDolibarrUserDirectory.findByDolibarrId(TEST_USER_ID)).thenReturn(Optional.of(user));
+
+        // Act
+        dolibarrUserGroupService.addUserToGroup(TEST_USER_ID, TEST_DESCRIPTION, "BMW-FF-10001");
+
+        // Assert
+        verify(mockDolibarrUserDirectory, times(1)).findByDolibarrId(TEST_USER_ID);
+        verify(mockNotificationService).notifyAdminsOfGroupChangeById(user, "BMW-FF-10001", null, TEST_FIREFIGHTER_GROUP_ID, TEST_DESCRIPTION);
+    }
+
     // ==================== REMOVE USER FROM GROUP TESTS ====================
 
     @Test
@@ -175,6 +199,100 @@ class DolibarrUserGroupServiceTest {
         verify(mockDolibarrDatabaseService).removeUserFromFirefighterGroup(emptyUserId, TEST_FIREFIGHTER_GROUP_ID);
     }
 
+    // ==================== BULK TESTS ====================
+
+    @Test
+    void addUsersToGroups_ShouldResolveGroupsAndWriteSingleBatch() throws SQLException {
+        // Arrange
+        when(mockGroupAllocater.allocateByDescription("hr issue")).thenReturn(5);
+        when(mockGroupAllocater.allocateByDescription("financial issue")).thenReturn(6);
+
+        // Act
+        dolibarrUserGroupService.addUsersToGroups(List.of(
+            new GroupAssignment("11", "hr issue"),
+            new GroupAssignment("12", "financial issue")
+        ));
+
+        // Assert
+        verify(mockDolibarrDatabaseService, times(1)).addUsersToGroups(List.of(
+            new Membership("11", 5),
+            new Membership("12", 6)
+        ));
+        verify(mockDolibarrDatabaseService, never()).addUserToFirefighterGroup(anyString(), anyInt());
+    }
+
+    @Test
+    void removeUsersFromGroups_ShouldResolveGroupsAndWriteSingleBatch() throws SQLException {
+        // Arrange
+        when(mockGroupAllocater.allocateByDescription("hr issue")).thenReturn(5);
+        when(mockGroupAllocater.allocateByDescription("financial issue")).thenReturn(6);
+
+        // Act
+        dolibarrUserGroupService.removeUsersFromGroups(List.of(
+            new GroupAssignment("11", "hr issue"),
+            new GroupAssignment("12", "financial issue"),
+            new GroupAssignment("13", "hr issue")
+        ));
+
+        // Assert
+        verify(mockDolibarrDatabaseService, times(1)).removeUsersFromGroups(List.of(
+            new Membership("11", 5),
+            new Membership("12", 6),
+            new Membership("13", 5)
+        ));
+        verify(mockDolibarrDatabaseService, never()).removeUserFromFirefighterGroup(anyString(), anyInt());
+    }
+
+    @Test
+    void removeUsersFromGroups_WithUnresolvableGroup_ShouldSkipOnlyThatUser() throws SQLException {
+        // Arrange
+        when(mockGroupAllocater.allocateByDescription("hr issue")).thenReturn(5);
+        when(mockGroupAllocater.allocateByDescription("unknown")).thenThrow(new IllegalStateException("No group configured"));
+
+        // Act
+        dolibarrUserGroupService.removeUsersFromGroups(List.of(
+            new GroupAssignment("11", "unknown"),
+            new GroupAssignment("12", "hr issue")
+        ));
+
+        // Assert
+        verify(mockDolibarrDatabaseService).removeUsersFromGroups(List.of(new Membership("12", 5)));
+    }
+
+    @Test
+    void removeUsersFromGroups_WithInvalidDolibarrIds_ShouldStillRemoveTheOthers() throws SQLException {
+        // Arrange
+        when(mockGroupAllocater.allocateByDescription("hr issue")).thenReturn(5);
+
+        // Act
+        dolibarrUserGroupService.removeUsersFromGroups(List.of(
+            new GroupAssignment("11", "hr issue"),
+            new GroupAssignment(null, "hr issue"),
+            new GroupAssignment("not-a-number", "hr issue"),
+            new GroupAssignment("13", "hr issue")
+        ));
+
+        // Assert
+        verify(mockDolibarrDatabaseService).removeUsersFromGroups(List.of(
+            new Membership("11", 5),
+            new Membership("13", 5)
+        ));
+    }
+
+    @Test
+    void removeUsersFromGroups_WithDatabaseError_ShouldPropagateException() throws SQLException {
+        // Arrange
+        when(mockGroupAllocater.allocateByDescription("hr issue")).thenReturn(5);
+        when(mockDolibarrDatabaseService.removeUsersFromGroups(anyList()))
+            .thenThrow(new SQLException("Database connection failed"));
+
+        // Act & Assert
+        assertThatThrownBy(() -> {
+            dolibarrUserGroupService.removeUsersFromGroups(List.of(new GroupAssignment("11", "hr issue")));
+        }).isInstanceOf(SQLException.class)
+          .hasMessage("Database connection failed");
+    }
+
     // ==================== INTEGRATION TESTS ====================
 
     @Test
@@ -186,7 +304,7 @@ class DolibarrUserGroupServiceTest {
             mockDolibarrDatabaseService,
             mockGroupAllocater,
             mockNotificationService,
-            mockUserRepository
+            mockDolibarrUserDirectory
         );
 
         // The service should be created successfully
@@ -2,6 +2,12 @@ package com.apex.firefighter.unit.controllers;
 
 import com.apex.firefighter.config.TestConfig;
 import com.apex.firefighter.controller.HealthController;
+import com.apex.firefighter.service.AdminAlertFanout;
+import com.apex.firefighter.service.DolibarrSyncQueue;
+import com.apex.firefighter.service.EmailDispatchQueue;
+import com.apex.firefighter.service.RequestRateLimiter;
+import com.apex.firefighter.service.auth.ApiKeyAuthenticator;
+import com.apex.firefighter.service.auth.FirebaseTokenVerifier;
 import com.apex.firefighter.service.auth.JwtService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +19,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.http.MediaType;
 
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -27,6 +36,24 @@ class HealthControllerTest {
     @MockBean
     private JwtService jwtService;
 
+    @MockBean
+    private DolibarrSyncQueue dolibarrSyncQueue;
+
+    @MockBean
+    private EmailDispatchQueue emailDispatchQueue;
+
+    @MockBean
+    private AdminAlertFanout adminAlertFanout;
+
+    @MockBean
+    private FirebaseTokenVerifier firebaseTokenVerifier;
+
+    @MockBean
+    private ApiKeyAuthenticator apiKeyAuthenticator;
+
+    @MockBean
+    private RequestRateLimiter requestRateLimiter;
+
     private final String BASE_URL = "/api";
 
     @Test
@@ -62,6 +89,84 @@ class HealthControllerTest {
                 .andExpect(jsonPath("$.system['spring.profiles.active']").exists());
     }
 
+    @Test
+    @WithMockUser
+    void detailedHealthCheck_ShouldReportDolibarrSyncQueueMetrics() throws Exception {
+        // Arrange
+        when(dolibarrSyncQueue.getMetrics()).thenReturn(Map.of("queueDepth", 3L, "lagMillis", 1500L));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/health/detailed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.dolibarrSync.queueDepth").value(3))
+                .andExpect(jsonPath("$.dolibarrSync.lagMillis").value(1500));
+    }
+
+    @Test
+    @WithMockUser
+    void detailedHealthCheck_ShouldReportEmailDispatchMetrics() throws Exception {
+        // Arrange
+        when(emailDispatchQueue.getMetrics()).thenReturn(Map.of("queueDepth", 7, "deadLettered", 2L));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/health/detailed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.emailDispatch.queueDepth").value(7))
+                .andExpect(jsonPath("$.emailDispatch.deadLettered").value(2));
+    }
+
+    @Test
+    @WithMockUser
+    void detailedHealthCheck_ShouldReportAdminAlertMetrics() throws Exception {
+        // Arrange
+        when(adminAlertFanout.getMetrics()).thenReturn(Map.of("digestsSent", 4L, "pendingAlerts", 2));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/health/detailed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.adminAlerts.digestsSent").value(4))
+                .andExpect(jsonPath("$.adminAlerts.pendingAlerts").value(2));
+    }
+
+    @Test
+    @WithMockUser
+    void detailedHealthCheck_ShouldReportFirebaseTokenMetrics() throws Exception {
+        // Arrange
+        when(firebaseTokenVerifier.getMetrics()).thenReturn(Map.of("cacheHits", 12L, "signingKeys", 2));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/health/detailed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firebaseTokens.cacheHits").value(12))
+                .andExpect(jsonPath("$.firebaseTokens.signingKeys").value(2));
+    }
+
+    @Test
+    @WithMockUser
+    void detailedHealthCheck_ShouldReportApiKeyMetrics() throws Exception {
+        // Arrange
+        when(apiKeyAuthenticator.getMetrics()).thenReturn(Map.of("cachedKeys", 5, "authenticated", 40L));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/health/detailed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.apiKeys.cachedKeys").value(5))
+                .andExpect(jsonPath("$.apiKeys.authenticated").value(40));
+    }
+
+    @Test
+    @WithMockUser
+    void detailedHealthCheck_ShouldReportRateLimitMetrics() throws Exception {
+        // Arrange
+        when(requestRateLimiter.getMetrics()).thenReturn(Map.of("allowed", 90L, "limited", 7L));
+
+        // Act & Assert
+        mockMvc.perform(get(BASE_URL + "/health/detailed"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rateLimits.allowed").value(90))
+                .andExpect(jsonPath("$.rateLimits.limited").value(7));
+    }
+
     @Test
     @WithMockUser
     void healthCheck_WithAuthentication_ShouldWork() throws Exception {
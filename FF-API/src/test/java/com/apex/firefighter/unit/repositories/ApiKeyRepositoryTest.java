@@ -0,0 +1,75 @@
+package com.apex.firefighter.unit.repositories;
+
+import com.apex.firefighter.model.ApiKey;
+import com.apex.firefighter.model.User;
+import com.apex.firefighter.repository.ApiKeyRepository;
+import com.apex.firefighter.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@DataJpaTest
+class ApiKeyRepositoryTest {
+
+    @Autowired
+    private ApiKeyRepository apiKeyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void testFindByKeyHash_StoresOnlyTheDigest() {
+        User user = userRepository.save(new User("user123", "testuser", "test@example.com", "IT"));
+        apiKeyRepository.save(new ApiKey("raw-api-key", user));
+        entityManager.flush();
+        entityManager.clear();
+
+        ApiKey stored = apiKeyRepository.findByKeyHash(ApiKey.hash("raw-api-key")).orElseThrow();
+
+        assertThat(stored.getKeyHash()).hasSize(64).isNotEqualTo("raw-api-key");
+        assertThat(stored.getApiKey()).isNull();
+        assertThat(apiKeyRepository.findByKeyHash("raw-api-key")).isEmpty();
+    }
+
+    @Test
+    void testFindAllCredentials_ReturnsOwnerAndState() {
+        User user = userRepository.save(new User("user123", "testuser", "test@example.com", "IT"));
+        apiKeyRepository.save(new ApiKey("active-key", user));
+        ApiKey revoked = new ApiKey("revoked-key", user);
+        revoked.setIsActive(false);
+        apiKeyRepository.save(revoked);
+
+        List<ApiKeyRepository.ApiKeyCredential> credentials = apiKeyRepository.findAllCredentials();
+
+        assertThat(credentials).hasSize(2);
+        assertThat(credentials).extracting(ApiKeyRepository.ApiKeyCredential::getUserId).containsOnly("user123");
+        assertThat(credentials).filteredOn(credential -> credential.getKeyHash().equals(ApiKey.hash("revoked-key")))
+            .extracting(ApiKeyRepository.ApiKeyCredential::getIsActive).containsExactly(false);
+    }
+
+    @Test
+    void testUpdateLastUsedAt_NeverMovesBackwards() {
+        User user = userRepository.save(new User("user123", "testuser", "test@example.com", "IT"));
+        ApiKey apiKey = apiKeyRepository.save(new ApiKey("raw-api-key", user));
+        ZonedDateTime usedAt = ZonedDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        assertThat(apiKeyRepository.updateLastUsedAt(apiKey.getKeyHash(), usedAt)).isEqualTo(1);
+        assertThat(apiKeyRepository.updateLastUsedAt(apiKey.getKeyHash(), usedAt.minusMinutes(5))).isZero();
+        entityManager.clear();
+
+        assertThat(apiKeyRepository.findById(apiKey.getId()).orElseThrow().getLastUsedAt().toInstant())
+            .isEqualTo(usedAt.toInstant());
+    }
+}
@@ -0,0 +1,63 @@
+package com.apex.firefighter.unit.repositories;
+
+import com.apex.firefighter.model.DolibarrSyncTask;
+import com.apex.firefighter.repository.DolibarrSyncTaskRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("test")
+@DataJpaTest
+class DolibarrSyncTaskRepositoryTest {
+
+    @Autowired
+    private DolibarrSyncTaskRepository syncTaskRepository;
+
+    @Test
+    void testTransitionStatus_OnlyClaimsTaskOnce() {
+        DolibarrSyncTask task = syncTaskRepository.save(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "hr issue", "BMW-FF-10001"));
+
+        assertThat(syncTaskRepository.transitionStatus(task.getId(), DolibarrSyncTask.STATUS_PENDING, DolibarrSyncTask.STATUS_IN_PROGRESS)).isEqualTo(1);
+        assertThat(syncTaskRepository.transitionStatus(task.getId(), DolibarrSyncTask.STATUS_PENDING, DolibarrSyncTask.STATUS_IN_PROGRESS)).isZero();
+        assertThat(syncTaskRepository.deleteByIdAndStatus(task.getId(), DolibarrSyncTask.STATUS_PENDING)).isZero();
+
+        assertThat(syncTaskRepository.resetInProgressTasks()).isEqualTo(1);
+        assertThat(syncTaskRepository.findById(task.getId()).orElseThrow().getStatus()).isEqualTo(DolibarrSyncTask.STATUS_PENDING);
+    }
+
+    @Test
+    void testFindDueTasks_SkipsTasksInBackoff() {
+        DolibarrSyncTask due = syncTaskRepository.save(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "hr issue", null));
+        DolibarrSyncTask backingOff = new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "12", "hr issue", null);
+        backingOff.setNextAttemptAt(LocalDateTime.now().plusMinutes(5));
+        syncTaskRepository.save(backingOff);
+
+        List<DolibarrSyncTask> dueTasks = syncTaskRepository
+            .findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(DolibarrSyncTask.STATUS_PENDING, LocalDateTime.now().plusSeconds(1));
+
+        assertThat(dueTasks).extracting(DolibarrSyncTask::getId).containsExactly(due.getId());
+        assertThat(syncTaskRepository.countByStatusIn(List.of(DolibarrSyncTask.STATUS_PENDING, DolibarrSyncTask.STATUS_IN_PROGRESS))).isEqualTo(2);
+    }
+
+    @Test
+    void testFindOldestUnfinishedTaskForUser_IgnoresFailedTasks() {
+        DolibarrSyncTask failed = new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "hr issue", null);
+        failed.setStatus(DolibarrSyncTask.STATUS_FAILED);
+        syncTaskRepository.save(failed);
+        DolibarrSyncTask add = syncTaskRepository.save(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "financial issue", null));
+        syncTaskRepository.save(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_REMOVE, "11", "financial issue", null));
+
+        assertThat(syncTaskRepository.findFirstByDolibarrUserIdAndStatusInOrderByIdAsc("11",
+            List.of(DolibarrSyncTask.STATUS_PENDING, DolibarrSyncTask.STATUS_IN_PROGRESS)).orElseThrow().getId())
+            .isEqualTo(add.getId());
+        assertThat(syncTaskRepository.findFirstByDolibarrUserIdAndDescriptionAndStatusOrderByIdDesc("11", "financial issue",
+            DolibarrSyncTask.STATUS_PENDING).orElseThrow().getOperation())
+            .isEqualTo(DolibarrSyncTask.OPERATION_REMOVE);
+    }
+}
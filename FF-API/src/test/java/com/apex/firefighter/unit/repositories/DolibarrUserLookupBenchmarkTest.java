@@ -0,0 +1,101 @@
+package com.apex.firefighter.unit.repositories;
+
+import com.apex.firefighter.model.User;
+import com.apex.firefighter.repository.UserRepository;
+import com.apex.firefighter.service.user.DolibarrUserDirectory;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares resolving a user by Dolibarr ID with a full table scan (the previous
+ * findAll().stream().filter(...) approach) against the indexed, cached lookup,
+ * with 50,000 users in the table. Entity load counts come from Hibernate statistics;
+ * timings are printed for reference only.
+ */
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class DolibarrUserLookupBenchmarkTest {
+
+    private static final int USER_COUNT = 50_000;
+    private static final String TARGET_DOLIBARR_ID = String.valueOf(USER_COUNT - 1);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>(USER_COUNT);
+        for (int i = 0; i < USER_COUNT; i++) {
+            User user = new User("bench-uid-" + i, "bench" + i, "bench" + i + "@example.com", "IT");
+            user.setDolibarrId(String.valueOf(i));
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void directoryLookup_ReplacesFullTableScanWithSingleIndexedLookup() {
+        // Previous approach: load the whole users table and filter in memory
+        long start = System.nanoTime();
+        Optional<User> scanned = userRepository.findAll().stream()
+            .filter(user -> TARGET_DOLIBARR_ID.equals(user.getDolibarrId()))
+            .findFirst();
+        long scanMicros = (System.nanoTime() - start) / 1_000;
+        long scanLoads = statistics.getEntityLoadCount();
+
+        assertThat(scanned).isPresent();
+        assertThat(scanLoads).isEqualTo(USER_COUNT);
+
+        entityManager.clear();
+        statistics.clear();
+        DolibarrUserDirectory directory = new DolibarrUserDirectory(userRepository, 1024, 300_000);
+
+        start = System.nanoTime();
+        Optional<User> first = directory.findByDolibarrId(TARGET_DOLIBARR_ID);
+        long lookupMicros = (System.nanoTime() - start) / 1_000;
+        long lookupLoads = statistics.getEntityLoadCount();
+        long lookupQueries = statistics.getPrepareStatementCount();
+
+        start = System.nanoTime();
+        Optional<User> second = directory.findByDolibarrId(TARGET_DOLIBARR_ID);
+        long cachedMicros = (System.nanoTime() - start) / 1_000;
+
+        assertThat(first).isPresent();
+        assertThat(first.get().getUserId()).isEqualTo(scanned.get().getUserId());
+        assertThat(second).containsSame(first.get());
+        assertThat(lookupLoads).isEqualTo(1);
+        assertThat(lookupQueries).isEqualTo(1);
+        // Cache hit does not touch the database
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(lookupQueries);
+
+        System.out.println("📊 DOLIBARR USER LOOKUP BENCHMARK: full scan loaded " + scanLoads + " users in " + scanMicros
+            + " µs; indexed lookup loaded " + lookupLoads + " user in " + lookupMicros + " µs; cached lookup took "
+            + cachedMicros + " µs");
+    }
+}
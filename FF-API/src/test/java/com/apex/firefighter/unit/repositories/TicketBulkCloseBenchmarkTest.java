@@ -0,0 +1,119 @@
+package com.apex.firefighter.unit.repositories;
+
+import com.apex.firefighter.model.Ticket;
+import com.apex.firefighter.model.User;
+import com.apex.firefighter.repository.TicketRepository;
+import com.apex.firefighter.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares closing 1,000 expired tickets one row at a time (the previous sweep) with the
+ * single bulk UPDATE plus one batched user lookup used by TicketScheduledService.
+ * Statement counts come from Hibernate statistics; timings are printed for reference only.
+ */
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class TicketBulkCloseBenchmarkTest {
+
+    private static final int TICKET_COUNT = 1_000;
+    private static final int USER_COUNT = 100;
+
+    @Autowired
+    private TicketRepository ticketRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USER_COUNT; i++) {
+            User user = new User("bench-user-" + i, "bench" + i, "bench" + i + "@example.com", "IT");
+            user.setDolibarrId(String.valueOf(1000 + i));
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+
+        LocalDateTime createdAt = LocalDateTime.now().minusHours(2);
+        List<Ticket> tickets = new ArrayList<>();
+        for (int i = 0; i < TICKET_COUNT; i++) {
+            Ticket ticket = new Ticket("BENCH-" + i, "Benchmark ticket", "Active", "bench-user-" + (i % USER_COUNT), "hr-emergency", "12345");
+            ticket.setDuration(60);
+            ticket.setDateCreated(createdAt);
+            tickets.add(ticket);
+        }
+        ticketRepository.saveAll(tickets);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void perTicketClose_IssuesStatementsProportionalToTicketCount() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        long start = System.nanoTime();
+        List<Ticket> expired = ticketRepository.findActiveTicketsExpiredBefore(now);
+        for (Ticket ticket : expired) {
+            Ticket managed = ticketRepository.findById(ticket.getId()).orElseThrow();
+            managed.setStatus("Closed");
+            managed.setDateCompleted(now);
+            ticketRepository.save(managed);
+            userRepository.findById(managed.getUserId());
+        }
+        entityManager.flush();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(expired).hasSize(TICKET_COUNT);
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(TICKET_COUNT);
+        System.out.println("📊 BULK CLOSE BENCHMARK: per-ticket close of " + TICKET_COUNT + " tickets took " + elapsedMillis
+            + " ms, " + statistics.getPrepareStatementCount() + " statements prepared");
+    }
+
+    @Test
+    void bulkClose_IssuesConstantNumberOfStatements() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        long start = System.nanoTime();
+        List<Ticket> expired = ticketRepository.findActiveTicketsExpiredBefore(now);
+        int closed = ticketRepository.closeActiveTicketsById(expired.stream().map(Ticket::getId).collect(Collectors.toList()), now);
+        Set<String> userIds = expired.stream().map(Ticket::getUserId).collect(Collectors.toSet());
+        List<User> users = userRepository.findAllById(userIds);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(closed).isEqualTo(TICKET_COUNT);
+        assertThat(users).hasSize(USER_COUNT);
+        // Select, bulk update and user lookup, independent of the number of tickets
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+        assertThat(ticketRepository.findActiveTicketsExpiredBefore(now)).isEmpty();
+        System.out.println("📊 BULK CLOSE BENCHMARK: bulk close of " + TICKET_COUNT + " tickets took " + elapsedMillis
+            + " ms, " + statistics.getPrepareStatementCount() + " statements prepared");
+    }
+}
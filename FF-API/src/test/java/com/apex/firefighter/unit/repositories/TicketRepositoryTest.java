@@ -2,12 +2,17 @@ package com.apex.firefighter.unit.repositories;
 
 import com.apex.firefighter.model.Ticket;
 import com.apex.firefighter.repository.TicketRepository;
+import com.apex.firefighter.service.ticket.TicketQuery;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -34,4 +39,211 @@ class TicketRepositoryTest {
         assertThat(found.get().getTicketId()).isEqualTo("JIRA-456");
         assertThat(found.get().getDuration()).isEqualTo(30);
     }
+
+    @Test
+    void testExpiryColumnsAreMaintainedOnSave() {
+        Ticket ticket = activeTicket("JIRA-500", 30, LocalDateTime.now().minusMinutes(10));
+        ticketRepository.save(ticket);
+
+        Ticket found = ticketRepository.findByTicketId("JIRA-500").orElseThrow();
+        assertThat(found.getExpiresAt()).isEqualTo(found.getDateCreated().plusMinutes(30));
+        assertThat(found.getWarnAt()).isEqualTo(found.getDateCreated().plusMinutes(25));
+
+        found.setDuration(90);
+        ticketRepository.saveAndFlush(found);
+        assertThat(ticketRepository.findByTicketId("JIRA-500").orElseThrow().getExpiresAt())
+            .isEqualTo(found.getDateCreated().plusMinutes(90));
+    }
+
+    @Test
+    void testFindActiveTicketsDueForWarning_ReturnsOnlyTicketsInsideWarningWindow() {
+        LocalDateTime now = LocalDateTime.now();
+        ticketRepository.save(activeTicket("DUE-WARN", 60, now.minusMinutes(56)));      // 4 minutes left
+        ticketRepository.save(activeTicket("NOT-YET", 60, now.minusMinutes(50)));       // 10 minutes left
+        ticketRepository.save(activeTicket("EXPIRED", 60, now.minusMinutes(65)));       // already expired
+        Ticket warned = activeTicket("WARNED", 60, now.minusMinutes(56));
+        warned.setFiveMinuteWarningSent(true);
+        ticketRepository.save(warned);
+        Ticket closed = activeTicket("CLOSED", 60, now.minusMinutes(56));
+        closed.setStatus("Closed");
+        ticketRepository.save(closed);
+
+        List<Ticket> due = ticketRepository.findActiveTicketsDueForWarning(now);
+
+        assertThat(due).extracting(Ticket::getTicketId).containsExactly("DUE-WARN");
+    }
+
+    @Test
+    void testFindActiveTicketsExpiredBefore_ReturnsOnlyExpiredActiveTickets() {
+        LocalDateTime now = LocalDateTime.now();
+        ticketRepository.save(activeTicket("EXPIRED-1", 60, now.minusMinutes(65)));
+        ticketRepository.save(activeTicket("EXPIRED-2", 30, now.minusMinutes(35)));
+        ticketRepository.save(activeTicket("RUNNING", 60, now.minusMinutes(30)));
+
+        List<Ticket> expired = ticketRepository.findActiveTicketsExpiredBefore(now);
+
+        assertThat(expired).extracting(Ticket::getTicketId).containsExactlyInAnyOrder("EXPIRED-1", "EXPIRED-2");
+    }
+
+    @Test
+    void testCloseActiveTicketsById_ClosesOnlyTheGivenActiveTickets() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        Ticket expired1 = ticketRepository.save(activeTicket("EXPIRED-1", 60, now.minusMinutes(65)));
+        Ticket alreadyClosed = activeTicket("ALREADY-CLOSED", 60, now.minusMinutes(65));
+        alreadyClosed.setStatus("Closed");
+        alreadyClosed.setDateCompleted(now.minusMinutes(1));
+        alreadyClosed = ticketRepository.save(alreadyClosed);
+        ticketRepository.save(activeTicket("RUNNING", 60, now.minusMinutes(30)));
+
+        int closed = ticketRepository.closeActiveTicketsById(List.of(expired1.getId(), alreadyClosed.getId()), now);
+
+        assertThat(closed).isEqualTo(1);
+        Ticket expired = ticketRepository.findByTicketId("EXPIRED-1").orElseThrow();
+        assertThat(expired.getStatus()).isEqualTo("Closed");
+        assertThat(expired.getDateCompleted()).isEqualTo(now);
+        assertThat(ticketRepository.findByTicketId("ALREADY-CLOSED").orElseThrow().getDateCompleted())
+            .isEqualTo(now.minusMinutes(1));
+        assertThat(ticketRepository.findByTicketId("RUNNING").orElseThrow().getStatus()).isEqualTo("Active");
+    }
+
+    @Test
+    void testTicketQuery_FiltersByStatusUserTypeAndDateInTheDatabase() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        ticketRepository.save(activeTicket("MATCH", 60, now.minusHours(1)));
+        Ticket completed = activeTicket("COMPLETED", 60, now.minusHours(2));
+        completed.setStatus("Completed");
+        ticketRepository.save(completed);
+        Ticket otherUser = activeTicket("OTHER-USER", 60, now.minusHours(1));
+        otherUser.setUserId("user2");
+        ticketRepository.save(otherUser);
+        Ticket otherType = activeTicket("OTHER-TYPE", 60, now.minusHours(1));
+        otherType.setEmergencyType("financial-emergency");
+        ticketRepository.save(otherType);
+        ticketRepository.save(activeTicket("TOO-OLD", 60, now.minusDays(3)));
+
+        TicketQuery query = new TicketQuery();
+        query.setStatuses("Active", "Completed");
+        query.setUserId("user1");
+        query.setEmergencyType("HR-Emergency");
+        query.setCreatedFrom(now.minusDays(1));
+        query.setCreatedBefore(now);
+
+        List<Ticket> found = ticketRepository.findAll(query.toSpecification(), TicketQuery.SORT);
+
+        assertThat(found).extracting(Ticket::getTicketId).containsExactly("MATCH", "COMPLETED");
+    }
+
+    @Test
+    void testTicketQuery_KeysetCursorContinuesAfterLastTicketOfPage() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        ticketRepository.save(activeTicket("NEWEST", 60, now.minusMinutes(1)));
+        ticketRepository.save(activeTicket("TIED-1", 60, now.minusMinutes(2)));
+        ticketRepository.save(activeTicket("TIED-2", 60, now.minusMinutes(2)));
+        ticketRepository.save(activeTicket("OLDEST", 60, now.minusMinutes(3)));
+
+        List<Ticket> all = ticketRepository.findAll(new TicketQuery().toSpecification(), TicketQuery.SORT);
+        assertThat(all).extracting(Ticket::getTicketId).containsExactly("NEWEST", "TIED-2", "TIED-1", "OLDEST");
+
+        TicketQuery nextPage = new TicketQuery();
+        nextPage.setCursor(TicketQuery.encodeCursor(all.get(1)));
+        List<Ticket> rest = ticketRepository.findAll(nextPage.toSpecification(), TicketQuery.SORT);
+
+        assertThat(rest).extracting(Ticket::getTicketId).containsExactly("TIED-1", "OLDEST");
+    }
+
+    @Test
+    void testAggregateByStatusEmergencyTypeAndMonth_GroupsCountsAndDurationsPerMonth() {
+        LocalDateTime monthStart = LocalDateTime.now().withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+        ticketRepository.save(activeTicket("THIS-MONTH-1", 30, monthStart.plusHours(1)));
+        ticketRepository.save(activeTicket("THIS-MONTH-2", 60, monthStart.plusHours(2)));
+        ticketRepository.save(activeTicket("LAST-MONTH", 90, monthStart.minusDays(3)));
+        Ticket closed = activeTicket("CLOSED", 15, monthStart.plusHours(3));
+        closed.setStatus("Closed");
+        ticketRepository.save(closed);
+
+        List<TicketRepository.StatusTypeMonthTotals> rows = ticketRepository.aggregateByStatusEmergencyTypeAndMonth();
+
+        assertThat(rows).hasSize(3);
+        TicketRepository.StatusTypeMonthTotals activeThisMonth = rows.stream()
+            .filter(row -> "Active".equals(row.getStatus()) && row.getCreatedMonth() == monthStart.getMonthValue())
+            .findFirst().orElseThrow();
+        assertThat(activeThisMonth.getEmergencyType()).isEqualTo("hr-emergency");
+        assertThat(activeThisMonth.getCreatedYear()).isEqualTo(monthStart.getYear());
+        assertThat(activeThisMonth.getTicketCount()).isEqualTo(2L);
+        assertThat(activeThisMonth.getTotalDuration()).isEqualTo(90L);
+    }
+
+    @Test
+    void testAggregateByStatusAndEmergencyTypeForUser_GroupsCountsDurationsAndCurrentMonth() {
+        LocalDateTime monthStart = LocalDateTime.now().withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+        ticketRepository.save(activeTicket("THIS-MONTH-1", 30, monthStart.plusHours(1)));
+        ticketRepository.save(activeTicket("THIS-MONTH-2", 60, monthStart.plusHours(2)));
+        ticketRepository.save(activeTicket("LAST-MONTH", 90, monthStart.minusDays(3)));
+
+        List<TicketRepository.StatusTypeTotals> rows =
+            ticketRepository.aggregateByStatusAndEmergencyTypeForUser("user1", monthStart, monthStart.plusMonths(1));
+
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0).getTicketCount()).isEqualTo(3L);
+        assertThat(rows.get(0).getTotalDuration()).isEqualTo(180L);
+        assertThat(rows.get(0).getCurrentMonthCount()).isEqualTo(2L);
+
+        assertThat(ticketRepository.aggregateByStatusAndEmergencyTypeForUser("user2", monthStart, monthStart.plusMonths(1)))
+            .isEmpty();
+    }
+
+    @Test
+    void testCountTicketsByUserAndMinuteSince_GroupsPerUserAndMinute() {
+        LocalDateTime minute = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES).minusHours(2);
+        ticketRepository.save(activeTicket("SAME-MINUTE-1", 60, minute.plusSeconds(5)));
+        ticketRepository.save(activeTicket("SAME-MINUTE-2", 60, minute.plusSeconds(40)));
+        ticketRepository.save(activeTicket("NEXT-MINUTE", 60, minute.plusMinutes(1)));
+        Ticket otherUser = activeTicket("OTHER-USER", 60, minute.plusSeconds(10));
+        otherUser.setUserId("user2");
+        ticketRepository.save(otherUser);
+        ticketRepository.save(activeTicket("TOO-OLD", 60, minute.minusDays(2)));
+
+        List<TicketRepository.UserMinuteTotals> rows = ticketRepository.countTicketsByUserAndMinuteSince(minute.minusHours(22));
+
+        assertThat(rows).hasSize(3);
+        TicketRepository.UserMinuteTotals sameMinute = rows.stream()
+            .filter(row -> "user1".equals(row.getUserId()) && row.getCreatedMinute() == minute.getMinute())
+            .findFirst().orElseThrow();
+        assertThat(sameMinute.getTicketCount()).isEqualTo(2L);
+        assertThat(LocalDateTime.of(sameMinute.getCreatedYear(), sameMinute.getCreatedMonth(), sameMinute.getCreatedDay(),
+            sameMinute.getCreatedHour(), sameMinute.getCreatedMinute())).isEqualTo(minute);
+        assertThat(rows).filteredOn(row -> "user2".equals(row.getUserId()))
+            .extracting(TicketRepository.UserMinuteTotals::getTicketCount).containsExactly(1L);
+    }
+
+    @Test
+    void testStreamExportRows_StreamsDateRangeNewestFirst() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        ticketRepository.save(activeTicket("TOO-OLD", 60, now.minusDays(10)));
+        ticketRepository.save(activeTicket("OLDER", 60, now.minusDays(2)));
+        ticketRepository.save(activeTicket("NEWER", 45, now.minusDays(1)));
+
+        List<TicketRepository.TicketExportRow> rows;
+        try (Stream<TicketRepository.TicketExportRow> stream =
+                 ticketRepository.streamExportRows(now.minusDays(5), now)) {
+            rows = stream.toList();
+        }
+
+        assertThat(rows).extracting(TicketRepository.TicketExportRow::getTicketId).containsExactly("NEWER", "OLDER");
+        assertThat(rows.get(0).getDuration()).isEqualTo(45);
+        assertThat(rows.get(0).getEmergencyType()).isEqualTo("hr-emergency");
+
+        try (Stream<TicketRepository.TicketExportRow> stream = ticketRepository.streamExportRows(null, null)) {
+            assertThat(stream.count()).isEqualTo(3);
+        }
+        assertThat(ticketRepository.countCreatedBetween(now.minusDays(5), now)).isEqualTo(2);
+        assertThat(ticketRepository.countCreatedBetween(null, null)).isEqualTo(3);
+    }
+
+    private Ticket activeTicket(String ticketId, int duration, LocalDateTime dateCreated) {
+        Ticket ticket = new Ticket(ticketId, "Test Ticket", "Active", "user1", "hr-emergency", "12345");
+        ticket.setDuration(duration);
+        ticket.setDateCreated(dateCreated);
+        return ticket;
+    }
 }
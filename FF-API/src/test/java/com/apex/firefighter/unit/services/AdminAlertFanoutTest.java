@@ -0,0 +1,215 @@
+package com.apex.firefighter.unit.services;
+
+import com.apex.firefighter.model.Ticket;
+import com.apex.firefighter.model.User;
+import com.apex.firefighter.repository.UserRepository;
+import com.apex.firefighter.service.AdminAlert;
+import com.apex.firefighter.service.AdminAlertFanout;
+import com.apex.firefighter.service.GmailEmailService;
+import com.apex.firefighter.service.user.UserAuthorizationChangedEvent;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdminAlertFanoutTest {
+
+    private static final List<String> ADMIN_EMAILS = List.of("admin1@example.com", "admin2@example.com");
+
+    @Mock
+    private GmailEmailService emailService;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private AdminAlertFanout fanout;
+    private User testUser;
+    private Ticket testTicket;
+    private List<User> adminUsers;
+
+    @BeforeEach
+    void setUp() {
+        testUser = new User();
+        testUser.setUserId("test-user-123");
+        testUser.setUsername("testuser");
+        testUser.setEmail("testuser@example.com");
+
+        testTicket = new Ticket();
+        testTicket.setTicketId("TICKET-001");
+        testTicket.setEmergencyType("fire");
+
+        User admin1 = new User();
+        admin1.setUsername("admin1");
+        admin1.setEmail("admin1@example.com");
+        admin1.setIsAdmin(true);
+
+        User admin2 = new User();
+        admin2.setUsername("admin2");
+        admin2.setEmail("admin2@example.com");
+        admin2.setIsAdmin(true);
+
+        User adminWithoutEmail = new User();
+        adminWithoutEmail.setUsername("admin3");
+        adminWithoutEmail.setIsAdmin(true);
+
+        adminUsers = List.of(admin1, admin2, adminWithoutEmail);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (fanout != null) {
+            fanout.stop();
+        }
+    }
+
+    @Test
+    void publish_ShouldSendOneEmailToAllAdminsWithAnEmailAddress() throws MessagingException {
+        fanout = new AdminAlertFanout(emailService, userRepository, 0, 300000);
+        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
+        AdminAlert alert = anomaly("MEDIUM");
+
+        fanout.publish(alert);
+
+        verify(emailService).sendAdminAlertEmail(ADMIN_EMAILS, List.of(alert));
+    }
+
+    @Test
+    void publish_ShouldReuseCachedAdminRecipients() throws MessagingException {
+        fanout = new AdminAlertFanout(emailService, userRepository, 0, 300000);
+        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
+
+        fanout.publish(anomaly("MEDIUM"));
+        fanout.publish(anomaly("LOW"));
+        fanout.publish(groupChange("HIGH"));
+
+        verify(userRepository, times(1)).findByIsAdminTrue();
+        verify(emailService, times(3)).sendAdminAlertEmail(eq(ADMIN_EMAILS), anyList());
+        assertThat(fanout.getMetrics().get("cachedAdminRecipients")).isEqualTo(2);
+    }
+
+    @Test
+    void onUserAuthorizationChanged_ShouldReloadAdminRecipients() {
+        fanout = new AdminAlertFanout(emailService, userRepository, 0, 300000);
+        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers, List.of(adminUsers.get(0)));
+
+        assertThat(fanout.getAdminEmails()).isEqualTo(ADMIN_EMAILS);
+        fanout.onUserAuthorizationChanged(new UserAuthorizationChangedEvent("admin-2", "admin2", false));
+
+        assertThat(fanout.getAdminEmails()).containsExactly("admin1@example.com");
+        verify(userRepository, times(2)).findByIsAdminTrue();
+    }
+
+    @Test
+    void getAdminEmails_AfterTtl_ShouldReloadAdminRecipients() {
+        fanout = new AdminAlertFanout(emailService, userRepository, 0, 0);
+        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
+
+        fanout.getAdminEmails();
+        fanout.getAdminEmails();
+
+        verify(userRepository, times(2)).findByIsAdminTrue();
+    }
+
+    @Test
+    void publish_DuringDigestWindow_ShouldSendFirstAlertAtOnceAndTheRestAsOneDigest() throws MessagingException {
+        fanout = new AdminAlertFanout(emailService, userRepository, 200, 300000);
+        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
+        AdminAlert first = anomaly("LOW");
+        AdminAlert second = groupChange("HIGH");
+        AdminAlert third = anomaly("MEDIUM");
+
+        fanout.publish(first);
+        fanout.publish(second);
+        fanout.publish(third);
+
+        verify(emailService).sendAdminAlertEmail(ADMIN_EMAILS, List.of(first));
+        verify(emailService, timeout(5000)).sendAdminAlertEmail(ADMIN_EMAILS, List.of(second, third));
+        verify(emailService, times(2)).sendAdminAlertEmail(anyList(), anyList());
+        assertThat(fanout.getMetrics().get("alertsPublished")).isEqualTo(3L);
+    }
+
+    @Test
+    void stop_ShouldSendAlertsStillHeldForTheDigest() throws MessagingException {
+        fanout = new AdminAlertFanout(emailService, userRepository, 60000, 300000);
+        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
+        AdminAlert first = anomaly("LOW");
+        AdminAlert second = anomaly("MEDIUM");
+        AdminAlert third = groupChange("HIGH");
+
+        fanout.publish(first);
+        fanout.publish(second);
+        fanout.publish(third);
+        assertThat(fanout.getMetrics().get("pendingAlerts")).isEqualTo(2);
+
+        fanout.stop();
+
+        verify(emailService).sendAdminAlertEmail(ADMIN_EMAILS, List.of(first));
+        verify(emailService).sendAdminAlertEmail(ADMIN_EMAILS, List.of(second, third));
+        Map<String, Object> metrics = fanout.getMetrics();
+        assertThat(metrics.get("pendingAlerts")).isEqualTo(0);
+        assertThat(metrics.get("emailsSent")).isEqualTo(2L);
+        assertThat(metrics.get("digestsSent")).isEqualTo(1L);
+    }
+
+    @Test
+    void publish_WithNoAdminUsers_ShouldNotSendEmail() throws MessagingException {
+        fanout = new AdminAlertFanout(emailService, userRepository, 0, 300000);
+        when(userRepository.findByIsAdminTrue()).thenReturn(Collections.emptyList());
+
+        fanout.publish(anomaly("MEDIUM"));
+
+        verify(emailService, never()).sendAdminAlertEmail(anyList(), anyList());
+    }
+
+    @Test
+    void publish_WithEmailException_ShouldCountFailureWithoutThrowing() throws MessagingException {
+        fanout = new AdminAlertFanout(emailService, userRepository, 0, 300000);
+        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
+        doThrow(new MessagingException("Email failed")).when(emailService).sendAdminAlertEmail(anyList(), anyList());
+
+        fanout.publish(anomaly("MEDIUM"));
+
+        assertThat(fanout.getMetrics().get("sendFailures")).isEqualTo(1L);
+        assertThat(fanout.getMetrics().get("emailsSent")).isEqualTo(0L);
+    }
+
+    @Test
+    void publish_WithRepositoryException_ShouldCountFailureWithoutThrowing() throws MessagingException {
+        fanout = new AdminAlertFanout(emailService, userRepository, 0, 300000);
+        when(userRepository.findByIsAdminTrue()).thenThrow(new RuntimeException("Database error"));
+
+        fanout.publish(anomaly("MEDIUM"));
+
+        verify(emailService, never()).sendAdminAlertEmail(anyList(), anyList());
+        assertThat(fanout.getMetrics().get("sendFailures")).isEqualTo(1L);
+    }
+
+    private AdminAlert anomaly(String riskLevel) {
+        return new AdminAlert.Anomaly(testUser, testTicket, "FREQUENT_REQUESTS", "10 requests in the last hour",
+            riskLevel, LocalDateTime.now());
+    }
+
+    private AdminAlert groupChange(String riskLevel) {
+        return new AdminAlert.GroupChange(testUser, "TICKET-001", "HR Emergency Group", "Financial Emergency Group",
+            "Emergency ticket creation", riskLevel, LocalDateTime.now());
+    }
+}
@@ -2,6 +2,7 @@ package com.apex.firefighter.unit.services;
 
 import com.apex.firefighter.model.User;
 import com.apex.firefighter.repository.UserRepository;
+import com.apex.firefighter.service.user.DolibarrUserDirectory;
 import com.apex.firefighter.service.user.UserProfileService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -27,6 +28,9 @@ class AdminDolibarrManagementTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private DolibarrUserDirectory dolibarrUserDirectory;
+
     @InjectMocks
     private UserProfileService userProfileService;
 
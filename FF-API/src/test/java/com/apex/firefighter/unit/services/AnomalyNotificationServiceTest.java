@@ -3,13 +3,14 @@ package com.apex.firefighter.unit.services;
 import com.apex.firefighter.model.Ticket;
 import com.apex.firefighter.model.User;
 import com.apex.firefighter.repository.UserRepository;
+import com.apex.firefighter.service.AdminAlert;
+import com.apex.firefighter.service.AdminAlertFanout;
 import com.apex.firefighter.service.AnomalyNotificationService;
-import com.apex.firefighter.service.GmailEmailService;
 import com.apex.firefighter.service.anomaly.AnomalyDetectionService;
-import jakarta.mail.MessagingException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -27,7 +28,7 @@ import static org.mockito.Mockito.*;
 class AnomalyNotificationServiceTest {
 
     @Mock
-    private GmailEmailService emailService;
+    private AdminAlertFanout adminAlertFanout;
 
     @Mock
     private UserRepository userRepository;
@@ -80,115 +81,65 @@ class AnomalyNotificationServiceTest {
     // ==================== NOTIFY ADMINS OF ANOMALY TESTS ====================
 
     @Test
-    void notifyAdminsOfAnomaly_WithValidParameters_ShouldSendEmailsToAllAdmins() throws MessagingException {
+    void notifyAdminsOfAnomaly_WithValidParameters_ShouldPublishAlertToAdmins() {
         // Arrange
         String anomalyType = "FREQUENT_REQUESTS";
         String anomalyDetails = "User has made 10 requests in the last hour (threshold: 5)";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendAnomalyDetectionNotificationEmail(
-            anyString(), any(User.class), any(Ticket.class), anyString(), anyString(), anyString());
 
         // Act
         anomalyNotificationService.notifyAdminsOfAnomaly(testUser, testTicket, anomalyType, anomalyDetails);
 
         // Assert
-        verify(userRepository).findByIsAdminTrue();
-        verify(emailService, times(2)).sendAnomalyDetectionNotificationEmail(
-            anyString(), eq(testUser), eq(testTicket), eq(anomalyType), eq(anomalyDetails), eq("MEDIUM"));
-        verify(emailService).sendAnomalyDetectionNotificationEmail(
-            "admin1@example.com", testUser, testTicket, anomalyType, anomalyDetails, "MEDIUM");
-        verify(emailService).sendAnomalyDetectionNotificationEmail(
-            "admin2@example.com", testUser, testTicket, anomalyType, anomalyDetails, "MEDIUM");
+        AdminAlert.Anomaly alert = capturePublishedAlert();
+        assertThat(alert.user()).isEqualTo(testUser);
+        assertThat(alert.ticket()).isEqualTo(testTicket);
+        assertThat(alert.anomalyType()).isEqualTo(anomalyType);
+        assertThat(alert.anomalyDetails()).isEqualTo(anomalyDetails);
+        assertThat(alert.riskLevel()).isEqualTo("MEDIUM");
+        assertThat(alert.raisedAt()).isNotNull();
+        verifyNoInteractions(userRepository);
     }
 
 
     @Test
-    void notifyAdminsOfAnomaly_WithLowRiskOffHours_ShouldSendLowRiskEmails() throws MessagingException {
+    void notifyAdminsOfAnomaly_WithLowRiskOffHours_ShouldPublishLowRiskAlert() {
         // Arrange
         String anomalyType = "OFF_HOURS_ACTIVITY";
         String anomalyDetails = "User made a request at 22:00 which is outside of regular work hours";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendAnomalyDetectionNotificationEmail(
-            anyString(), any(User.class), any(Ticket.class), anyString(), anyString(), anyString());
-
-        // Act
-        anomalyNotificationService.notifyAdminsOfAnomaly(testUser, testTicket, anomalyType, anomalyDetails);
-
-        // Assert
-        verify(userRepository).findByIsAdminTrue();
-        verify(emailService, times(2)).sendAnomalyDetectionNotificationEmail(
-            anyString(), eq(testUser), eq(testTicket), eq(anomalyType), eq(anomalyDetails), eq("LOW"));
-    }
-
-    @Test
-    void notifyAdminsOfAnomaly_WithNoAdminUsers_ShouldLogWarning() throws MessagingException {
-        // Arrange
-        String anomalyType = "FREQUENT_REQUESTS";
-        String anomalyDetails = "Test anomaly details";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(Collections.emptyList());
 
         // Act
         anomalyNotificationService.notifyAdminsOfAnomaly(testUser, testTicket, anomalyType, anomalyDetails);
 
         // Assert
-        verify(userRepository).findByIsAdminTrue();
-        verify(emailService, never()).sendAnomalyDetectionNotificationEmail(
-            anyString(), any(User.class), any(Ticket.class), anyString(), anyString(), anyString());
+        AdminAlert.Anomaly alert = capturePublishedAlert();
+        assertThat(alert.anomalyType()).isEqualTo(anomalyType);
+        assertThat(alert.riskLevel()).isEqualTo("LOW");
     }
 
     @Test
-    void notifyAdminsOfAnomaly_WithEmailException_ShouldContinueWithOtherAdmins() throws MessagingException {
+    void notifyAdminsOfAnomaly_WithFanoutException_ShouldHandleGracefully() {
         // Arrange
         String anomalyType = "FREQUENT_REQUESTS";
         String anomalyDetails = "Test anomaly details";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doThrow(new MessagingException("Email failed")).when(emailService)
-            .sendAnomalyDetectionNotificationEmail(eq("admin1@example.com"), any(), any(), any(), any(), any());
-        doNothing().when(emailService)
-            .sendAnomalyDetectionNotificationEmail(eq("admin2@example.com"), any(), any(), any(), any(), any());
-
-        // Act
-        anomalyNotificationService.notifyAdminsOfAnomaly(testUser, testTicket, anomalyType, anomalyDetails);
-
-        // Assert
-        verify(userRepository).findByIsAdminTrue();
-        verify(emailService, times(2)).sendAnomalyDetectionNotificationEmail(
-            anyString(), any(User.class), any(Ticket.class), anyString(), anyString(), anyString());
-    }
 
-    @Test
-    void notifyAdminsOfAnomaly_WithRepositoryException_ShouldHandleGracefully() throws MessagingException {
-        // Arrange
-        String anomalyType = "FREQUENT_REQUESTS";
-        String anomalyDetails = "Test anomaly details";
-        
-        when(userRepository.findByIsAdminTrue()).thenThrow(new RuntimeException("Database error"));
+        doThrow(new RuntimeException("Scheduler error")).when(adminAlertFanout).publish(any());
 
         // Act
         anomalyNotificationService.notifyAdminsOfAnomaly(testUser, testTicket, anomalyType, anomalyDetails);
 
         // Assert
-        verify(userRepository).findByIsAdminTrue();
-        verify(emailService, never()).sendAnomalyDetectionNotificationEmail(
-            anyString(), any(User.class), any(Ticket.class), anyString(), anyString(), anyString());
+        verify(adminAlertFanout).publish(any(AdminAlert.Anomaly.class));
     }
 
     // ==================== CHECK AND NOTIFY ANOMALIES TESTS ====================
 
     @Test
-    void checkAndNotifyAnomalies_WithFrequentRequestAnomaly_ShouldNotifyAdmins() throws MessagingException {
+    void checkAndNotifyAnomalies_WithFrequentRequestAnomaly_ShouldNotifyAdmins() {
         // Arrange
         String frequencyDetails = "User has made 10 requests in the last hour (threshold: 5)";
         
         when(anomalyDetectionService.getRequestFrequencyDetails(TEST_USER_ID)).thenReturn(frequencyDetails);
         when(anomalyDetectionService.getOffHoursAnomalyDetails(TEST_USER_ID)).thenReturn(null);
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendAnomalyDetectionNotificationEmail(
-            anyString(), any(User.class), any(Ticket.class), anyString(), anyString(), anyString());
 
         // Act
         anomalyNotificationService.checkAndNotifyAnomalies(testUser, testTicket);
@@ -196,33 +147,50 @@ class AnomalyNotificationServiceTest {
         // Assert
         verify(anomalyDetectionService).getRequestFrequencyDetails(TEST_USER_ID);
         verify(anomalyDetectionService).getOffHoursAnomalyDetails(TEST_USER_ID);
-        verify(emailService, times(2)).sendAnomalyDetectionNotificationEmail(
-            anyString(), eq(testUser), eq(testTicket), eq("FREQUENT_REQUESTS"), eq(frequencyDetails), eq("MEDIUM"));
+        AdminAlert.Anomaly alert = capturePublishedAlert();
+        assertThat(alert.anomalyType()).isEqualTo("FREQUENT_REQUESTS");
+        assertThat(alert.anomalyDetails()).isEqualTo(frequencyDetails);
+        assertThat(alert.riskLevel()).isEqualTo("MEDIUM");
     }
 
 
     @Test
-    void checkAndNotifyAnomalies_WithOffHoursAnomaly_ShouldNotifyAdmins() throws MessagingException {
+    void checkAndNotifyAnomalies_WithOffHoursAnomaly_ShouldNotifyAdmins() {
         // Arrange
         String offHoursDetails = "User made a request at 22:00 which is outside of regular work hours";
         
         when(anomalyDetectionService.getRequestFrequencyDetails(TEST_USER_ID)).thenReturn(null);
         when(anomalyDetectionService.getOffHoursAnomalyDetails(TEST_USER_ID)).thenReturn(offHoursDetails);
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendAnomalyDetectionNotificationEmail(
-            anyString(), any(User.class), any(Ticket.class), anyString(), anyString(), anyString());
 
         // Act
         anomalyNotificationService.checkAndNotifyAnomalies(testUser, testTicket);
 
         // Assert
-        verify(emailService, times(2)).sendAnomalyDetectionNotificationEmail(
-            anyString(), eq(testUser), eq(testTicket), eq("OFF_HOURS_ACTIVITY"), eq(offHoursDetails), eq("LOW"));
+        AdminAlert.Anomaly alert = capturePublishedAlert();
+        assertThat(alert.anomalyType()).isEqualTo("OFF_HOURS_ACTIVITY");
+        assertThat(alert.anomalyDetails()).isEqualTo(offHoursDetails);
+        assertThat(alert.riskLevel()).isEqualTo("LOW");
     }
 
+    @Test
+    void checkAndNotifyAnomalies_WithBothAnomalies_ShouldPublishTwoAlerts() {
+        // Arrange
+        when(anomalyDetectionService.getRequestFrequencyDetails(TEST_USER_ID)).thenReturn("frequent");
+        when(anomalyDetectionService.getOffHoursAnomalyDetails(TEST_USER_ID)).thenReturn("off hours");
+
+        // Act
+        anomalyNotificationService.checkAndNotifyAnomalies(testUser, testTicket);
+
+        // Assert
+        ArgumentCaptor<AdminAlert> captor = ArgumentCaptor.forClass(AdminAlert.class);
+        verify(adminAlertFanout, times(2)).publish(captor.capture());
+        assertThat(captor.getAllValues())
+            .extracting(alert -> ((AdminAlert.Anomaly) alert).anomalyType())
+            .containsExactly("FREQUENT_REQUESTS", "OFF_HOURS_ACTIVITY");
+    }
 
     @Test
-    void checkAndNotifyAnomalies_WithNoAnomalies_ShouldNotSendEmails() throws MessagingException {
+    void checkAndNotifyAnomalies_WithNoAnomalies_ShouldNotSendEmails() {
         // Arrange
         when(anomalyDetectionService.getRequestFrequencyDetails(TEST_USER_ID)).thenReturn(null);
         when(anomalyDetectionService.getOffHoursAnomalyDetails(TEST_USER_ID)).thenReturn(null);
@@ -233,12 +201,11 @@ class AnomalyNotificationServiceTest {
         // Assert
         verify(anomalyDetectionService).getRequestFrequencyDetails(TEST_USER_ID);
         verify(anomalyDetectionService).getOffHoursAnomalyDetails(TEST_USER_ID);
-        verify(emailService, never()).sendAnomalyDetectionNotificationEmail(
-            anyString(), any(User.class), any(Ticket.class), anyString(), anyString(), anyString());
+        verify(adminAlertFanout, never()).publish(any());
     }
 
     @Test
-    void checkAndNotifyAnomalies_WithAnomalyDetectionException_ShouldHandleGracefully() throws MessagingException {
+    void checkAndNotifyAnomalies_WithAnomalyDetectionException_ShouldHandleGracefully() {
         // Arrange
         when(anomalyDetectionService.getRequestFrequencyDetails(TEST_USER_ID))
             .thenThrow(new RuntimeException("Anomaly detection error"));
@@ -248,8 +215,7 @@ class AnomalyNotificationServiceTest {
 
         // Assert
         verify(anomalyDetectionService).getRequestFrequencyDetails(TEST_USER_ID);
-        verify(emailService, never()).sendAnomalyDetectionNotificationEmail(
-            anyString(), any(User.class), any(Ticket.class), anyString(), anyString(), anyString());
+        verify(adminAlertFanout, never()).publish(any());
     }
 
     // ==================== RISK LEVEL DETERMINATION TESTS ====================
@@ -328,8 +294,8 @@ class AnomalyNotificationServiceTest {
         // Act
         anomalyNotificationService.notifyAdminsOfAnomaly(null, testTicket, anomalyType, anomalyDetails);
 
-        // Assert - Should not crash, but may not send emails
-        verify(userRepository, atMost(1)).findByIsAdminTrue();
+        // Assert - Should not crash
+        verify(adminAlertFanout, atMost(1)).publish(any());
     }
 
     @Test
@@ -341,8 +307,8 @@ class AnomalyNotificationServiceTest {
         // Act
         anomalyNotificationService.notifyAdminsOfAnomaly(testUser, null, anomalyType, anomalyDetails);
 
-        // Assert - Should not crash, but may not send emails
-        verify(userRepository, atMost(1)).findByIsAdminTrue();
+        // Assert - The alert is still raised without a ticket
+        assertThat(capturePublishedAlert().ticket()).isNull();
     }
 
     @Test
@@ -365,4 +331,11 @@ class AnomalyNotificationServiceTest {
         // Assert - Should not crash, but may not check anomalies
         verify(anomalyDetectionService, atMost(1)).getRequestFrequencyDetails(any());
     }
+
+    private AdminAlert.Anomaly capturePublishedAlert() {
+        ArgumentCaptor<AdminAlert> captor = ArgumentCaptor.forClass(AdminAlert.class);
+        verify(adminAlertFanout).publish(captor.capture());
+        assertThat(captor.getValue()).isInstanceOf(AdminAlert.Anomaly.class);
+        return (AdminAlert.Anomaly) captor.getValue();
+    }
 }
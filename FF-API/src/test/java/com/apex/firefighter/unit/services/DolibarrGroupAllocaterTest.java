@@ -0,0 +1,81 @@
+package com.apex.firefighter.unit.services;
+
+import com.apex.firefighter.config.DoliGroupConfig;
+import com.apex.firefighter.config.DolibarrPermissionsConfig;
+import com.apex.firefighter.service.DolibarrGroupAllocater;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DolibarrGroupAllocaterTest {
+
+    private DolibarrPermissionsConfig permissionsConfig;
+    private DolibarrGroupAllocater allocater;
+
+    @BeforeEach
+    void setUp() throws IllegalAccessException {
+        permissionsConfig = new DolibarrPermissionsConfig();
+        // Give every configured permission its own group ID, like the Dolibarr setup does (12..84)
+        int nextGroupId = 12;
+        for (Field field : DolibarrPermissionsConfig.class.getDeclaredFields()) {
+            if (field.getType() == Integer.class) {
+                field.setAccessible(true);
+                field.set(permissionsConfig, nextGroupId++);
+            }
+        }
+        allocater = new DolibarrGroupAllocater(new DoliGroupConfig(), permissionsConfig);
+    }
+
+    @Test
+    void allocateByDescription_ShouldUseFirstWordOfDescription() {
+        permissionsConfig.setReadSalaries(65);
+        allocater = new DolibarrGroupAllocater(new DoliGroupConfig(), permissionsConfig);
+
+        assertThat(allocater.allocateByDescription("hr-salary-read Need to check payroll")).isEqualTo(65);
+        assertThat(allocater.allocateByDescription("  hr-salary-read\tNeed to check payroll")).isEqualTo(65);
+        assertThat(allocater.allocateByDescription("hr-salary-read")).isEqualTo(65);
+        assertThat(allocater.allocateByDescription("HR-Salary-Read urgent")).isEqualTo(65);
+    }
+
+    @Test
+    void allocateByDescription_WithBlankDescription_ShouldThrowException() {
+        assertThatThrownBy(() -> allocater.allocateByDescription("   "))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("cannot be null or empty");
+    }
+
+    @Test
+    void getPermissionGroupId_WithUnknownPermission_ShouldThrowException() {
+        assertThatThrownBy(() -> allocater.getPermissionGroupId("hr-salary-burn"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid or unconfigured permission: 'hr-salary-burn'");
+    }
+
+    @Test
+    void getPermissionGroupId_WithUnconfiguredPermission_ShouldThrowException() {
+        permissionsConfig.setGenerateModules(null);
+        allocater = new DolibarrGroupAllocater(new DoliGroupConfig(), permissionsConfig);
+
+        assertThatThrownBy(() -> allocater.getPermissionGroupId("system-generate-modules"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid or unconfigured permission");
+    }
+
+    @Test
+    void getPermissionForGroupId_ShouldReverseEveryPermission() {
+        assertThat(DolibarrGroupAllocater.getPermissionVocabulary()).hasSize(73);
+
+        for (String permission : DolibarrGroupAllocater.getPermissionVocabulary()) {
+            Integer groupId = allocater.getPermissionGroupId(permission);
+            assertThat(allocater.allocateByDescription(permission + " Need access to resolve an open incident")).isEqualTo(groupId);
+            assertThat(allocater.getPermissionForGroupId(groupId)).contains(permission);
+        }
+
+        assertThat(allocater.getPermissionForGroupId(9999)).isEmpty();
+        assertThat(allocater.getPermissionForGroupId(null)).isEmpty();
+    }
+}
@@ -0,0 +1,216 @@
+package com.apex.firefighter.unit.services;
+
+import com.apex.firefighter.model.DolibarrSyncTask;
+import com.apex.firefighter.repository.DolibarrSyncTaskRepository;
+import com.apex.firefighter.service.DolibarrSyncQueue;
+import com.apex.firefighter.service.DolibarrUserGroupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class DolibarrSyncQueueTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    @Mock
+    private DolibarrSyncTaskRepository syncTaskRepository;
+
+    @Mock
+    private DolibarrUserGroupService dolibarrUserGroupService;
+
+    private DolibarrSyncQueue dolibarrSyncQueue;
+
+    @BeforeEach
+    void setUp() {
+        dolibarrSyncQueue = new DolibarrSyncQueue(syncTaskRepository, dolibarrUserGroupService, 2, 10, MAX_ATTEMPTS, 1000, 8000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dolibarrSyncQueue.stop();
+    }
+
+    @Test
+    void enqueueAdd_ShouldPersistTaskToOutbox() {
+        when(syncTaskRepository.save(any(DolibarrSyncTask.class))).thenAnswer(invocation -> withId(invocation.getArgument(0), 1L));
+
+        dolibarrSyncQueue.enqueueAdd("11", "hr issue", "BMW-FF-10001");
+
+        ArgumentCaptor<DolibarrSyncTask> saved = ArgumentCaptor.forClass(DolibarrSyncTask.class);
+        verify(syncTaskRepository).save(saved.capture());
+        assertThat(saved.getValue().getOperation()).isEqualTo(DolibarrSyncTask.OPERATION_ADD);
+        assertThat(saved.getValue().getDolibarrUserId()).isEqualTo("11");
+        assertThat(saved.getValue().getStatus()).isEqualTo(DolibarrSyncTask.STATUS_PENDING);
+    }
+
+    @Test
+    void enqueueRemove_WithPendingAddForSameGroup_ShouldCoalesceBoth() {
+        DolibarrSyncTask pendingAdd = withId(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "hr issue", "BMW-FF-10001"), 5L);
+        when(syncTaskRepository.findFirstByDolibarrUserIdAndDescriptionAndStatusOrderByIdDesc("11", "hr issue", DolibarrSyncTask.STATUS_PENDING))
+            .thenReturn(Optional.of(pendingAdd));
+        when(syncTaskRepository.deleteByIdAndStatus(5L, DolibarrSyncTask.STATUS_PENDING)).thenReturn(1);
+
+        dolibarrSyncQueue.enqueueRemove("11", "hr issue", "BMW-FF-10001");
+
+        verify(syncTaskRepository).deleteByIdAndStatus(5L, DolibarrSyncTask.STATUS_PENDING);
+        verify(syncTaskRepository, never()).save(any(DolibarrSyncTask.class));
+    }
+
+    @Test
+    void enqueueRemove_WhenPendingAddAlreadyStarted_ShouldQueueRemove() {
+        DolibarrSyncTask pendingAdd = withId(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "hr issue", "BMW-FF-10001"), 5L);
+        when(syncTaskRepository.findFirstByDolibarrUserIdAndDescriptionAndStatusOrderByIdDesc("11", "hr issue", DolibarrSyncTask.STATUS_PENDING))
+            .thenReturn(Optional.of(pendingAdd));
+        when(syncTaskRepository.deleteByIdAndStatus(5L, DolibarrSyncTask.STATUS_PENDING)).thenReturn(0);
+        when(syncTaskRepository.save(any(DolibarrSyncTask.class))).thenAnswer(invocation -> withId(invocation.getArgument(0), 6L));
+
+        dolibarrSyncQueue.enqueueRemove("11", "hr issue", "BMW-FF-10001");
+
+        verify(syncTaskRepository).save(argThat(task -> DolibarrSyncTask.OPERATION_REMOVE.equals(task.getOperation())));
+    }
+
+    @Test
+    void enqueueRemove_WhenPendingAddIsRetrying_ShouldQueueRemoveBehindIt() {
+        DolibarrSyncTask retryingAdd = withId(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "hr issue", "BMW-FF-10001"), 5L);
+        retryingAdd.setAttempts(1);
+        retryingAdd.setNextAttemptAt(LocalDateTime.now().plusMinutes(1));
+        when(syncTaskRepository.findFirstByDolibarrUserIdAndDescriptionAndStatusOrderByIdDesc("11", "hr issue", DolibarrSyncTask.STATUS_PENDING))
+            .thenReturn(Optional.of(retryingAdd));
+        when(syncTaskRepository.save(any(DolibarrSyncTask.class))).thenAnswer(invocation -> withId(invocation.getArgument(0), 6L));
+
+        dolibarrSyncQueue.enqueueRemove("11", "hr issue", "BMW-FF-10001");
+
+        // The failed attempt may still have reached Dolibarr, so the add must not be cancelled
+        verify(syncTaskRepository, never()).deleteByIdAndStatus(anyLong(), anyString());
+        verify(syncTaskRepository).save(argThat(task -> DolibarrSyncTask.OPERATION_REMOVE.equals(task.getOperation())));
+    }
+
+    @Test
+    void enqueueAdd_WithSamePendingAdd_ShouldIgnoreDuplicate() {
+        DolibarrSyncTask pendingAdd = withId(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "hr issue", "BMW-FF-10001"), 5L);
+        when(syncTaskRepository.findFirstByDolibarrUserIdAndDescriptionAndStatusOrderByIdDesc("11", "hr issue", DolibarrSyncTask.STATUS_PENDING))
+            .thenReturn(Optional.of(pendingAdd));
+
+        dolibarrSyncQueue.enqueueAdd("11", "hr issue", "BMW-FF-10002");
+
+        verify(syncTaskRepository, never()).save(any(DolibarrSyncTask.class));
+        verify(syncTaskRepository, never()).deleteByIdAndStatus(anyLong(), anyString());
+    }
+
+    @Test
+    void processTask_WhenSuccessful_ShouldApplyChangeAndDeleteTask() throws SQLException {
+        DolibarrSyncTask task = claimable(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "hr issue", "BMW-FF-10001"), 1L);
+
+        dolibarrSyncQueue.processTask(1L);
+
+        verify(dolibarrUserGroupService).addUserToGroup("11", "hr issue", "BMW-FF-10001");
+        verify(syncTaskRepository).deleteById(1L);
+        assertThat(task.getAttempts()).isZero();
+    }
+
+    @Test
+    void processTask_WhenAlreadyClaimedOrCoalesced_ShouldSkip() throws SQLException {
+        when(syncTaskRepository.transitionStatus(1L, DolibarrSyncTask.STATUS_PENDING, DolibarrSyncTask.STATUS_IN_PROGRESS)).thenReturn(0);
+
+        dolibarrSyncQueue.processTask(1L);
+
+        verify(syncTaskRepository, never()).findById(anyLong());
+        verify(dolibarrUserGroupService, never()).addUserToGroup(anyString(), anyString(), any());
+        verify(dolibarrUserGroupService, never()).removeUserFromGroup(anyString(), anyString(), any());
+    }
+
+    @Test
+    void processTask_WithOlderUnfinishedTaskForUser_ShouldDeferToPreserveOrder() throws SQLException {
+        claimable(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_REMOVE, "11", "hr issue", "BMW-FF-10001"), 2L);
+        DolibarrSyncTask olderAdd = withId(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "hr issue", "BMW-FF-10001"), 1L);
+        when(syncTaskRepository.findFirstByDolibarrUserIdAndStatusInOrderByIdAsc(eq("11"), anyCollection())).thenReturn(Optional.of(olderAdd));
+
+        dolibarrSyncQueue.processTask(2L);
+
+        verify(dolibarrUserGroupService, never()).removeUserFromGroup(anyString(), anyString(), any());
+        verify(syncTaskRepository).transitionStatus(2L, DolibarrSyncTask.STATUS_IN_PROGRESS, DolibarrSyncTask.STATUS_PENDING);
+    }
+
+    @Test
+    void processTask_WhenChangeFails_ShouldRetryWithExponentialBackoff() throws SQLException {
+        DolibarrSyncTask task = claimable(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_REMOVE, "11", "hr issue", "BMW-FF-10001"), 1L);
+        task.setAttempts(1);
+        doThrow(new SQLException("Connection refused")).when(dolibarrUserGroupService).removeUserFromGroup("11", "hr issue", "BMW-FF-10001");
+
+        LocalDateTime before = LocalDateTime.now();
+        dolibarrSyncQueue.processTask(1L);
+
+        verify(syncTaskRepository).save(task);
+        verify(syncTaskRepository, never()).deleteById(anyLong());
+        assertThat(task.getStatus()).isEqualTo(DolibarrSyncTask.STATUS_PENDING);
+        assertThat(task.getAttempts()).isEqualTo(2);
+        assertThat(task.getLastError()).isEqualTo("Connection refused");
+        // Second attempt waits twice the initial backoff
+        assertThat(task.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(2));
+    }
+
+    @Test
+    void processTask_AfterMaxAttempts_ShouldParkTaskAsFailed() throws SQLException {
+        DolibarrSyncTask task = claimable(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "hr issue", "BMW-FF-10001"), 1L);
+        task.setAttempts(MAX_ATTEMPTS - 1);
+        doThrow(new SQLException("Connection refused")).when(dolibarrUserGroupService).addUserToGroup("11", "hr issue", "BMW-FF-10001");
+
+        dolibarrSyncQueue.processTask(1L);
+
+        assertThat(task.getStatus()).isEqualTo(DolibarrSyncTask.STATUS_FAILED);
+        verify(syncTaskRepository).save(task);
+    }
+
+    @Test
+    void pollDueTasks_ShouldDispatchDueTasksToLanes() throws Exception {
+        DolibarrSyncTask due = claimable(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "hr issue", "BMW-FF-10001"), 1L);
+        when(syncTaskRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(eq(DolibarrSyncTask.STATUS_PENDING), any(LocalDateTime.class)))
+            .thenReturn(List.of(due));
+
+        dolibarrSyncQueue.pollDueTasks();
+
+        verify(dolibarrUserGroupService, timeout(2000)).addUserToGroup("11", "hr issue", "BMW-FF-10001");
+        verify(syncTaskRepository, timeout(2000)).deleteById(1L);
+    }
+
+    @Test
+    void getLagMillis_ShouldMeasureOldestPendingTask() {
+        DolibarrSyncTask oldest = new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "hr issue", null);
+        when(syncTaskRepository.findFirstByStatusOrderByCreatedAtAsc(DolibarrSyncTask.STATUS_PENDING)).thenReturn(Optional.of(oldest));
+
+        assertThat(dolibarrSyncQueue.getLagMillis()).isGreaterThanOrEqualTo(0);
+        when(syncTaskRepository.findFirstByStatusOrderByCreatedAtAsc(DolibarrSyncTask.STATUS_PENDING)).thenReturn(Optional.empty());
+        assertThat(dolibarrSyncQueue.getLagMillis()).isZero();
+    }
+
+    private DolibarrSyncTask claimable(DolibarrSyncTask task, Long id) {
+        withId(task, id);
+        when(syncTaskRepository.transitionStatus(id, DolibarrSyncTask.STATUS_PENDING, DolibarrSyncTask.STATUS_IN_PROGRESS)).thenReturn(1);
+        when(syncTaskRepository.findById(id)).thenReturn(Optional.of(task));
+        when(syncTaskRepository.findFirstByDolibarrUserIdAndStatusInOrderByIdAsc(eq(task.getDolibarrUserId()), anyCollection()))
+            .thenReturn(Optional.of(task));
+        return task;
+    }
+
+    private static DolibarrSyncTask withId(DolibarrSyncTask task, Long id) {
+        task.setId(id);
+        return task;
+    }
+}
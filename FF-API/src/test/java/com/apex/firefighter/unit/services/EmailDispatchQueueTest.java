@@ -0,0 +1,190 @@
+package com.apex.firefighter.unit.services;
+
+import com.apex.firefighter.model.EmailDeadLetter;
+import com.apex.firefighter.repository.EmailDeadLetterRepository;
+import com.apex.firefighter.service.EmailDispatchQueue;
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EmailDispatchQueueTest {
+
+    @Mock
+    private JavaMailSender mailSender;
+
+    @Mock
+    private EmailDeadLetterRepository deadLetterRepository;
+
+    private EmailDispatchQueue dispatchQueue;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatchQueue != null) {
+            dispatchQueue.stop();
+        }
+    }
+
+    @Test
+    void sendAndWait_ShouldSendOnDispatcherThreadAndRecordMetrics() throws Exception {
+        dispatchQueue = newQueue(mailSender, true, 10, 3);
+        dispatchQueue.start();
+        MimeMessage message = message("user@example.com");
+
+        dispatchQueue.sendAndWait(message, "Test email");
+
+        verify(mailSender).send(message);
+        Map<String, Object> metrics = dispatchQueue.getMetrics();
+        assertThat(metrics.get("sent")).isEqualTo(1L);
+        assertThat(metrics.get("queueDepth")).isEqualTo(0);
+        assertThat(metrics.get("failedAttempts")).isEqualTo(0L);
+        assertThat(latencySamples(metrics, "sendLatencyMillis")).isEqualTo(1L);
+        assertThat(latencySamples(metrics, "deliveryLatencyMillis")).isEqualTo(1L);
+    }
+
+    @Test
+    void sendAndWait_WithJavaMailSenderImpl_ShouldReuseOneSmtpConnection() throws Exception {
+        JavaMailSenderImpl smtpSender = mock(JavaMailSenderImpl.class);
+        Session session = mock(Session.class);
+        Transport transport = mock(Transport.class);
+        when(smtpSender.getSession()).thenReturn(session);
+        when(smtpSender.getProtocol()).thenReturn("smtp");
+        when(smtpSender.getHost()).thenReturn("smtp.example.com");
+        when(smtpSender.getPort()).thenReturn(587);
+        when(smtpSender.getUsername()).thenReturn("sender@example.com");
+        when(smtpSender.getPassword()).thenReturn("app-password");
+        when(session.getTransport("smtp")).thenReturn(transport);
+        when(transport.isConnected()).thenReturn(true);
+
+        dispatchQueue = newQueue(smtpSender, true, 10, 3);
+        dispatchQueue.start();
+        for (int i = 0; i < 3; i++) {
+            MimeMessage message = new MimeMessage((Session) null);
+            message.setRecipient(Message.RecipientType.TO, new InternetAddress("user" + i + "@example.com"));
+            message.setText("Body " + i);
+            dispatchQueue.sendAndWait(message, "Test email " + i);
+        }
+
+        verify(transport, times(1)).connect("smtp.example.com", 587, "sender@example.com", "app-password");
+        verify(transport, times(3)).sendMessage(any(MimeMessage.class), any(Address[].class));
+        verify(smtpSender, never()).send(any(MimeMessage.class));
+    }
+
+    @Test
+    void sendAndWait_WhenSendFailsOnce_ShouldRetryAndDeliver() throws Exception {
+        dispatchQueue = newQueue(mailSender, true, 10, 3);
+        dispatchQueue.start();
+        MimeMessage message = message("user@example.com");
+        doThrow(new MailSendException("Connection reset")).doNothing().when(mailSender).send(message);
+
+        dispatchQueue.sendAndWait(message, "Test email");
+
+        verify(mailSender, times(2)).send(message);
+        verify(deadLetterRepository, never()).save(any());
+        assertThat(dispatchQueue.getMetrics().get("failedAttempts")).isEqualTo(1L);
+        assertThat(dispatchQueue.getMetrics().get("sent")).isEqualTo(1L);
+    }
+
+    @Test
+    void sendAndWait_WhenEveryAttemptFails_ShouldRecordDeadLetter() throws Exception {
+        dispatchQueue = newQueue(mailSender, true, 10, 2);
+        dispatchQueue.start();
+        MimeMessage message = message("user@example.com");
+        when(message.getSubject()).thenReturn("FireFighter Platform - New Ticket Created");
+        doThrow(new MailSendException("Authentication failed")).when(mailSender).send(message);
+
+        assertThatThrownBy(() -> dispatchQueue.sendAndWait(message, "Ticket creation email to user@example.com"))
+            .isInstanceOf(MessagingException.class)
+            .hasMessageContaining("Authentication failed");
+
+        ArgumentCaptor<EmailDeadLetter> deadLetter = ArgumentCaptor.forClass(EmailDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertThat(deadLetter.getValue().getDescription()).isEqualTo("Ticket creation email to user@example.com");
+        assertThat(deadLetter.getValue().getRecipients()).isEqualTo("user@example.com");
+        assertThat(deadLetter.getValue().getSubject()).isEqualTo("FireFighter Platform - New Ticket Created");
+        assertThat(deadLetter.getValue().getAttempts()).isEqualTo(2);
+        assertThat(deadLetter.getValue().getLastError()).contains("Authentication failed");
+        verify(mailSender, times(2)).send(message);
+        assertThat(dispatchQueue.getMetrics().get("deadLettered")).isEqualTo(1L);
+    }
+
+    @Test
+    void enqueue_WhenQueueIsFull_ShouldRejectAfterTimeout() throws Exception {
+        // Dispatcher not started, so nothing drains the queue
+        dispatchQueue = newQueue(mailSender, true, 1, 3);
+        dispatchQueue.enqueue(mock(MimeMessage.class), "First email");
+
+        assertThatThrownBy(() -> dispatchQueue.enqueue(mock(MimeMessage.class), "Second email"))
+            .isInstanceOf(MessagingException.class)
+            .hasMessageContaining("queue is full");
+        assertThat(dispatchQueue.getMetrics().get("rejected")).isEqualTo(1L);
+        assertThat(dispatchQueue.getMetrics().get("queueDepth")).isEqualTo(1);
+    }
+
+    @Test
+    void stop_ShouldRecordUndeliveredEmailsAsDeadLetters() throws Exception {
+        dispatchQueue = newQueue(mailSender, true, 10, 3);
+        dispatchQueue.enqueue(message("user@example.com"), "Queued email");
+
+        dispatchQueue.stop();
+
+        ArgumentCaptor<EmailDeadLetter> deadLetter = ArgumentCaptor.forClass(EmailDeadLetter.class);
+        verify(deadLetterRepository).save(deadLetter.capture());
+        assertThat(deadLetter.getValue().getLastError()).isEqualTo("Application shut down before delivery");
+        verify(mailSender, never()).send(any(MimeMessage.class));
+    }
+
+    @Test
+    void enqueue_WhenNotAsync_ShouldSendOnCallerThread() throws Exception {
+        dispatchQueue = newQueue(mailSender, false, 10, 3);
+        MimeMessage message = mock(MimeMessage.class);
+        doThrow(new MailSendException("Mail server error")).when(mailSender).send(message);
+
+        assertThatThrownBy(() -> dispatchQueue.enqueue(message, "Test email"))
+            .isInstanceOf(MailSendException.class);
+        verify(mailSender).send(message);
+    }
+
+    private EmailDispatchQueue newQueue(JavaMailSender sender, boolean async, int capacity, int maxAttempts) {
+        return new EmailDispatchQueue(sender, deadLetterRepository, async, capacity, 10L, 30000L,
+            maxAttempts, 1L, 10L, 1024 * 1024);
+    }
+
+    private static MimeMessage message(String recipient) throws MessagingException {
+        MimeMessage message = mock(MimeMessage.class);
+        lenient().when(message.getAllRecipients())
+            .thenReturn(new Address[] { new InternetAddress(recipient) });
+        return message;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static long latencySamples(Map<String, Object> metrics, String histogram) {
+        return (Long) ((Map<String, Object>) metrics.get(histogram)).get("count");
+    }
+}
@@ -0,0 +1,100 @@
+package com.apex.firefighter.unit.services;
+
+import com.apex.firefighter.service.email.EmailTemplate;
+import com.apex.firefighter.service.email.EmailTemplates;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EmailTemplatesTest {
+
+    @Test
+    void compile_ShouldReuseValueForRepeatedSlots() {
+        EmailTemplate template = EmailTemplate.compile("test", "<p>{{name}} has {{count}} tickets, {{ name }}</p>");
+
+        StringBuilder out = new StringBuilder("prefix:");
+        template.renderTo(out, "Alice", 3);
+
+        assertThat(template.getSlotNames()).containsExactly("name", "count");
+        assertThat(out.toString()).isEqualTo("prefix:<p>Alice has 3 tickets, Alice</p>");
+    }
+
+    @Test
+    void renderTo_WithFragments_ShouldRenderThemInPlace() {
+        EmailTemplate layout = EmailTemplate.compile("layout", "<body>{{content}}</body>");
+        EmailTemplate row = EmailTemplate.compile("row", "<li>{{value}}</li>");
+
+        StringBuilder out = new StringBuilder();
+        layout.renderTo(out, row.with("first"));
+        layout.renderTo(out, EmailTemplate.EMPTY);
+
+        assertThat(out.toString()).isEqualTo("<body><li>first</li></body><body></body>");
+    }
+
+    @Test
+    void renderTo_WithNullValue_ShouldWriteNullLikeStringBuilder() {
+        EmailTemplate template = EmailTemplate.compile("test", "Type: {{type}}");
+
+        StringBuilder out = new StringBuilder();
+        template.renderTo(out, (Object) null);
+
+        assertThat(out.toString()).isEqualTo("Type: null");
+    }
+
+    @Test
+    void renderTo_WithWrongNumberOfValues_ShouldThrow() {
+        EmailTemplate template = EmailTemplate.compile("test", "{{a}} {{b}}");
+
+        assertThatThrownBy(() -> template.renderTo(new StringBuilder(), "only one"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("expects 2 values");
+    }
+
+    @Test
+    void compile_WithMalformedSlot_ShouldThrow() {
+        assertThatThrownBy(() -> EmailTemplate.compile("broken", "<p>{{name</p>"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Unterminated slot");
+        assertThatThrownBy(() -> EmailTemplate.compile("broken", "<p>{{first name}}</p>"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Invalid slot name");
+    }
+
+    @Test
+    void render_ShouldFillEveryTemplateSlot() {
+        EmailTemplates emailTemplates = new EmailTemplates();
+
+        for (EmailTemplates.Template template : EmailTemplates.Template.values()) {
+            Object[] values = template.getSlots().stream().map(slot -> "[" + slot + "]").toArray();
+
+            String html = emailTemplates.render(template, values);
+
+            assertThat(html).as(template.getFileName()).doesNotContain("{{").doesNotContain("}}");
+            for (String slot : template.getSlots()) {
+                assertThat(html).as(template.getFileName()).contains("[" + slot + "]");
+            }
+        }
+    }
+
+    @Test
+    void render_ShouldNestNotificationContentInLayout() {
+        EmailTemplates emailTemplates = new EmailTemplates();
+
+        String html = emailTemplates.render(EmailTemplates.Template.NOTIFICATION_LAYOUT,
+            "Ticket Created",
+            emailTemplates.infoItem("Ticket ID", "TICKET-001"),
+            "January 01, 2025 at 10:00");
+
+        assertThat(html).startsWith("<!DOCTYPE html>");
+        assertThat(html).contains("<title>FireFighter Platform - Ticket Created</title>");
+        assertThat(html).contains("<span class=\"info-label\">Ticket ID: </span>");
+        assertThat(html).contains("<span class=\"info-value\">TICKET-001</span>");
+        assertThat(html).contains("Generated on January 01, 2025 at 10:00");
+        assertThat(html).endsWith("</html>");
+
+        // The reused buffer must not leak content into the next email
+        String next = emailTemplates.render(EmailTemplates.Template.REGISTRATION_APPROVED, "newuser", "admin");
+        assertThat(next).doesNotContain("TICKET-001").contains("newuser");
+    }
+}
@@ -2,23 +2,34 @@ package com.apex.firefighter.unit.services;
 
 import com.apex.firefighter.model.Ticket;
 import com.apex.firefighter.model.User;
+import com.apex.firefighter.service.AdminAlert;
+import com.apex.firefighter.service.EmailDispatchQueue;
 import com.apex.firefighter.service.GmailEmailService;
+import com.apex.firefighter.service.email.EmailTemplates;
+import com.apex.firefighter.service.ticket.TicketExport;
+import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Properties;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -31,6 +42,12 @@ class GmailEmailServiceTest {
     @Mock
     private JavaMailSender mailSender;
 
+    @Mock
+    private EmailDispatchQueue emailDispatchQueue;
+
+    @Spy
+    private EmailTemplates emailTemplates = new EmailTemplates();
+
     @Mock
     private MimeMessage mimeMessage;
 
@@ -114,7 +131,7 @@ class GmailEmailServiceTest {
 
         // Assert
         assertThat(result).isNotNull();
-        assertThat(result).isEqualTo("TicketId,Description,Status,DateCreated,UserId,EmergencyType,EmergencyContact,Duration\n");
+        assertThat(result).isEqualTo("TicketId,Description,Status,DateCreated,UserId,EmergencyType,EmergencyContact,Duration\r\n");
         
         String[] lines = result.split("\n");
         assertThat(lines).hasSize(1);
@@ -142,7 +159,7 @@ class GmailEmailServiceTest {
     }
 
     @Test
-    void exportTicketsToCsv_WithCommasInData_ShouldReplaceCommasWithSpaces() {
+    void exportTicketsToCsv_WithCommasInData_ShouldQuoteFields() {
         // Arrange
         Ticket ticketWithCommas = new Ticket();
         ticketWithCommas.setTicketId("TICKET-COMMA");
@@ -155,10 +172,8 @@ class GmailEmailServiceTest {
 
         // Assert
         assertThat(result).isNotNull();
-        assertThat(result).contains("Emergency  urgent  critical access");
-        assertThat(result).contains("John  Doe");
-        assertThat(result).doesNotContain("Emergency, urgent, critical access");
-        assertThat(result).doesNotContain("John, Doe");
+        assertThat(result).contains("TICKET-COMMA,\"Emergency, urgent, critical access\",");
+        assertThat(result).contains(",\"John, Doe\",");
     }
 
     // ==================== CSV EMAIL SENDING TESTS ====================
@@ -168,14 +183,14 @@ class GmailEmailServiceTest {
         // Arrange
         String csvContent = "TicketId,Description\nTICKET-001,Test";
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).sendAndWait(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketsCsv(TEST_EMAIL, csvContent, testUser);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).sendAndWait(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -183,7 +198,7 @@ class GmailEmailServiceTest {
         // Arrange
         String csvContent = "TicketId,Description\nTICKET-001,Test";
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doThrow(new RuntimeException("Mail server error")).when(mailSender).send(any(MimeMessage.class));
+        doThrow(new RuntimeException("Mail server error")).when(emailDispatchQueue).sendAndWait(any(MimeMessage.class), anyString());
 
         // Act & Assert
         assertThatThrownBy(() -> gmailEmailService.sendTicketsCsv(TEST_EMAIL, csvContent, testUser))
@@ -191,11 +206,11 @@ class GmailEmailServiceTest {
             .hasMessage("Mail server error");
 
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).sendAndWait(eq(mimeMessage), anyString());
     }
 
     @Test
-    void sendTicketsCsv_WithCreateMessageException_ShouldPropagateException() {
+    void sendTicketsCsv_WithCreateMessageException_ShouldPropagateException() throws Exception {
         // Arrange
         String csvContent = "TicketId,Description\nTICKET-001,Test";
         when(mailSender.createMimeMessage()).thenThrow(new RuntimeException("Failed to create message"));
@@ -206,7 +221,7 @@ class GmailEmailServiceTest {
             .hasMessage("Failed to create message");
 
         verify(mailSender).createMimeMessage();
-        verify(mailSender, never()).send(any(MimeMessage.class));
+        verify(emailDispatchQueue, never()).sendAndWait(any(MimeMessage.class), anyString());
     }
 
     @Test
@@ -219,14 +234,14 @@ class GmailEmailServiceTest {
         String csvContent = largeCsv.toString();
         
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).sendAndWait(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketsCsv(TEST_EMAIL, csvContent, testUser);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).sendAndWait(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -234,14 +249,14 @@ class GmailEmailServiceTest {
         // Arrange
         String csvContent = "";
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).sendAndWait(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketsCsv(TEST_EMAIL, csvContent, testUser);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).sendAndWait(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -249,14 +264,31 @@ class GmailEmailServiceTest {
         // Arrange
         String csvContent = "TicketId,Description\nTICKET-001,Test";
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).sendAndWait(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketsCsv(TEST_EMAIL, csvContent, null);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).sendAndWait(eq(mimeMessage), anyString());
+    }
+
+    @Test
+    void sendTicketsExport_ShouldAttachExportFile() throws Exception {
+        // Arrange
+        Path file = Files.createTempFile("ticket-export-test-", ".csv.gz");
+        when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
+        doNothing().when(emailDispatchQueue).sendAndWait(any(MimeMessage.class), anyString());
+
+        // Act
+        try (TicketExport export = new TicketExport(file, 2, 128, true)) {
+            gmailEmailService.sendTicketsExport(TEST_EMAIL, export, testUser);
+        }
+
+        // Assert
+        verify(emailDispatchQueue).sendAndWait(eq(mimeMessage), anyString());
+        assertThat(file).doesNotExist();
     }
 
     // ==================== TICKET CREATION EMAIL TESTS ====================
@@ -265,21 +297,21 @@ class GmailEmailServiceTest {
     void sendTicketCreationEmail_WithValidParameters_ShouldSendEmailSuccessfully() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketCreationEmail(TEST_EMAIL, testTicket, testUser);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
     void sendTicketCreationEmail_WithMailSenderException_ShouldPropagateException() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doThrow(new RuntimeException("Mail server error")).when(mailSender).send(any(MimeMessage.class));
+        doThrow(new RuntimeException("Mail server error")).when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act & Assert
         assertThatThrownBy(() -> gmailEmailService.sendTicketCreationEmail(TEST_EMAIL, testTicket, testUser))
@@ -287,7 +319,7 @@ class GmailEmailServiceTest {
             .hasMessage("Mail server error");
 
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -306,14 +338,14 @@ class GmailEmailServiceTest {
     void sendTicketCreationEmail_WithNullUser_ShouldHandleGracefully() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketCreationEmail(TEST_EMAIL, testTicket, null);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     // ==================== TICKET COMPLETION EMAIL TESTS ====================
@@ -322,21 +354,21 @@ class GmailEmailServiceTest {
     void sendTicketCompletionEmail_WithValidParameters_ShouldSendEmailSuccessfully() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketCompletionEmail(TEST_EMAIL, testTicket, testUser);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
     void sendTicketCompletionEmail_WithMailSenderException_ShouldPropagateException() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doThrow(new RuntimeException("Mail server error")).when(mailSender).send(any(MimeMessage.class));
+        doThrow(new RuntimeException("Mail server error")).when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act & Assert
         assertThatThrownBy(() -> gmailEmailService.sendTicketCompletionEmail(TEST_EMAIL, testTicket, testUser))
@@ -344,7 +376,7 @@ class GmailEmailServiceTest {
             .hasMessage("Mail server error");
 
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -352,14 +384,14 @@ class GmailEmailServiceTest {
         // Arrange
         testTicket.setDateCompleted(null);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketCompletionEmail(TEST_EMAIL, testTicket, testUser);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     // ==================== TICKET REVOCATION EMAIL TESTS ====================
@@ -368,21 +400,21 @@ class GmailEmailServiceTest {
     void sendTicketRevocationEmail_WithValidParameters_ShouldSendEmailSuccessfully() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketRevocationEmail(TEST_EMAIL, testTicket, testUser, TEST_REASON);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
     void sendTicketRevocationEmail_WithMailSenderException_ShouldPropagateException() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doThrow(new RuntimeException("Mail server error")).when(mailSender).send(any(MimeMessage.class));
+        doThrow(new RuntimeException("Mail server error")).when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act & Assert
         assertThatThrownBy(() -> gmailEmailService.sendTicketRevocationEmail(TEST_EMAIL, testTicket, testUser, TEST_REASON))
@@ -390,35 +422,35 @@ class GmailEmailServiceTest {
             .hasMessage("Mail server error");
 
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
     void sendTicketRevocationEmail_WithNullReason_ShouldHandleGracefully() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketRevocationEmail(TEST_EMAIL, testTicket, testUser, null);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
     void sendTicketRevocationEmail_WithEmptyReason_ShouldHandleGracefully() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketRevocationEmail(TEST_EMAIL, testTicket, testUser, "");
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     // ==================== FIVE MINUTE WARNING EMAIL TESTS ====================
@@ -427,21 +459,21 @@ class GmailEmailServiceTest {
     void sendFiveMinuteWarningEmail_WithValidParameters_ShouldSendEmailSuccessfully() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendFiveMinuteWarningEmail(TEST_EMAIL, testTicket, testUser);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
     void sendFiveMinuteWarningEmail_WithMailSenderException_ShouldPropagateException() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doThrow(new RuntimeException("Mail server error")).when(mailSender).send(any(MimeMessage.class));
+        doThrow(new RuntimeException("Mail server error")).when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act & Assert
         assertThatThrownBy(() -> gmailEmailService.sendFiveMinuteWarningEmail(TEST_EMAIL, testTicket, testUser))
@@ -449,7 +481,7 @@ class GmailEmailServiceTest {
             .hasMessage("Mail server error");
 
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -468,14 +500,14 @@ class GmailEmailServiceTest {
     void sendFiveMinuteWarningEmail_WithNullUser_ShouldHandleGracefully() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendFiveMinuteWarningEmail(TEST_EMAIL, testTicket, null);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -483,14 +515,14 @@ class GmailEmailServiceTest {
         // Arrange
         testTicket.setDuration(0);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendFiveMinuteWarningEmail(TEST_EMAIL, testTicket, testUser);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -498,20 +530,20 @@ class GmailEmailServiceTest {
         // Arrange
         testTicket.setDuration(-30);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendFiveMinuteWarningEmail(TEST_EMAIL, testTicket, testUser);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     // ==================== EDGE CASES AND ERROR HANDLING ====================
 
     @Test
-    void sendTicketCreationEmail_WithCreateMessageException_ShouldPropagateException() {
+    void sendTicketCreationEmail_WithCreateMessageException_ShouldPropagateException() throws Exception {
         // Arrange
         when(mailSender.createMimeMessage()).thenThrow(new RuntimeException("Failed to create message"));
 
@@ -521,11 +553,11 @@ class GmailEmailServiceTest {
             .hasMessage("Failed to create message");
 
         verify(mailSender).createMimeMessage();
-        verify(mailSender, never()).send(any(MimeMessage.class));
+        verify(emailDispatchQueue, never()).enqueue(any(MimeMessage.class), anyString());
     }
 
     @Test
-    void sendTicketCompletionEmail_WithCreateMessageException_ShouldPropagateException() {
+    void sendTicketCompletionEmail_WithCreateMessageException_ShouldPropagateException() throws Exception {
         // Arrange
         when(mailSender.createMimeMessage()).thenThrow(new RuntimeException("Failed to create message"));
 
@@ -535,11 +567,11 @@ class GmailEmailServiceTest {
             .hasMessage("Failed to create message");
 
         verify(mailSender).createMimeMessage();
-        verify(mailSender, never()).send(any(MimeMessage.class));
+        verify(emailDispatchQueue, never()).enqueue(any(MimeMessage.class), anyString());
     }
 
     @Test
-    void sendTicketRevocationEmail_WithCreateMessageException_ShouldPropagateException() {
+    void sendTicketRevocationEmail_WithCreateMessageException_ShouldPropagateException() throws Exception {
         // Arrange
         when(mailSender.createMimeMessage()).thenThrow(new RuntimeException("Failed to create message"));
 
@@ -549,11 +581,11 @@ class GmailEmailServiceTest {
             .hasMessage("Failed to create message");
 
         verify(mailSender).createMimeMessage();
-        verify(mailSender, never()).send(any(MimeMessage.class));
+        verify(emailDispatchQueue, never()).enqueue(any(MimeMessage.class), anyString());
     }
 
     @Test
-    void sendFiveMinuteWarningEmail_WithCreateMessageException_ShouldPropagateException() {
+    void sendFiveMinuteWarningEmail_WithCreateMessageException_ShouldPropagateException() throws Exception {
         // Arrange
         when(mailSender.createMimeMessage()).thenThrow(new RuntimeException("Failed to create message"));
 
@@ -563,7 +595,7 @@ class GmailEmailServiceTest {
             .hasMessage("Failed to create message");
 
         verify(mailSender).createMimeMessage();
-        verify(mailSender, never()).send(any(MimeMessage.class));
+        verify(emailDispatchQueue, never()).enqueue(any(MimeMessage.class), anyString());
     }
 
     // ==================== COMPREHENSIVE INTEGRATION TESTS ====================
@@ -572,7 +604,7 @@ class GmailEmailServiceTest {
     void exportAndSendTicketsCsv_FullWorkflow_ShouldWorkCorrectly() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).sendAndWait(any(MimeMessage.class), anyString());
 
         // Act
         String csvContent = gmailEmailService.exportTicketsToCsv(testTickets);
@@ -583,14 +615,14 @@ class GmailEmailServiceTest {
         assertThat(csvContent).contains("TICKET-001");
         assertThat(csvContent).contains("TICKET-002");
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).sendAndWait(eq(mimeMessage), anyString());
     }
 
     @Test
     void allEmailMethods_WithSameTicketAndUser_ShouldAllWorkCorrectly() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act & Assert - All email methods should work with the same ticket and user
         gmailEmailService.sendTicketCreationEmail(TEST_EMAIL, testTicket, testUser);
@@ -599,7 +631,7 @@ class GmailEmailServiceTest {
         gmailEmailService.sendFiveMinuteWarningEmail(TEST_EMAIL, testTicket, testUser);
 
         verify(mailSender, times(4)).createMimeMessage();
-        verify(mailSender, times(4)).send(mimeMessage);
+        verify(emailDispatchQueue, times(4)).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -618,8 +650,8 @@ class GmailEmailServiceTest {
         // Assert
         assertThat(result).isNotNull();
         assertThat(result).contains("TICKET-SPECIAL");
-        assertThat(result).contains("Emergency: \"Critical\" access needed!");
-        assertThat(result).contains("John O'Connor  Manager"); // Comma replaced with space
+        assertThat(result).contains("\"Emergency: \"\"Critical\"\" access needed!\""); // Quotes doubled
+        assertThat(result).contains("\"John O'Connor, Manager\"");
         assertThat(result).contains("fire & rescue");
     }
 
@@ -653,14 +685,14 @@ class GmailEmailServiceTest {
         // Arrange
         String csvContent = gmailEmailService.exportTicketsToCsv(testTickets);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).sendAndWait(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketsCsv(TEST_EMAIL, csvContent, testUser);
 
         // Assert - This indirectly tests createProfessionalEmailContent method
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).sendAndWait(eq(mimeMessage), anyString());
 
         // The HTML content generation is tested indirectly through successful email sending
         assertThat(csvContent).contains("TICKET-001"); // Verifies CSV content is properly generated
@@ -670,56 +702,56 @@ class GmailEmailServiceTest {
     void sendTicketCreationEmail_ShouldGenerateProperHtmlContent() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketCreationEmail(TEST_EMAIL, testTicket, testUser);
 
         // Assert - This indirectly tests createTicketCreationEmailContent method
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
     void sendTicketCompletionEmail_ShouldGenerateProperHtmlContent() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketCompletionEmail(TEST_EMAIL, testTicket, testUser);
 
         // Assert - This indirectly tests createTicketCompletionEmailContent method
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
     void sendTicketRevocationEmail_ShouldGenerateProperHtmlContent() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketRevocationEmail(TEST_EMAIL, testTicket, testUser, TEST_REASON);
 
         // Assert - This indirectly tests createTicketRevocationEmailContent method
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
     void sendFiveMinuteWarningEmail_ShouldGenerateProperHtmlContent() throws MessagingException {
         // Arrange
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendFiveMinuteWarningEmail(TEST_EMAIL, testTicket, testUser);
 
         // Assert - This indirectly tests createFiveMinuteWarningEmailContent method
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     // ==================== ADDITIONAL EDGE CASES ====================
@@ -751,14 +783,14 @@ class GmailEmailServiceTest {
         // Leave other fields as null
 
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).sendAndWait(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketsCsv(TEST_EMAIL, csvContent, userWithNulls);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).sendAndWait(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -770,14 +802,14 @@ class GmailEmailServiceTest {
         // Leave other fields as null
 
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketCreationEmail(TEST_EMAIL, ticketWithNulls, testUser);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -785,14 +817,14 @@ class GmailEmailServiceTest {
         // Arrange
         testTicket.setDateCompleted(null);
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendTicketRevocationEmail(TEST_EMAIL, testTicket, testUser, TEST_REASON);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     // ==================== ANOMALY DETECTION EMAIL TESTS ====================
@@ -805,14 +837,14 @@ class GmailEmailServiceTest {
         String riskLevel = "MEDIUM";
         
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendAnomalyDetectionNotificationEmail(TEST_EMAIL, testUser, testTicket, anomalyType, anomalyDetails, riskLevel);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
 
@@ -824,14 +856,14 @@ class GmailEmailServiceTest {
         String riskLevel = "LOW";
         
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendAnomalyDetectionNotificationEmail(TEST_EMAIL, testUser, testTicket, anomalyType, anomalyDetails, riskLevel);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -842,7 +874,7 @@ class GmailEmailServiceTest {
         String riskLevel = "MEDIUM";
         
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doThrow(new RuntimeException("Mail server error")).when(mailSender).send(any(MimeMessage.class));
+        doThrow(new RuntimeException("Mail server error")).when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act & Assert
         assertThatThrownBy(() -> gmailEmailService.sendAnomalyDetectionNotificationEmail(TEST_EMAIL, testUser, testTicket, anomalyType, anomalyDetails, riskLevel))
@@ -850,11 +882,11 @@ class GmailEmailServiceTest {
             .hasMessage("Mail server error");
 
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
-    void sendAnomalyDetectionNotificationEmail_WithCreateMessageException_ShouldPropagateException() {
+    void sendAnomalyDetectionNotificationEmail_WithCreateMessageException_ShouldPropagateException() throws Exception {
         // Arrange
         String anomalyType = "FREQUENT_REQUESTS";
         String anomalyDetails = "Test anomaly details";
@@ -868,7 +900,7 @@ class GmailEmailServiceTest {
             .hasMessage("Failed to create message");
 
         verify(mailSender).createMimeMessage();
-        verify(mailSender, never()).send(any(MimeMessage.class));
+        verify(emailDispatchQueue, never()).enqueue(any(MimeMessage.class), anyString());
     }
 
     @Test
@@ -910,14 +942,14 @@ class GmailEmailServiceTest {
         String riskLevel = "MEDIUM";
         
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendAnomalyDetectionNotificationEmail(TEST_EMAIL, testUser, testTicket, null, anomalyDetails, riskLevel);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -928,14 +960,14 @@ class GmailEmailServiceTest {
         String riskLevel = "MEDIUM";
         
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendAnomalyDetectionNotificationEmail(TEST_EMAIL, testUser, testTicket, anomalyType, anomalyDetails, riskLevel);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -946,14 +978,14 @@ class GmailEmailServiceTest {
         String riskLevel = "MEDIUM";
         
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendAnomalyDetectionNotificationEmail(TEST_EMAIL, testUser, testTicket, anomalyType, anomalyDetails, riskLevel);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -965,14 +997,14 @@ class GmailEmailServiceTest {
         String riskLevel = "MEDIUM";
         
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendAnomalyDetectionNotificationEmail(TEST_EMAIL, testUser, testTicket, anomalyType, anomalyDetails, riskLevel);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     // ==================== SUSPICIOUS GROUP CHANGE EMAIL TESTS ====================
@@ -987,14 +1019,14 @@ class GmailEmailServiceTest {
         String suspicionLevel = "HIGH";
         
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendSuspiciousGroupChangeNotificationEmail(TEST_EMAIL, testUser, ticketId, oldGroup, newGroup, reason, suspicionLevel);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -1007,14 +1039,14 @@ class GmailEmailServiceTest {
         String suspicionLevel = "MEDIUM";
         
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendSuspiciousGroupChangeNotificationEmail(TEST_EMAIL, testUser, ticketId, oldGroup, newGroup, reason, suspicionLevel);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -1027,14 +1059,14 @@ class GmailEmailServiceTest {
         String suspicionLevel = "HIGH";
         
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doNothing().when(mailSender).send(any(MimeMessage.class));
+        doNothing().when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act
         gmailEmailService.sendSuspiciousGroupChangeNotificationEmail(TEST_EMAIL, testUser, ticketId, oldGroup, newGroup, reason, suspicionLevel);
 
         // Assert
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
     }
 
     @Test
@@ -1047,7 +1079,7 @@ class GmailEmailServiceTest {
         String suspicionLevel = "HIGH";
         
         when(mailSender.createMimeMessage()).thenReturn(mimeMessage);
-        doThrow(new RuntimeException("Mail server error")).when(mailSender).send(any(MimeMessage.class));
+        doThrow(new RuntimeException("Mail server error")).when(emailDispatchQueue).enqueue(any(MimeMessage.class), anyString());
 
         // Act & Assert
         assertThatThrownBy(() -> gmailEmailService.sendSuspiciousGroupChangeNotificationEmail(TEST_EMAIL, testUser, ticketId, oldGroup, newGroup, reason, suspicionLevel))
@@ -1055,6 +1087,77 @@ class GmailEmailServiceTest {
             .hasMessage("Mail server error");
 
         verify(mailSender).createMimeMessage();
-        verify(mailSender).send(mimeMessage);
+        verify(emailDispatchQueue).enqueue(eq(mimeMessage), anyString());
+    }
+
+    // ==================== ADMIN ALERT EMAIL TESTS ====================
+
+    @Test
+    void sendAdminAlertEmail_WithSingleAlert_ShouldSendOneEmailToAllAdminsAsBcc() throws MessagingException {
+        // Arrange
+        MimeMessage message = new MimeMessage(Session.getInstance(new Properties()));
+        when(mailSender.createMimeMessage()).thenReturn(message);
+        AdminAlert alert = new AdminAlert.Anomaly(testUser, testTicket, "FREQUENT_REQUESTS",
+            "User has made 10 requests in the last hour (threshold: 5)", "MEDIUM", LocalDateTime.now());
+
+        // Act
+        gmailEmailService.sendAdminAlertEmail(List.of("admin1@example.com", "admin2@example.com"), List.of(alert));
+
+        // Assert
+        verify(mailSender).createMimeMessage();
+        verify(emailDispatchQueue).enqueue(eq(message), anyString());
+        assertThat(message.getRecipients(Message.RecipientType.TO)).isNull();
+        assertThat(message.getRecipients(Message.RecipientType.BCC))
+            .extracting(address -> ((InternetAddress) address).getAddress())
+            .containsExactly("admin1@example.com", "admin2@example.com");
+        assertThat(message.getSubject())
+            .isEqualTo("FireFighter Platform - ANOMALY DETECTED (MEDIUM Risk): Excessive Request Frequency");
+    }
+
+    @Test
+    void sendAdminAlertEmail_WithSeveralAlerts_ShouldSendDigestWithHighestRisk() throws MessagingException {
+        // Arrange
+        MimeMessage message = new MimeMessage(Session.getInstance(new Properties()));
+        when(mailSender.createMimeMessage()).thenReturn(message);
+        List<AdminAlert> alerts = List.of(
+            new AdminAlert.Anomaly(testUser, testTicket, "OFF_HOURS_ACTIVITY", "Request at 22:00", "LOW",
+                LocalDateTime.now().minusSeconds(30)),
+            new AdminAlert.GroupChange(testUser, "TICKET-001", "HR Emergency Group", "Financial Emergency Group",
+                "Emergency ticket creation", "HIGH", LocalDateTime.now()));
+
+        // Act
+        gmailEmailService.sendAdminAlertEmail(List.of("admin1@example.com"), alerts);
+
+        // Assert
+        verify(mailSender, times(1)).createMimeMessage();
+        verify(emailDispatchQueue).enqueue(eq(message), anyString());
+        assertThat(message.getSubject()).isEqualTo("FireFighter Platform - SECURITY DIGEST: 2 alerts (HIGH Risk)");
+    }
+
+    @Test
+    void sendAdminAlertEmail_WithNoAdmins_ShouldNotSendEmail() throws MessagingException {
+        // Arrange
+        AdminAlert alert = new AdminAlert.Anomaly(testUser, testTicket, "FREQUENT_REQUESTS", "details", "MEDIUM",
+            LocalDateTime.now());
+
+        // Act
+        gmailEmailService.sendAdminAlertEmail(Collections.emptyList(), List.of(alert));
+
+        // Assert
+        verifyNoInteractions(mailSender, emailDispatchQueue);
+    }
+
+    @Test
+    void sendAdminAlertEmail_WhenServiceDisabled_ShouldNotSendEmail() throws MessagingException {
+        // Arrange
+        ReflectionTestUtils.setField(gmailEmailService, "gmailServiceEnabled", false);
+        AdminAlert alert = new AdminAlert.Anomaly(testUser, testTicket, "FREQUENT_REQUESTS", "details", "MEDIUM",
+            LocalDateTime.now());
+
+        // Act
+        gmailEmailService.sendAdminAlertEmail(List.of("admin1@example.com"), List.of(alert));
+
+        // Assert
+        verifyNoInteractions(mailSender, emailDispatchQueue);
     }
 }
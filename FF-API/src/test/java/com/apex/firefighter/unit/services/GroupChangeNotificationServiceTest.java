@@ -3,12 +3,14 @@ package com.apex.firefighter.unit.services;
 import com.apex.firefighter.config.DoliGroupConfig;
 import com.apex.firefighter.model.User;
 import com.apex.firefighter.repository.UserRepository;
-import com.apex.firefighter.service.GmailEmailService;
+import com.apex.firefighter.service.AdminAlert;
+import com.apex.firefighter.service.AdminAlertFanout;
+import com.apex.firefighter.service.DolibarrGroupAllocater;
 import com.apex.firefighter.service.GroupChangeNotificationService;
-import jakarta.mail.MessagingException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -20,6 +22,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,7 +34,7 @@ import static org.mockito.Mockito.lenient;
 class GroupChangeNotificationServiceTest {
 
     @Mock
-    private GmailEmailService emailService;
+    private AdminAlertFanout adminAlertFanout;
 
     @Mock
     private UserRepository userRepository;
@@ -39,6 +42,9 @@ class GroupChangeNotificationServiceTest {
     @Mock
     private DoliGroupConfig doliGroupConfig;
 
+    @Mock
+    private DolibarrGroupAllocater groupAllocater;
+
     @InjectMocks
     private GroupChangeNotificationService groupChangeNotificationService;
 
@@ -83,65 +89,49 @@ class GroupChangeNotificationServiceTest {
     // ==================== SUSPICIOUS GROUP CHANGE DETECTION TESTS ====================
 
     @Test
-    void notifyAdminsOfGroupChange_WithHighRiskFinancialGroup_ShouldSendNotifications() throws MessagingException {
+    void notifyAdminsOfGroupChange_WithHighRiskFinancialGroup_ShouldSendNotifications() {
         // Arrange
         String oldGroup = "HR Emergency Group";
         String newGroup = "Financial Emergency Group";
         String reason = "Emergency ticket creation";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
 
         // Act
         groupChangeNotificationService.notifyAdminsOfGroupChange(testUser, TEST_TICKET_ID, oldGroup, newGroup, reason);
 
         // Assert
-        verify(userRepository).findByIsAdminTrue();
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), eq(testUser), eq(TEST_TICKET_ID), eq(oldGroup), eq(newGroup), eq(reason), eq("HIGH"));
+        verifyPublished(TEST_TICKET_ID, oldGroup, newGroup, reason, "HIGH");
     }
 
     @Test
-    void notifyAdminsOfGroupChange_WithHighRiskManagementGroup_ShouldSendNotifications() throws MessagingException {
+    void notifyAdminsOfGroupChange_WithHighRiskManagementGroup_ShouldSendNotifications() {
         // Arrange
         String oldGroup = "Logistics Emergency Group";
         String newGroup = "Management Emergency Group";
         String reason = "Role change";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
 
         // Act
         groupChangeNotificationService.notifyAdminsOfGroupChange(testUser, TEST_TICKET_ID, oldGroup, newGroup, reason);
 
         // Assert
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), eq(testUser), eq(TEST_TICKET_ID), eq(oldGroup), eq(newGroup), eq(reason), eq("HIGH"));
+        verifyPublished(TEST_TICKET_ID, oldGroup, newGroup, reason, "HIGH");
     }
 
     @Test
-    void notifyAdminsOfGroupChange_WithMediumRiskHRGroup_ShouldSendNotifications() throws MessagingException {
+    void notifyAdminsOfGroupChange_WithMediumRiskHRGroup_ShouldSendNotifications() {
         // Arrange
         String oldGroup = "Logistics Emergency Group";
         String newGroup = "HR Emergency Group";
         String reason = "Department transfer";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
 
         // Act
         groupChangeNotificationService.notifyAdminsOfGroupChange(testUser, TEST_TICKET_ID, oldGroup, newGroup, reason);
 
         // Assert
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), eq(testUser), eq(TEST_TICKET_ID), eq(oldGroup), eq(newGroup), eq(reason), eq("MEDIUM"));
+        verifyPublished(TEST_TICKET_ID, oldGroup, newGroup, reason, "MEDIUM");
     }
 
     @Test
-    void notifyAdminsOfGroupChange_WithNonSuspiciousLogisticsOnly_ShouldNotSendNotifications() throws MessagingException {
+    void notifyAdminsOfGroupChange_WithNonSuspiciousLogisticsOnly_ShouldNotSendNotifications() {
         // Arrange
         String oldGroup = null;
         String newGroup = "Logistics Emergency Group";
@@ -152,12 +142,11 @@ class GroupChangeNotificationServiceTest {
 
         // Assert
         verify(userRepository, never()).findByIsAdminTrue();
-        verify(emailService, never()).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
+        verify(adminAlertFanout, never()).publish(any());
     }
 
     @Test
-    void notifyAdminsOfGroupChange_WithNoChange_ShouldNotSendNotifications() throws MessagingException {
+    void notifyAdminsOfGroupChange_WithNoChange_ShouldNotSendNotifications() {
         // Arrange
         String oldGroup = "HR Emergency Group";
         String newGroup = "HR Emergency Group";
@@ -168,109 +157,84 @@ class GroupChangeNotificationServiceTest {
 
         // Assert
         verify(userRepository, never()).findByIsAdminTrue();
-        verify(emailService, never()).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
+        verify(adminAlertFanout, never()).publish(any());
     }
 
     @Test
-    void notifyAdminsOfGroupChange_WithNoAdminUsers_ShouldNotSendEmails() throws MessagingException {
+    void notifyAdminsOfGroupChange_WithFanoutException_ShouldHandleGracefully() {
         // Arrange
         String oldGroup = "HR Emergency Group";
         String newGroup = "Financial Emergency Group";
         String reason = "Emergency ticket creation";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(Collections.emptyList());
 
-        // Act
-        groupChangeNotificationService.notifyAdminsOfGroupChange(testUser, TEST_TICKET_ID, oldGroup, newGroup, reason);
-
-        // Assert
-        verify(userRepository).findByIsAdminTrue();
-        verify(emailService, never()).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
-    }
-
-    @Test
-    void notifyAdminsOfGroupChange_WithEmailException_ShouldContinueWithOtherAdmins() throws MessagingException {
-        // Arrange
-        String oldGroup = "HR Emergency Group";
-        String newGroup = "Financial Emergency Group";
-        String reason = "Emergency ticket creation";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doThrow(new MessagingException("Email failed")).when(emailService)
-            .sendSuspiciousGroupChangeNotificationEmail(eq("admin1@example.com"), any(), any(), any(), any(), any(), any());
-        doNothing().when(emailService)
-            .sendSuspiciousGroupChangeNotificationEmail(eq("admin2@example.com"), any(), any(), any(), any(), any(), any());
+        doThrow(new RuntimeException("Scheduler error")).when(adminAlertFanout).publish(any());
 
         // Act
         groupChangeNotificationService.notifyAdminsOfGroupChange(testUser, TEST_TICKET_ID, oldGroup, newGroup, reason);
 
         // Assert
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
+        verify(adminAlertFanout).publish(any(AdminAlert.GroupChange.class));
     }
 
     // ==================== GROUP CHANGE BY ID TESTS ====================
 
     @Test
-    void notifyAdminsOfGroupChangeById_WithValidGroupIds_ShouldResolveNamesAndNotify() throws MessagingException {
+    void notifyAdminsOfGroupChangeById_WithValidGroupIds_ShouldResolveNamesAndNotify() {
         // Arrange
         Integer oldGroupId = 7; // HR Emergency Group
         Integer newGroupId = 6; // Financial Emergency Group
         String reason = "Emergency escalation";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
 
         // Act
         groupChangeNotificationService.notifyAdminsOfGroupChangeById(testUser, TEST_TICKET_ID, oldGroupId, newGroupId, reason);
 
         // Assert
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), eq(testUser), eq(TEST_TICKET_ID), eq("HR Emergency Group"), eq("Financial Emergency Group"), eq(reason), eq("HIGH"));
+        verifyPublished(TEST_TICKET_ID, "HR Emergency Group", "Financial Emergency Group", reason, "HIGH");
     }
 
     @Test
-    void notifyAdminsOfGroupChangeById_WithNullOldGroupId_ShouldHandleGracefully() throws MessagingException {
+    void notifyAdminsOfGroupChangeById_WithNullOldGroupId_ShouldHandleGracefully() {
         // Arrange
         Integer oldGroupId = null;
         Integer newGroupId = 9; // Management Emergency Group
         String reason = "New user assignment";
-        
-        // Reset and setup mocks explicitly
-        reset(userRepository, emailService);
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        lenient().doNothing().when(emailService).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
 
         // Act
         groupChangeNotificationService.notifyAdminsOfGroupChangeById(testUser, TEST_TICKET_ID, oldGroupId, newGroupId, reason);
 
         // Assert
-        verify(userRepository).findByIsAdminTrue();
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), eq(testUser), eq(TEST_TICKET_ID), eq(null), eq("Management Emergency Group"), eq(reason), eq("HIGH"));
+        verifyPublished(TEST_TICKET_ID, null, "Management Emergency Group", reason, "HIGH");
     }
 
     @Test
-    void notifyAdminsOfGroupChangeById_WithUnknownGroupId_ShouldUseGroupIdFormat() throws MessagingException {
+    void notifyAdminsOfGroupChangeById_WithUnknownGroupId_ShouldUseGroupIdFormat() {
         // Arrange
         Integer oldGroupId = 8; // Logistics Emergency Group
         Integer newGroupId = 99; // Unknown group
         String reason = "System migration";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
 
         // Act
         groupChangeNotificationService.notifyAdminsOfGroupChangeById(testUser, TEST_TICKET_ID, oldGroupId, newGroupId, reason);
 
         // Assert
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), eq(testUser), eq(TEST_TICKET_ID), eq("Logistics Emergency Group"), eq("Group ID: 99"), eq(reason), eq("LOW"));
+        verifyPublished(TEST_TICKET_ID, "Logistics Emergency Group", "Group ID: 99", reason, "LOW");
+    }
+
+    @Test
+    void notifyAdminsOfGroupChangeById_WithPermissionGroupId_ShouldUsePermissionName() {
+        // Arrange
+        Integer oldGroupId = 8; // Logistics Emergency Group
+        Integer newGroupId = 65; // hr-salary-read permission group
+        String reason = "Payroll correction";
+
+        when(groupAllocater.getPermissionForGroupId(65)).thenReturn(Optional.of("hr-salary-read"));
+
+        // Act
+        groupChangeNotificationService.notifyAdminsOfGroupChangeById(testUser, TEST_TICKET_ID, oldGroupId, newGroupId, reason);
+
+        // Assert
+        verifyPublished(TEST_TICKET_ID, "Logistics Emergency Group",
+            "Permission hr-salary-read (Group ID: 65)", reason, "LOW");
     }
 
     // ==================== ADMIN NOTIFICATION COUNT TESTS ====================
@@ -303,24 +267,6 @@ class GroupChangeNotificationServiceTest {
 
     // ==================== EDGE CASES AND ERROR HANDLING ====================
 
-    @Test
-    void notifyAdminsOfGroupChange_WithRepositoryException_ShouldHandleGracefully() throws MessagingException {
-        // Arrange
-        String oldGroup = "HR Emergency Group";
-        String newGroup = "Financial Emergency Group";
-        String reason = "Emergency ticket creation";
-        
-        when(userRepository.findByIsAdminTrue()).thenThrow(new RuntimeException("Database error"));
-
-        // Act
-        groupChangeNotificationService.notifyAdminsOfGroupChange(testUser, TEST_TICKET_ID, oldGroup, newGroup, reason);
-
-        // Assert
-        verify(userRepository).findByIsAdminTrue();
-        verify(emailService, never()).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
-    }
-
     @Test
     void notifyAdminsOfGroupChange_WithNullUser_ShouldHandleGracefully() {
         // Arrange
@@ -331,12 +277,12 @@ class GroupChangeNotificationServiceTest {
         // Act
         groupChangeNotificationService.notifyAdminsOfGroupChange(null, TEST_TICKET_ID, oldGroup, newGroup, reason);
 
-        // Assert - Should not crash, but may not send emails
-        verify(userRepository, atMost(1)).findByIsAdminTrue();
+        // Assert - Should not crash
+        verify(adminAlertFanout, never()).publish(any());
     }
 
     @Test
-    void resolveGroupName_WithActualEnvironmentGroupIds_ShouldResolveCorrectly() throws MessagingException {
+    void resolveGroupName_WithActualEnvironmentGroupIds_ShouldResolveCorrectly() {
         // Arrange - Test with actual environment variable values
         Map<String, Integer> actualGroups = new HashMap<>();
         actualGroups.put("hr", 7);  // Actual HR group ID from environment
@@ -349,160 +295,116 @@ class GroupChangeNotificationServiceTest {
         String oldGroup = null;  // No previous group
         String newGroup = "HR Emergency Group";  // Should resolve from ID 7
         String reason = "Emergency ticket creation";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
 
         // Act - Test group change by ID (simulating actual usage)
         groupChangeNotificationService.notifyAdminsOfGroupChangeById(testUser, TEST_TICKET_ID, null, 7, reason);
 
         // Assert - Should resolve ID 7 to "HR Emergency Group" and detect MEDIUM risk
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), eq(testUser), eq(TEST_TICKET_ID), eq(oldGroup), eq(newGroup), eq(reason), eq("MEDIUM"));
+        verifyPublished(TEST_TICKET_ID, oldGroup, newGroup, reason, "MEDIUM");
     }
 
     @Test
-    void resolveGroupName_WithFinancialGroupId6_ShouldResolveCorrectly() throws MessagingException {
+    void resolveGroupName_WithFinancialGroupId6_ShouldResolveCorrectly() {
         // Arrange - Test Financial group with actual ID 6
         String oldGroup = null;
         String newGroup = "Financial Emergency Group";  // Should resolve from ID 6
         String reason = "Financial emergency";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
 
         // Act - Test group change by ID (simulating actual usage)
         groupChangeNotificationService.notifyAdminsOfGroupChangeById(testUser, TEST_TICKET_ID, null, 6, reason);
 
         // Assert - Should resolve ID 6 to "Financial Emergency Group" and detect HIGH risk
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), eq(testUser), eq(TEST_TICKET_ID), eq(oldGroup), eq(newGroup), eq(reason), eq("HIGH"));
+        verifyPublished(TEST_TICKET_ID, oldGroup, newGroup, reason, "HIGH");
     }
 
     @Test
-    void resolveGroupName_WithManagementGroupId9_ShouldResolveCorrectly() throws MessagingException {
+    void resolveGroupName_WithManagementGroupId9_ShouldResolveCorrectly() {
         // Arrange - Test Management group with actual ID 9
         String oldGroup = null;
         String newGroup = "Management Emergency Group";  // Should resolve from ID 9
         String reason = "Management escalation";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
 
         // Act - Test group change by ID (simulating actual usage)
         groupChangeNotificationService.notifyAdminsOfGroupChangeById(testUser, TEST_TICKET_ID, null, 9, reason);
 
         // Assert - Should resolve ID 9 to "Management Emergency Group" and detect HIGH risk
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), eq(testUser), eq(TEST_TICKET_ID), eq(oldGroup), eq(newGroup), eq(reason), eq("HIGH"));
+        verifyPublished(TEST_TICKET_ID, oldGroup, newGroup, reason, "HIGH");
     }
 
     @Test
-    void resolveGroupName_WithLogisticsGroupId8_ShouldNotBeSuspicious() throws MessagingException {
+    void resolveGroupName_WithLogisticsGroupId8_ShouldNotBeSuspicious() {
         // Arrange - Test Logistics group with actual ID 8 (should not be suspicious)
         String oldGroup = null;
         String newGroup = "Logistics Emergency Group";  // Should resolve from ID 8
         String reason = "Logistics assignment";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
 
         // Act - Test group change by ID (simulating actual usage)
         groupChangeNotificationService.notifyAdminsOfGroupChangeById(testUser, TEST_TICKET_ID, null, 8, reason);
 
         // Assert - Should resolve ID 8 to "Logistics Emergency Group" but NOT send notifications (not suspicious)
         verify(userRepository, never()).findByIsAdminTrue();
-        verify(emailService, never()).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
+        verify(adminAlertFanout, never()).publish(any());
     }
 
     @Test
-    void notifyAdminsOfGroupChange_WithNullTicketId_ShouldHandleGracefully() throws MessagingException {
+    void notifyAdminsOfGroupChange_WithNullTicketId_ShouldHandleGracefully() {
         // Arrange
         String oldGroup = "HR Emergency Group";
         String newGroup = "Financial Emergency Group";
         String reason = "Emergency ticket creation";
-        
-        // Reset and setup mocks explicitly
-        reset(userRepository, emailService);
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        lenient().doNothing().when(emailService).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
 
         // Act
         groupChangeNotificationService.notifyAdminsOfGroupChange(testUser, null, oldGroup, newGroup, reason);
 
         // Assert
-        verify(userRepository).findByIsAdminTrue();
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), eq(testUser), eq(null), eq(oldGroup), eq(newGroup), eq(reason), eq("HIGH"));
+        verifyPublished(null, oldGroup, newGroup, reason, "HIGH");
     }
 
     @Test
-    void notifyAdminsOfGroupChange_WithNullReason_ShouldHandleGracefully() throws MessagingException {
+    void notifyAdminsOfGroupChange_WithNullReason_ShouldHandleGracefully() {
         // Arrange
         String oldGroup = "HR Emergency Group";
         String newGroup = "Financial Emergency Group";
-        
-        // Reset and setup mocks explicitly
-        reset(userRepository, emailService);
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
 
         // Act
         groupChangeNotificationService.notifyAdminsOfGroupChange(testUser, TEST_TICKET_ID, oldGroup, newGroup, null);
 
         // Assert
-        verify(userRepository).findByIsAdminTrue();
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), eq(testUser), eq(TEST_TICKET_ID), eq(oldGroup), eq(newGroup), eq(null), eq("HIGH"));
+        verifyPublished(TEST_TICKET_ID, oldGroup, newGroup, null, "HIGH");
     }
 
     // ==================== SUSPICIOUS GROUP CHANGE LOGIC TESTS ====================
 
     @Test
-    void notifyAdminsOfGroupChange_FromHRToLogistics_ShouldBeSuspicious() throws MessagingException {
+    void notifyAdminsOfGroupChange_FromHRToLogistics_ShouldBeSuspicious() {
         // Arrange
         String oldGroup = "HR Emergency Group";
         String newGroup = "Logistics Emergency Group";
         String reason = "Department transfer";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
 
         // Act
         groupChangeNotificationService.notifyAdminsOfGroupChange(testUser, TEST_TICKET_ID, oldGroup, newGroup, reason);
 
         // Assert
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), eq(testUser), eq(TEST_TICKET_ID), eq(oldGroup), eq(newGroup), eq(reason), eq("MEDIUM"));
+        verifyPublished(TEST_TICKET_ID, oldGroup, newGroup, reason, "MEDIUM");
     }
 
     @Test
-    void notifyAdminsOfGroupChange_FromLogisticsToHR_ShouldBeSuspicious() throws MessagingException {
+    void notifyAdminsOfGroupChange_FromLogisticsToHR_ShouldBeSuspicious() {
         // Arrange
         String oldGroup = "Logistics Emergency Group";
         String newGroup = "HR Emergency Group";
         String reason = "Role change";
-        
-        when(userRepository.findByIsAdminTrue()).thenReturn(adminUsers);
-        doNothing().when(emailService).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
 
         // Act
         groupChangeNotificationService.notifyAdminsOfGroupChange(testUser, TEST_TICKET_ID, oldGroup, newGroup, reason);
 
         // Assert
-        verify(emailService, times(2)).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), eq(testUser), eq(TEST_TICKET_ID), eq(oldGroup), eq(newGroup), eq(reason), eq("MEDIUM"));
+        verifyPublished(TEST_TICKET_ID, oldGroup, newGroup, reason, "MEDIUM");
     }
 
     @Test
-    void notifyAdminsOfGroupChange_RemovalFromLogistics_ShouldNotBeSuspicious() throws MessagingException {
+    void notifyAdminsOfGroupChange_RemovalFromLogistics_ShouldNotBeSuspicious() {
         // Arrange
         String oldGroup = "Logistics Emergency Group";
         String newGroup = null;
@@ -513,7 +415,20 @@ class GroupChangeNotificationServiceTest {
 
         // Assert
         verify(userRepository, never()).findByIsAdminTrue();
-        verify(emailService, never()).sendSuspiciousGroupChangeNotificationEmail(
-            anyString(), any(User.class), anyString(), anyString(), anyString(), anyString(), anyString());
+        verify(adminAlertFanout, never()).publish(any());
+    }
+
+    private void verifyPublished(String ticketId, String oldGroup, String newGroup, String reason, String riskLevel) {
+        ArgumentCaptor<AdminAlert> captor = ArgumentCaptor.forClass(AdminAlert.class);
+        verify(adminAlertFanout).publish(captor.capture());
+        assertThat(captor.getValue()).isInstanceOf(AdminAlert.GroupChange.class);
+        AdminAlert.GroupChange alert = (AdminAlert.GroupChange) captor.getValue();
+        assertThat(alert.user()).isEqualTo(testUser);
+        assertThat(alert.ticketId()).isEqualTo(ticketId);
+        assertThat(alert.oldGroup()).isEqualTo(oldGroup);
+        assertThat(alert.newGroup()).isEqualTo(newGroup);
+        assertThat(alert.reason()).isEqualTo(reason);
+        assertThat(alert.riskLevel()).isEqualTo(riskLevel);
+        assertThat(alert.raisedAt()).isNotNull();
     }
 }
@@ -0,0 +1,143 @@
+package com.apex.firefighter.unit.services;
+
+import com.apex.firefighter.service.RequestRateLimiter;
+import com.apex.firefighter.service.RequestRateLimiter.Decision;
+import com.apex.firefighter.service.RequestRateLimiter.Endpoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestRateLimiterTest {
+
+    private static final String USER = "user:firebase-uid-1";
+
+    private final AtomicLong clock = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private RequestRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        // 6 tickets a minute for users (one every 10s), 12 for admins; NLP unlimited for admins
+        rateLimiter = new RequestRateLimiter(true, 6, 12, 30, 0, 1000, clock::get);
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowTheWholeAllowanceAtOnceThenReject() {
+        for (int i = 0; i < 6; i++) {
+            assertThat(rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, USER, false).allowed()).isTrue();
+        }
+
+        Decision rejected = rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, USER, false);
+
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+        assertThat(rejected.retryAfterSeconds()).isEqualTo(10);
+    }
+
+    @Test
+    void tryAcquire_ShouldAllowOneMoreRequestPerIntervalAfterTheBurst() {
+        for (int i = 0; i < 6; i++) {
+            rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, USER, false);
+        }
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        assertThat(rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, USER, false).retryAfterSeconds()).isEqualTo(1);
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, USER, false).allowed()).isTrue();
+        assertThat(rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, USER, false).allowed()).isFalse();
+    }
+
+    @Test
+    void tryAcquire_ShouldRefillCompletelyAfterAMinute() {
+        for (int i = 0; i < 6; i++) {
+            rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, USER, false);
+        }
+
+        clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+
+        for (int i = 0; i < 6; i++) {
+            assertThat(rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, USER, false).allowed()).isTrue();
+        }
+        assertThat(rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, USER, false).allowed()).isFalse();
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepClientsAndEndpointsApart() {
+        for (int i = 0; i < 6; i++) {
+            rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, USER, false);
+        }
+
+        assertThat(rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, "user:firebase-uid-2", false).allowed()).isTrue();
+        assertThat(rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, "api-key:firebase-uid-1", false).allowed()).isTrue();
+        assertThat(rateLimiter.tryAcquire(Endpoint.NLP_QUERY, USER, false).allowed()).isTrue();
+    }
+
+    @Test
+    void tryAcquire_ShouldApplyTheAdminLimits() {
+        int allowed = 0;
+        for (int i = 0; i < 20; i++) {
+            if (rateLimiter.tryAcquire(Endpoint.TICKET_CREATION, USER, true).allowed()) {
+                allowed++;
+            }
+        }
+        assertThat(allowed).isEqualTo(12);
+
+        for (int i = 0; i < 500; i++) {
+            assertThat(rateLimiter.tryAcquire(Endpoint.NLP_QUERY, USER, true).allowed()).isTrue();
+        }
+    }
+
+    @Test
+    void tryAcquire_WhenDisabled_ShouldAllowEverything() {
+        RequestRateLimiter disabled = new RequestRateLimiter(false, 1, 1, 1, 1, 1000, clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(disabled.tryAcquire(Endpoint.TICKET_CREATION, USER, false).allowed()).isTrue();
+        }
+    }
+
+    @Test
+    void tryAcquire_FromManyThreads_ShouldNeverAllowMoreThanTheAllowance() throws Exception {
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        if (rateLimiter.tryAcquire(Endpoint.NLP_QUERY, USER, false).allowed()) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(allowed.get()).isEqualTo(30);
+        assertThat(rateLimiter.getMetrics())
+            .containsEntry("allowed", 30L)
+            .containsEntry("limited", 1570L)
+            .containsEntry("trackedClients", 1L);
+    }
+}
@@ -0,0 +1,53 @@
+package com.apex.firefighter.unit.services;
+
+import com.apex.firefighter.model.Ticket;
+import com.apex.firefighter.service.ticket.TicketCsvWriter;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TicketCsvWriterTest {
+
+    @Test
+    void writeRow_ShouldFollowRfc4180Quoting() throws IOException {
+        Ticket ticket = new Ticket("BMW-FF-10001", "Server down, \"urgent\"\nsecond line", "Active",
+            "user1", "hr", "John, Doe");
+        ticket.setDateCreated(LocalDateTime.of(2025, 3, 1, 10, 30));
+        ticket.setDuration(60);
+
+        StringWriter out = new StringWriter();
+        TicketCsvWriter csv = new TicketCsvWriter(out);
+        csv.writeHeader();
+        csv.writeRow(ticket);
+
+        assertThat(out.toString()).isEqualTo(TicketCsvWriter.HEADER + "\r\n"
+            + "BMW-FF-10001,\"Server down, \"\"urgent\"\"\nsecond line\",Active,2025-03-01T10:30,user1,hr,\"John, Doe\",60\r\n");
+        assertThat(csv.getRowCount()).isEqualTo(1);
+    }
+
+    @Test
+    void writeRow_WithNullFields_ShouldWriteEmptyFields() throws IOException {
+        Ticket ticket = new Ticket();
+        ticket.setTicketId("BMW-FF-10002");
+
+        StringWriter out = new StringWriter();
+        new TicketCsvWriter(out).writeRow(ticket);
+
+        assertThat(out.toString()).startsWith("BMW-FF-10002,,").endsWith(",,\r\n");
+    }
+
+    @Test
+    void countRows_ShouldIgnoreLineBreaksInsideQuotedFields() {
+        String csv = TicketCsvWriter.HEADER + "\r\n"
+            + "A,\"line one\nline two\",Active,,,,,\r\n"
+            + "B,plain,Closed,,,,,\r\n";
+
+        assertThat(TicketCsvWriter.countRows(csv)).isEqualTo(2);
+        assertThat(TicketCsvWriter.countRows("TicketId,Description\nTICKET-001,Test")).isEqualTo(1);
+        assertThat(TicketCsvWriter.countRows("")).isZero();
+    }
+}
@@ -0,0 +1,163 @@
+package com.apex.firefighter.unit.services;
+
+import com.apex.firefighter.service.ticket.TicketExpiryWheel;
+import com.apex.firefighter.service.ticket.TicketExpiryWheel.FiredTimer;
+import com.apex.firefighter.service.ticket.TicketExpiryWheel.TimerKind;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TicketExpiryWheelTest {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final long START_MILLIS = 1_700_000_000_000L;
+
+    private TicketExpiryWheel wheel;
+
+    @BeforeEach
+    void setUp() {
+        wheel = new TicketExpiryWheel(TICK_MILLIS, START_MILLIS);
+    }
+
+    @Test
+    void advance_ShouldFireTimerOnceDeadlineIsReached() {
+        wheel.schedule(1L, TimerKind.EXPIRY, START_MILLIS + 90_000);
+
+        assertThat(wheel.advance(START_MILLIS + 89_000)).isEmpty();
+
+        List<FiredTimer> fired = wheel.advance(START_MILLIS + 90_000);
+        assertThat(fired).hasSize(1);
+        assertThat(fired.get(0).ticketId()).isEqualTo(1L);
+        assertThat(fired.get(0).kind()).isEqualTo(TimerKind.EXPIRY);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_ShouldNeverFireBeforeDeadline() {
+        // Deadline in the middle of a tick fires on the following tick
+        wheel.schedule(1L, TimerKind.FIVE_MINUTE_WARNING, START_MILLIS + 10_500);
+
+        assertThat(wheel.advance(START_MILLIS + 10_999)).isEmpty();
+        assertThat(wheel.advance(START_MILLIS + 11_000)).hasSize(1);
+    }
+
+    @Test
+    void schedule_WithPastDeadline_ShouldFireOnNextAdvance() {
+        wheel.schedule(1L, TimerKind.EXPIRY, START_MILLIS - 60_000);
+
+        assertThat(wheel.advance(START_MILLIS)).hasSize(1);
+    }
+
+    @Test
+    void schedule_ShouldReplaceExistingTimerOfSameKind() {
+        wheel.schedule(1L, TimerKind.EXPIRY, START_MILLIS + 60_000);
+        wheel.schedule(1L, TimerKind.EXPIRY, START_MILLIS + 7_200_000);
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(START_MILLIS + 3_600_000)).isEmpty();
+        assertThat(wheel.advance(START_MILLIS + 7_200_000)).hasSize(1);
+    }
+
+    @Test
+    void cancelAll_ShouldRemoveWarningAndExpiryTimers() {
+        wheel.schedule(1L, TimerKind.FIVE_MINUTE_WARNING, START_MILLIS + 60_000);
+        wheel.schedule(1L, TimerKind.EXPIRY, START_MILLIS + 360_000);
+
+        wheel.cancelAll(1L);
+
+        assertThat(wheel.size()).isZero();
+        assertThat(wheel.advance(START_MILLIS + 400_000)).isEmpty();
+    }
+
+    @Test
+    void cancel_ShouldOnlyRemoveRequestedKind() {
+        wheel.schedule(1L, TimerKind.FIVE_MINUTE_WARNING, START_MILLIS + 60_000);
+        wheel.schedule(1L, TimerKind.EXPIRY, START_MILLIS + 360_000);
+
+        wheel.cancel(1L, TimerKind.FIVE_MINUTE_WARNING);
+
+        List<FiredTimer> fired = wheel.advance(START_MILLIS + 400_000);
+        assertThat(fired).hasSize(1);
+        assertThat(fired.get(0).kind()).isEqualTo(TimerKind.EXPIRY);
+    }
+
+    @Test
+    void advance_ShouldHandleDeadlinesBeyondWheelRange() {
+        long oneYear = 365L * 24 * 3_600_000;
+        wheel.schedule(1L, TimerKind.EXPIRY, START_MILLIS + oneYear);
+
+        assertThat(wheel.advance(START_MILLIS + oneYear - TICK_MILLIS)).isEmpty();
+        assertThat(wheel.advance(START_MILLIS + oneYear)).hasSize(1);
+    }
+
+    /**
+     * Schedules 100k synthetic tickets (warning and expiry timers) with durations from
+     * 5 minutes to 24 hours, then steps a virtual clock tick by tick and checks that every
+     * timer fires exactly once, never early and at most one tick late.
+     */
+    @Test
+    void advance_With100kTickets_ShouldFireEveryTimerWithinOneTick() {
+        int ticketCount = 100_000;
+        Random random = new Random(42);
+        long[] expiryDeadlines = new long[ticketCount];
+        long maxDeadline = 0;
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+
+        for (int i = 0; i < ticketCount; i++) {
+            long createdOffset = random.nextInt(3_600_000);
+            long durationMillis = (5 + random.nextInt(24 * 60 - 5)) * 60_000L;
+            long expiresAt = START_MILLIS - createdOffset + durationMillis;
+            expiryDeadlines[i] = expiresAt;
+            wheel.schedule((long) i, TimerKind.EXPIRY, expiresAt);
+            wheel.schedule((long) i, TimerKind.FIVE_MINUTE_WARNING, expiresAt - 300_000);
+            maxDeadline = Math.max(maxDeadline, expiresAt);
+        }
+
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        long heapPerTimer = Math.max(0, heapAfter - heapBefore) / (2L * ticketCount);
+        assertThat(wheel.size()).isEqualTo(2 * ticketCount);
+
+        int[] firedCounts = new int[ticketCount];
+        long maxJitter = 0;
+        long totalJitter = 0;
+        int firedTotal = 0;
+
+        long startNanos = System.nanoTime();
+        for (long now = START_MILLIS; now <= maxDeadline + TICK_MILLIS; now += TICK_MILLIS) {
+            for (FiredTimer timer : wheel.advance(now)) {
+                long jitter = timer.firedAtMillis() - timer.deadlineMillis();
+                // Timers already overdue when seeded fire on the first advance
+                if (timer.deadlineMillis() >= START_MILLIS) {
+                    assertThat(jitter).isBetween(0L, TICK_MILLIS - 1);
+                    maxJitter = Math.max(maxJitter, jitter);
+                    totalJitter += jitter;
+                }
+                if (timer.kind() == TimerKind.EXPIRY) {
+                    int index = timer.ticketId().intValue();
+                    assertThat(timer.deadlineMillis()).isEqualTo(expiryDeadlines[index]);
+                    firedCounts[index]++;
+                }
+                firedTotal++;
+            }
+        }
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        assertThat(firedTotal).isEqualTo(2 * ticketCount);
+        assertThat(firedCounts).containsOnly(1);
+        assertThat(wheel.size()).isZero();
+        // Each timer is a handful of references and longs; keep well below a naive per-ticket entity copy
+        assertThat(heapPerTimer).isLessThan(512);
+
+        System.out.println("⏱️ EXPIRY WHEEL: " + firedTotal + " timers fired, max jitter " + maxJitter
+            + " ms, mean jitter " + (totalJitter / firedTotal) + " ms, ~" + heapPerTimer
+            + " bytes/timer, simulated " + ((maxDeadline - START_MILLIS) / 3_600_000) + "h in " + elapsedMillis + " ms");
+    }
+}
@@ -0,0 +1,194 @@
+package com.apex.firefighter.unit.services;
+
+import com.apex.firefighter.model.User;
+import com.apex.firefighter.repository.TicketRepository;
+import com.apex.firefighter.service.GmailEmailService;
+import com.apex.firefighter.service.ticket.TicketExport;
+import com.apex.firefighter.service.ticket.TicketExportJob;
+import com.apex.firefighter.service.ticket.TicketExportJobService;
+import com.apex.firefighter.service.ticket.TicketExportService;
+import jakarta.mail.MessagingException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TicketExportJobServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime BEFORE = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @Mock
+    private TicketExportService ticketExportService;
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    @Mock
+    private GmailEmailService gmailEmailService;
+
+    private TicketExportJobService jobService;
+    private User admin;
+
+    @BeforeEach
+    void setUp() {
+        jobService = new TicketExportJobService(ticketExportService, ticketRepository, gmailEmailService, 1, 1, 3_600_000L);
+        admin = new User("admin1", "Admin User", "admin1@example.com", "Fire Department");
+        lenient().when(ticketRepository.countCreatedBetween(any(), any())).thenReturn(2L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.stop();
+    }
+
+    @Test
+    void submit_ShouldExportInBackgroundReportProgressAndEmail() throws Exception {
+        when(ticketExportService.exportToFile(any(), any(), anyBoolean(), any())).thenAnswer(invocation -> {
+            IntConsumer onRowWritten = invocation.getArgument(3);
+            onRowWritten.accept(1);
+            onRowWritten.accept(2);
+            return export(2);
+        });
+
+        TicketExportJob job = jobService.submit(FROM, BEFORE, false, "admin1", "admin1@example.com", admin);
+        awaitFinished(job);
+
+        assertThat(job.getStatus()).isEqualTo(TicketExportJob.Status.COMPLETED);
+        assertThat(job.getTotalTickets()).isEqualTo(2);
+        assertThat(job.getTicketsWritten()).isEqualTo(2);
+        assertThat(job.getProgressPercent()).isEqualTo(100);
+        assertThat(job.getSizeBytes()).isEqualTo(Files.size(job.getExport().getFile()));
+        assertThat(jobService.getJob(job.getJobId())).isSameAs(job);
+        verify(gmailEmailService).sendTicketsExport("admin1@example.com", job.getExport(), admin);
+    }
+
+    @Test
+    void submit_WithIdenticalExportRunning_ShouldJoinItAndEmailBothRecipients() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(ticketExportService.exportToFile(any(), any(), anyBoolean(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return export(2);
+        });
+        User otherAdmin = new User("admin2", "Other Admin", "admin2@example.com", "Fire Department");
+
+        TicketExportJob first = jobService.submit(FROM, BEFORE, false, "admin1", "admin1@example.com", admin);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        TicketExportJob second = jobService.submit(FROM, BEFORE, false, "admin2", "admin2@example.com", otherAdmin);
+        TicketExportJob compressed = jobService.submit(FROM, BEFORE, true, "admin1", null, admin);
+        release.countDown();
+        awaitFinished(first);
+        awaitFinished(compressed);
+
+        assertThat(second).isSameAs(first);
+        assertThat(compressed).isNotSameAs(first);
+        assertThat(first.getEmailRecipientCount()).isEqualTo(2);
+        verify(ticketExportService, times(1)).exportToFile(any(), any(), eq(false), any());
+        verify(gmailEmailService).sendTicketsExport("admin1@example.com", first.getExport(), admin);
+        verify(gmailEmailService).sendTicketsExport("admin2@example.com", first.getExport(), otherAdmin);
+    }
+
+    @Test
+    void submit_WhenExportFails_ShouldMarkJobFailedWithoutEmailing() throws Exception {
+        when(ticketExportService.exportToFile(any(), any(), anyBoolean(), any())).thenThrow(new IOException("Disk full"));
+
+        TicketExportJob job = jobService.submit(null, null, false, "admin1", "admin1@example.com", admin);
+        awaitFinished(job);
+
+        assertThat(job.getStatus()).isEqualTo(TicketExportJob.Status.FAILED);
+        assertThat(job.getError()).isEqualTo("Disk full");
+        assertThat(job.getSizeBytes()).isNull();
+        verify(gmailEmailService, never()).sendTicketsExport(any(), any(), any());
+    }
+
+    @Test
+    void submit_WhenEmailFails_ShouldStillCompleteForDownload() throws Exception {
+        when(ticketExportService.exportToFile(any(), any(), anyBoolean(), any())).thenAnswer(invocation -> export(1));
+        doThrow(new MessagingException("SMTP unavailable")).when(gmailEmailService).sendTicketsExport(any(), any(), any());
+
+        TicketExportJob job = jobService.submit(null, null, false, "admin1", "admin1@example.com", admin);
+        awaitFinished(job);
+
+        assertThat(job.getStatus()).isEqualTo(TicketExportJob.Status.COMPLETED);
+        assertThat(job.getEmailError()).contains("SMTP unavailable");
+        assertThat(job.getExport().getFile()).exists();
+    }
+
+    @Test
+    void submit_WhenQueueIsFull_ShouldReject() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(ticketExportService.exportToFile(any(), any(), anyBoolean(), any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return export(0);
+        });
+
+        jobService.submit(null, null, false, "admin1", null, admin);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        jobService.submit(FROM, null, false, "admin1", null, admin);
+
+        try {
+            assertThatThrownBy(() -> jobService.submit(FROM, BEFORE, false, "admin1", null, admin))
+                .isInstanceOf(RejectedExecutionException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void removeExpiredJobs_ShouldDeleteFinishedExports() throws Exception {
+        jobService.stop();
+        jobService = new TicketExportJobService(ticketExportService, ticketRepository, gmailEmailService, 1, 1, 0L);
+        when(ticketExportService.exportToFile(any(), any(), anyBoolean(), any())).thenAnswer(invocation -> export(1));
+
+        TicketExportJob job = jobService.submit(null, null, false, "admin1", null, admin);
+        awaitFinished(job);
+        Path file = job.getExport().getFile();
+
+        jobService.removeExpiredJobs();
+
+        assertThat(jobService.getJob(job.getJobId())).isNull();
+        assertThat(file).doesNotExist();
+    }
+
+    private static TicketExport export(int ticketCount) throws IOException {
+        Path file = Files.createTempFile("ticket-export-test-", ".csv");
+        Files.writeString(file, "TicketId\r\n");
+        return new TicketExport(file, ticketCount, Files.size(file), false);
+    }
+
+    private static void awaitFinished(TicketExportJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!job.isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.isFinished()).as("export job finished").isTrue();
+    }
+}
@@ -0,0 +1,106 @@
+package com.apex.firefighter.unit.services;
+
+import com.apex.firefighter.repository.TicketRepository;
+import com.apex.firefighter.service.ticket.TicketCsvWriter;
+import com.apex.firefighter.service.ticket.TicketExport;
+import com.apex.firefighter.service.ticket.TicketExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TicketExportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final LocalDateTime BEFORE = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private TicketExportService ticketExportService;
+
+    @BeforeEach
+    void setUp() {
+        ticketExportService = new TicketExportService(ticketRepository, false);
+    }
+
+    @Test
+    void exportToFile_ShouldStreamRowsIntoCsvFileAndCloseTheStream() throws IOException {
+        AtomicBoolean streamClosed = new AtomicBoolean();
+        when(ticketRepository.streamExportRows(FROM, BEFORE)).thenReturn(Stream.of(
+                row("BMW-FF-10001", "Needs access, now"), row("BMW-FF-10002", "Routine"))
+            .onClose(() -> streamClosed.set(true)));
+
+        Path file;
+        try (TicketExport export = ticketExportService.exportToFile(FROM, BEFORE, false)) {
+            file = export.getFile();
+            String csv = Files.readString(file, StandardCharsets.UTF_8);
+
+            assertThat(export.getTicketCount()).isEqualTo(2);
+            assertThat(export.getSizeBytes()).isEqualTo(Files.size(file));
+            assertThat(export.getFilename()).isEqualTo("firefighter_tickets_export.csv");
+            assertThat(export.getContentType()).isEqualTo("text/csv");
+            assertThat(csv).startsWith(TicketCsvWriter.HEADER + "\r\n");
+            assertThat(csv).contains("BMW-FF-10001,\"Needs access, now\",Active,");
+            assertThat(TicketCsvWriter.countRows(csv)).isEqualTo(2);
+        }
+
+        assertThat(streamClosed).isTrue();
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    void exportToFile_WithCompression_ShouldWriteGzip() throws IOException {
+        when(ticketRepository.streamExportRows(null, null)).thenReturn(Stream.of(row("BMW-FF-10001", "Routine")));
+
+        try (TicketExport export = ticketExportService.exportToFile(null, null, true);
+             InputStream in = new GZIPInputStream(Files.newInputStream(export.getFile()))) {
+            String csv = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+
+            assertThat(export.isCompressed()).isTrue();
+            assertThat(export.getFilename()).isEqualTo("firefighter_tickets_export.csv.gz");
+            assertThat(export.getContentType()).isEqualTo("application/gzip");
+            assertThat(csv).contains("BMW-FF-10001,Routine,Active,");
+        }
+    }
+
+    @Test
+    void exportToFile_WhenStreamFails_ShouldPropagateAndNotReturnExport() {
+        when(ticketRepository.streamExportRows(FROM, BEFORE)).thenReturn(Stream.generate(() -> {
+            throw new IllegalStateException("Connection lost");
+        }));
+
+        assertThatThrownBy(() -> ticketExportService.exportToFile(FROM, BEFORE, false))
+            .isInstanceOf(IllegalStateException.class)
+            .hasMessage("Connection lost");
+    }
+
+    private static TicketRepository.TicketExportRow row(String ticketId, String description) {
+        return new TicketRepository.TicketExportRow() {
+            @Override public String getTicketId() { return ticketId; }
+            @Override public String getDescription() { return description; }
+            @Override public String getStatus() { return "Active"; }
+            @Override public LocalDateTime getDateCreated() { return FROM.plusDays(1); }
+            @Override public String getUserId() { return "user1"; }
+            @Override public String getEmergencyType() { return "hr"; }
+            @Override public String getEmergencyContact() { return "12345"; }
+            @Override public Integer getDuration() { return 60; }
+        };
+    }
+}
@@ -1,20 +1,39 @@
 package com.apex.firefighter.unit.services;
 
+import com.apex.firefighter.model.DolibarrSyncTask;
 import com.apex.firefighter.model.Ticket;
+import com.apex.firefighter.model.User;
+import com.apex.firefighter.repository.DolibarrSyncTaskRepository;
 import com.apex.firefighter.repository.TicketRepository;
+import com.apex.firefighter.repository.UserRepository;
+import com.apex.firefighter.service.DolibarrSyncQueue;
+import com.apex.firefighter.service.DolibarrUserGroupService;
 import com.apex.firefighter.service.NotificationService;
+import com.apex.firefighter.service.nlp.NLPResultCache;
 import com.apex.firefighter.service.ticket.TicketScheduledService;
+import com.apex.firefighter.service.ticket.TicketStatisticsCounters.Contribution;
+import com.apex.firefighter.service.ticket.TicketStatisticsService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -27,6 +46,24 @@ public class TicketScheduledServiceTest {
     @Mock
     private NotificationService notificationService;
 
+    @Mock
+    private DolibarrSyncQueue dolibarrSyncQueue;
+
+    @Mock
+    private DolibarrUserGroupService dolibarrUserGroupService;
+
+    @Mock
+    private DolibarrSyncTaskRepository syncTaskRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private NLPResultCache nlpResultCache;
+
+    @Mock
+    private TicketStatisticsService ticketStatisticsService;
+
     @InjectMocks
     private TicketScheduledService ticketScheduledService;
 
@@ -49,8 +86,8 @@ public class TicketScheduledServiceTest {
     @Test
     void testSendFiveMinuteWarnings_ShouldSendWarningWhenTicketHas5MinutesLeft() {
         
-        List<Ticket> activeTickets = Arrays.asList(testTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(activeTickets);
+        List<Ticket> dueTickets = Arrays.asList(testTicket);
+        when(ticketRepository.findActiveTicketsDueForWarning(any(LocalDateTime.class))).thenReturn(dueTickets);
 
         ticketScheduledService.sendFiveMinuteWarnings();
 
@@ -64,40 +101,13 @@ public class TicketScheduledServiceTest {
     }
 
     @Test
-    void testSendFiveMinuteWarnings_ShouldNotSendWarningWhenAlreadySent() {
+    void testSendFiveMinuteWarnings_WithNoDueTickets_ShouldNotSendWarning() {
        
-        testTicket.setFiveMinuteWarningSent(true);
-        List<Ticket> activeTickets = Arrays.asList(testTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(activeTickets);
-
-        ticketScheduledService.sendFiveMinuteWarnings();
-
-        verify(notificationService, never()).createFiveMinuteWarningNotification(anyString(), anyString(), any(Ticket.class));
-        verify(ticketRepository, never()).save(any(Ticket.class));
-    }
-
-    @Test
-    void testSendFiveMinuteWarnings_ShouldNotSendWarningWhenTicketHasMoreThan5MinutesLeft() {
-        
-        testTicket.setDateCreated(LocalDateTime.now().minusMinutes(50)); // Created 50 minutes ago (10 minutes left)
-        List<Ticket> activeTickets = Arrays.asList(testTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(activeTickets);
-
-        ticketScheduledService.sendFiveMinuteWarnings();
-
-        verify(notificationService, never()).createFiveMinuteWarningNotification(anyString(), anyString(), any(Ticket.class));
-        verify(ticketRepository, never()).save(any(Ticket.class));
-    }
-
-    @Test
-    void testSendFiveMinuteWarnings_ShouldNotSendWarningWhenTicketIsExpired() {
-        
-        testTicket.setDateCreated(LocalDateTime.now().minusMinutes(65)); // Created 65 minutes ago (expired)
-        List<Ticket> activeTickets = Arrays.asList(testTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(activeTickets);
+        when(ticketRepository.findActiveTicketsDueForWarning(any(LocalDateTime.class))).thenReturn(Arrays.asList());
 
         ticketScheduledService.sendFiveMinuteWarnings();
 
+        verify(ticketRepository, never()).findActiveTicketsWithDuration();
         verify(notificationService, never()).createFiveMinuteWarningNotification(anyString(), anyString(), any(Ticket.class));
         verify(ticketRepository, never()).save(any(Ticket.class));
     }
@@ -105,8 +115,8 @@ public class TicketScheduledServiceTest {
     @Test
     void testSendFiveMinuteWarnings_ShouldHandleNotificationServiceException() {
         
-        List<Ticket> activeTickets = Arrays.asList(testTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(activeTickets);
+        List<Ticket> dueTickets = Arrays.asList(testTicket);
+        when(ticketRepository.findActiveTicketsDueForWarning(any(LocalDateTime.class))).thenReturn(dueTickets);
         when(notificationService.createFiveMinuteWarningNotification(anyString(), anyString(), any(Ticket.class)))
             .thenThrow(new RuntimeException("Notification service error"));
 
@@ -121,24 +131,33 @@ public class TicketScheduledServiceTest {
     @Test
     void testScheduledTicketCheck_ShouldCallBothMethods() {
         
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(Arrays.asList());
+        when(ticketRepository.findActiveTicketsDueForWarning(any(LocalDateTime.class))).thenReturn(Arrays.asList());
+        when(ticketRepository.findActiveTicketsExpiredBefore(any(LocalDateTime.class))).thenReturn(Arrays.asList());
 
         ticketScheduledService.scheduledTicketCheck();
 
-        verify(ticketRepository, times(2)).findActiveTicketsWithDuration(); 
+        verify(ticketRepository).findActiveTicketsDueForWarning(any(LocalDateTime.class));
+        verify(ticketRepository).findActiveTicketsExpiredBefore(any(LocalDateTime.class));
     }
 
     @Test
     void testCloseExpiredTickets_ShouldCloseExpiredTicket() {
        
         testTicket.setDateCreated(LocalDateTime.now().minusMinutes(65)); 
-        List<Ticket> activeTickets = Arrays.asList(testTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(activeTickets);
+        List<Ticket> expiredTickets = Arrays.asList(testTicket);
+        when(ticketRepository.findActiveTicketsExpiredBefore(any(LocalDateTime.class))).thenReturn(expiredTickets);
+        when(ticketRepository.closeActiveTicketsById(anyList(), any(LocalDateTime.class))).thenReturn(1);
 
         ticketScheduledService.closeExpiredTickets();
 
-        verify(ticketRepository).findActiveTicketsWithDuration();
-        verify(ticketRepository).save(testTicket);
+        verify(ticketRepository).findActiveTicketsExpiredBefore(any(LocalDateTime.class));
+        verify(ticketRepository).closeActiveTicketsById(anyList(), any(LocalDateTime.class));
+        verify(ticketRepository, never()).save(any(Ticket.class));
+        verify(nlpResultCache).invalidateResults();
+        verify(ticketStatisticsService).recordChanged(
+            argThat((Contribution before) -> "Active".equals(before.status())),
+            eq(testTicket)
+        );
         verify(notificationService).createTicketCompletionNotification(
             eq("test-user"),
             eq("TEST-001"),
@@ -149,32 +168,33 @@ public class TicketScheduledServiceTest {
     }
 
     @Test
-    void testCloseExpiredTickets_ShouldNotCloseNonExpiredTicket() {
-        
-        testTicket.setDateCreated(LocalDateTime.now().minusMinutes(30)); // Created 30 minutes ago (not expired)
-        List<Ticket> activeTickets = Arrays.asList(testTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(activeTickets);
+    void testCloseExpiredTickets_ShouldCloseExactlyTheFetchedTicketsAtTheSameCutoff() {
+
+        testTicket.setId(7L);
+        when(ticketRepository.findActiveTicketsExpiredBefore(any(LocalDateTime.class))).thenReturn(Arrays.asList(testTicket));
 
         ticketScheduledService.closeExpiredTickets();
 
-        verify(ticketRepository).findActiveTicketsWithDuration();
-        verify(ticketRepository, never()).save(any(Ticket.class));
-        verify(notificationService, never()).createTicketCompletionNotification(anyString(), anyString(), any(Ticket.class));
+        ArgumentCaptor<LocalDateTime> selectCutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> closeCutoff = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(ticketRepository).findActiveTicketsExpiredBefore(selectCutoff.capture());
+        verify(ticketRepository).closeActiveTicketsById(eq(List.of(7L)), closeCutoff.capture());
+        assertEquals(selectCutoff.getValue(), closeCutoff.getValue());
+        assertEquals(selectCutoff.getValue(), testTicket.getDateCompleted());
     }
 
     @Test
     void testCloseExpiredTickets_ShouldHandleNotificationServiceException() {
         
         testTicket.setDateCreated(LocalDateTime.now().minusMinutes(65)); // Created 65 minutes ago (expired)
-        List<Ticket> activeTickets = Arrays.asList(testTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(activeTickets);
+        List<Ticket> expiredTickets = Arrays.asList(testTicket);
+        when(ticketRepository.findActiveTicketsExpiredBefore(any(LocalDateTime.class))).thenReturn(expiredTickets);
         when(notificationService.createTicketCompletionNotification(anyString(), anyString(), any(Ticket.class)))
             .thenThrow(new RuntimeException("Notification service error"));
 
         ticketScheduledService.closeExpiredTickets();
 
-        verify(ticketRepository).findActiveTicketsWithDuration();
-        verify(ticketRepository).save(testTicket);
+        verify(ticketRepository).closeActiveTicketsById(anyList(), any(LocalDateTime.class));
         verify(notificationService).createTicketCompletionNotification(anyString(), anyString(), any(Ticket.class));
         
         assert(testTicket.getStatus().equals("Closed"));
@@ -184,25 +204,25 @@ public class TicketScheduledServiceTest {
     void testCloseExpiredTickets_ShouldHandleRepositoryException() {
         
         testTicket.setDateCreated(LocalDateTime.now().minusMinutes(65)); // Created 65 minutes ago (expired)
-        List<Ticket> activeTickets = Arrays.asList(testTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(activeTickets);
-        when(ticketRepository.save(any(Ticket.class))).thenThrow(new RuntimeException("Database error"));
+        List<Ticket> expiredTickets = Arrays.asList(testTicket);
+        when(ticketRepository.findActiveTicketsExpiredBefore(any(LocalDateTime.class))).thenReturn(expiredTickets);
+        when(ticketRepository.closeActiveTicketsById(anyList(), any(LocalDateTime.class))).thenThrow(new RuntimeException("Database error"));
 
         ticketScheduledService.closeExpiredTickets();
 
-        verify(ticketRepository).findActiveTicketsWithDuration();
-        verify(ticketRepository).save(testTicket);
+        verify(ticketRepository).closeActiveTicketsById(anyList(), any(LocalDateTime.class));
         verify(notificationService, never()).createTicketCompletionNotification(anyString(), anyString(), any(Ticket.class));
     }
 
     @Test
     void testCloseExpiredTickets_WithEmptyTicketList_ShouldNotProcessAnyTickets() {
         
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(Arrays.asList());
+        when(ticketRepository.findActiveTicketsExpiredBefore(any(LocalDateTime.class))).thenReturn(Arrays.asList());
 
         ticketScheduledService.closeExpiredTickets();
 
-        verify(ticketRepository).findActiveTicketsWithDuration();
+        verify(ticketRepository).findActiveTicketsExpiredBefore(any(LocalDateTime.class));
+        verify(ticketRepository, never()).closeActiveTicketsById(anyList(), any(LocalDateTime.class));
         verify(ticketRepository, never()).save(any(Ticket.class));
         verify(notificationService, never()).createTicketCompletionNotification(anyString(), anyString(), any(Ticket.class));
     }
@@ -224,26 +244,76 @@ public class TicketScheduledServiceTest {
         expiredTicket2.setDateCreated(LocalDateTime.now().minusMinutes(35)); // Expired
         expiredTicket2.setStatus("Active");
 
-        Ticket activeTicket = new Ticket();
-        activeTicket.setTicketId("ACTIVE-001");
-        activeTicket.setUserId("user3");
-        activeTicket.setDuration(60);
-        activeTicket.setDateCreated(LocalDateTime.now().minusMinutes(30)); // Not expired
-        activeTicket.setStatus("Active");
-
-        List<Ticket> tickets = Arrays.asList(expiredTicket1, expiredTicket2, activeTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(tickets);
+        List<Ticket> tickets = Arrays.asList(expiredTicket1, expiredTicket2);
+        when(ticketRepository.findActiveTicketsExpiredBefore(any(LocalDateTime.class))).thenReturn(tickets);
+        when(ticketRepository.closeActiveTicketsById(anyList(), any(LocalDateTime.class))).thenReturn(2);
 
         ticketScheduledService.closeExpiredTickets();
 
-        verify(ticketRepository).findActiveTicketsWithDuration();
-        verify(ticketRepository, times(2)).save(any(Ticket.class)); 
+        verify(ticketRepository, times(1)).closeActiveTicketsById(anyList(), any(LocalDateTime.class));
+        verify(ticketRepository, never()).save(any(Ticket.class)); 
         verify(notificationService, times(2)).createTicketCompletionNotification(anyString(), anyString(), any(Ticket.class));
 
         assert(expiredTicket1.getStatus().equals("Closed"));
         assert(expiredTicket2.getStatus().equals("Closed"));
-        
-        assert(activeTicket.getStatus().equals("Active"));
+    }
+
+    @Test
+    void testCloseExpiredTickets_ShouldLoadUsersOnceAndQueueTheirRemovals() {
+
+        Ticket secondTicket = new Ticket();
+        secondTicket.setTicketId("TEST-002");
+        secondTicket.setUserId("second-user");
+        secondTicket.setDescription("Second ticket");
+        secondTicket.setDuration(30);
+        secondTicket.setDateCreated(LocalDateTime.now().minusMinutes(35));
+        secondTicket.setStatus("Active");
+
+        User firstUser = new User();
+        firstUser.setUserId("test-user");
+        firstUser.setDolibarrId("11");
+        User secondUser = new User();
+        secondUser.setUserId("second-user");
+        secondUser.setDolibarrId("12");
+
+        when(ticketRepository.findActiveTicketsExpiredBefore(any(LocalDateTime.class))).thenReturn(Arrays.asList(testTicket, secondTicket));
+        when(ticketRepository.closeActiveTicketsById(anyList(), any(LocalDateTime.class))).thenReturn(2);
+        when(userRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(firstUser, secondUser));
+
+        ticketScheduledService.closeExpiredTickets();
+
+        verify(userRepository, times(1)).findAllById(anyIterable());
+        verify(userRepository, never()).findById(anyString());
+        verify(dolibarrSyncQueue).enqueueRemove("11", "test Test ticket", "TEST-001");
+        verify(dolibarrSyncQueue).enqueueRemove("12", "Second ticket", "TEST-002");
+        verifyNoInteractions(dolibarrUserGroupService);
+    }
+
+    @Test
+    void testCloseExpiredTickets_ShouldSkipGroupRemovalForUsersWithoutDolibarrId() {
+
+        Ticket secondTicket = new Ticket();
+        secondTicket.setTicketId("TEST-002");
+        secondTicket.setUserId("second-user");
+        secondTicket.setDescription("Second ticket");
+        secondTicket.setDuration(30);
+        secondTicket.setDateCreated(LocalDateTime.now().minusMinutes(35));
+        secondTicket.setStatus("Active");
+
+        User firstUser = new User();
+        firstUser.setUserId("test-user");
+        User secondUser = new User();
+        secondUser.setUserId("second-user");
+        secondUser.setDolibarrId("12");
+
+        when(ticketRepository.findActiveTicketsExpiredBefore(any(LocalDateTime.class))).thenReturn(Arrays.asList(testTicket, secondTicket));
+        when(userRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(firstUser, secondUser));
+
+        ticketScheduledService.closeExpiredTickets();
+
+        verify(dolibarrSyncQueue).enqueueRemove("12", "Second ticket", "TEST-002");
+        verifyNoMoreInteractions(dolibarrSyncQueue);
+        verify(notificationService, times(2)).createTicketCompletionNotification(anyString(), anyString(), any(Ticket.class));
     }
 
     @Test
@@ -265,37 +335,26 @@ public class TicketScheduledServiceTest {
         warningTicket2.setFiveMinuteWarningSent(false);
         warningTicket2.setStatus("Active");
 
-        Ticket alreadyWarnedTicket = new Ticket();
-        alreadyWarnedTicket.setTicketId("WARNED-001");
-        alreadyWarnedTicket.setUserId("user3");
-        alreadyWarnedTicket.setDuration(60);
-        alreadyWarnedTicket.setDateCreated(LocalDateTime.now().minusMinutes(56)); // 4 minutes left
-        alreadyWarnedTicket.setFiveMinuteWarningSent(true); // Already warned
-        alreadyWarnedTicket.setStatus("Active");
-
-        List<Ticket> tickets = Arrays.asList(warningTicket1, warningTicket2, alreadyWarnedTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(tickets);
+        List<Ticket> tickets = Arrays.asList(warningTicket1, warningTicket2);
+        when(ticketRepository.findActiveTicketsDueForWarning(any(LocalDateTime.class))).thenReturn(tickets);
 
         ticketScheduledService.sendFiveMinuteWarnings();
 
-        verify(ticketRepository).findActiveTicketsWithDuration();
         verify(ticketRepository, times(2)).save(any(Ticket.class)); 
         verify(notificationService, times(2)).createFiveMinuteWarningNotification(anyString(), anyString(), any(Ticket.class));
 
         assert(warningTicket1.getFiveMinuteWarningSent());
         assert(warningTicket2.getFiveMinuteWarningSent());
-       
-        assert(alreadyWarnedTicket.getFiveMinuteWarningSent());
     }
 
     @Test
     void testSendFiveMinuteWarnings_WithRepositoryException_ShouldHandleGracefully() {
         
-        when(ticketRepository.findActiveTicketsWithDuration()).thenThrow(new RuntimeException("Database connection failed"));
+        when(ticketRepository.findActiveTicketsDueForWarning(any(LocalDateTime.class))).thenThrow(new RuntimeException("Database connection failed"));
 
         ticketScheduledService.sendFiveMinuteWarnings();
 
-        verify(ticketRepository).findActiveTicketsWithDuration();
+        verify(ticketRepository).findActiveTicketsDueForWarning(any(LocalDateTime.class));
         verify(ticketRepository, never()).save(any(Ticket.class));
         verify(notificationService, never()).createFiveMinuteWarningNotification(anyString(), anyString(), any(Ticket.class));
     }
@@ -303,93 +362,209 @@ public class TicketScheduledServiceTest {
     @Test
     void testCloseExpiredTickets_WithRepositoryException_ShouldHandleGracefully() {
 
-        when(ticketRepository.findActiveTicketsWithDuration()).thenThrow(new RuntimeException("Database connection failed"));
+        when(ticketRepository.findActiveTicketsExpiredBefore(any(LocalDateTime.class))).thenThrow(new RuntimeException("Database connection failed"));
 
         
         ticketScheduledService.closeExpiredTickets();
 
-        verify(ticketRepository).findActiveTicketsWithDuration();
-        verify(ticketRepository, never()).save(any(Ticket.class));
+        verify(ticketRepository).findActiveTicketsExpiredBefore(any(LocalDateTime.class));
+        verify(ticketRepository, never()).closeActiveTicketsById(anyList(), any(LocalDateTime.class));
         verify(notificationService, never()).createTicketCompletionNotification(anyString(), anyString(), any(Ticket.class));
     }
 
     @Test
-    void testSendFiveMinuteWarnings_WithExactWarningTime_ShouldSendWarning() {
+    void testBackfillExpiryTimes_ShouldPopulateMissingExpiryColumns() {
+
+        when(ticketRepository.findActiveTicketsMissingExpiry()).thenReturn(Arrays.asList(testTicket));
+
+        ticketScheduledService.backfillExpiryTimes();
+
+        verify(ticketRepository).saveAll(Arrays.asList(testTicket));
+        assertEquals(testTicket.getDateCreated().plusMinutes(60), testTicket.getExpiresAt());
+        assertEquals(testTicket.getDateCreated().plusMinutes(55), testTicket.getWarnAt());
+    }
+
+    @Test
+    void testRunStartupCheck_ShouldCallBothMethods() {
+       
+        when(ticketRepository.findActiveTicketsMissingExpiry()).thenReturn(Arrays.asList());
+        when(ticketRepository.findActiveTicketsDueForWarning(any(LocalDateTime.class))).thenReturn(Arrays.asList());
+        when(ticketRepository.findActiveTicketsExpiredBefore(any(LocalDateTime.class))).thenReturn(Arrays.asList());
+
+        ticketScheduledService.runStartupCheck();
+
+        verify(ticketRepository).findActiveTicketsMissingExpiry();
+        verify(ticketRepository).findActiveTicketsDueForWarning(any(LocalDateTime.class));
+        verify(ticketRepository).findActiveTicketsExpiredBefore(any(LocalDateTime.class));
+    }
+
+    @Test
+    void testRunStartupCheck_WithActiveTickets_ShouldProcessThem() {
         
-        testTicket.setDateCreated(LocalDateTime.now().minusMinutes(55)); // Exactly 5 minutes left
-        List<Ticket> activeTickets = Arrays.asList(testTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(activeTickets);
+        testTicket.setDateCreated(LocalDateTime.now().minusMinutes(65)); // Expired
+        when(ticketRepository.findActiveTicketsMissingExpiry()).thenReturn(Arrays.asList());
+        when(ticketRepository.findActiveTicketsDueForWarning(any(LocalDateTime.class))).thenReturn(Arrays.asList());
+        when(ticketRepository.findActiveTicketsExpiredBefore(any(LocalDateTime.class))).thenReturn(Arrays.asList(testTicket));
 
-        ticketScheduledService.sendFiveMinuteWarnings();
+        ticketScheduledService.runStartupCheck();
 
-        verify(notificationService, times(1)).createFiveMinuteWarningNotification(
-            eq("test-user"),
-            eq("TEST-001"),
-            eq(testTicket)
-        );
-        verify(ticketRepository, times(1)).save(testTicket);
+        verify(ticketRepository).closeActiveTicketsById(anyList(), any(LocalDateTime.class)); // Should close expired ticket
+        verify(notificationService).createTicketCompletionNotification(anyString(), anyString(), any(Ticket.class));
+    }
+
+    @Test
+    void testProcessFiveMinuteWarning_ShouldSendWarningForDueTicket() {
+
+        testTicket.setId(1L);
+        when(ticketRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testTicket));
+
+        ticketScheduledService.processFiveMinuteWarning(1L);
+
+        verify(ticketRepository, never()).findById(anyLong());
+        verify(notificationService).createFiveMinuteWarningNotification(eq("test-user"), eq("TEST-001"), eq(testTicket));
+        verify(ticketRepository).save(testTicket);
         assert(testTicket.getFiveMinuteWarningSent());
     }
 
     @Test
-    void testCloseExpiredTickets_WithExactExpirationTime_ShouldCloseTicket() {
-        
-        testTicket.setDateCreated(LocalDateTime.now().minusMinutes(60)); // Exactly expired
-        List<Ticket> activeTickets = Arrays.asList(testTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(activeTickets);
+    void testProcessFiveMinuteWarning_ShouldSkipTicketThatIsNoLongerActive() {
 
-        ticketScheduledService.closeExpiredTickets();
+        testTicket.setId(1L);
+        testTicket.setStatus("Rejected");
+        when(ticketRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testTicket));
+
+        ticketScheduledService.processFiveMinuteWarning(1L);
+
+        verify(notificationService, never()).createFiveMinuteWarningNotification(anyString(), anyString(), any(Ticket.class));
+        verify(ticketRepository, never()).save(any(Ticket.class));
+    }
+
+    @Test
+    void testProcessExpiredTicket_ShouldCloseExpiredTicket() {
+
+        testTicket.setId(1L);
+        testTicket.setDateCreated(LocalDateTime.now().minusMinutes(60));
+        User user = new User();
+        user.setUserId("test-user");
+        user.setDolibarrId("11");
+        when(ticketRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testTicket));
+        when(userRepository.findById("test-user")).thenReturn(Optional.of(user));
+
+        ticketScheduledService.processExpiredTicket(1L);
 
         verify(ticketRepository).save(testTicket);
-        verify(notificationService).createTicketCompletionNotification(
-            eq("test-user"),
-            eq("TEST-001"),
-            eq(testTicket)
-        );
+        verify(notificationService).createTicketCompletionNotification(eq("test-user"), eq("TEST-001"), eq(testTicket));
+        verify(dolibarrSyncQueue).enqueueRemove("11", "test Test ticket", "TEST-001");
         assert(testTicket.getStatus().equals("Closed"));
         assert(testTicket.getDateCompleted() != null);
     }
 
     @Test
-    void testSendFiveMinuteWarnings_WithNullFiveMinuteWarningSent_ShouldTreatAsFalse() {
-        
-        testTicket.setFiveMinuteWarningSent(null); // Null should be treated as false
-        testTicket.setDateCreated(LocalDateTime.now().minusMinutes(56)); // 4 minutes left
-        List<Ticket> activeTickets = Arrays.asList(testTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(activeTickets);
+    void testProcessExpiredTicket_ShouldSkipTicketThatWasExtended() {
 
-        ticketScheduledService.sendFiveMinuteWarnings();
+        testTicket.setId(1L);
+        testTicket.setDuration(120); // Extended after the timer was scheduled
+        when(ticketRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testTicket));
 
-        verify(notificationService, times(1)).createFiveMinuteWarningNotification(
-            eq("test-user"),
-            eq("TEST-001"),
-            eq(testTicket)
-        );
-        verify(ticketRepository, times(1)).save(testTicket);
-        assert(testTicket.getFiveMinuteWarningSent());
+        ticketScheduledService.processExpiredTicket(1L);
+
+        verify(ticketRepository, never()).save(any(Ticket.class));
+        assert(testTicket.getStatus().equals("Active"));
     }
 
     @Test
-    void testRunStartupCheck_ShouldCallBothMethods() {
-       
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(Arrays.asList());
+    void testProcessExpiredTicket_ShouldSkipTicketAlreadyClosedBySweep() throws Exception {
 
-        ticketScheduledService.runStartupCheck();
+        testTicket.setId(1L);
+        testTicket.setDateCreated(LocalDateTime.now().minusMinutes(60));
+        testTicket.setStatus("Closed");
+        when(ticketRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(testTicket));
+
+        ticketScheduledService.processExpiredTicket(1L);
 
-        verify(ticketRepository, times(2)).findActiveTicketsWithDuration(); 
+        verify(ticketRepository, never()).save(any(Ticket.class));
+        verifyNoInteractions(notificationService, dolibarrSyncQueue, ticketStatisticsService);
     }
 
     @Test
-    void testRunStartupCheck_WithActiveTickets_ShouldProcessThem() {
-        
-        testTicket.setDateCreated(LocalDateTime.now().minusMinutes(65)); // Expired
-        List<Ticket> activeTickets = Arrays.asList(testTicket);
-        when(ticketRepository.findActiveTicketsWithDuration()).thenReturn(activeTickets);
-
-        ticketScheduledService.runStartupCheck();
+    void testCloseExpiredTickets_WithAddStillRetrying_ShouldLeaveUserRemoved() throws Exception {
+        Map<Long, DolibarrSyncTask> outbox = inMemoryOutbox();
+        DolibarrSyncQueue syncQueue = new DolibarrSyncQueue(syncTaskRepository, dolibarrUserGroupService, 1, 10, 8, 1000, 8000);
+        TicketScheduledService scheduledService = new TicketScheduledService(ticketRepository, notificationService, syncQueue, userRepository, nlpResultCache, ticketStatisticsService);
+        try {
+            // The add for this ticket failed once and is waiting to retry
+            DolibarrSyncTask retryingAdd = syncTaskRepository.save(new DolibarrSyncTask(DolibarrSyncTask.OPERATION_ADD, "11", "test Test ticket", "TEST-001"));
+            retryingAdd.setAttempts(1);
+            retryingAdd.setNextAttemptAt(LocalDateTime.now().plusMinutes(1));
+
+            User user = new User();
+            user.setUserId("test-user");
+            user.setDolibarrId("11");
+            testTicket.setDateCreated(LocalDateTime.now().minusMinutes(65));
+            when(ticketRepository.findActiveTicketsExpiredBefore(any(LocalDateTime.class))).thenReturn(Arrays.asList(testTicket));
+            when(userRepository.findAllById(anyIterable())).thenReturn(Arrays.asList(user));
+
+            scheduledService.closeExpiredTickets();
+
+            // The backoff elapses and the poller drains the outbox
+            retryingAdd.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+            for (int i = 0; i < 100 && !outbox.isEmpty(); i++) {
+                syncQueue.pollDueTasks();
+                Thread.sleep(20);
+            }
+
+            assertTrue(outbox.isEmpty());
+            InOrder dolibarr = inOrder(dolibarrUserGroupService);
+            dolibarr.verify(dolibarrUserGroupService).addUserToGroup("11", "test Test ticket", "TEST-001");
+            dolibarr.verify(dolibarrUserGroupService).removeUserFromGroup("11", "test Test ticket", "TEST-001");
+        } finally {
+            syncQueue.stop();
+        }
+    }
 
-        verify(ticketRepository, times(2)).findActiveTicketsWithDuration();
-        verify(ticketRepository).save(testTicket); // Should close expired ticket
-        verify(notificationService).createTicketCompletionNotification(anyString(), anyString(), any(Ticket.class));
+    // Backs the outbox repository mock with a map so a real DolibarrSyncQueue can run against it
+    private Map<Long, DolibarrSyncTask> inMemoryOutbox() {
+        Map<Long, DolibarrSyncTask> outbox = new ConcurrentSkipListMap<>();
+        AtomicLong nextId = new AtomicLong();
+        lenient().when(syncTaskRepository.save(any(DolibarrSyncTask.class))).thenAnswer(invocation -> {
+            DolibarrSyncTask task = invocation.getArgument(0);
+            if (task.getId() == null) {
+                task.setId(nextId.incrementAndGet());
+            }
+            outbox.put(task.getId(), task);
+            return task;
+        });
+        lenient().when(syncTaskRepository.findById(anyLong()))
+            .thenAnswer(invocation -> Optional.ofNullable(outbox.get(invocation.<Long>getArgument(0))));
+        lenient().doAnswer(invocation -> outbox.remove(invocation.<Long>getArgument(0)))
+            .when(syncTaskRepository).deleteById(anyLong());
+        lenient().when(syncTaskRepository.transitionStatus(anyLong(), anyString(), anyString())).thenAnswer(invocation -> {
+            DolibarrSyncTask task = outbox.get(invocation.<Long>getArgument(0));
+            if (task == null || !task.getStatus().equals(invocation.getArgument(1))) {
+                return 0;
+            }
+            task.setStatus(invocation.getArgument(2));
+            return 1;
+        });
+        lenient().when(syncTaskRepository.deleteByIdAndStatus(anyLong(), anyString()))
+            .thenAnswer(invocation -> outbox.values().removeIf(task ->
+                task.getId().equals(invocation.getArgument(0)) && task.getStatus().equals(invocation.getArgument(1))) ? 1 : 0);
+        lenient().when(syncTaskRepository.findFirstByDolibarrUserIdAndDescriptionAndStatusOrderByIdDesc(anyString(), anyString(), anyString()))
+            .thenAnswer(invocation -> outbox.values().stream()
+                .filter(task -> task.getDolibarrUserId().equals(invocation.getArgument(0))
+                    && task.getDescription().equals(invocation.getArgument(1))
+                    && task.getStatus().equals(invocation.getArgument(2)))
+                .reduce((older, newer) -> newer));
+        lenient().when(syncTaskRepository.findFirstByDolibarrUserIdAndStatusInOrderByIdAsc(anyString(), anyCollection()))
+            .thenAnswer(invocation -> outbox.values().stream()
+                .filter(task -> task.getDolibarrUserId().equals(invocation.getArgument(0))
+                    && invocation.<Collection<String>>getArgument(1).contains(task.getStatus()))
+                .findFirst());
+        lenient().when(syncTaskRepository.findByStatusAndNextAttemptAtLessThanEqualOrderByIdAsc(anyString(), any(LocalDateTime.class)))
+            .thenAnswer(invocation -> outbox.values().stream()
+                .filter(task -> task.getStatus().equals(invocation.getArgument(0))
+                    && !task.getNextAttemptAt().isAfter(invocation.getArgument(1)))
+                .collect(Collectors.toList()));
+        return outbox;
     }
 }
@@ -0,0 +1,182 @@
+package com.apex.firefighter.unit.services;
+
+import com.apex.firefighter.repository.TicketRepository;
+import com.apex.firefighter.service.ticket.TicketStatistics;
+import com.apex.firefighter.service.ticket.TicketStatisticsCounters;
+import com.apex.firefighter.service.ticket.TicketStatisticsCounters.Contribution;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TicketStatisticsCountersTest {
+
+    private static final YearMonth MARCH = YearMonth.of(2025, 3);
+    private static final YearMonth APRIL = YearMonth.of(2025, 4);
+
+    private MutableClock clock;
+    private TicketStatisticsCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(MARCH.atDay(15).atStartOfDay(ZoneOffset.UTC).toInstant());
+        counters = new TicketStatisticsCounters(clock);
+    }
+
+    @Test
+    void snapshot_ShouldFoldCellsIntoStatusTypeAndMonthTotals() {
+        counters.add(new Contribution("Active", "hr-emergency", MARCH, 60));
+        counters.add(new Contribution("Active", "hr", MARCH, 30));
+        counters.add(new Contribution("Closed", "financial", MARCH.minusMonths(1), 45));
+        counters.add(new Contribution("Closed", "other", MARCH.minusMonths(1), 15));
+
+        TicketStatistics statistics = counters.snapshot();
+
+        assertThat(statistics.getTotalTickets()).isEqualTo(4);
+        assertThat(statistics.getTotalDuration()).isEqualTo(150);
+        assertThat(statistics.getCurrentMonthTickets()).isEqualTo(2);
+        assertThat(statistics.getTickets("Active")).isEqualTo(2);
+        assertThat(statistics.getTickets("Closed")).isEqualTo(2);
+        assertThat(statistics.getEmergencyTypeBreakdown())
+            .containsEntry("hr", 2).containsEntry("financial", 1)
+            .containsEntry("management", 0).containsEntry("logistics", 0);
+    }
+
+    @Test
+    void snapshot_ShouldReturnSameInstanceUntilACounterChanges() {
+        counters.add(new Contribution("Active", "hr", MARCH, 60));
+
+        TicketStatistics first = counters.snapshot();
+        assertThat(counters.snapshot()).isSameAs(first);
+
+        Contribution before = new Contribution("Active", "hr", MARCH, 60);
+        counters.move(before, new Contribution("Closed", "hr", MARCH, 60));
+
+        TicketStatistics second = counters.snapshot();
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getTickets("Active")).isZero();
+        assertThat(second.getTickets("Closed")).isEqualTo(1);
+    }
+
+    @Test
+    void snapshot_ShouldRecountCurrentMonthWhenTheMonthRollsOver() {
+        counters.add(new Contribution("Active", "hr", MARCH, 60));
+        assertThat(counters.snapshot().getCurrentMonthTickets()).isEqualTo(1);
+
+        clock.instant = APRIL.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+
+        assertThat(counters.snapshot().getCurrentMonthTickets()).isZero();
+        assertThat(counters.snapshot().getTotalTickets()).isEqualTo(1);
+    }
+
+    @Test
+    void move_WithUnchangedContribution_ShouldNotInvalidateSnapshot() {
+        counters.add(new Contribution("Active", "hr", MARCH, 60));
+        TicketStatistics first = counters.snapshot();
+
+        counters.move(new Contribution("Active", "hr", MARCH, 60), new Contribution("Active", "hr", MARCH, 60));
+
+        assertThat(counters.snapshot()).isSameAs(first);
+    }
+
+    @Test
+    void reconcile_ShouldApplyOnlyTheDifferenceToDriftedCells() {
+        counters.add(new Contribution("Active", "hr", MARCH, 60));
+        counters.add(new Contribution("Active", "hr", MARCH, 60));
+        counters.add(new Contribution("Closed", "hr", MARCH, 30));
+
+        int drifted = counters.reconcile(List.of(
+            row("Active", "hr", MARCH, 2, 120L),
+            row("Rejected", "financial", APRIL.minusMonths(2), 1, 10L)));
+
+        // Closed was never saved, Rejected was changed outside the services
+        assertThat(drifted).isEqualTo(2);
+        TicketStatistics statistics = counters.snapshot();
+        assertThat(statistics.getTickets("Active")).isEqualTo(2);
+        assertThat(statistics.getTickets("Closed")).isZero();
+        assertThat(statistics.getTickets("Rejected")).isEqualTo(1);
+        assertThat(statistics.getTotalDuration()).isEqualTo(130);
+
+        assertThat(counters.reconcile(List.of(
+            row("Active", "hr", MARCH, 2, 120L),
+            row("Rejected", "financial", APRIL.minusMonths(2), 1, 10L)))).isZero();
+    }
+
+    @Test
+    void reconcile_ShouldKeepCellsWrittenAfterTheAggregateStarted() {
+        counters.add(new Contribution("Active", "hr", MARCH, 60));
+        counters.add(new Contribution("Closed", "hr", MARCH, 30));
+
+        long writeStamp = counters.writeStamp();
+        List<TicketRepository.StatusTypeMonthTotals> rows = List.of(
+            row("Active", "hr", MARCH, 1, 60L),
+            row("Closed", "hr", MARCH, 2, 70L));
+        // Recorded after the aggregate read the database, so its rows do not include it
+        counters.add(new Contribution("Active", "hr", MARCH, 45));
+
+        assertThat(counters.reconcile(rows, writeStamp)).isEqualTo(1);
+        TicketStatistics statistics = counters.snapshot();
+        assertThat(statistics.getTickets("Active")).isEqualTo(2);
+        assertThat(statistics.getTickets("Closed")).isEqualTo(2);
+        assertThat(statistics.getTotalDuration()).isEqualTo(175);
+    }
+
+    @Test
+    void add_FromManyThreads_ShouldNotLoseUpdates() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        counters.add(new Contribution("Active", "hr", MARCH, 1));
+                        counters.snapshot();
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(counters.snapshot().getTickets("Active")).isEqualTo(80_000);
+        assertThat(counters.snapshot().getTotalDuration()).isEqualTo(80_000);
+    }
+
+    private static TicketRepository.StatusTypeMonthTotals row(String status, String emergencyType, YearMonth month,
+                                                              long count, Long totalDuration) {
+        return new TicketRepository.StatusTypeMonthTotals() {
+            @Override public String getStatus() { return status; }
+            @Override public String getEmergencyType() { return emergencyType; }
+            @Override public Integer getCreatedYear() { return month.getYear(); }
+            @Override public Integer getCreatedMonth() { return month.getMonthValue(); }
+            @Override public Long getTicketCount() { return count; }
+            @Override public Long getTotalDuration() { return totalDuration; }
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return instant; }
+    }
+}
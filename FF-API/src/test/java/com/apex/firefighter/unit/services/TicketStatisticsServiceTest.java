@@ -0,0 +1,179 @@
+package com.apex.firefighter.unit.services;
+
+import com.apex.firefighter.dto.EmergencyStatisticsResponse;
+import com.apex.firefighter.model.Ticket;
+import com.apex.firefighter.repository.TicketRepository;
+import com.apex.firefighter.service.ticket.TicketStatistics;
+import com.apex.firefighter.service.ticket.TicketStatisticsCounters.Contribution;
+import com.apex.firefighter.service.ticket.TicketStatisticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TicketStatisticsServiceTest {
+
+    private static final YearMonth THIS_MONTH = YearMonth.now();
+    private static final YearMonth LAST_MONTH = THIS_MONTH.minusMonths(1);
+
+    @Mock
+    private TicketRepository ticketRepository;
+
+    private TicketStatisticsService ticketStatisticsService;
+
+    @BeforeEach
+    void setUp() {
+        ticketStatisticsService = new TicketStatisticsService(ticketRepository);
+    }
+
+    @Test
+    void calculateEmergencyStatistics_ShouldFoldSeededCounters() {
+        when(ticketRepository.aggregateByStatusEmergencyTypeAndMonth()).thenReturn(List.of(
+            row("Active", "hr-emergency", THIS_MONTH, 1, 60L),
+            row("Active", "hr-emergency", LAST_MONTH, 1, 60L),
+            row("Active", "hr", THIS_MONTH, 1, 60L),
+            row("Closed", "financial", LAST_MONTH, 4, 200L),
+            row("Rejected", "logistics-emergency", LAST_MONTH, 1, null),
+            row("Completed", "unknown", THIS_MONTH, 2, 100L)));
+
+        EmergencyStatisticsResponse response = ticketStatisticsService.calculateEmergencyStatistics();
+
+        assertThat(response.getTotalTickets()).isEqualTo(10);
+        assertThat(response.getActiveTickets()).isEqualTo(3);
+        assertThat(response.getEmergencyTypeBreakdown())
+            .containsEntry("hr", 3).containsEntry("financial", 4)
+            .containsEntry("logistics", 1).containsEntry("management", 0);
+        assertThat(response.getMostCommonEmergencyType()).isEqualTo("Financial");
+        assertThat(response.getAverageResponseTime()).isEqualTo(48);
+        assertThat(response.getCompletionRate()).isEqualTo(40.0);
+        assertThat(response.getSystemHealthScore()).isEqualTo(89);
+        assertThat(response.getCurrentMonthTickets()).isEqualTo(4);
+    }
+
+    @Test
+    void calculateEmergencyStatistics_WithNoTickets_ShouldReturnDefaults() {
+        when(ticketRepository.aggregateByStatusEmergencyTypeAndMonth()).thenReturn(List.of());
+
+        EmergencyStatisticsResponse response = ticketStatisticsService.calculateEmergencyStatistics();
+
+        assertThat(response.getTotalTickets()).isZero();
+        assertThat(response.getMostCommonEmergencyType()).isEqualTo("N/A");
+        assertThat(response.getSystemHealthScore()).isEqualTo(100);
+    }
+
+    @Test
+    void getSystemStatistics_ShouldSeedOnceAndThenFollowRecordedChanges() {
+        when(ticketRepository.aggregateByStatusEmergencyTypeAndMonth())
+            .thenReturn(List.of(row("Active", "hr", THIS_MONTH, 1, 60L)));
+
+        assertThat(ticketStatisticsService.getSystemStatistics().getTickets("Active")).isEqualTo(1);
+
+        Ticket ticket = ticket("Active", "financial", 30);
+        ticketStatisticsService.recordCreated(ticket);
+        Contribution before = Contribution.of(ticket);
+        ticket.setStatus("Rejected");
+        ticketStatisticsService.recordChanged(before, ticket);
+
+        TicketStatistics statistics = ticketStatisticsService.getSystemStatistics();
+        assertThat(statistics.getTotalTickets()).isEqualTo(2);
+        assertThat(statistics.getTickets("Active")).isEqualTo(1);
+        assertThat(statistics.getTickets("Rejected")).isEqualTo(1);
+        assertThat(statistics.getTotalDuration()).isEqualTo(90);
+        assertThat(statistics.getCurrentMonthTickets()).isEqualTo(2);
+
+        ticketStatisticsService.recordDeleted(ticket);
+        assertThat(ticketStatisticsService.getSystemStatistics().getTotalTickets()).isEqualTo(1);
+        verify(ticketRepository, times(1)).aggregateByStatusEmergencyTypeAndMonth();
+    }
+
+    @Test
+    void reconcile_ShouldCorrectCountersThatDriftedFromTheDatabase() {
+        when(ticketRepository.aggregateByStatusEmergencyTypeAndMonth())
+            .thenReturn(List.of(row("Active", "hr", THIS_MONTH, 1, 60L)));
+        ticketStatisticsService.start();
+
+        // A ticket counted in memory whose save never reached the database
+        ticketStatisticsService.recordCreated(ticket("Active", "hr", 60));
+        assertThat(ticketStatisticsService.getSystemStatistics().getTotalTickets()).isEqualTo(2);
+
+        ticketStatisticsService.reconcile();
+
+        TicketStatistics statistics = ticketStatisticsService.getSystemStatistics();
+        assertThat(statistics.getTotalTickets()).isEqualTo(1);
+        assertThat(statistics.getTotalDuration()).isEqualTo(60);
+        verify(ticketRepository, times(2)).aggregateByStatusEmergencyTypeAndMonth();
+    }
+
+    @Test
+    void reconcile_ShouldKeepTicketsRecordedWhileTheAggregateRan() {
+        when(ticketRepository.aggregateByStatusEmergencyTypeAndMonth())
+            .thenReturn(List.of(row("Active", "hr", THIS_MONTH, 1, 60L)));
+        ticketStatisticsService.start();
+
+        // A ticket is created after the aggregate has read the database
+        when(ticketRepository.aggregateByStatusEmergencyTypeAndMonth()).thenAnswer(invocation -> {
+            ticketStatisticsService.recordCreated(ticket("Active", "hr", 60));
+            return List.of(row("Active", "hr", THIS_MONTH, 1, 60L));
+        });
+        ticketStatisticsService.reconcile();
+
+        TicketStatistics statistics = ticketStatisticsService.getSystemStatistics();
+        assertThat(statistics.getTotalTickets()).isEqualTo(2);
+        assertThat(statistics.getTotalDuration()).isEqualTo(120);
+    }
+
+    @Test
+    void getUserStatistics_ShouldAggregateOnlyThatUsersTickets() {
+        when(ticketRepository.aggregateByStatusAndEmergencyTypeForUser(eq("user1"), any(LocalDateTime.class), any(LocalDateTime.class)))
+            .thenReturn(List.of(userRow("Rejected", "management", 2, 90L, 0)));
+
+        TicketStatistics statistics = ticketStatisticsService.getUserStatistics("user1");
+
+        assertThat(statistics.getTotalTickets()).isEqualTo(2);
+        assertThat(statistics.getTickets("Rejected")).isEqualTo(2);
+        assertThat(statistics.getTickets("Active")).isZero();
+        assertThat(statistics.getEmergencyTypeBreakdown()).containsEntry("management", 2);
+    }
+
+    private static Ticket ticket(String status, String emergencyType, int duration) {
+        Ticket ticket = new Ticket("BMW-FF-12345", "Test ticket", status, "user1", emergencyType, "12345");
+        ticket.setDuration(duration);
+        return ticket;
+    }
+
+    private static TicketRepository.StatusTypeMonthTotals row(String status, String emergencyType, YearMonth month,
+                                                              long count, Long totalDuration) {
+        return new TicketRepository.StatusTypeMonthTotals() {
+            @Override public String getStatus() { return status; }
+            @Override public String getEmergencyType() { return emergencyType; }
+            @Override public Integer getCreatedYear() { return month.getYear(); }
+            @Override public Integer getCreatedMonth() { return month.getMonthValue(); }
+            @Override public Long getTicketCount() { return count; }
+            @Override public Long getTotalDuration() { return totalDuration; }
+        };
+    }
+
+    private static TicketRepository.StatusTypeTotals userRow(String status, String emergencyType, long count,
+                                                             Long totalDuration, long currentMonthCount) {
+        return new TicketRepository.StatusTypeTotals() {
+            @Override public String getStatus() { return status; }
+            @Override public String getEmergencyType() { return emergencyType; }
+            @Override public Long getTicketCount() { return count; }
+            @Override public Long getTotalDuration() { return totalDuration; }
+            @Override public Long getCurrentMonthCount() { return currentMonthCount; }
+        };
+    }
+}
@@ -5,6 +5,7 @@ import com.apex.firefighter.service.UserService;
 import com.apex.firefighter.service.auth.AuthenticationService;
 import com.apex.firefighter.service.auth.AuthorizationService;
 import com.apex.firefighter.service.role.RoleService;
+import com.apex.firefighter.service.user.UserAuthorizationChangedEvent;
 import com.apex.firefighter.service.user.UserProfileService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.Arrays;
 import java.util.List;
@@ -36,6 +38,9 @@ class UserServiceTest {
     @Mock
     private UserProfileService userProfileService;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private UserService userService;
 
@@ -128,6 +133,8 @@ class UserServiceTest {
         // Assert
         assertThat(result).isEqualTo(testUser);
         verify(authorizationService).authorizeUser(firebaseUid, authorizedBy);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof UserAuthorizationChangedEvent changed
+            && changed.getUserId().equals("test-firebase-uid") && changed.isAuthorized()));
     }
 
     @Test
@@ -161,6 +168,8 @@ class UserServiceTest {
         // Assert
         assertThat(result).isEqualTo(testUser);
         verify(roleService).assignRole(firebaseUid, roleName, assignedBy);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof UserAuthorizationChangedEvent changed
+            && changed.getUserId().equals("test-firebase-uid")));
     }
 
     @Test
@@ -176,6 +185,8 @@ class UserServiceTest {
         // Assert
         assertThat(result).isEqualTo(testUser);
         verify(roleService).removeRole(firebaseUid, roleName);
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof UserAuthorizationChangedEvent changed
+            && changed.getUserId().equals("test-firebase-uid")));
     }
 
     @Test
@@ -2,6 +2,7 @@ package com.apex.firefighter.unit.services.anomaly;
 
 import com.apex.firefighter.model.AccessLog;
 import com.apex.firefighter.model.AccessSession;
+import com.apex.firefighter.model.Ticket;
 import com.apex.firefighter.model.User;
 import com.apex.firefighter.repository.AccessLogRepository;
 import com.apex.firefighter.repository.AccessSessionRepository;
@@ -23,7 +24,6 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -65,16 +65,14 @@ class AnomalyDetectionServiceTest {
     @Test
     void checkForAnomalousTicketCreation_WithFrequentRequestAnomaly_ShouldReturnTrue() {
         // Arrange
-        when(ticketRepository.countTicketsByUserSince(eq(TEST_USER_ID), any(LocalDateTime.class)))
-            .thenReturn(6L) // Exceeds MAX_REQUESTS_PER_HOUR (5)
-            .thenReturn(10L); // For daily check
+        givenTickets(6, 4); // 6 exceeds MAX_REQUESTS_PER_HOUR (5), 10 for the day
 
 
         // Act
         boolean result = anomalyDetectionService.checkForAnomalousTicketCreation(TEST_USER_ID);
         // Assert
         assertThat(result).isTrue();
-        verify(ticketRepository, times(2)).countTicketsByUserSince(eq(TEST_USER_ID), any(LocalDateTime.class));
+        verify(ticketRepository, times(1)).countTicketsByUserAndMinuteSince(any(LocalDateTime.class));
     }
 
     @Test
@@ -94,9 +92,7 @@ class AnomalyDetectionServiceTest {
     @Test
     void getRequestFrequencyDetails_WithHourlyThresholdExceeded_ShouldReturnDetails() {
         // Arrange
-        when(ticketRepository.countTicketsByUserSince(eq(TEST_USER_ID), any(LocalDateTime.class)))
-            .thenReturn(6L) // Exceeds hourly threshold (5)
-            .thenReturn(10L); // Daily count
+        givenTickets(6, 4); // 6 exceeds hourly threshold (5), 10 for the day
 
         // Act
         String result = anomalyDetectionService.getRequestFrequencyDetails(TEST_USER_ID);
@@ -110,9 +106,7 @@ class AnomalyDetectionServiceTest {
     @Test
     void getRequestFrequencyDetails_WithDailyThresholdExceeded_ShouldReturnDetails() {
         // Arrange
-        when(ticketRepository.countTicketsByUserSince(eq(TEST_USER_ID), any(LocalDateTime.class)))
-            .thenReturn(3L) // Below hourly threshold
-            .thenReturn(25L); // Exceeds daily threshold (20)
+        givenTickets(3, 22); // 3 below hourly threshold, 25 exceeds daily threshold (20)
 
         // Act
         String result = anomalyDetectionService.getRequestFrequencyDetails(TEST_USER_ID);
@@ -126,9 +120,7 @@ class AnomalyDetectionServiceTest {
     @Test
     void getRequestFrequencyDetails_WithNoThresholdExceeded_ShouldReturnNull() {
         // Arrange
-        when(ticketRepository.countTicketsByUserSince(eq(TEST_USER_ID), any(LocalDateTime.class)))
-            .thenReturn(3L) // Below hourly threshold
-            .thenReturn(15L); // Below daily threshold
+        givenTickets(3, 12); // 3 below hourly threshold, 15 below daily threshold
 
         // Act
         String result = anomalyDetectionService.getRequestFrequencyDetails(TEST_USER_ID);
@@ -140,9 +132,7 @@ class AnomalyDetectionServiceTest {
     @Test
     void getRequestFrequencyDetails_WithExactThresholds_ShouldReturnDetails() {
         // Arrange - Test boundary conditions
-        when(ticketRepository.countTicketsByUserSince(eq(TEST_USER_ID), any(LocalDateTime.class)))
-            .thenReturn(5L) // Exactly at hourly threshold
-            .thenReturn(10L);
+        givenTickets(5, 5); // Exactly at hourly threshold
 
         // Act
         String result = anomalyDetectionService.getRequestFrequencyDetails(TEST_USER_ID);
@@ -321,9 +311,7 @@ class AnomalyDetectionServiceTest {
     @Test
     void getFrequencyAnomalyDetails_WithFrequentRequestAnomaly_ShouldReturnFrequencyDetails() {
         // Arrange
-        when(ticketRepository.countTicketsByUserSince(eq(TEST_USER_ID), any(LocalDateTime.class)))
-            .thenReturn(6L) // Exceeds threshold
-            .thenReturn(10L);
+        givenTickets(6, 4); // Exceeds threshold
 
         // Act
         String result = anomalyDetectionService.getFrequencyAnomalyDetails(TEST_USER_ID);
@@ -338,9 +326,7 @@ class AnomalyDetectionServiceTest {
     @Test
     void getFrequencyAnomalyDetails_WithNoAnomalies_ShouldReturnNull() {
         // Arrange
-        when(ticketRepository.countTicketsByUserSince(eq(TEST_USER_ID), any(LocalDateTime.class)))
-            .thenReturn(2L) // Below threshold
-            .thenReturn(5L);
+        givenTickets(2, 3); // Below threshold
 
  // No recent login
 
@@ -355,11 +341,6 @@ class AnomalyDetectionServiceTest {
 
     @Test
     void checkForAnomalousTicketCreation_WithNullUserId_ShouldHandleGracefully() {
-        // Arrange
-        when(ticketRepository.countTicketsByUserSince(eq(null), any(LocalDateTime.class)))
-            .thenReturn(0L);
-
-
         // Act
         boolean result = anomalyDetectionService.checkForAnomalousTicketCreation(null);
 
@@ -371,9 +352,6 @@ class AnomalyDetectionServiceTest {
     void checkForAnomalousTicketCreation_WithEmptyUserId_ShouldHandleGracefully() {
         // Arrange
         String emptyUserId = "";
-        when(ticketRepository.countTicketsByUserSince(eq(emptyUserId), any(LocalDateTime.class)))
-            .thenReturn(0L);
-
 
         // Act
         boolean result = anomalyDetectionService.checkForAnomalousTicketCreation(emptyUserId);
@@ -385,7 +363,7 @@ class AnomalyDetectionServiceTest {
     @Test
     void getRequestFrequencyDetails_WithRepositoryException_ShouldPropagateException() {
         // Arrange
-        when(ticketRepository.countTicketsByUserSince(eq(TEST_USER_ID), any(LocalDateTime.class)))
+        when(ticketRepository.countTicketsByUserAndMinuteSince(any(LocalDateTime.class)))
             .thenThrow(new RuntimeException("Database error"));
 
         // Act & Assert
@@ -411,16 +389,66 @@ class AnomalyDetectionServiceTest {
         }
     }
 
+    // ==================== FREQUENCY COUNTER TESTS ====================
+
+    @Test
+    void start_ShouldSeedCountersFromOneAggregateQuery() {
+        // Arrange
+        givenTickets(6, 4);
+
+        // Act
+        anomalyDetectionService.start();
+        String hourly = anomalyDetectionService.getRequestFrequencyDetails(TEST_USER_ID);
+        boolean otherUser = anomalyDetectionService.checkForAnomalousTicketCreation("other-user");
+
+        // Assert
+        assertThat(hourly).contains("6 requests in the last hour");
+        assertThat(otherUser).isFalse();
+        verify(ticketRepository, times(1)).countTicketsByUserAndMinuteSince(any(LocalDateTime.class));
+    }
+
+    @Test
+    void start_WithRepositoryException_ShouldNotThrow() {
+        // Arrange
+        when(ticketRepository.countTicketsByUserAndMinuteSince(any(LocalDateTime.class)))
+            .thenThrow(new RuntimeException("Database error"))
+            .thenReturn(Collections.emptyList());
+
+        // Act
+        anomalyDetectionService.start();
+        boolean result = anomalyDetectionService.checkForAnomalousTicketCreation(TEST_USER_ID);
+
+        // Assert - seeded again on first read
+        assertThat(result).isFalse();
+        verify(ticketRepository, times(2)).countTicketsByUserAndMinuteSince(any(LocalDateTime.class));
+    }
+
+    @Test
+    void recordTicketCreated_ShouldCountTowardsTheTicketsUser() {
+        // Arrange
+        givenTickets(4, 0);
+        anomalyDetectionService.start();
+        Ticket ticket = new Ticket("TICKET-5", "Test", "Active", TEST_USER_ID, "hr-emergency", "12345");
+        ticket.setDateCreated(LocalDateTime.now());
+
+        // Act
+        boolean before = anomalyDetectionService.checkForAnomalousTicketCreation(TEST_USER_ID);
+        anomalyDetectionService.recordTicketCreated(ticket);
+        boolean after = anomalyDetectionService.checkForAnomalousTicketCreation(TEST_USER_ID);
+
+        // Assert
+        assertThat(before).isFalse();
+        assertThat(after).isTrue();
+        assertThat(anomalyDetectionService.getRequestFrequencyDetails(TEST_USER_ID))
+            .contains("5 requests in the last hour");
+    }
+
     // ==================== INTEGRATION WORKFLOW TESTS ====================
 
     @Test
     void fullAnomalyCheck_WithMultipleAnomalies_ShouldDetectAll() {
         // Arrange - Frequent request anomaly
-        when(ticketRepository.countTicketsByUserSince(eq(TEST_USER_ID), any(LocalDateTime.class)))
-            .thenReturn(6L) // First call: hourly check in checkForAnomalousTicketCreation
-            .thenReturn(25L) // Second call: daily check in checkForAnomalousTicketCreation
-            .thenReturn(6L) // Third call: hourly check in getRequestFrequencyDetails
-            .thenReturn(25L); // Fourth call: daily check in getRequestFrequencyDetails
+        givenTickets(6, 19); // 6 in the last hour, 25 in the last day
 
         // Act
         boolean hasAnomaly = anomalyDetectionService.checkForAnomalousTicketCreation(TEST_USER_ID);
@@ -435,13 +463,8 @@ class AnomalyDetectionServiceTest {
     @Test
     void allAnomalyMethods_WithNormalBehavior_ShouldReturnNoAnomalies() {
         // Arrange - Normal behavior
-        when(ticketRepository.countTicketsByUserSince(eq(TEST_USER_ID), any(LocalDateTime.class)))
-            .thenReturn(2L) // Below hourly threshold (5) - checkForAnomalousTicketCreation
-            .thenReturn(10L) // Below daily threshold (20) - checkForAnomalousTicketCreation
-            .thenReturn(2L) // Below hourly threshold for getRequestFrequencyDetails
-            .thenReturn(10L) // Below daily threshold for getRequestFrequencyDetails
-            .thenReturn(2L) // Below hourly threshold for getFrequencyAnomalyDetails -> getRequestFrequencyDetails
-            .thenReturn(10L); // Below daily threshold for getFrequencyAnomalyDetails -> getRequestFrequencyDetails
+        givenTickets(2, 8); // Below hourly threshold (5) and daily threshold (20)
+        anomalyDetectionService.start(); // Seed before LocalDateTime is mocked
 
 
         LocalDateTime workingHours = LocalDateTime.of(2023, 6, 15, 10, 0); // Thursday 10 AM
@@ -464,4 +487,23 @@ class AnomalyDetectionServiceTest {
             assertThat(combinedDetails).isNull();
         }
     }
+
+    // Tickets by TEST_USER_ID: lastHour created now, earlier created 3 hours ago
+    private void givenTickets(long lastHour, long earlier) {
+        LocalDateTime now = LocalDateTime.now();
+        when(ticketRepository.countTicketsByUserAndMinuteSince(any(LocalDateTime.class)))
+            .thenReturn(List.of(minuteTotals(now, lastHour), minuteTotals(now.minusHours(3), earlier)));
+    }
+
+    private TicketRepository.UserMinuteTotals minuteTotals(LocalDateTime minute, long count) {
+        return new TicketRepository.UserMinuteTotals() {
+            @Override public String getUserId() { return TEST_USER_ID; }
+            @Override public Integer getCreatedYear() { return minute.getYear(); }
+            @Override public Integer getCreatedMonth() { return minute.getMonthValue(); }
+            @Override public Integer getCreatedDay() { return minute.getDayOfMonth(); }
+            @Override public Integer getCreatedHour() { return minute.getHour(); }
+            @Override public Integer getCreatedMinute() { return minute.getMinute(); }
+            @Override public Long getTicketCount() { return count; }
+        };
+    }
 }
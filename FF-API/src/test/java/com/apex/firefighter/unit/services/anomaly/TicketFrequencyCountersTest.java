@@ -0,0 +1,188 @@
+package com.apex.firefighter.unit.services.anomaly;
+
+import com.apex.firefighter.repository.TicketRepository;
+import com.apex.firefighter.service.anomaly.TicketFrequencyCounters;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TicketFrequencyCountersTest {
+
+    private static final String USER = "test-user-123";
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 15, 9, 30, 20);
+
+    private MutableClock clock;
+    private TicketFrequencyCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(START.toInstant(ZoneOffset.UTC));
+        counters = new TicketFrequencyCounters(clock);
+    }
+
+    @Test
+    void count_ShouldIncludeTicketsFromTheLastHourAndDay() {
+        counters.record(USER, START);
+        counters.record(USER, START.minusMinutes(59));
+        counters.record(USER, START.minusMinutes(60));
+        counters.record(USER, START.minusHours(23).minusMinutes(59));
+
+        assertThat(counters.countLastHour(USER)).isEqualTo(2);
+        assertThat(counters.countLastDay(USER)).isEqualTo(4);
+        assertThat(counters.countLastHour("other-user")).isZero();
+        assertThat(counters.countLastDay("other-user")).isZero();
+    }
+
+    @Test
+    void count_ShouldDropTicketsAsTheWindowsMoveOn() {
+        counters.record(USER, START);
+        counters.record(USER, START);
+        counters.record(USER, START.minusMinutes(30));
+
+        clock.advance(Duration.ofMinutes(31));
+        assertThat(counters.countLastHour(USER)).isEqualTo(2);
+
+        clock.advance(Duration.ofMinutes(29));
+        assertThat(counters.countLastHour(USER)).isZero();
+        assertThat(counters.countLastDay(USER)).isEqualTo(3);
+
+        clock.advance(Duration.ofHours(22).plusMinutes(30));
+        assertThat(counters.countLastDay(USER)).isEqualTo(2);
+
+        clock.advance(Duration.ofMinutes(30));
+        assertThat(counters.countLastDay(USER)).isZero();
+    }
+
+    @Test
+    void count_ShouldKeepCountingAcrossTheRingBuffer() {
+        // Three days of one ticket every ten minutes wraps the 1440 minute buffer three times
+        for (int i = 0; i < 3 * 144; i++) {
+            counters.record(USER, LocalDateTime.now(clock));
+            clock.advance(Duration.ofMinutes(10));
+        }
+
+        // The last ticket was ten minutes ago
+        assertThat(counters.countLastHour(USER)).isEqualTo(5);
+        assertThat(counters.countLastDay(USER)).isEqualTo(143);
+    }
+
+    @Test
+    void record_ShouldIgnoreTicketsOlderThanADayAndCountFutureTicketsNow() {
+        counters.record(USER, START.minusDays(1));
+        counters.record(USER, START.minusDays(3));
+        counters.record(USER, START.plusHours(2));
+        counters.record(USER, null);
+        counters.record(null, START);
+
+        assertThat(counters.countLastHour(USER)).isEqualTo(1);
+        assertThat(counters.countLastDay(USER)).isEqualTo(1);
+        assertThat(counters.countLastHour(null)).isZero();
+
+        clock.advance(Duration.ofHours(1));
+        assertThat(counters.countLastHour(USER)).isZero();
+    }
+
+    @Test
+    void seed_ShouldReplaceEveryCounter() {
+        counters.record("other-user", START);
+
+        counters.seed(List.of(
+            row(USER, START.minusMinutes(10), 4),
+            row(USER, START.minusHours(5), 7),
+            row(USER, START.minusDays(2), 100),
+            new TicketRepository.UserMinuteTotals() {
+                @Override public String getUserId() { return USER; }
+                @Override public Integer getCreatedYear() { return null; }
+                @Override public Integer getCreatedMonth() { return null; }
+                @Override public Integer getCreatedDay() { return null; }
+                @Override public Integer getCreatedHour() { return null; }
+                @Override public Integer getCreatedMinute() { return null; }
+                @Override public Long getTicketCount() { return 50L; }
+            }));
+
+        assertThat(counters.countLastHour(USER)).isEqualTo(4);
+        assertThat(counters.countLastDay(USER)).isEqualTo(11);
+        assertThat(counters.countLastDay("other-user")).isZero();
+        assertThat(counters.size()).isEqualTo(1);
+    }
+
+    @Test
+    void prune_ShouldDropUsersWithoutTicketsInTheLastDay() {
+        counters.record(USER, START.minusHours(23));
+        counters.record("other-user", START.minusHours(1));
+
+        clock.advance(Duration.ofHours(2));
+
+        assertThat(counters.prune()).isEqualTo(1);
+        assertThat(counters.size()).isEqualTo(1);
+        assertThat(counters.countLastDay("other-user")).isEqualTo(1);
+
+        counters.record(USER, LocalDateTime.now(clock));
+        assertThat(counters.countLastHour(USER)).isEqualTo(1);
+    }
+
+    @Test
+    void record_FromManyThreads_ShouldCountEveryTicket() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        counters.record(USER, START);
+                        counters.countLastHour(USER);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(counters.countLastHour(USER)).isEqualTo(80_000);
+        assertThat(counters.countLastDay(USER)).isEqualTo(80_000);
+    }
+
+    private static TicketRepository.UserMinuteTotals row(String userId, LocalDateTime minute, long count) {
+        return new TicketRepository.UserMinuteTotals() {
+            @Override public String getUserId() { return userId; }
+            @Override public Integer getCreatedYear() { return minute.getYear(); }
+            @Override public Integer getCreatedMonth() { return minute.getMonthValue(); }
+            @Override public Integer getCreatedDay() { return minute.getDayOfMonth(); }
+            @Override public Integer getCreatedHour() { return minute.getHour(); }
+            @Override public Integer getCreatedMinute() { return minute.getMinute(); }
+            @Override public Long getTicketCount() { return count; }
+        };
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return instant; }
+    }
+}
@@ -0,0 +1,174 @@
+package com.apex.firefighter.unit.services.auth;
+
+import com.apex.firefighter.model.ApiKey;
+import com.apex.firefighter.repository.ApiKeyRepository;
+import com.apex.firefighter.service.auth.ApiKeyAuthenticator;
+import com.apex.firefighter.service.auth.ApiKeyChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyAuthenticatorTest {
+
+    private static final String ACTIVE_KEY = "active-api-key";
+    private static final String REVOKED_KEY = "revoked-api-key";
+    private static final String USER_ID = "test-user-123";
+
+    @Mock
+    private ApiKeyRepository apiKeyRepository;
+
+    private ApiKeyAuthenticator authenticator;
+
+    @BeforeEach
+    void setUp() {
+        authenticator = new ApiKeyAuthenticator(apiKeyRepository);
+        when(apiKeyRepository.findAllCredentials()).thenReturn(List.of(
+            credential(ApiKey.hash(ACTIVE_KEY), USER_ID, true),
+            credential(ApiKey.hash(REVOKED_KEY), USER_ID, false)));
+        authenticator.start();
+    }
+
+    @Test
+    void authenticate_WithActiveKey_ShouldReturnUserWithoutQueryingTheDatabase() {
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertThat(authenticator.authenticate(ACTIVE_KEY)).contains(USER_ID);
+        }
+
+        // Assert
+        verify(apiKeyRepository, times(1)).findAllCredentials();
+        verifyNoMoreInteractions(apiKeyRepository);
+        assertThat(authenticator.getMetrics()).containsEntry("authenticated", 3L);
+    }
+
+    @Test
+    void authenticate_WithRevokedOrUnknownKey_ShouldReject() {
+        assertThat(authenticator.authenticate(REVOKED_KEY)).isEmpty();
+        assertThat(authenticator.authenticate("unknown-api-key")).isEmpty();
+        assertThat(authenticator.authenticate(null)).isEmpty();
+
+        assertThat(authenticator.getMetrics()).containsEntry("rejected", 3L);
+    }
+
+    @Test
+    void authenticate_BeforeStart_ShouldLoadKeysOnce() {
+        // Arrange
+        ApiKeyAuthenticator notStarted = new ApiKeyAuthenticator(apiKeyRepository);
+
+        // Act
+        assertThat(notStarted.authenticate(ACTIVE_KEY)).contains(USER_ID);
+        assertThat(notStarted.authenticate(ACTIVE_KEY)).contains(USER_ID);
+
+        // Assert: once by setUp's authenticator, once by this one
+        verify(apiKeyRepository, times(2)).findAllCredentials();
+    }
+
+    @Test
+    void onApiKeyChanged_WithRevokedKey_ShouldRejectItImmediately() {
+        // Act
+        authenticator.onApiKeyChanged(new ApiKeyChangedEvent(ApiKey.hash(ACTIVE_KEY), USER_ID, false));
+
+        // Assert
+        assertThat(authenticator.authenticate(ACTIVE_KEY)).isEmpty();
+        verify(apiKeyRepository, times(1)).findAllCredentials();
+    }
+
+    @Test
+    void onApiKeyChanged_WithGeneratedKey_ShouldAcceptItImmediately() {
+        // Act
+        authenticator.onApiKeyChanged(new ApiKeyChangedEvent(ApiKey.hash("new-api-key"), "other-user", true));
+
+        // Assert
+        assertThat(authenticator.authenticate("new-api-key")).contains("other-user");
+        assertThat(authenticator.getMetrics()).containsEntry("cachedKeys", 3);
+    }
+
+    @Test
+    void reload_ShouldPickUpKeysChangedInTheDatabase() {
+        // Arrange
+        when(apiKeyRepository.findAllCredentials()).thenReturn(List.of(credential(ApiKey.hash(ACTIVE_KEY), USER_ID, false)));
+
+        // Act
+        authenticator.reload();
+
+        // Assert
+        assertThat(authenticator.authenticate(ACTIVE_KEY)).isEmpty();
+    }
+
+    @Test
+    void reload_WhenDatabaseFails_ShouldKeepPreviousKeys() {
+        // Arrange
+        when(apiKeyRepository.findAllCredentials()).thenThrow(new RuntimeException("Database error"));
+
+        // Act
+        authenticator.reload();
+
+        // Assert
+        assertThat(authenticator.authenticate(ACTIVE_KEY)).contains(USER_ID);
+        assertThat(authenticator.getMetrics()).containsEntry("reloadFailures", 1L);
+    }
+
+    @Test
+    void flushLastUsed_ShouldWriteOneUpdatePerKeyUsed() {
+        // Arrange
+        authenticator.authenticate(ACTIVE_KEY);
+        authenticator.authenticate(ACTIVE_KEY);
+        authenticator.authenticate(REVOKED_KEY);
+
+        // Act
+        authenticator.flushLastUsed();
+        authenticator.flushLastUsed();
+
+        // Assert
+        ArgumentCaptor<ZonedDateTime> usedAt = ArgumentCaptor.forClass(ZonedDateTime.class);
+        verify(apiKeyRepository, times(1)).updateLastUsedAt(eq(ApiKey.hash(ACTIVE_KEY)), usedAt.capture());
+        verify(apiKeyRepository, never()).updateLastUsedAt(eq(ApiKey.hash(REVOKED_KEY)), any());
+        assertThat(usedAt.getValue()).isNotNull();
+        assertThat(authenticator.getMetrics())
+            .containsEntry("lastUsedWrites", 1L)
+            .containsEntry("pendingLastUsed", 0);
+    }
+
+    @Test
+    void flushLastUsed_WhenWriteFails_ShouldContinueWithOtherKeys() {
+        // Arrange
+        authenticator.onApiKeyChanged(new ApiKeyChangedEvent(ApiKey.hash("new-api-key"), "other-user", true));
+        authenticator.authenticate(ACTIVE_KEY);
+        authenticator.authenticate("new-api-key");
+        lenient().when(apiKeyRepository.updateLastUsedAt(eq(ApiKey.hash(ACTIVE_KEY)), any()))
+            .thenThrow(new RuntimeException("Database error"));
+
+        // Act
+        authenticator.flushLastUsed();
+
+        // Assert
+        verify(apiKeyRepository, times(2)).updateLastUsedAt(anyString(), any());
+        assertThat(authenticator.getMetrics()).containsEntry("lastUsedWrites", 1L);
+    }
+
+    private static ApiKeyRepository.ApiKeyCredential credential(String keyHash, String userId, boolean active) {
+        return new ApiKeyRepository.ApiKeyCredential() {
+            @Override
+            public String getKeyHash() { return keyHash; }
+
+            @Override
+            public String getUserId() { return userId; }
+
+            @Override
+            public Boolean getIsActive() { return active; }
+        };
+    }
+}
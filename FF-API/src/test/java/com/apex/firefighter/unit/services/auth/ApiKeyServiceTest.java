@@ -4,15 +4,19 @@ import com.apex.firefighter.model.ApiKey;
 import com.apex.firefighter.model.User;
 import com.apex.firefighter.repository.ApiKeyRepository;
 import com.apex.firefighter.repository.UserRepository;
+import com.apex.firefighter.service.auth.ApiKeyChangedEvent;
 import com.apex.firefighter.service.auth.ApiKeyService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -29,6 +33,9 @@ class ApiKeyServiceTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ApiKeyService apiKeyService;
 
@@ -78,6 +85,12 @@ class ApiKeyServiceTest {
             verify(userRepository).findByUserId(USER_ID);
             verify(apiKeyRepository).save(any(ApiKey.class));
             mockedGenerator.verify(com.apex.firefighter.service.auth.ApiKeyGenerator::generateApiKey);
+
+            ArgumentCaptor<ApiKeyChangedEvent> event = ArgumentCaptor.forClass(ApiKeyChangedEvent.class);
+            verify(eventPublisher).publishEvent(event.capture());
+            assertThat(event.getValue().getKeyHash()).isEqualTo(ApiKey.hash(GENERATED_API_KEY));
+            assertThat(event.getValue().getUserId()).isEqualTo(USER_ID);
+            assertThat(event.getValue().isActive()).isTrue();
         }
     }
 
@@ -268,4 +281,59 @@ class ApiKeyServiceTest {
             mockedGenerator.verify(com.apex.firefighter.service.auth.ApiKeyGenerator::generateApiKey);
         }
     }
+
+    // ==================== REVOKE API KEY TESTS ====================
+
+    @Test
+    void revokeApiKey_WithExistingKey_ShouldDeactivateAndPublishChange() {
+        // Arrange
+        when(apiKeyRepository.findById(1L)).thenReturn(Optional.of(testApiKey));
+        when(apiKeyRepository.save(testApiKey)).thenReturn(testApiKey);
+
+        // Act
+        ApiKey result = apiKeyService.revokeApiKey(1L);
+
+        // Assert
+        assertThat(result.getIsActive()).isFalse();
+        ArgumentCaptor<ApiKeyChangedEvent> event = ArgumentCaptor.forClass(ApiKeyChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getKeyHash()).isEqualTo(ApiKey.hash(GENERATED_API_KEY));
+        assertThat(event.getValue().isActive()).isFalse();
+    }
+
+    @Test
+    void revokeApiKey_WithUnknownKey_ShouldThrowException() {
+        // Arrange
+        when(apiKeyRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertThatThrownBy(() -> apiKeyService.revokeApiKey(99L))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("API key not found: 99");
+
+        verify(apiKeyRepository, never()).save(any(ApiKey.class));
+        verifyNoInteractions(eventPublisher);
+    }
+
+    // ==================== PLAIN-TEXT KEY MIGRATION TESTS ====================
+
+    @Test
+    void hashPlaintextKeys_ShouldReplaceOnlyPlaintextKeysWithTheirDigest() {
+        // Arrange
+        ApiKey legacyKey = new ApiKey();
+        legacyKey.setKeyHash("legacy-plaintext-key");
+        legacyKey.setUser(testUser);
+        legacyKey.setIsActive(true);
+        when(apiKeyRepository.findAll()).thenReturn(List.of(legacyKey, testApiKey));
+
+        // Act
+        apiKeyService.hashPlaintextKeys();
+
+        // Assert
+        assertThat(legacyKey.getKeyHash()).isEqualTo(ApiKey.hash("legacy-plaintext-key"));
+        assertThat(testApiKey.getKeyHash()).isEqualTo(ApiKey.hash(GENERATED_API_KEY));
+        verify(apiKeyRepository).save(legacyKey);
+        verify(apiKeyRepository, never()).save(testApiKey);
+        verify(eventPublisher, times(1)).publishEvent(any(ApiKeyChangedEvent.class));
+    }
 }
@@ -0,0 +1,96 @@
+package com.apex.firefighter.unit.services.user;
+
+import com.apex.firefighter.model.User;
+import com.apex.firefighter.repository.UserRepository;
+import com.apex.firefighter.service.user.DolibarrUserDirectory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DolibarrUserDirectoryTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private DolibarrUserDirectory dolibarrUserDirectory;
+
+    private User testUser;
+
+    @BeforeEach
+    void setUp() {
+        dolibarrUserDirectory = new DolibarrUserDirectory(userRepository, 2, 60_000);
+        testUser = new User("firebase-uid", "testuser", "test@example.com", "IT");
+        testUser.setDolibarrId("123");
+    }
+
+    @Test
+    void findByDolibarrId_ShouldServeRepeatedLookupsFromCache() {
+        when(userRepository.findFirstByDolibarrId("123")).thenReturn(Optional.of(testUser));
+
+        assertThat(dolibarrUserDirectory.findByDolibarrId("123")).contains(testUser);
+        assertThat(dolibarrUserDirectory.findByDolibarrId("123")).contains(testUser);
+
+        verify(userRepository, times(1)).findFirstByDolibarrId("123");
+        verify(userRepository, never()).findAll();
+    }
+
+    @Test
+    void findByDolibarrId_WithUnknownId_ShouldNotCacheMiss() {
+        when(userRepository.findFirstByDolibarrId("999")).thenReturn(Optional.empty());
+
+        assertThat(dolibarrUserDirectory.findByDolibarrId("999")).isEmpty();
+        assertThat(dolibarrUserDirectory.findByDolibarrId("999")).isEmpty();
+
+        verify(userRepository, times(2)).findFirstByDolibarrId("999");
+        assertThat(dolibarrUserDirectory.size()).isZero();
+    }
+
+    @Test
+    void invalidate_ShouldForceFreshLookup() {
+        when(userRepository.findFirstByDolibarrId("123")).thenReturn(Optional.of(testUser));
+
+        dolibarrUserDirectory.findByDolibarrId("123");
+        dolibarrUserDirectory.invalidate("123");
+        dolibarrUserDirectory.findByDolibarrId("123");
+
+        verify(userRepository, times(2)).findFirstByDolibarrId("123");
+    }
+
+    @Test
+    void findByDolibarrId_ShouldEvictLeastRecentlyUsedEntryWhenFull() {
+        User second = new User("uid-2", "second", "second@example.com", "IT");
+        User third = new User("uid-3", "third", "third@example.com", "IT");
+        when(userRepository.findFirstByDolibarrId("123")).thenReturn(Optional.of(testUser));
+        when(userRepository.findFirstByDolibarrId("2")).thenReturn(Optional.of(second));
+        when(userRepository.findFirstByDolibarrId("3")).thenReturn(Optional.of(third));
+
+        dolibarrUserDirectory.findByDolibarrId("123");
+        dolibarrUserDirectory.findByDolibarrId("2");
+        dolibarrUserDirectory.findByDolibarrId("123");
+        dolibarrUserDirectory.findByDolibarrId("3");
+
+        assertThat(dolibarrUserDirectory.size()).isEqualTo(2);
+        dolibarrUserDirectory.findByDolibarrId("2");
+        verify(userRepository, times(2)).findFirstByDolibarrId("2");
+        verify(userRepository, times(1)).findFirstByDolibarrId("123");
+    }
+
+    @Test
+    void findByDolibarrId_WithExpiredEntry_ShouldReloadFromRepository() {
+        dolibarrUserDirectory = new DolibarrUserDirectory(userRepository, 16, 0);
+        when(userRepository.findFirstByDolibarrId("123")).thenReturn(Optional.of(testUser));
+
+        dolibarrUserDirectory.findByDolibarrId("123");
+        dolibarrUserDirectory.findByDolibarrId("123");
+
+        verify(userRepository, times(2)).findFirstByDolibarrId("123");
+    }
+}
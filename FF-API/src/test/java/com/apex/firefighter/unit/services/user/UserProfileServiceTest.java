@@ -2,6 +2,7 @@ package com.apex.firefighter.unit.services.user;
 
 import com.apex.firefighter.model.User;
 import com.apex.firefighter.repository.UserRepository;
+import com.apex.firefighter.service.user.DolibarrUserDirectory;
 import com.apex.firefighter.service.user.UserProfileService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,6 +30,9 @@ class UserProfileServiceTest {
     @Mock
     private User mockUser;
 
+    @Mock
+    private DolibarrUserDirectory dolibarrUserDirectory;
+
     @InjectMocks
     private UserProfileService userProfileService;
 
@@ -694,6 +698,8 @@ class UserProfileServiceTest {
         verify(userRepository).findByUserId(ADMIN_FIREBASE_UID);
         verify(userRepository).findByUserId(FIREBASE_UID);
         verify(userRepository).save(testUser);
+        verify(dolibarrUserDirectory).invalidate(DOLIBARR_ID);
+        verify(dolibarrUserDirectory).invalidate(newDolibarrId);
     }
 
     @Test